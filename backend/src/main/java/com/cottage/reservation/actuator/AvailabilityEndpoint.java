@@ -0,0 +1,45 @@
+package com.cottage.reservation.actuator;
+
+import com.cottage.reservation.dto.AvailabilityConsistencyReport;
+import com.cottage.reservation.service.AvailabilityConsistencyChecker;
+import com.cottage.reservation.service.AvailabilityProjector;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * /actuator/availability: GET runs the consistency check, POST rebuilds the read model from scratch.
+ * Both need the ADMIN role (see app.security.admin-usernames).
+ */
+@Component
+@Endpoint(id = "availability")
+public class AvailabilityEndpoint {
+
+    @Autowired
+    private AvailabilityProjector availabilityProjector;
+
+    @Autowired
+    private AvailabilityConsistencyChecker availabilityConsistencyChecker;
+
+    @ReadOperation
+    public AvailabilityConsistencyReport check() {
+        return availabilityConsistencyChecker.check();
+    }
+
+    @WriteOperation
+    public Map<String, Object> rebuild() {
+        long started = System.currentTimeMillis();
+        int days = availabilityProjector.rebuild();
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("roomDays", days);
+        result.put("durationMillis", System.currentTimeMillis() - started);
+        result.put("consistency", availabilityConsistencyChecker.check());
+        return result;
+    }
+}
@@ -0,0 +1,44 @@
+package com.cottage.reservation.actuator;
+
+import com.cottage.reservation.journal.JournalRecord;
+import com.cottage.reservation.journal.ReservationJournal;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * /actuator/journal shows where the audit journal is written; /actuator/journal/{reservationId}
+ * replays the recorded changes of one reservation.
+ * Both need the ADMIN role (see app.security.admin-usernames).
+ */
+@Component
+@ConditionalOnBean(ReservationJournal.class)
+@Endpoint(id = "journal")
+public class JournalEndpoint {
+
+    @Autowired
+    private ReservationJournal reservationJournal;
+
+    @ReadOperation
+    public Map<String, Object> summary() {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("directory", reservationJournal.getDirectory().toAbsolutePath().toString());
+        summary.put("nextSequence", reservationJournal.getNextSequence());
+        summary.put("segments", reservationJournal.reader().segments().stream()
+                .map(segment -> segment.getFileName().toString())
+                .toList());
+        return summary;
+    }
+
+    @ReadOperation
+    public List<JournalRecord> history(@Selector long reservationId) {
+        return reservationJournal.reader().history(reservationId);
+    }
+}
@@ -0,0 +1,38 @@
+package com.cottage.reservation.actuator;
+
+import com.cottage.reservation.trace.RequestTracer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * /actuator/latency lists the slowest recent API requests with their phase breakdown
+ * (JWT check, user lookup, repository calls, email); ?limit= overrides app.tracing.slowest.
+ * Needs the ADMIN role (see app.security.admin-usernames).
+ */
+@Component
+@Endpoint(id = "latency")
+public class LatencyEndpoint {
+
+    @Autowired
+    private RequestTracer requestTracer;
+
+    @Value("${app.tracing.slowest:20}")
+    private int defaultLimit;
+
+    @ReadOperation
+    public Map<String, Object> slowest(@Nullable Integer limit) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("sampleRate", requestTracer.getSampleRate());
+        summary.put("bufferSize", requestTracer.getBufferSize());
+        summary.put("recorded", requestTracer.getRecorded());
+        summary.put("slowest", requestTracer.slowest(limit != null && limit > 0 ? limit : defaultLimit));
+        return summary;
+    }
+}
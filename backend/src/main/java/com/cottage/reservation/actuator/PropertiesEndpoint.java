@@ -0,0 +1,52 @@
+package com.cottage.reservation.actuator;
+
+import com.cottage.reservation.service.RoomCacheService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * /actuator/properties: GET lists the room cache partition of every property,
+ * POST /{propertyId} loads one property's rooms, DELETE /{propertyId} drops them.
+ * All of them need the ADMIN role (see app.security.admin-usernames).
+ */
+@Component
+@Endpoint(id = "properties")
+public class PropertiesEndpoint {
+
+    @Autowired
+    private RoomCacheService roomCacheService;
+
+    @ReadOperation
+    public List<Map<String, Object>> partitions() {
+        return roomCacheService.getPartitionStats();
+    }
+
+    @WriteOperation
+    public Map<String, Object> warm(@Selector Long propertyId) {
+        long started = System.currentTimeMillis();
+        int rooms = roomCacheService.warm(propertyId);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("propertyId", propertyId);
+        result.put("rooms", rooms);
+        result.put("durationMillis", System.currentTimeMillis() - started);
+        return result;
+    }
+
+    @DeleteOperation
+    public Map<String, Object> evict(@Selector Long propertyId) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("propertyId", propertyId);
+        result.put("evicted", roomCacheService.evict(propertyId));
+        return result;
+    }
+}
@@ -0,0 +1,35 @@
+package com.cottage.reservation.actuator;
+
+import com.cottage.reservation.trace.QueryStatisticsCollector;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * /actuator/queries: Hibernate statements, entity loads and lazy initializations per endpoint,
+ * with the latest suspected N+1 requests and slow statements.
+ * Needs the ADMIN role (see app.security.admin-usernames).
+ */
+@Component
+@Endpoint(id = "queries")
+public class QueriesEndpoint {
+
+    @Autowired
+    private QueryStatisticsCollector collector;
+
+    @ReadOperation
+    public Map<String, Object> queries() {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("mode", collector.getMode());
+        summary.put("nPlusOneThreshold", collector.getNPlusOneThreshold());
+        summary.put("slowStatementThreshold", collector.getSlowStatementThreshold().toString());
+        summary.put("endpoints", collector.getEndpoints());
+        summary.put("suspectedNPlusOne", collector.getRecentNPlusOne());
+        summary.put("slowStatements", collector.getRecentSlowStatements());
+        return summary;
+    }
+}
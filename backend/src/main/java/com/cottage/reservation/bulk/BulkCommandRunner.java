@@ -0,0 +1,113 @@
+package com.cottage.reservation.bulk;
+
+import com.cottage.reservation.dto.ImportReport;
+import com.cottage.reservation.service.AvailabilityProjector;
+import com.cottage.reservation.service.ReservationExportService;
+import com.cottage.reservation.service.ReservationImportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.Iterator;
+
+/**
+ * Command-line mode for bulk import and export. Runs once after startup and exits:
+ * <pre>
+ * java -jar app.jar --spring.profiles.active=production,bulk --app.bulk.import=reservations.csv [--app.bulk.dry-run=true]
+ * java -jar app.jar --spring.profiles.active=production,bulk --app.bulk.export=reservations.ics [--app.bulk.start-date=2025-01-01]
+ * </pre>
+ * The format follows the file extension (.ics for iCalendar, anything else is CSV). Imported rows must name
+ * their user; the exit status is 1 if any row was rejected.
+ */
+@Component
+@ConditionalOnExpression("'${app.bulk.import:}' != '' or '${app.bulk.export:}' != ''")
+public class BulkCommandRunner implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkCommandRunner.class);
+
+    @Autowired
+    private ReservationImportService reservationImportService;
+
+    @Autowired
+    private ReservationExportService reservationExportService;
+
+    @Autowired
+    private AvailabilityProjector availabilityProjector;
+
+    @Autowired
+    private ConfigurableApplicationContext context;
+
+    @Autowired
+    private Environment environment;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        int exitCode;
+        String importFile = environment.getProperty("app.bulk.import");
+        if (importFile != null) {
+            exitCode = runImport(Paths.get(importFile), environment.getProperty("app.bulk.dry-run", Boolean.class, false));
+        } else {
+            exitCode = runExport(Paths.get(environment.getProperty("app.bulk.export")));
+        }
+        int code = exitCode;
+        System.exit(SpringApplication.exit(context, () -> code));
+    }
+
+    private int runImport(Path file, boolean dryRun) throws IOException {
+        String format = isCalendar(file) ? "ics" : "csv";
+        ImportReport report;
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            Iterator<ImportRow> rows = format.equals("ics")
+                    ? new ICalendarReservationParser(reader)
+                    : new CsvReservationParser(reader);
+            report = reservationImportService.importReservations(rows, format, null, dryRun);
+        }
+
+        // Let the availability read model catch up before the process exits
+        availabilityProjector.callSerialized(() -> null);
+
+        logger.info("Import report:\n{}", new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValueAsString(report));
+        return report.getRejected() == 0 ? 0 : 1;
+    }
+
+    private int runExport(Path file) throws IOException {
+        LocalDate startDate = dateProperty("app.bulk.start-date");
+        LocalDate endDate = dateProperty("app.bulk.end-date");
+        try (Writer writer = new BufferedWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8))) {
+            if (isCalendar(file)) {
+                reservationExportService.exportICalendar(null, startDate, endDate, writer);
+            } else {
+                reservationExportService.exportCsv(null, startDate, endDate, writer);
+            }
+        }
+        logger.info("Exported reservations to {}", file.toAbsolutePath());
+        return 0;
+    }
+
+    private LocalDate dateProperty(String name) {
+        String value = environment.getProperty(name);
+        return value == null || value.isBlank() ? null : LocalDate.parse(value);
+    }
+
+    private static boolean isCalendar(Path file) {
+        return file.getFileName().toString().toLowerCase().endsWith(".ics");
+    }
+}
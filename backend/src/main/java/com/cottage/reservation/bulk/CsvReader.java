@@ -0,0 +1,121 @@
+package com.cottage.reservation.bulk;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming RFC 4180 reader: returns one record at a time and never holds more than the current record.
+ * Handles quoted fields with embedded commas, quotes ("") and line breaks, and both LF and CRLF line ends.
+ */
+public class CsvReader implements Closeable {
+
+    private static final int MAX_FIELD_LENGTH = 10_000;
+
+    private final BufferedReader reader;
+    private long line = 1;
+    private long recordLine;
+    private boolean started;
+
+    public CsvReader(Reader reader) {
+        this.reader = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+    }
+
+    /**
+     * Reads the next non-blank record, or returns null at the end of the input.
+     * @throws IOException if the input cannot be read or a quoted field is never closed
+     */
+    public List<String> readRecord() throws IOException {
+        while (true) {
+            List<String> record = readRawRecord();
+            if (record == null) {
+                return null;
+            }
+            if (record.size() > 1 || !record.get(0).isEmpty()) {
+                return record;
+            }
+        }
+    }
+
+    /**
+     * Line on which the record last returned by readRecord started.
+     */
+    public long getRecordLine() {
+        return recordLine;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private List<String> readRawRecord() throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean inQuotes = false;
+        boolean empty = true;
+        recordLine = line;
+
+        while (true) {
+            int c = reader.read();
+            if (!started) {
+                started = true;
+                if (c == '\uFEFF') {
+                    continue;
+                }
+            }
+            if (c == -1) {
+                if (inQuotes) {
+                    throw new IOException("Quoted field starting on line " + recordLine + " is never closed");
+                }
+                if (empty) {
+                    return null;
+                }
+                fields.add(field.toString());
+                return fields;
+            }
+            empty = false;
+
+            if (inQuotes) {
+                if (c == '"') {
+                    reader.mark(1);
+                    int next = reader.read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        inQuotes = false;
+                        if (next != -1) {
+                            reader.reset();
+                        }
+                    }
+                } else {
+                    if (c == '\n') {
+                        line++;
+                    }
+                    append(field, c);
+                }
+            } else if (c == '"' && field.length() == 0) {
+                inQuotes = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                line++;
+                fields.add(field.toString());
+                return fields;
+            } else if (c != '\r') {
+                append(field, c);
+            }
+        }
+    }
+
+    private void append(StringBuilder field, int c) throws IOException {
+        if (field.length() >= MAX_FIELD_LENGTH) {
+            throw new IOException("Field on line " + recordLine + " is longer than " + MAX_FIELD_LENGTH + " characters");
+        }
+        field.append((char) c);
+    }
+}
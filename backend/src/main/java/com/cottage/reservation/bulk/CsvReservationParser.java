@@ -0,0 +1,123 @@
+package com.cottage.reservation.bulk;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Streams ImportRows from a CSV file with a header row. Column order is free and unknown columns are
+ * ignored, so a file produced by the CSV export can be imported again.
+ * <p>
+ * Columns: check_in, check_out, guests, room_id or room (name), and optionally username or email
+ * and notes. Dates are ISO (yyyy-MM-dd).
+ */
+public class CsvReservationParser implements Iterator<ImportRow> {
+
+    private final CsvReader csv;
+    private final Map<String, Integer> columns = new HashMap<>();
+    private List<String> nextRecord;
+
+    public CsvReservationParser(Reader reader) {
+        this.csv = new CsvReader(reader);
+        List<String> header = read();
+        if (header == null) {
+            throw new IllegalArgumentException("CSV input is empty");
+        }
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        requireColumn("check_in");
+        requireColumn("check_out");
+        requireColumn("guests");
+        if (!columns.containsKey("room_id") && !columns.containsKey("room")) {
+            throw new IllegalArgumentException("CSV header must contain a room_id or room column");
+        }
+        nextRecord = read();
+    }
+
+    @Override
+    public boolean hasNext() {
+        return nextRecord != null;
+    }
+
+    @Override
+    public ImportRow next() {
+        if (nextRecord == null) {
+            throw new NoSuchElementException();
+        }
+        ImportRow row = new ImportRow(csv.getRecordLine());
+        List<String> record = nextRecord;
+
+        row.setUsername(value(record, "username"));
+        row.setEmail(value(record, "email"));
+        row.setRoomName(value(record, "room"));
+        row.setNotes(value(record, "notes"));
+
+        String roomId = value(record, "room_id");
+        if (roomId != null) {
+            try {
+                row.setRoomId(Long.parseLong(roomId));
+            } catch (NumberFormatException e) {
+                row.rejectParse("Invalid room_id '" + roomId + "'");
+            }
+        }
+        row.setCheckInDate(date(row, record, "check_in"));
+        row.setCheckOutDate(date(row, record, "check_out"));
+
+        String guests = value(record, "guests");
+        if (guests != null) {
+            try {
+                row.setNumberOfGuests(Integer.parseInt(guests));
+            } catch (NumberFormatException e) {
+                row.rejectParse("Invalid guests '" + guests + "'");
+            }
+        }
+
+        nextRecord = read();
+        return row;
+    }
+
+    private void requireColumn(String name) {
+        if (!columns.containsKey(name)) {
+            throw new IllegalArgumentException("CSV header is missing the " + name + " column");
+        }
+    }
+
+    private String value(List<String> record, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private LocalDate date(ImportRow row, List<String> record, String column) {
+        String value = value(record, column);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            row.rejectParse("Invalid " + column + " date '" + value + "'");
+            return null;
+        }
+    }
+
+    private List<String> read() {
+        try {
+            return csv.readRecord();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
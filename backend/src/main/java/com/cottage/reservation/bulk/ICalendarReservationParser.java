@@ -0,0 +1,208 @@
+package com.cottage.reservation.bulk;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+
+/**
+ * Streams ImportRows from the VEVENTs of an iCalendar (RFC 5545) file, reading one unfolded content
+ * line at a time.
+ * <p>
+ * DTSTART and DTEND give the stay (only the date part is used), LOCATION or X-COTTAGE-ROOM-ID the room,
+ * X-COTTAGE-GUESTS the number of guests, DESCRIPTION the notes, and X-COTTAGE-USERNAME or a mailto:
+ * ORGANIZER/ATTENDEE the guest. Everything else, including other components, is skipped.
+ */
+public class ICalendarReservationParser implements Iterator<ImportRow> {
+
+    private final BufferedReader reader;
+    private long line;
+    private String lookahead;
+    private long lookaheadLine;
+    private long contentLineNumber;
+    private ImportRow nextRow;
+
+    public ICalendarReservationParser(Reader reader) {
+        this.reader = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+        this.nextRow = readEvent();
+    }
+
+    @Override
+    public boolean hasNext() {
+        return nextRow != null;
+    }
+
+    @Override
+    public ImportRow next() {
+        if (nextRow == null) {
+            throw new NoSuchElementException();
+        }
+        ImportRow row = nextRow;
+        nextRow = readEvent();
+        return row;
+    }
+
+    private ImportRow readEvent() {
+        ImportRow row = null;
+        boolean hasGuests = false;
+        String contentLine;
+        while ((contentLine = readContentLine()) != null) {
+            int colon = valueSeparator(contentLine);
+            if (colon < 0) {
+                continue;
+            }
+            String nameAndParams = contentLine.substring(0, colon);
+            String value = contentLine.substring(colon + 1);
+            int semicolon = nameAndParams.indexOf(';');
+            String name = (semicolon < 0 ? nameAndParams : nameAndParams.substring(0, semicolon)).toUpperCase(Locale.ROOT);
+
+            if (row == null) {
+                if (name.equals("BEGIN") && value.equalsIgnoreCase("VEVENT")) {
+                    row = new ImportRow(contentLineNumber);
+                }
+                continue;
+            }
+
+            switch (name) {
+                case "END":
+                    if (value.equalsIgnoreCase("VEVENT")) {
+                        if (!hasGuests && !row.hasParseError()) {
+                            row.setNumberOfGuests(1);
+                        }
+                        return row;
+                    }
+                    break;
+                case "DTSTART":
+                    row.setCheckInDate(date(row, name, value));
+                    break;
+                case "DTEND":
+                    row.setCheckOutDate(date(row, name, value));
+                    break;
+                case "LOCATION":
+                    row.setRoomName(unescape(value));
+                    break;
+                case "DESCRIPTION":
+                    row.setNotes(unescape(value));
+                    break;
+                case "X-COTTAGE-ROOM-ID":
+                    try {
+                        row.setRoomId(Long.parseLong(value.trim()));
+                    } catch (NumberFormatException e) {
+                        row.rejectParse("Invalid X-COTTAGE-ROOM-ID '" + value + "'");
+                    }
+                    break;
+                case "X-COTTAGE-GUESTS":
+                    hasGuests = true;
+                    try {
+                        row.setNumberOfGuests(Integer.parseInt(value.trim()));
+                    } catch (NumberFormatException e) {
+                        row.rejectParse("Invalid X-COTTAGE-GUESTS '" + value + "'");
+                    }
+                    break;
+                case "X-COTTAGE-USERNAME":
+                    row.setUsername(unescape(value).trim());
+                    break;
+                case "ORGANIZER":
+                case "ATTENDEE":
+                    if (row.getEmail() == null && value.regionMatches(true, 0, "mailto:", 0, 7)) {
+                        row.setEmail(value.substring(7).trim());
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+        if (row != null) {
+            row.rejectParse("VEVENT is never closed with END:VEVENT");
+        }
+        return row;
+    }
+
+    /**
+     * Next logical line with folded continuation lines joined, or null at the end of the input.
+     */
+    private String readContentLine() {
+        try {
+            String current = lookahead != null ? lookahead : readPhysicalLine();
+            contentLineNumber = lookahead != null ? lookaheadLine : line;
+            lookahead = null;
+            if (current == null) {
+                return null;
+            }
+            StringBuilder unfolded = null;
+            while (true) {
+                String next = readPhysicalLine();
+                if (next != null && !next.isEmpty() && (next.charAt(0) == ' ' || next.charAt(0) == '\t')) {
+                    if (unfolded == null) {
+                        unfolded = new StringBuilder(current);
+                    }
+                    unfolded.append(next, 1, next.length());
+                } else {
+                    lookahead = next;
+                    lookaheadLine = line;
+                    return unfolded == null ? current : unfolded.toString();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String readPhysicalLine() throws IOException {
+        String physical = reader.readLine();
+        if (physical != null) {
+            line++;
+            if (line == 1 && !physical.isEmpty() && physical.charAt(0) == '\uFEFF') {
+                physical = physical.substring(1);
+            }
+        }
+        return physical;
+    }
+
+    // The name/value colon is the first one outside a quoted parameter value
+    private static int valueSeparator(String contentLine) {
+        boolean quoted = false;
+        for (int i = 0; i < contentLine.length(); i++) {
+            char c = contentLine.charAt(i);
+            if (c == '"') {
+                quoted = !quoted;
+            } else if (c == ':' && !quoted) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static LocalDate date(ImportRow row, String name, String value) {
+        String trimmed = value.trim();
+        try {
+            return LocalDate.parse(trimmed.length() >= 8 ? trimmed.substring(0, 8) : trimmed, DateTimeFormatter.BASIC_ISO_DATE);
+        } catch (DateTimeParseException e) {
+            row.rejectParse("Invalid " + name + " '" + value + "'");
+            return null;
+        }
+    }
+
+    static String unescape(String text) {
+        if (text.indexOf('\\') < 0) {
+            return text;
+        }
+        StringBuilder result = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\\' && i + 1 < text.length()) {
+                char next = text.charAt(++i);
+                result.append(next == 'n' || next == 'N' ? '\n' : next);
+            } else {
+                result.append(c);
+            }
+        }
+        return result.toString();
+    }
+}
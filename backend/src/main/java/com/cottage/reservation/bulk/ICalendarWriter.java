@@ -0,0 +1,112 @@
+package com.cottage.reservation.bulk;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Writes iCalendar (RFC 5545) content lines: CRLF line ends, text values escaped, and lines folded
+ * at 75 octets without splitting a UTF-8 character.
+ */
+public class ICalendarWriter {
+
+    private static final int MAX_LINE_OCTETS = 75;
+    private static final DateTimeFormatter UTC_TIMESTAMP =
+            DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC);
+
+    private final Writer writer;
+
+    public ICalendarWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    public void beginCalendar(String productId, String calendarName) throws IOException {
+        property("BEGIN", "VCALENDAR");
+        property("VERSION", "2.0");
+        property("PRODID", productId);
+        property("CALSCALE", "GREGORIAN");
+        if (calendarName != null) {
+            text("X-WR-CALNAME", calendarName);
+        }
+    }
+
+    public void endCalendar() throws IOException {
+        property("END", "VCALENDAR");
+    }
+
+    public void beginEvent(String uid, Instant stamp) throws IOException {
+        property("BEGIN", "VEVENT");
+        property("UID", uid);
+        property("DTSTAMP", UTC_TIMESTAMP.format(stamp));
+    }
+
+    public void endEvent() throws IOException {
+        property("END", "VEVENT");
+    }
+
+    /**
+     * All-day stay: DTEND is the check-out date, which iCalendar treats as exclusive.
+     */
+    public void dates(LocalDate start, LocalDate end) throws IOException {
+        property("DTSTART;VALUE=DATE", start.format(DateTimeFormatter.BASIC_ISO_DATE));
+        property("DTEND;VALUE=DATE", end.format(DateTimeFormatter.BASIC_ISO_DATE));
+    }
+
+    public void text(String name, String value) throws IOException {
+        if (value != null) {
+            property(name, escape(value));
+        }
+    }
+
+    /**
+     * Writes a property whose value is already in iCalendar syntax (not escaped).
+     */
+    public void property(String name, String value) throws IOException {
+        String contentLine = name + ":" + value;
+        int octets = 0;
+        for (int i = 0; i < contentLine.length(); ) {
+            int codePoint = contentLine.codePointAt(i);
+            int length = utf8Length(codePoint);
+            if (octets + length > MAX_LINE_OCTETS) {
+                writer.write("\r\n ");
+                octets = 1;
+            }
+            writer.write(Character.toChars(codePoint));
+            octets += length;
+            i += Character.charCount(codePoint);
+        }
+        writer.write("\r\n");
+    }
+
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    static String escape(String text) {
+        StringBuilder escaped = new StringBuilder(text.length() + 8);
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\\' || c == ';' || c == ',') {
+                escaped.append('\\').append(c);
+            } else if (c == '\n') {
+                escaped.append("\\n");
+            } else if (c != '\r') {
+                escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+
+    private static int utf8Length(int codePoint) {
+        if (codePoint < 0x80) {
+            return 1;
+        }
+        if (codePoint < 0x800) {
+            return 2;
+        }
+        return codePoint < 0x10000 ? 3 : 4;
+    }
+}
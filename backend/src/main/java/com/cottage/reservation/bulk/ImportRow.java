@@ -0,0 +1,110 @@
+package com.cottage.reservation.bulk;
+
+import java.time.LocalDate;
+
+/**
+ * One reservation read from an import file, before validation.
+ * Parsers never throw for a bad row; they set a parse error and let the import report it.
+ */
+public class ImportRow {
+    private final long lineNumber;
+    private String username;
+    private String email;
+    private Long roomId;
+    private String roomName;
+    private LocalDate checkInDate;
+    private LocalDate checkOutDate;
+    private Integer numberOfGuests;
+    private String notes;
+    private String parseError;
+
+    public ImportRow(long lineNumber) {
+        this.lineNumber = lineNumber;
+    }
+
+    /**
+     * Records the first problem found while parsing; later ones are usually consequences of it.
+     */
+    public void rejectParse(String message) {
+        if (parseError == null) {
+            parseError = message;
+        }
+    }
+
+    public boolean hasParseError() {
+        return parseError != null;
+    }
+
+    // Getters and Setters
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public Long getRoomId() {
+        return roomId;
+    }
+
+    public void setRoomId(Long roomId) {
+        this.roomId = roomId;
+    }
+
+    public String getRoomName() {
+        return roomName;
+    }
+
+    public void setRoomName(String roomName) {
+        this.roomName = roomName;
+    }
+
+    public LocalDate getCheckInDate() {
+        return checkInDate;
+    }
+
+    public void setCheckInDate(LocalDate checkInDate) {
+        this.checkInDate = checkInDate;
+    }
+
+    public LocalDate getCheckOutDate() {
+        return checkOutDate;
+    }
+
+    public void setCheckOutDate(LocalDate checkOutDate) {
+        this.checkOutDate = checkOutDate;
+    }
+
+    public Integer getNumberOfGuests() {
+        return numberOfGuests;
+    }
+
+    public void setNumberOfGuests(Integer numberOfGuests) {
+        this.numberOfGuests = numberOfGuests;
+    }
+
+    public String getNotes() {
+        return notes;
+    }
+
+    public void setNotes(String notes) {
+        this.notes = notes;
+    }
+
+    public String getParseError() {
+        return parseError;
+    }
+}
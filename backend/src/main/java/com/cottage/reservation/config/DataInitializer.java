@@ -1,8 +1,10 @@
 package com.cottage.reservation.config;
 
+import com.cottage.reservation.entity.Property;
 import com.cottage.reservation.entity.Room;
-import com.cottage.reservation.repository.RoomRepository;
+import com.cottage.reservation.repository.PropertyRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
 
@@ -12,12 +14,26 @@ import java.math.BigDecimal;
 public class DataInitializer implements CommandLineRunner {
 
     @Autowired
-    private RoomRepository roomRepository;
+    private PropertyRepository propertyRepository;
+
+    // Checked here rather than as a bean condition, so it can still be switched off in an AOT-processed build
+    @Value("${app.rooms.seed-on-startup:true}")
+    private boolean seedOnStartup;
 
     @Override
     public void run(String... args) throws Exception {
-        // Initialize rooms if they don't exist
-        if (roomRepository.count() == 0) {
+        if (!seedOnStartup) {
+            return;
+        }
+
+        // Initialize the original cottage and its rooms if no property exists
+        if (propertyRepository.count() == 0) {
+            Property cottage = new Property(
+                    "ReserveEase Cottage",
+                    "Three-bedroom lakeside cottage with full kitchen, living room, and outdoor deck.",
+                    null
+            );
+
             Room bedroom1 = new Room(
                     "Bedroom 1",
                     "Cozy bedroom with queen bed and garden view. Perfect for couples.",
@@ -50,12 +66,13 @@ public class DataInitializer implements CommandLineRunner {
                     Room.RoomType.ENTIRE_COTTAGE
             );
 
-            roomRepository.save(bedroom1);
-            roomRepository.save(bedroom2);
-            roomRepository.save(bedroom3);
-            roomRepository.save(entireCottage);
+            cottage.addRoom(bedroom1);
+            cottage.addRoom(bedroom2);
+            cottage.addRoom(bedroom3);
+            cottage.addRoom(entireCottage);
+            propertyRepository.save(cottage);
 
-            System.out.println("Initial room data loaded successfully!");
+            System.out.println("Initial property and room data loaded successfully!");
         }
     }
 }
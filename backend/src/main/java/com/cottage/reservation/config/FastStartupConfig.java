@@ -0,0 +1,139 @@
+package com.cottage.reservation.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aot.AotDetector;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationAotProcessor;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Startup-optimized launch mode (fast-startup profile, see application-fast-startup.properties).
+ * <p>
+ * Beans named in app.startup.lazy-beans are created on first use instead of during startup; their
+ * injection points must be {@code @Lazy} as well, or the first eager dependent creates them anyway.
+ * With app.startup.training-run the application calls its own /api/rooms once it is ready and exits:
+ * the build runs it that way under -XX:ArchiveClassesAtExit to record the class-data-sharing archive
+ * for everything loaded up to the first served request.
+ * <p>
+ * Spring AOT evaluates {@code @ConditionalOnProperty} once, when the build processes the bean definitions:
+ * the switches in {@link #FROZEN_CONDITIONS} keep their build-time values in an AOT-processed launch. The
+ * build records those values, and an AOT launch whose environment disagrees fails at startup instead of
+ * silently running with the build's choice.
+ */
+@Configuration
+public class FastStartupConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(FastStartupConfig.class);
+
+    private static final String FROZEN_CONDITIONS_RESOURCE = "META-INF/cottage/aot-conditions.properties";
+
+    // Properties behind @ConditionalOnProperty on application beans, with the value that applies when they are unset
+    static final Map<String, Boolean> FROZEN_CONDITIONS = new LinkedHashMap<>();
+
+    static {
+        FROZEN_CONDITIONS.put("app.datasource.replica.enabled", false);
+        FROZEN_CONDITIONS.put("app.threads.virtual.enabled", false);
+        FROZEN_CONDITIONS.put("app.jfr.recording.enabled", false);
+        FROZEN_CONDITIONS.put("app.query-stats.enabled", true);
+        FROZEN_CONDITIONS.put("app.tracing.enabled", true);
+        FROZEN_CONDITIONS.put("app.journal.enabled", true);
+        FROZEN_CONDITIONS.put("app.reservations.lifecycle.enabled", true);
+        FROZEN_CONDITIONS.put("app.reservations.archive.enabled", true);
+    }
+
+    // Static so it runs before any other bean is instantiated; with Spring AOT the flags are applied at build time
+    @Bean
+    public static BeanFactoryPostProcessor lazyStartupBeans(Environment environment) {
+        String[] names = environment.getProperty("app.startup.lazy-beans", String[].class, new String[0]);
+        return beanFactory -> {
+            for (String name : names) {
+                if (beanFactory.containsBeanDefinition(name.trim())) {
+                    beanFactory.getBeanDefinition(name.trim()).setLazyInit(true);
+                }
+            }
+        };
+    }
+
+    // Runs during process-aot and writes the condition values into the AOT output
+    @Bean
+    public static BeanFactoryInitializationAotProcessor recordFrozenConditions(Environment environment) {
+        return beanFactory -> (generationContext, beanFactoryInitializationCode) -> {
+            StringBuilder values = new StringBuilder();
+            FROZEN_CONDITIONS.keySet().forEach(name ->
+                    values.append(name).append('=').append(conditionValue(environment, name)).append('\n'));
+            generationContext.getGeneratedFiles().addResourceFile(FROZEN_CONDITIONS_RESOURCE, values);
+        };
+    }
+
+    @Bean
+    public static BeanFactoryPostProcessor checkFrozenConditions(Environment environment) {
+        return beanFactory -> {
+            if (!AotDetector.useGeneratedArtifacts()) {
+                return;
+            }
+            Properties frozen = new Properties();
+            try (InputStream in = FastStartupConfig.class.getClassLoader().getResourceAsStream(FROZEN_CONDITIONS_RESOURCE)) {
+                if (in == null) {
+                    return;
+                }
+                frozen.load(in);
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not read " + FROZEN_CONDITIONS_RESOURCE, e);
+            }
+            List<String> changed = new ArrayList<>();
+            for (String name : FROZEN_CONDITIONS.keySet()) {
+                String built = frozen.getProperty(name);
+                boolean current = conditionValue(environment, name);
+                if (built != null && Boolean.parseBoolean(built) != current) {
+                    changed.add(name + "=" + current + " (built with " + built + ")");
+                }
+            }
+            if (!changed.isEmpty()) {
+                throw new IllegalStateException("These settings were fixed when the AOT bean definitions were built and cannot"
+                        + " change at runtime: " + String.join(", ", changed) + ". Rebuild with mvn -Pfast-startup in the"
+                        + " target environment, or start without -Dspring.aot.enabled=true");
+            }
+        };
+    }
+
+    private static boolean conditionValue(Environment environment, String name) {
+        return Boolean.parseBoolean(environment.getProperty(name, String.valueOf(FROZEN_CONDITIONS.get(name))));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void trainingRun(ApplicationReadyEvent event) throws IOException, InterruptedException {
+        ConfigurableApplicationContext context = event.getApplicationContext();
+        Environment environment = context.getEnvironment();
+        if (!environment.getProperty("app.startup.training-run", Boolean.class, false)) {
+            return;
+        }
+        URI rooms = URI.create("http://localhost:" + environment.getProperty("local.server.port")
+                + environment.getProperty("server.servlet.context-path", "") + "/api/rooms");
+        HttpResponse<String> response = HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder(rooms).timeout(Duration.ofSeconds(30)).build(),
+                HttpResponse.BodyHandlers.ofString());
+        logger.info("Training run: GET {} returned {}; exiting", rooms, response.statusCode());
+        int exitCode = SpringApplication.exit(context, () -> response.statusCode() == 200 ? 0 : 1);
+        System.exit(exitCode);
+    }
+}
@@ -0,0 +1,63 @@
+package com.cottage.reservation.config;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Continuous flight recording with the application events (app.jfr.recording.enabled).
+ * <p>
+ * Uses the JDK profile named by app.jfr.recording.profile plus the bundled jfr/cottage.jfc, keeps at most
+ * max-age / max-size of data, and writes it to app.jfr.recording.file when the application stops.
+ * A recording can be dumped at any time with {@code jcmd <pid> JFR.dump name=cottage filename=...}.
+ */
+@org.springframework.context.annotation.Configuration
+@ConditionalOnProperty(prefix = "app.jfr.recording", name = "enabled", havingValue = "true")
+public class JfrRecordingConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(JfrRecordingConfig.class);
+
+    static final String APPLICATION_SETTINGS = "jfr/cottage.jfc";
+
+    @Bean(destroyMethod = "stop")
+    public Recording applicationRecording(@Value("${app.jfr.recording.profile:default}") String profile,
+                                          @Value("${app.jfr.recording.file:data/jfr/cottage.jfr}") String file,
+                                          @Value("${app.jfr.recording.max-age:6h}") Duration maxAge,
+                                          @Value("${app.jfr.recording.max-size:268435456}") long maxSize)
+            throws IOException, ParseException {
+        Map<String, String> settings = new HashMap<>(Configuration.getConfiguration(profile).getSettings());
+        try (Reader reader = new InputStreamReader(new ClassPathResource(APPLICATION_SETTINGS).getInputStream(), StandardCharsets.UTF_8)) {
+            settings.putAll(Configuration.create(reader).getSettings());
+        }
+
+        Path destination = Paths.get(file).toAbsolutePath();
+        Files.createDirectories(destination.getParent());
+
+        Recording recording = new Recording(settings);
+        recording.setName("cottage");
+        recording.setToDisk(true);
+        recording.setMaxAge(maxAge);
+        recording.setMaxSize(maxSize);
+        recording.setDestination(destination);
+        recording.start();
+        logger.info("Flight recording started ({} + {}), written to {} on shutdown", profile, APPLICATION_SETTINGS, destination);
+        return recording;
+    }
+}
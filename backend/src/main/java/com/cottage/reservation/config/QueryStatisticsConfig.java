@@ -0,0 +1,63 @@
+package com.cottage.reservation.config;
+
+import com.cottage.reservation.trace.QueryLoadListener;
+import com.cottage.reservation.trace.QueryStatisticsCollector;
+import com.cottage.reservation.trace.QueryStatisticsFilter;
+import com.cottage.reservation.trace.QueryTimingListener;
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * Wires {@link QueryStatisticsCollector} into Hibernate (statement inspector, session event listener,
+ * load listeners) and around every API request (app.query-stats.enabled).
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.query-stats", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class QueryStatisticsConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer queryStatisticsHibernateCustomizer(QueryStatisticsCollector collector) {
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, collector);
+            properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, QueryTimingListener.class.getName());
+            properties.put("hibernate.integrator_provider", (IntegratorProvider) () -> List.of(new Integrator() {
+                @Override
+                public void integrate(Metadata metadata, BootstrapContext bootstrapContext, SessionFactoryImplementor sessionFactory) {
+                    QueryLoadListener listener = new QueryLoadListener();
+                    EventListenerRegistry registry = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+                    registry.appendListeners(EventType.POST_LOAD, listener);
+                    registry.appendListeners(EventType.LOAD, listener);
+                    registry.appendListeners(EventType.INIT_COLLECTION, listener);
+                }
+
+                @Override
+                public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+                }
+            }));
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<QueryStatisticsFilter> queryStatisticsFilter(QueryStatisticsCollector collector) {
+        FilterRegistrationBean<QueryStatisticsFilter> registrationBean = new FilterRegistrationBean<>(new QueryStatisticsFilter(collector));
+        registrationBean.addUrlPatterns("/api/*");
+        registrationBean.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 2);
+        registrationBean.setName("queryStatisticsFilter");
+        return registrationBean;
+    }
+}
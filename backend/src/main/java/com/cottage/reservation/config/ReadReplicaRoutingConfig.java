@@ -0,0 +1,91 @@
+package com.cottage.reservation.config;
+
+import com.cottage.reservation.datasource.DataSourceRole;
+import com.cottage.reservation.datasource.LocalReplicaSimulator;
+import com.cottage.reservation.datasource.ReadWriteRoutingDataSource;
+import com.cottage.reservation.datasource.ReadYourWritesTracker;
+import com.cottage.reservation.datasource.ReplicaLagMonitor;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Splits traffic between the primary database and a read replica.
+ * Enabled with app.datasource.replica.enabled=true; the replica connection is configured under
+ * app.datasource.replica.* with the same keys as spring.datasource.*.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.datasource.replica", name = "enabled", havingValue = "true")
+public class ReadReplicaRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean(autowireCandidate = false)
+    @ConfigurationProperties("app.datasource.replica")
+    public DataSourceProperties replicaDataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    @Bean
+    @ConfigurationProperties("app.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource() {
+        HikariDataSource dataSource = replicaDataSourceProperties().initializeDataSourceBuilder()
+                .type(HikariDataSource.class).build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                               @Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                               @Value("${app.datasource.replica.max-lag:2s}") Duration maxLag) {
+        return new ReplicaLagMonitor(primaryDataSource, replicaDataSource, maxLag);
+    }
+
+    @Bean
+    public ReadWriteRoutingDataSource readWriteRoutingDataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                                                 @Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                                                 ReplicaLagMonitor replicaLagMonitor,
+                                                                 ReadYourWritesTracker readYourWritesTracker) {
+        ReadWriteRoutingDataSource routingDataSource = new ReadWriteRoutingDataSource(replicaLagMonitor, readYourWritesTracker);
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(DataSourceRole.PRIMARY, primaryDataSource);
+        targets.put(DataSourceRole.REPLICA, replicaDataSource);
+        routingDataSource.setTargetDataSources(targets);
+        routingDataSource.setDefaultTargetDataSource(primaryDataSource);
+        return routingDataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource readWriteRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(readWriteRoutingDataSource);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.datasource.replica", name = "simulated-replication-interval")
+    public LocalReplicaSimulator localReplicaSimulator(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                                       @Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                                       ReplicaLagMonitor replicaLagMonitor) {
+        return new LocalReplicaSimulator(primaryDataSource, replicaDataSource, replicaLagMonitor);
+    }
+}
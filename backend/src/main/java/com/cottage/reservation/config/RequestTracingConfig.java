@@ -0,0 +1,57 @@
+package com.cottage.reservation.config;
+
+import com.cottage.reservation.trace.RequestTraceFilter;
+import com.cottage.reservation.trace.RequestTracer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+/**
+ * Per-request phase timings (app.tracing.enabled). The trace filter runs before Spring Security so the
+ * JWT check is part of the request, and every Spring Data repository method becomes a phase.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.tracing", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class RequestTracingConfig {
+
+    @Bean
+    public FilterRegistrationBean<RequestTraceFilter> requestTraceFilter(RequestTracer requestTracer) {
+        FilterRegistrationBean<RequestTraceFilter> registrationBean = new FilterRegistrationBean<>(new RequestTraceFilter(requestTracer));
+        registrationBean.addUrlPatterns("/api/*");
+        registrationBean.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 1);
+        registrationBean.setName("requestTraceFilter");
+        return registrationBean;
+    }
+
+    @Bean
+    public static BeanPostProcessor repositoryPhaseRecorder(ObjectProvider<RequestTracer> requestTracer) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                // Must be added before the factory bean creates the repository proxy
+                if (bean instanceof RepositoryFactoryBeanSupport) {
+                    ((RepositoryFactoryBeanSupport<?, ?, ?>) bean).addRepositoryFactoryCustomizer(factory ->
+                            factory.addRepositoryProxyPostProcessor((proxyFactory, repositoryInformation) -> {
+                                String repository = repositoryInformation.getRepositoryInterface().getSimpleName();
+                                RequestTracer tracer = requestTracer.getObject();
+                                proxyFactory.addAdvice((MethodInterceptor) invocation -> {
+                                    if (!tracer.isTracing()) {
+                                        return invocation.proceed();
+                                    }
+                                    try (RequestTracer.Span phase = tracer.phase(repository + "." + invocation.getMethod().getName())) {
+                                        return invocation.proceed();
+                                    }
+                                });
+                            }));
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -12,6 +12,9 @@ import jakarta.servlet.ServletResponse;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.io.IOException;
 import java.util.regex.Pattern;
 
@@ -73,7 +76,7 @@ public class SecurityEnhancementConfig implements WebMvcConfigurer {
             }
         });
         
-        registrationBean.setUrlPatterns("/*");
+        registrationBean.addUrlPatterns("/*");
         registrationBean.setOrder(1);
         registrationBean.setName("sqlInjectionFilter");
         
@@ -107,18 +110,29 @@ public class SecurityEnhancementConfig implements WebMvcConfigurer {
             }
         });
         
-        registrationBean.setUrlPatterns("/*");
+        registrationBean.addUrlPatterns("/*");
         registrationBean.setOrder(2);
         registrationBean.setName("securityHeadersFilter");
         
         return registrationBean;
     }
     
+    /**
+     * Key the rate limit counts a client's requests under, also used to cap its availability streams
+     */
+    public static String clientKey(HttpServletRequest request) {
+        String xfHeader = request.getHeader("X-Forwarded-For");
+        if (xfHeader == null) {
+            return request.getRemoteAddr();
+        }
+        return xfHeader.split(",")[0];
+    }
+    
     /**
      * Rate Limiting Filter (basic implementation)
      */
     @Bean
-    public FilterRegistrationBean<Filter> rateLimitFilter() {
+    public FilterRegistrationBean<Filter> rateLimitFilter(MeterRegistry meterRegistry) {
         FilterRegistrationBean<Filter> registrationBean = new FilterRegistrationBean<>();
         
         registrationBean.setFilter(new Filter() {
@@ -126,6 +140,21 @@ public class SecurityEnhancementConfig implements WebMvcConfigurer {
             private final java.util.Map<String, Long> requestTimes = new java.util.concurrent.ConcurrentHashMap<>();
             private static final int MAX_REQUESTS_PER_MINUTE = 100;
             
+            private final Counter allowed = Counter.builder("rate_limit.requests")
+                    .tag("result", "allowed")
+                    .description("API requests passed or rejected by the per-client rate limit")
+                    .register(meterRegistry);
+            private final Counter rejected = Counter.builder("rate_limit.requests")
+                    .tag("result", "rejected")
+                    .description("API requests passed or rejected by the per-client rate limit")
+                    .register(meterRegistry);
+            
+            {
+                Gauge.builder("rate_limit.clients", requestCounts, java.util.Map::size)
+                        .description("Clients seen by the rate limit in the last minute")
+                        .register(meterRegistry);
+            }
+            
             @Override
             public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
                     throws IOException, ServletException {
@@ -133,7 +162,7 @@ public class SecurityEnhancementConfig implements WebMvcConfigurer {
                 HttpServletRequest httpRequest = (HttpServletRequest) request;
                 HttpServletResponse httpResponse = (HttpServletResponse) response;
                 
-                String clientIP = getClientIP(httpRequest);
+                String clientIP = clientKey(httpRequest);
                 long currentTime = System.currentTimeMillis();
                 
                 // Clean old entries
@@ -142,6 +171,7 @@ public class SecurityEnhancementConfig implements WebMvcConfigurer {
                 // Check rate limit
                 Long requestCount = requestCounts.get(clientIP);
                 if (requestCount != null && requestCount > MAX_REQUESTS_PER_MINUTE) {
+                    rejected.increment();
                     httpResponse.setStatus(429); // Too Many Requests
                     httpResponse.getWriter().write("Rate limit exceeded");
                     return;
@@ -150,18 +180,11 @@ public class SecurityEnhancementConfig implements WebMvcConfigurer {
                 // Update counters
                 requestCounts.put(clientIP, requestCount == null ? 1 : requestCount + 1);
                 requestTimes.put(clientIP, currentTime);
+                allowed.increment();
                 
                 chain.doFilter(request, response);
             }
             
-            private String getClientIP(HttpServletRequest request) {
-                String xfHeader = request.getHeader("X-Forwarded-For");
-                if (xfHeader == null) {
-                    return request.getRemoteAddr();
-                }
-                return xfHeader.split(",")[0];
-            }
-            
             private void cleanOldEntries(long currentTime) {
                 requestTimes.entrySet().removeIf(entry -> {
                     boolean isOld = currentTime - entry.getValue() > 60000; // 1 minute
@@ -173,7 +196,7 @@ public class SecurityEnhancementConfig implements WebMvcConfigurer {
             }
         });
         
-        registrationBean.setUrlPatterns("/api/*");
+        registrationBean.addUrlPatterns("/api/*");
         registrationBean.setOrder(3);
         registrationBean.setName("rateLimitFilter");
         
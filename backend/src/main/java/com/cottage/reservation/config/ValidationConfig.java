@@ -1,17 +1,50 @@
 package com.cottage.reservation.config;
 
+import com.cottage.reservation.dto.LoginRequest;
+import com.cottage.reservation.dto.ReservationRequest;
+import com.cottage.reservation.dto.SignUpRequest;
+import com.cottage.reservation.validation.ValidationPipeline;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.Errors;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 import jakarta.validation.Validator;
 import jakarta.validation.ValidatorFactory;
 import jakarta.validation.Validation;
+import java.util.List;
 
 @Configuration
-public class ValidationConfig {
+public class ValidationConfig implements WebMvcConfigurer {
     
     @Bean
     public Validator validator() {
         ValidatorFactory factory = Validation.buildDefaultValidatorFactory();
         return factory.getValidator();
     }
+
+    @Bean
+    public ValidationPipeline validationPipeline() {
+        // Request bodies whose constraints are compiled at startup
+        return new ValidationPipeline(validator(),
+                List.of(ReservationRequest.class, SignUpRequest.class, LoginRequest.class));
+    }
+
+    /**
+     * @Valid request bodies go through the same pipeline, so services can skip re-validating them.
+     */
+    @Override
+    public org.springframework.validation.Validator getValidator() {
+        ValidationPipeline pipeline = validationPipeline();
+        return new org.springframework.validation.Validator() {
+            @Override
+            public boolean supports(Class<?> clazz) {
+                return true;
+            }
+
+            @Override
+            public void validate(Object target, Errors errors) {
+                pipeline.validate(target, errors);
+            }
+        };
+    }
 }
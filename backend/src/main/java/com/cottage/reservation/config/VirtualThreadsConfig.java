@@ -0,0 +1,208 @@
+package com.cottage.reservation.config;
+
+import com.cottage.reservation.datasource.ConnectionLimitingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs request handling on virtual threads (app.threads.virtual.enabled=true, needs Java 21).
+ * <p>
+ * Tomcat hands every request to a new virtual thread, so a slow database or SMTP server no longer
+ * exhausts a fixed worker pool. The JDBC driver and JavaMail block inside synchronized methods,
+ * which pins the carrier thread for the whole call, so this mode also:
+ * <ul>
+ *   <li>caps concurrent connection use at the pool size ({@link ConnectionLimitingDataSource}) and
+ *   concurrent SMTP sends at app.threads.virtual.max-concurrent-mail;</li>
+ *   <li>sizes the carrier pool above those caps, so pinned calls cannot occupy every carrier;</li>
+ *   <li>reports pinning from the jdk.VirtualThreadPinned JFR event as jvm.threads.virtual.pinned.</li>
+ * </ul>
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.threads.virtual", name = "enabled", havingValue = "true")
+public class VirtualThreadsConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadsConfig.class);
+
+    private static final int DEFAULT_HIKARI_POOL_SIZE = 10;
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService virtualThreadExecutor(Environment environment) {
+        sizeCarrierPool(environment);
+        return newVirtualThreadPerTaskExecutor("http-vt-");
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer(ExecutorService virtualThreadExecutor) {
+        return protocolHandler -> protocolHandler.setExecutor(virtualThreadExecutor);
+    }
+
+    @Bean
+    public static BeanPostProcessor virtualThreadResourceLimiter(Environment environment) {
+        int maxWaiting = environment.getProperty("app.threads.virtual.max-connection-waiters", Integer.class, 1000);
+        int maxConcurrentMail = environment.getProperty("app.threads.virtual.max-concurrent-mail", Integer.class, 10);
+        Duration mailWait = environment.getProperty("app.threads.virtual.mail-wait-timeout", Duration.class, Duration.ofSeconds(30));
+
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource) {
+                    HikariDataSource pool = (HikariDataSource) bean;
+                    String poolName = pool.getPoolName() != null ? pool.getPoolName() : beanName;
+                    // Hikari only applies its default size when the pool starts, which has not happened yet
+                    int poolSize = pool.getMaximumPoolSize() > 0 ? pool.getMaximumPoolSize()
+                            : Math.max(DEFAULT_HIKARI_POOL_SIZE, pool.getMinimumIdle());
+                    return new ConnectionLimitingDataSource(pool, poolName, poolSize, maxWaiting,
+                            Duration.ofMillis(pool.getConnectionTimeout()));
+                }
+                if (bean instanceof JavaMailSenderImpl && !(bean instanceof ConcurrencyLimitedMailSender)) {
+                    return new ConcurrencyLimitedMailSender((JavaMailSenderImpl) bean, maxConcurrentMail, mailWait);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean(destroyMethod = "close")
+    public RecordingStream virtualThreadPinningMonitor(Environment environment, MeterRegistry meterRegistry) {
+        Duration threshold = environment.getProperty("app.threads.virtual.pinned-threshold", Duration.class, Duration.ofMillis(20));
+        Counter pinned = Counter.builder("jvm.threads.virtual.pinned")
+                .description("Virtual threads that blocked while pinned to their carrier for longer than the threshold")
+                .register(meterRegistry);
+        Set<String> reportedFrames = ConcurrentHashMap.newKeySet();
+
+        RecordingStream pinningEvents = new RecordingStream();
+        pinningEvents.enable("jdk.VirtualThreadPinned").withThreshold(threshold).withStackTrace();
+        pinningEvents.onEvent("jdk.VirtualThreadPinned", event -> {
+            pinned.increment();
+            String frame = firstApplicationFrame(event);
+            // Each pinning site is logged once; the counter keeps the totals
+            if (reportedFrames.size() < 100 && reportedFrames.add(frame)) {
+                logger.warn("Virtual thread pinned for {}ms at {}", event.getDuration().toMillis(), frame);
+            }
+        });
+        pinningEvents.startAsync();
+        return pinningEvents;
+    }
+
+    /**
+     * Carriers stuck in pinned JDBC or SMTP calls must leave room for everything else; the JDK sizes
+     * the scheduler once, on the first virtual thread, so this has to run before that.
+     */
+    private static void sizeCarrierPool(Environment environment) {
+        int pinnable = environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, DEFAULT_HIKARI_POOL_SIZE)
+                + environment.getProperty("app.threads.virtual.max-concurrent-mail", Integer.class, 10);
+        if (environment.getProperty("app.datasource.replica.enabled", Boolean.class, false)) {
+            pinnable += environment.getProperty("app.datasource.replica.hikari.maximum-pool-size", Integer.class, DEFAULT_HIKARI_POOL_SIZE);
+        }
+        int parallelism = Runtime.getRuntime().availableProcessors() + pinnable;
+
+        if (System.getProperty("jdk.virtualThreadScheduler.parallelism") == null) {
+            System.setProperty("jdk.virtualThreadScheduler.parallelism", Integer.toString(parallelism));
+        }
+        if (System.getProperty("jdk.virtualThreadScheduler.maxPoolSize") == null) {
+            System.setProperty("jdk.virtualThreadScheduler.maxPoolSize", Integer.toString(Math.max(256, parallelism)));
+        }
+        logger.info("Virtual threads enabled: {} carrier threads for up to {} pinned JDBC/SMTP calls",
+                System.getProperty("jdk.virtualThreadScheduler.parallelism"), pinnable);
+    }
+
+    // Reflective so the application still compiles for Java 17; fails at startup on an older runtime
+    static ExecutorService newVirtualThreadPerTaskExecutor(String namePrefix) {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder$OfVirtual");
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, namePrefix, 0L);
+            ThreadFactory factory = (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+            return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                    .invoke(null, factory);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("app.threads.virtual.enabled needs Java 21 or later, running on "
+                    + System.getProperty("java.version"), e);
+        }
+    }
+
+    private static String firstApplicationFrame(RecordedEvent event) {
+        if (event.getStackTrace() == null) {
+            return "unknown";
+        }
+        RecordedFrame first = null;
+        for (RecordedFrame frame : event.getStackTrace().getFrames()) {
+            if (!frame.isJavaFrame()) {
+                continue;
+            }
+            if (first == null) {
+                first = frame;
+            }
+            String type = frame.getMethod().getType().getName();
+            if (!type.startsWith("java.") && !type.startsWith("jdk.") && !type.startsWith("sun.")) {
+                return type + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+            }
+        }
+        return first == null ? "unknown"
+                : first.getMethod().getType().getName() + "." + first.getMethod().getName() + ":" + first.getLineNumber();
+    }
+
+    /**
+     * Bounds concurrent sends: JavaMail holds the transport monitor, and so pins the carrier, for the
+     * whole SMTP conversation. A subclass rather than a wrapper, so mail health checks still find it.
+     */
+    static final class ConcurrencyLimitedMailSender extends JavaMailSenderImpl {
+        private final Semaphore permits;
+        private final long waitNanos;
+
+        ConcurrencyLimitedMailSender(JavaMailSenderImpl source, int maxConcurrent, Duration wait) {
+            setHost(source.getHost());
+            setPort(source.getPort());
+            setProtocol(source.getProtocol());
+            setUsername(source.getUsername());
+            setPassword(source.getPassword());
+            setDefaultEncoding(source.getDefaultEncoding());
+            setDefaultFileTypeMap(source.getDefaultFileTypeMap());
+            setJavaMailProperties(source.getJavaMailProperties());
+            this.permits = new Semaphore(maxConcurrent, true);
+            this.waitNanos = wait.toNanos();
+        }
+
+        @Override
+        protected void doSend(MimeMessage[] mimeMessages, Object[] originalMessages) throws MailException {
+            try {
+                if (!permits.tryAcquire(waitNanos, TimeUnit.NANOSECONDS)) {
+                    throw new MailSendException("Timed out waiting for a free SMTP connection");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new MailSendException("Interrupted while waiting for a free SMTP connection", e);
+            }
+            try {
+                super.doSend(mimeMessages, originalMessages);
+            } finally {
+                permits.release();
+            }
+        }
+    }
+}
@@ -34,6 +34,9 @@ public class WebSecurityConfig {
     @Value("${app.cors.allowed-origins}")
     private String allowedOrigins;
 
+    @Value("${app.metrics.prometheus.public:false}")
+    private boolean prometheusPublic;
+
     @Bean
     public AuthTokenFilter authenticationJwtTokenFilter() {
         return new AuthTokenFilter();
@@ -59,12 +62,27 @@ public class WebSecurityConfig {
 
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+        if (prometheusPublic) {
+            // Lets a local Prometheus scrape without a token
+            http.authorizeHttpRequests(authz -> authz.requestMatchers("/actuator/prometheus").permitAll());
+        }
         http.cors().and().csrf().disable()
                 .sessionManagement().sessionCreationPolicy(SessionCreationPolicy.STATELESS).and()
                 .authorizeHttpRequests(authz -> authz
                         .requestMatchers("/api/auth/**").permitAll()
                         .requestMatchers("/api/rooms/**").permitAll()
+                        .requestMatchers("/api/properties/**").permitAll()
                         .requestMatchers("/h2-console/**").permitAll()
+                        // Rebuilds the read model, and its consistency check scans every reservation
+                        .requestMatchers("/actuator/availability/**").hasRole("ADMIN")
+                        // Warming and evicting a property's rooms reloads or empties caches every request relies on
+                        .requestMatchers("/actuator/properties/**").hasRole("ADMIN")
+                        // Replays any user's reservation history
+                        .requestMatchers("/actuator/journal/**").hasRole("ADMIN")
+                        // SQL of suspected N+1 and slow statements, and statistics for every endpoint
+                        .requestMatchers("/actuator/queries/**").hasRole("ADMIN")
+                        // Every user's request URIs, reservation ids included, with their timings
+                        .requestMatchers("/actuator/latency/**").hasRole("ADMIN")
                         .anyRequest().authenticated()
                 );
 
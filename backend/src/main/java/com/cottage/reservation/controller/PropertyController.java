@@ -0,0 +1,49 @@
+package com.cottage.reservation.controller;
+
+import com.cottage.reservation.dto.PropertyView;
+import com.cottage.reservation.dto.RoomView;
+import com.cottage.reservation.service.ChangeVersionService;
+import com.cottage.reservation.service.RoomCacheService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.List;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/properties")
+public class PropertyController {
+
+    @Autowired
+    private RoomCacheService roomCacheService;
+
+    @Autowired
+    private ChangeVersionService changeVersionService;
+
+    @GetMapping
+    public ResponseEntity<List<PropertyView>> getAllProperties(WebRequest request) {
+        String etag = changeVersionService.etag("properties", roomCacheService.getVersion());
+        if (changeVersionService.checkNotModified(request, "properties", etag)) {
+            return null;
+        }
+        return ResponseEntity.ok(roomCacheService.getProperties());
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<PropertyView> getPropertyById(@PathVariable Long id) {
+        return roomCacheService.findProperty(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/{id}/rooms")
+    public ResponseEntity<List<RoomView>> getPropertyRooms(@PathVariable Long id, WebRequest request) {
+        String etag = changeVersionService.etag("rooms-" + id, roomCacheService.getVersion(id));
+        if (changeVersionService.checkNotModified(request, "rooms", etag)) {
+            return null;
+        }
+        return ResponseEntity.ok(roomCacheService.getRooms(id));
+    }
+}
@@ -0,0 +1,115 @@
+package com.cottage.reservation.controller;
+
+import com.cottage.reservation.bulk.CsvReservationParser;
+import com.cottage.reservation.bulk.ICalendarReservationParser;
+import com.cottage.reservation.bulk.ImportRow;
+import com.cottage.reservation.dto.ImportReport;
+import com.cottage.reservation.security.UserPrincipal;
+import com.cottage.reservation.service.ReservationExportService;
+import com.cottage.reservation.service.ReservationImportService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.Locale;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/reservations")
+public class ReservationBulkController {
+
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv;charset=UTF-8");
+    private static final MediaType TEXT_CALENDAR = MediaType.parseMediaType("text/calendar;charset=UTF-8");
+
+    @Autowired
+    private ReservationImportService reservationImportService;
+
+    @Autowired
+    private ReservationExportService reservationExportService;
+
+    /**
+     * Imports reservations for the signed-in user from the raw request body (text/csv or text/calendar).
+     * The body is parsed as it is read, so files of any size are accepted. Other errors, such as an
+     * unsupported format, are answered by GlobalExceptionHandler.
+     */
+    @PostMapping("/import")
+    public ResponseEntity<?> importReservations(@RequestParam(required = false) String format,
+                                                @RequestParam(defaultValue = "false") boolean dryRun,
+                                                HttpServletRequest request,
+                                                Authentication authentication) {
+        try {
+            UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+            String resolvedFormat = resolveFormat(format, request.getContentType());
+            Reader reader = new BufferedReader(new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8));
+            Iterator<ImportRow> rows = "ics".equals(resolvedFormat)
+                    ? new ICalendarReservationParser(reader)
+                    : new CsvReservationParser(reader);
+            ImportReport report = reservationImportService.importReservations(rows, resolvedFormat, userPrincipal.getId(), dryRun);
+            return ResponseEntity.ok(report);
+        } catch (IOException | UncheckedIOException e) {
+            return ResponseEntity.badRequest().body("Could not read import: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Exports the signed-in user's reservations, hot and archived. Exporting every user's reservations
+     * is only possible from the command line (see BulkCommandRunner).
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportReservations(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            Authentication authentication) {
+
+        Long userId = ((UserPrincipal) authentication.getPrincipal()).getId();
+        boolean calendar = "ics".equals(resolveFormat(format, null));
+        StreamingResponseBody body = outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            if (calendar) {
+                reservationExportService.exportICalendar(userId, startDate, endDate, writer);
+            } else {
+                reservationExportService.exportCsv(userId, startDate, endDate, writer);
+            }
+            writer.flush();
+        };
+
+        return ResponseEntity.ok()
+                .contentType(calendar ? TEXT_CALENDAR : TEXT_CSV)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"reservations." + (calendar ? "ics" : "csv") + "\"")
+                .body(body);
+    }
+
+    private static String resolveFormat(String format, String contentType) {
+        String value = format != null ? format : contentType;
+        if (value == null) {
+            return "csv";
+        }
+        value = value.toLowerCase(Locale.ROOT);
+        if (value.equals("ics") || value.equals("ical") || value.startsWith("text/calendar")) {
+            return "ics";
+        }
+        if (value.equals("csv") || value.startsWith("text/csv") || value.startsWith("text/plain")) {
+            return "csv";
+        }
+        throw new IllegalArgumentException("Unsupported format: " + value + " (use csv or ics)");
+    }
+}
@@ -3,13 +3,19 @@ package com.cottage.reservation.controller;
 import com.cottage.reservation.dto.ReservationRequest;
 import com.cottage.reservation.entity.Reservation;
 import com.cottage.reservation.security.UserPrincipal;
+import com.cottage.reservation.service.AvailabilityQueryService;
+import com.cottage.reservation.service.ChangeVersionService;
+import com.cottage.reservation.service.IdempotencyService;
 import com.cottage.reservation.service.ReservationService;
+import com.cottage.reservation.service.RoomCacheService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -23,16 +29,34 @@ public class ReservationController {
     @Autowired
     private ReservationService reservationService;
 
+    @Autowired
+    private ChangeVersionService changeVersionService;
+
+    @Autowired
+    private RoomCacheService roomCacheService;
+
+    @Autowired
+    private AvailabilityQueryService availabilityQueryService;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
     @PostMapping
     public ResponseEntity<?> createReservation(@Valid @RequestBody ReservationRequest reservationRequest,
+                                               @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
                                                Authentication authentication) {
-        try {
-            UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
-            Reservation reservation = reservationService.createReservation(reservationRequest, userPrincipal.getId());
-            return ResponseEntity.ok(reservation);
-        } catch (RuntimeException e) {
-            return ResponseEntity.badRequest().body(e.getMessage());
+        UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+        if (idempotencyKey == null) {
+            return doCreateReservation(reservationRequest, userPrincipal.getId());
         }
+        // A retry with the same key gets the first response instead of booking again
+        return idempotencyService.execute(userPrincipal.getId(), idempotencyKey, reservationRequest,
+                () -> doCreateReservation(reservationRequest, userPrincipal.getId()));
+    }
+
+    private ResponseEntity<?> doCreateReservation(ReservationRequest reservationRequest, Long userId) {
+        Reservation reservation = reservationService.createReservation(reservationRequest, userId);
+        return ResponseEntity.ok(reservation);
     }
 
     @GetMapping
@@ -60,33 +84,39 @@ public class ReservationController {
     public ResponseEntity<?> updateReservation(@PathVariable Long id,
                                                @Valid @RequestBody ReservationRequest reservationRequest,
                                                Authentication authentication) {
-        try {
-            UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
-            Reservation reservation = reservationService.updateReservation(id, reservationRequest, userPrincipal.getId());
-            return ResponseEntity.ok(reservation);
-        } catch (RuntimeException e) {
-            return ResponseEntity.badRequest().body(e.getMessage());
-        }
+        UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+        Reservation reservation = reservationService.updateReservation(id, reservationRequest, userPrincipal.getId());
+        return ResponseEntity.ok(reservation);
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<?> cancelReservation(@PathVariable Long id,
                                                Authentication authentication) {
-        try {
-            UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
-            reservationService.cancelReservation(id, userPrincipal.getId());
-            return ResponseEntity.ok().body("Reservation cancelled successfully");
-        } catch (RuntimeException e) {
-            return ResponseEntity.badRequest().body(e.getMessage());
-        }
+        UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+        reservationService.cancelReservation(id, userPrincipal.getId());
+        return ResponseEntity.ok().body("Reservation cancelled successfully");
     }
 
     @GetMapping("/calendar")
-    public ResponseEntity<List<Reservation>> getReservationCalendar(
+    public ResponseEntity<byte[]> getReservationCalendar(
+            @RequestParam(required = false) Long propertyId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
-        
-        List<Reservation> reservations = reservationService.getReservationsBetweenDates(startDate, endDate);
-        return ResponseEntity.ok(reservations);
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            WebRequest request) {
+
+        // Reservations embed their room, so room writes change the body too
+        String etag = propertyId == null
+                ? changeVersionService.etag("calendar", changeVersionService.getGlobalVersion(), roomCacheService.getVersion())
+                : changeVersionService.etag("calendar-" + propertyId, changeVersionService.getPropertyVersion(propertyId),
+                        roomCacheService.getVersion(propertyId));
+        if (changeVersionService.checkNotModified(request, "reservations_calendar", etag)) {
+            return null;
+        }
+
+        // Pre-serialized and shared between identical concurrent requests
+        byte[] calendar = propertyId == null
+                ? availabilityQueryService.getCalendarJson(startDate, endDate)
+                : availabilityQueryService.getCalendarJson(propertyId, startDate, endDate);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(calendar);
     }
 }
@@ -1,15 +1,28 @@
 package com.cottage.reservation.controller;
 
-import com.cottage.reservation.entity.Room;
-import com.cottage.reservation.repository.RoomRepository;
+import com.cottage.reservation.config.SecurityEnhancementConfig;
+import com.cottage.reservation.dto.RoomView;
+import com.cottage.reservation.service.RoomCacheService;
+import com.cottage.reservation.service.AvailabilityQueryService;
+import com.cottage.reservation.service.AvailabilityStreamService;
+import com.cottage.reservation.service.ChangeVersionService;
+import com.cottage.reservation.service.RoomCalendarFeedService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
@@ -17,36 +30,118 @@ import java.util.Optional;
 public class RoomController {
 
     @Autowired
-    private RoomRepository roomRepository;
+    private RoomCacheService roomCacheService;
 
+    @Autowired
+    private AvailabilityQueryService availabilityQueryService;
+
+    @Autowired
+    private RoomCalendarFeedService roomCalendarFeedService;
+
+    @Autowired
+    private ChangeVersionService changeVersionService;
+
+    @Autowired
+    private AvailabilityStreamService availabilityStreamService;
+
+    /**
+     * Rooms of one property, or of all properties when propertyId is omitted.
+     */
     @GetMapping
-    public ResponseEntity<List<Room>> getAllRooms() {
-        List<Room> rooms = roomRepository.findAll();
+    public ResponseEntity<List<RoomView>> getAllRooms(@RequestParam(required = false) Long propertyId, WebRequest request) {
+        String etag = propertyId == null
+                ? changeVersionService.etag("rooms", roomCacheService.getVersion())
+                : changeVersionService.etag("rooms-" + propertyId, roomCacheService.getVersion(propertyId));
+        if (changeVersionService.checkNotModified(request, "rooms", etag)) {
+            return null;
+        }
+        List<RoomView> rooms = propertyId == null ? roomCacheService.getAllRooms() : roomCacheService.getRooms(propertyId);
         return ResponseEntity.ok(rooms);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Room> getRoomById(@PathVariable Long id) {
-        Optional<Room> room = roomRepository.findById(id);
+    public ResponseEntity<RoomView> getRoomById(@PathVariable Long id) {
+        Optional<RoomView> room = roomCacheService.findById(id);
         return room.map(ResponseEntity::ok)
                   .orElse(ResponseEntity.notFound().build());
     }
 
+    @GetMapping("/{id}/calendar.ics")
+    public ResponseEntity<byte[]> getRoomCalendar(@PathVariable Long id, WebRequest request) {
+        Optional<RoomCalendarFeedService.Feed> feed = roomCalendarFeedService.getFeed(id);
+        if (feed.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        // Sets 304 and the ETag header when If-None-Match matches
+        if (request.checkNotModified(feed.get().getETag())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .contentType(new MediaType("text", "calendar", StandardCharsets.UTF_8))
+                .cacheControl(CacheControl.noCache())
+                .eTag(feed.get().getETag())
+                .body(feed.get().getBody());
+    }
+
+    /**
+     * Server-Sent Events: one "availability" event per room and stay whose availability changed,
+     * or "resync" when notifications were dropped and the client should refetch. 503 when the server
+     * holds max-subscribers streams, 429 when the client already holds max-subscribers-per-client.
+     */
+    @GetMapping(value = "/availability/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamAvailability(@RequestParam(required = false) Long roomId,
+                                                         HttpServletRequest request) {
+        return availabilityStreamService.subscribe(roomId, SecurityEnhancementConfig.clientKey(request))
+                .map(emitter -> ResponseEntity.ok()
+                        .cacheControl(CacheControl.noStore())
+                        .header("X-Accel-Buffering", "no")
+                        .body(emitter))
+                .orElse(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
+    }
+
     @GetMapping("/available")
-    public ResponseEntity<List<Room>> getAvailableRooms(
+    public ResponseEntity<List<RoomView>> getAvailableRooms(
+            @RequestParam(required = false) Long propertyId,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
-        
-        List<Room> rooms;
-        
-        if (startDate != null && endDate != null) {
-            // Get rooms available for specific dates
-            rooms = roomRepository.findAvailableRooms(startDate, endDate);
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            WebRequest request) {
+
+        // Without dates the listing only depends on the room snapshot; with a property only on that property's versions.
+        // Booked rooms come from the availability read model, so dated listings use its versions rather than the commit ones
+        boolean dated = startDate != null && endDate != null;
+        String etag;
+        if (propertyId == null) {
+            etag = dated
+                    ? changeVersionService.etag("available", roomCacheService.getVersion(), changeVersionService.getAvailabilityVersion())
+                    : changeVersionService.etag("available", roomCacheService.getVersion());
         } else {
-            // Get all available rooms
-            rooms = roomRepository.findByIsAvailableTrue();
+            etag = dated
+                    ? changeVersionService.etag("available-" + propertyId, roomCacheService.getVersion(propertyId),
+                            changeVersionService.getAvailabilityVersion(propertyId))
+                    : changeVersionService.etag("available-" + propertyId, roomCacheService.getVersion(propertyId));
+        }
+        if (changeVersionService.checkNotModified(request, "rooms_available", etag)) {
+            return null;
         }
-        
+
+        List<RoomView> rooms = propertyId == null
+                ? roomCacheService.getAvailableRooms()
+                : roomCacheService.getAvailableRooms(propertyId);
+
+        if (startDate != null && endDate != null) {
+            // Booked room ids come from the availability read model (occupied nights in [startDate, endDate)),
+            // shared between identical concurrent queries; room details come from the cache
+            LocalDate lastNightExclusive = endDate.isAfter(startDate) ? endDate : startDate.plusDays(1);
+            Set<Long> bookedRoomIds = propertyId == null
+                    ? availabilityQueryService.findBookedRoomIds(startDate, lastNightExclusive)
+                    : availabilityQueryService.findBookedRoomIds(propertyId, startDate, lastNightExclusive);
+            if (!bookedRoomIds.isEmpty()) {
+                rooms = rooms.stream()
+                        .filter(room -> !bookedRoomIds.contains(room.getId()))
+                        .toList();
+            }
+        }
+
         return ResponseEntity.ok(rooms);
     }
 }
@@ -0,0 +1,157 @@
+package com.cottage.reservation.datasource;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caps how many threads can hold or wait for a pooled connection.
+ * <p>
+ * With virtual threads there is no request thread pool in front of the connection pool, so a burst
+ * can park thousands of threads inside HikariCP's borrow path. Here callers queue on a fair
+ * semaphore sized to the pool instead, and once too many are queued new callers fail fast rather
+ * than waiting out the connection timeout. The permit is released when the connection is closed.
+ */
+public class ConnectionLimitingDataSource extends DelegatingDataSource implements MeterBinder {
+
+    private final String poolName;
+    private final int maxConnections;
+    private final int maxWaiting;
+    private final long acquireTimeoutNanos;
+    private final Semaphore permits;
+
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+
+    public ConnectionLimitingDataSource(DataSource target, String poolName, int maxConnections,
+                                        int maxWaiting, Duration acquireTimeout) {
+        super(target);
+        this.poolName = poolName;
+        this.maxConnections = maxConnections;
+        this.maxWaiting = maxWaiting;
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+        this.permits = new Semaphore(maxConnections, true);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        return guard(() -> super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        return guard(() -> super.getConnection(username, password));
+    }
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    public int getWaitingThreads() {
+        return permits.getQueueLength();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("jdbc.connections.limiter.waiting", permits, Semaphore::getQueueLength)
+                .tag("pool", poolName)
+                .description("Threads queued for a connection permit")
+                .register(registry);
+        Gauge.builder("jdbc.connections.limiter.in.use", this, ds -> ds.maxConnections - ds.permits.availablePermits())
+                .tag("pool", poolName)
+                .description("Connection permits currently held")
+                .register(registry);
+        FunctionCounter.builder("jdbc.connections.limiter.rejected", rejected, LongAdder::sum)
+                .tag("pool", poolName)
+                .description("Connection requests refused because the wait queue was full")
+                .register(registry);
+        FunctionCounter.builder("jdbc.connections.limiter.timeouts", timedOut, LongAdder::sum)
+                .tag("pool", poolName)
+                .description("Connection requests that gave up waiting for a permit")
+                .register(registry);
+    }
+
+    private void acquire() throws SQLException {
+        if (permits.getQueueLength() >= maxWaiting) {
+            rejected.increment();
+            throw new SQLTransientConnectionException(poolName + " - too many threads waiting for a connection ("
+                    + maxWaiting + ")");
+        }
+        try {
+            if (!permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                timedOut.increment();
+                throw new SQLTransientConnectionException(poolName + " - connection permit not available, request timed out after "
+                        + TimeUnit.NANOSECONDS.toMillis(acquireTimeoutNanos) + "ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException(poolName + " - interrupted while waiting for a connection", e);
+        }
+    }
+
+    private Connection guard(ConnectionSupplier supplier) throws SQLException {
+        Connection connection;
+        try {
+            connection = supplier.get();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+        return (Connection) Proxy.newProxyInstance(ConnectionLimitingDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new PermitReleasingHandler(connection));
+    }
+
+    private interface ConnectionSupplier {
+        Connection get() throws SQLException;
+    }
+
+    private final class PermitReleasingHandler implements InvocationHandler {
+        private final Connection target;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private PermitReleasingHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.equals("equals")) {
+                return proxy == args[0];
+            }
+            if (name.equals("hashCode")) {
+                return System.identityHashCode(proxy);
+            }
+            if (name.equals("unwrap") && ((Class<?>) args[0]).isInstance(proxy)) {
+                return proxy;
+            }
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            } finally {
+                if (name.equals("close") && released.compareAndSet(false, true)) {
+                    permits.release();
+                }
+            }
+        }
+    }
+}
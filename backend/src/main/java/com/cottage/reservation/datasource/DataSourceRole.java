@@ -0,0 +1,9 @@
+package com.cottage.reservation.datasource;
+
+/**
+ * Lookup keys for {@link ReadWriteRoutingDataSource}.
+ */
+public enum DataSourceRole {
+    PRIMARY,
+    REPLICA
+}
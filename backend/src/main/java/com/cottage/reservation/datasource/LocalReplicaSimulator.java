@@ -0,0 +1,47 @@
+package com.cottage.reservation.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Stands in for RDS replication when the primary and replica are two local H2 databases.
+ * Periodically copies the primary into the replica with H2's SCRIPT/RUNSCRIPT, so the replica
+ * lags by up to one interval, just like a real asynchronous replica.
+ */
+public class LocalReplicaSimulator {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocalReplicaSimulator.class);
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final ReplicaLagMonitor lagMonitor;
+
+    public LocalReplicaSimulator(DataSource primaryDataSource, DataSource replicaDataSource, ReplicaLagMonitor lagMonitor) {
+        this.primary = new JdbcTemplate(primaryDataSource);
+        this.replica = new JdbcTemplate(replicaDataSource);
+        this.lagMonitor = lagMonitor;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.simulated-replication-interval}")
+    public void replicate() {
+        List<String> script = primary.queryForList("SCRIPT", String.class);
+
+        // Objects are dropped and recreated, so keep reads off the replica while it is rebuilt
+        lagMonitor.setSuspended(true);
+        try {
+            replica.execute("DROP ALL OBJECTS");
+            for (String statement : script) {
+                replica.execute(statement);
+            }
+        } catch (Exception e) {
+            logger.warn("Simulated replication failed: {}", e.getMessage());
+        } finally {
+            lagMonitor.setSuspended(false);
+        }
+    }
+}
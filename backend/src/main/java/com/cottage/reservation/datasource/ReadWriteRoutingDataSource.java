@@ -0,0 +1,82 @@
+package com.cottage.reservation.datasource;
+
+import com.cottage.reservation.security.UserPrincipal;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sends connections for read-only transactions to the replica pool and everything else to the primary.
+ * Reads still go to the primary when the replica is lagging or unreachable, and for users who
+ * wrote within the read-your-writes window.
+ * <p>
+ * Must be wrapped in a LazyConnectionDataSourceProxy: the read-only flag of a transaction is only
+ * known once the transaction has begun, after the transaction manager would normally have fetched
+ * its connection.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource implements MeterBinder {
+
+    private final ReplicaLagMonitor lagMonitor;
+    private final ReadYourWritesTracker readYourWritesTracker;
+
+    private final LongAdder primaryWrites = new LongAdder();
+    private final LongAdder replicaReads = new LongAdder();
+    private final LongAdder primaryReadsLagging = new LongAdder();
+    private final LongAdder primaryReadsSticky = new LongAdder();
+
+    public ReadWriteRoutingDataSource(ReplicaLagMonitor lagMonitor, ReadYourWritesTracker readYourWritesTracker) {
+        this.lagMonitor = lagMonitor;
+        this.readYourWritesTracker = readYourWritesTracker;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            primaryWrites.increment();
+            return DataSourceRole.PRIMARY;
+        }
+
+        if (!lagMonitor.isReplicaUsable()) {
+            primaryReadsLagging.increment();
+            return DataSourceRole.PRIMARY;
+        }
+
+        if (readYourWritesTracker.isStickyToPrimary(currentUserId())) {
+            primaryReadsSticky.increment();
+            return DataSourceRole.PRIMARY;
+        }
+
+        replicaReads.increment();
+        return DataSourceRole.REPLICA;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        registerRouteCounter(registry, primaryWrites, "primary", "read-write");
+        registerRouteCounter(registry, replicaReads, "replica", "read-only");
+        registerRouteCounter(registry, primaryReadsLagging, "primary", "replica-unavailable");
+        registerRouteCounter(registry, primaryReadsSticky, "primary", "read-your-writes");
+    }
+
+    private void registerRouteCounter(MeterRegistry registry, LongAdder counter, String target, String reason) {
+        FunctionCounter.builder("datasource.routing", counter, LongAdder::sum)
+                .tag("target", target)
+                .tag("reason", reason)
+                .description("Connections handed out by the read/write routing data source")
+                .register(registry);
+    }
+
+    private Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal principal) {
+            return principal.getId();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,61 @@
+package com.cottage.reservation.datasource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers which users wrote recently so their reads stay on the primary until
+ * the replica has had time to catch up with their own changes.
+ */
+@Component
+public class ReadYourWritesTracker {
+
+    private final Map<Long, Long> lastWriteByUser = new ConcurrentHashMap<>();
+
+    @Value("${app.datasource.replica.enabled:false}")
+    private boolean replicaEnabled;
+
+    @Value("${app.datasource.replica.read-your-writes-window:5s}")
+    private Duration stickinessWindow;
+
+    /**
+     * Records a write by the given user. The window is restarted after commit, since
+     * replication only starts once the transaction is visible on the primary.
+     */
+    public void recordWrite(Long userId) {
+        if (userId == null || !replicaEnabled) {
+            return;
+        }
+        lastWriteByUser.put(userId, System.currentTimeMillis());
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    lastWriteByUser.put(userId, System.currentTimeMillis());
+                }
+            });
+        }
+    }
+
+    public boolean isStickyToPrimary(Long userId) {
+        if (userId == null) {
+            return false;
+        }
+        Long lastWrite = lastWriteByUser.get(userId);
+        return lastWrite != null && System.currentTimeMillis() - lastWrite < stickinessWindow.toMillis();
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.read-your-writes-purge-interval:60000}")
+    public void purgeExpired() {
+        long cutoff = System.currentTimeMillis() - stickinessWindow.toMillis();
+        lastWriteByUser.values().removeIf(lastWrite -> lastWrite < cutoff);
+    }
+}
@@ -0,0 +1,109 @@
+package com.cottage.reservation.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Measures replica lag with a heartbeat row: the primary stamps the current time every interval,
+ * and the lag is how old that stamp is when read back from the replica. This works the same on
+ * RDS MySQL and on a local H2 pair, and needs no replication-status privileges.
+ */
+public class ReplicaLagMonitor implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final Duration maxLag;
+
+    private volatile boolean heartbeatTableReady;
+    private volatile boolean replicaUsable;
+    private volatile boolean suspended;
+    private volatile long lastLagMillis = -1;
+
+    public ReplicaLagMonitor(DataSource primaryDataSource, DataSource replicaDataSource, Duration maxLag) {
+        this.primary = new JdbcTemplate(primaryDataSource);
+        this.replica = new JdbcTemplate(replicaDataSource);
+        this.maxLag = maxLag;
+    }
+
+    /**
+     * True when the last heartbeat check found the replica reachable and within the allowed lag.
+     */
+    public boolean isReplicaUsable() {
+        return replicaUsable && !suspended;
+    }
+
+    public long getLastLagMillis() {
+        return lastLagMillis;
+    }
+
+    /**
+     * Temporarily routes all reads to the primary, e.g. while the replica is being refreshed.
+     */
+    public void setSuspended(boolean suspended) {
+        this.suspended = suspended;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.heartbeat-interval:1000}")
+    public void checkReplica() {
+        long now = System.currentTimeMillis();
+
+        try {
+            writeHeartbeat(now);
+        } catch (Exception e) {
+            logger.warn("Could not write replication heartbeat to primary: {}", e.getMessage());
+        }
+
+        boolean usable;
+        try {
+            Long beatAt = replica.queryForObject(
+                    "SELECT beat_at FROM replication_heartbeat WHERE id = 1", Long.class);
+            lastLagMillis = beatAt == null ? -1 : Math.max(0, now - beatAt);
+            usable = beatAt != null && lastLagMillis <= maxLag.toMillis();
+        } catch (Exception e) {
+            lastLagMillis = -1;
+            usable = false;
+            logger.debug("Replica heartbeat check failed: {}", e.getMessage());
+        }
+
+        if (usable != replicaUsable) {
+            if (usable) {
+                logger.info("Read replica available (lag {} ms); routing read-only transactions to it", lastLagMillis);
+            } else {
+                logger.warn("Read replica unavailable or lagging (lag {} ms, max {} ms); routing reads to primary",
+                        lastLagMillis, maxLag.toMillis());
+            }
+        }
+        replicaUsable = usable;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("datasource.replica.lag", this, ReplicaLagMonitor::getLastLagMillis)
+                .baseUnit("milliseconds")
+                .description("Age of the replication heartbeat as seen on the replica (-1 if unknown)")
+                .register(registry);
+        Gauge.builder("datasource.replica.usable", this, monitor -> monitor.isReplicaUsable() ? 1 : 0)
+                .description("1 while read-only transactions are routed to the replica")
+                .register(registry);
+    }
+
+    private void writeHeartbeat(long now) {
+        if (!heartbeatTableReady) {
+            primary.execute("CREATE TABLE IF NOT EXISTS replication_heartbeat (id INT PRIMARY KEY, beat_at BIGINT NOT NULL)");
+            heartbeatTableReady = true;
+        }
+        if (primary.update("UPDATE replication_heartbeat SET beat_at = ? WHERE id = 1", now) == 0) {
+            primary.update("INSERT INTO replication_heartbeat (id, beat_at) VALUES (1, ?)", now);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.cottage.reservation.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Result of comparing the room_availability_day read model with the reservations it is derived from.
+ */
+public final class AvailabilityConsistencyReport {
+    private final LocalDateTime checkedAt;
+    private final int roomsChecked;
+    private final long expectedDays;
+    private final long actualDays;
+    private final long missingDays;
+    private final long unexpectedDays;
+    private final long mismatchedDays;
+    private final List<String> samples;
+
+    public AvailabilityConsistencyReport(LocalDateTime checkedAt, int roomsChecked, long expectedDays, long actualDays,
+                                         long missingDays, long unexpectedDays, long mismatchedDays, List<String> samples) {
+        this.checkedAt = checkedAt;
+        this.roomsChecked = roomsChecked;
+        this.expectedDays = expectedDays;
+        this.actualDays = actualDays;
+        this.missingDays = missingDays;
+        this.unexpectedDays = unexpectedDays;
+        this.mismatchedDays = mismatchedDays;
+        this.samples = List.copyOf(samples);
+    }
+
+    public boolean isConsistent() {
+        return getDiscrepancies() == 0;
+    }
+
+    public long getDiscrepancies() {
+        return missingDays + unexpectedDays + mismatchedDays;
+    }
+
+    // Getters
+    public LocalDateTime getCheckedAt() {
+        return checkedAt;
+    }
+
+    public int getRoomsChecked() {
+        return roomsChecked;
+    }
+
+    public long getExpectedDays() {
+        return expectedDays;
+    }
+
+    public long getActualDays() {
+        return actualDays;
+    }
+
+    public long getMissingDays() {
+        return missingDays;
+    }
+
+    public long getUnexpectedDays() {
+        return unexpectedDays;
+    }
+
+    public long getMismatchedDays() {
+        return mismatchedDays;
+    }
+
+    public List<String> getSamples() {
+        return samples;
+    }
+}
@@ -0,0 +1,29 @@
+package com.cottage.reservation.dto;
+
+/**
+ * Immutable error body: a stable code for clients, the HTTP reason phrase and a readable message.
+ */
+public class ErrorResponse {
+    private final String code;
+    private final String error;
+    private final String message;
+
+    public ErrorResponse(String code, String error, String message) {
+        this.code = code;
+        this.error = error;
+        this.message = message;
+    }
+
+    // Getters
+    public String getCode() {
+        return code;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
@@ -0,0 +1,96 @@
+package com.cottage.reservation.dto;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of a bulk import: counts plus one error per rejected row (up to a limit).
+ */
+public class ImportReport {
+    private final String format;
+    private final boolean dryRun;
+    private long rowsRead;
+    private long imported;
+    private long rejected;
+    private boolean errorsTruncated;
+    private long durationMillis;
+    private final List<RowError> errors = new ArrayList<>();
+
+    public ImportReport(String format, boolean dryRun) {
+        this.format = format;
+        this.dryRun = dryRun;
+    }
+
+    public void rowRead() {
+        rowsRead++;
+    }
+
+    public void imported(int count) {
+        imported += count;
+    }
+
+    public void reject(long line, String message, int maxErrors) {
+        rejected++;
+        if (errors.size() < maxErrors) {
+            errors.add(new RowError(line, message));
+        } else {
+            errorsTruncated = true;
+        }
+    }
+
+    public void setDurationMillis(long durationMillis) {
+        this.durationMillis = durationMillis;
+    }
+
+    // Getters
+    public String getFormat() {
+        return format;
+    }
+
+    public boolean isDryRun() {
+        return dryRun;
+    }
+
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public boolean isErrorsTruncated() {
+        return errorsTruncated;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public List<RowError> getErrors() {
+        return Collections.unmodifiableList(errors);
+    }
+
+    public static class RowError {
+        private final long line;
+        private final String message;
+
+        public RowError(long line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+
+        public long getLine() {
+            return line;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+}
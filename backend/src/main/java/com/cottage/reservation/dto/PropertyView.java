@@ -0,0 +1,63 @@
+package com.cottage.reservation.dto;
+
+import com.cottage.reservation.entity.Property;
+import java.time.LocalDateTime;
+
+/**
+ * Immutable, detached copy of a Property used for listings and lookups.
+ * Never references the rooms collection, so serializing it cannot trigger a lazy load.
+ */
+public final class PropertyView {
+    private final Long id;
+    private final String name;
+    private final String description;
+    private final String address;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime updatedAt;
+
+    public PropertyView(Long id, String name, String description, String address,
+                        LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.address = address;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
+    public static PropertyView from(Property property) {
+        return new PropertyView(
+                property.getId(),
+                property.getName(),
+                property.getDescription(),
+                property.getAddress(),
+                property.getCreatedAt(),
+                property.getUpdatedAt()
+        );
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public String getAddress() {
+        return address;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
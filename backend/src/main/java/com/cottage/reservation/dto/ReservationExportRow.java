@@ -0,0 +1,97 @@
+package com.cottage.reservation.dto;
+
+import com.cottage.reservation.entity.Reservation;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Flat, unmanaged projection of a reservation for streaming export.
+ * Built by a JPQL constructor expression, so exporting never fills the persistence context.
+ */
+public class ReservationExportRow {
+    private final Long id;
+    private final String username;
+    private final String email;
+    private final Long roomId;
+    private final String roomName;
+    private final LocalDate checkInDate;
+    private final LocalDate checkOutDate;
+    private final Integer numberOfGuests;
+    private final Reservation.ReservationStatus status;
+    private final String notes;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime updatedAt;
+    private final boolean archived;
+
+    public ReservationExportRow(Long id, String username, String email, Long roomId, String roomName,
+                                LocalDate checkInDate, LocalDate checkOutDate, Integer numberOfGuests,
+                                Reservation.ReservationStatus status, String notes,
+                                LocalDateTime createdAt, LocalDateTime updatedAt, Boolean archived) {
+        this.id = id;
+        this.username = username;
+        this.email = email;
+        this.roomId = roomId;
+        this.roomName = roomName;
+        this.checkInDate = checkInDate;
+        this.checkOutDate = checkOutDate;
+        this.numberOfGuests = numberOfGuests;
+        this.status = status;
+        this.notes = notes;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.archived = Boolean.TRUE.equals(archived);
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public Long getRoomId() {
+        return roomId;
+    }
+
+    public String getRoomName() {
+        return roomName;
+    }
+
+    public LocalDate getCheckInDate() {
+        return checkInDate;
+    }
+
+    public LocalDate getCheckOutDate() {
+        return checkOutDate;
+    }
+
+    public Integer getNumberOfGuests() {
+        return numberOfGuests;
+    }
+
+    public Reservation.ReservationStatus getStatus() {
+        return status;
+    }
+
+    public String getNotes() {
+        return notes;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public boolean isArchived() {
+        return archived;
+    }
+}
@@ -0,0 +1,93 @@
+package com.cottage.reservation.dto;
+
+import com.cottage.reservation.entity.Room;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Immutable, detached copy of a Room used for listings and lookups.
+ * Never references the reservations collection, so serializing it cannot trigger a lazy load.
+ */
+public final class RoomView {
+    private final Long id;
+    private final Long propertyId;
+    private final String name;
+    private final String description;
+    private final BigDecimal pricePerNight;
+    private final Integer maxOccupancy;
+    private final Room.RoomType roomType;
+    private final Boolean isAvailable;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime updatedAt;
+
+    public RoomView(Long id, Long propertyId, String name, String description, BigDecimal pricePerNight, Integer maxOccupancy,
+                    Room.RoomType roomType, Boolean isAvailable, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.propertyId = propertyId;
+        this.name = name;
+        this.description = description;
+        this.pricePerNight = pricePerNight;
+        this.maxOccupancy = maxOccupancy;
+        this.roomType = roomType;
+        this.isAvailable = isAvailable;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
+    public static RoomView from(Room room) {
+        return new RoomView(
+                room.getId(),
+                // Reading the id does not initialize a lazy property proxy
+                room.getProperty().getId(),
+                room.getName(),
+                room.getDescription(),
+                room.getPricePerNight(),
+                room.getMaxOccupancy(),
+                room.getRoomType(),
+                room.getIsAvailable(),
+                room.getCreatedAt(),
+                room.getUpdatedAt()
+        );
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public Long getPropertyId() {
+        return propertyId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public BigDecimal getPricePerNight() {
+        return pricePerNight;
+    }
+
+    public Integer getMaxOccupancy() {
+        return maxOccupancy;
+    }
+
+    public Room.RoomType getRoomType() {
+        return roomType;
+    }
+
+    public Boolean getIsAvailable() {
+        return isAvailable;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
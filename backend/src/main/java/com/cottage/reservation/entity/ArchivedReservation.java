@@ -0,0 +1,123 @@
+package com.cottage.reservation.entity;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Cold copy of a finished reservation, moved out of the reservations table by the archive job.
+ * Keeps the original id so links to a reservation stay valid after it is archived.
+ */
+@Entity
+@Table(name = "reservations_archive", indexes = {
+        @Index(name = "idx_reservations_archive_user", columnList = "user_id, check_in_date")
+})
+public class ArchivedReservation {
+    @Id
+    private Long id;
+
+    @Column(name = "check_in_date")
+    private LocalDate checkInDate;
+
+    @Column(name = "check_out_date")
+    private LocalDate checkOutDate;
+
+    @Column(name = "number_of_guests")
+    private Integer numberOfGuests;
+
+    @Column(name = "total_price")
+    private BigDecimal totalPrice;
+
+    @Column(name = "reservation_status")
+    @Enumerated(EnumType.STRING)
+    private Reservation.ReservationStatus status;
+
+    @Column(length = 500)
+    private String notes;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "archived_at")
+    private LocalDateTime archivedAt;
+
+    // No foreign keys: archived rows must not block deleting users or rooms
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false, foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private User user;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "room_id", nullable = false, foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private Room room;
+
+    // Constructors
+    public ArchivedReservation() {
+    }
+
+    /**
+     * Detached Reservation view of this row, so history endpoints can return hot and archived
+     * reservations in the same shape.
+     */
+    public Reservation toReservation() {
+        Reservation reservation = new Reservation(checkInDate, checkOutDate, numberOfGuests, totalPrice, user, room);
+        reservation.setId(id);
+        reservation.setStatus(status);
+        reservation.setNotes(notes);
+        reservation.setCreatedAt(createdAt);
+        reservation.setUpdatedAt(updatedAt);
+        return reservation;
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public LocalDate getCheckInDate() {
+        return checkInDate;
+    }
+
+    public LocalDate getCheckOutDate() {
+        return checkOutDate;
+    }
+
+    public Integer getNumberOfGuests() {
+        return numberOfGuests;
+    }
+
+    public BigDecimal getTotalPrice() {
+        return totalPrice;
+    }
+
+    public Reservation.ReservationStatus getStatus() {
+        return status;
+    }
+
+    public String getNotes() {
+        return notes;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public LocalDateTime getArchivedAt() {
+        return archivedAt;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public Room getRoom() {
+        return room;
+    }
+}
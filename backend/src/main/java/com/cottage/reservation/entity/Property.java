@@ -0,0 +1,138 @@
+package com.cottage.reservation.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import com.cottage.reservation.service.RoomCacheInvalidationListener;
+import com.cottage.reservation.validation.SafeText;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A bookable place (a cottage, a guest house) and the aggregate root of its rooms.
+ * Room listings, availability and their caches are all scoped to one property.
+ */
+@Entity
+@Table(name = "properties")
+@EntityListeners(RoomCacheInvalidationListener.class)
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+public class Property {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "properties_seq")
+    @SequenceGenerator(name = "properties_seq", sequenceName = "properties_seq", allocationSize = 50)
+    private Long id;
+
+    @NotBlank(message = "Property name is required")
+    @Size(max = 100, message = "Property name cannot exceed 100 characters")
+    @SafeText(maxLength = 100)
+    @Column(unique = true)
+    private String name;
+
+    @Size(max = 1000, message = "Description cannot exceed 1000 characters")
+    @SafeText(maxLength = 1000)
+    private String description;
+
+    @Size(max = 255, message = "Address cannot exceed 255 characters")
+    @SafeText(maxLength = 255)
+    private String address;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @JsonIgnore
+    @OneToMany(mappedBy = "property", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    private List<Room> rooms = new ArrayList<>();
+
+    // Constructors
+    public Property() {
+    }
+
+    public Property(String name, String description, String address) {
+        this.name = name;
+        this.description = description;
+        this.address = address;
+    }
+
+    /**
+     * Adds a room to this property; saving the property saves the room.
+     */
+    public Room addRoom(Room room) {
+        room.setProperty(this);
+        rooms.add(room);
+        return room;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public String getAddress() {
+        return address;
+    }
+
+    public void setAddress(String address) {
+        this.address = address;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public List<Room> getRooms() {
+        return rooms;
+    }
+
+    public void setRooms(List<Room> rooms) {
+        this.rooms = rooms;
+    }
+}
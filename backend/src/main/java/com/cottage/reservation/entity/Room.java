@@ -7,23 +7,31 @@ import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Size;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.Max;
+import com.cottage.reservation.service.RoomCacheInvalidationListener;
 import com.cottage.reservation.validation.SafeText;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "rooms")
+// Room names are unique within a property; the key's leading property_id also serves property-scoped room queries
+@Table(name = "rooms", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_rooms_property_name", columnNames = {"property_id", "name"})
+})
+@EntityListeners(RoomCacheInvalidationListener.class)
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Room {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "rooms_seq")
+    @SequenceGenerator(name = "rooms_seq", sequenceName = "rooms_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Room name is required")
     @Size(max = 100, message = "Room name cannot exceed 100 characters")
     @SafeText(maxLength = 100)
-    @Column(unique = true)
     private String name;
 
     @Size(max = 1000, message = "Description cannot exceed 1000 characters")
@@ -54,10 +62,21 @@ public class Room {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    @JsonIgnore
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "property_id", nullable = false)
+    private Property property;
+
+    @JsonIgnore
     @OneToMany(mappedBy = "room", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Reservation> reservations = new ArrayList<>();
 
     public enum RoomType {
+        PRIVATE_ROOM("Private Room"),
+        SUITE("Suite"),
+        DORMITORY("Dormitory"),
+        ENTIRE_PROPERTY("Entire Property"),
+        // Rooms of the original cottage
         BEDROOM_1("Bedroom 1"),
         BEDROOM_2("Bedroom 2"), 
         BEDROOM_3("Bedroom 3"),
@@ -170,6 +189,14 @@ public class Room {
         this.updatedAt = updatedAt;
     }
 
+    public Property getProperty() {
+        return property;
+    }
+
+    public void setProperty(Property property) {
+        this.property = property;
+    }
+
     public List<Reservation> getReservations() {
         return reservations;
     }
@@ -0,0 +1,105 @@
+package com.cottage.reservation.entity;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Read-model row: one occupied night of one room. Nights without a row are free.
+ * Maintained from reservation change events by AvailabilityProjector; never written by request handling.
+ */
+@Entity
+@Table(name = "room_availability_day", indexes = {
+        @Index(name = "idx_room_availability_day_date", columnList = "stay_date, room_id"),
+        @Index(name = "idx_room_availability_day_property", columnList = "property_id, stay_date, room_id")
+})
+@IdClass(RoomAvailabilityDay.Key.class)
+public class RoomAvailabilityDay {
+    @Id
+    @Column(name = "room_id")
+    private Long roomId;
+
+    @Id
+    @Column(name = "stay_date")
+    private LocalDate stayDate;
+
+    // Denormalized from the room so property-scoped range queries need no join
+    @Column(name = "property_id", nullable = false)
+    private Long propertyId;
+
+    @Column(name = "day_status", length = 16, nullable = false)
+    @Enumerated(EnumType.STRING)
+    private DayStatus status;
+
+    @Column(name = "reservation_id", nullable = false)
+    private Long reservationId;
+
+    public enum DayStatus {
+        HELD,
+        BOOKED;
+
+        public static DayStatus of(Reservation.ReservationStatus reservationStatus) {
+            return reservationStatus == Reservation.ReservationStatus.CONFIRMED ? BOOKED : HELD;
+        }
+    }
+
+    // Constructors
+    public RoomAvailabilityDay() {
+    }
+
+    public RoomAvailabilityDay(Long roomId, Long propertyId, LocalDate stayDate, DayStatus status, Long reservationId) {
+        this.roomId = roomId;
+        this.propertyId = propertyId;
+        this.stayDate = stayDate;
+        this.status = status;
+        this.reservationId = reservationId;
+    }
+
+    // Getters
+    public Long getRoomId() {
+        return roomId;
+    }
+
+    public Long getPropertyId() {
+        return propertyId;
+    }
+
+    public LocalDate getStayDate() {
+        return stayDate;
+    }
+
+    public DayStatus getStatus() {
+        return status;
+    }
+
+    public Long getReservationId() {
+        return reservationId;
+    }
+
+    public static class Key implements Serializable {
+        private Long roomId;
+        private LocalDate stayDate;
+
+        public Key() {
+        }
+
+        public Key(Long roomId, LocalDate stayDate) {
+            this.roomId = roomId;
+            this.stayDate = stayDate;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return Objects.equals(roomId, key.roomId) && Objects.equals(stayDate, key.stayDate);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(roomId, stayDate);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.cottage.reservation.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Lease row that lets exactly one application node run a scheduled job at a time.
+ */
+@Entity
+@Table(name = "scheduler_locks")
+public class SchedulerLock {
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    @Column(name = "locked_until", nullable = false)
+    private LocalDateTime lockedUntil;
+
+    @Column(name = "locked_by", length = 255)
+    private String lockedBy;
+
+    // Constructors
+    public SchedulerLock() {
+    }
+
+    public SchedulerLock(String name, LocalDateTime lockedUntil) {
+        this.name = name;
+        this.lockedUntil = lockedUntil;
+    }
+
+    // Getters and Setters
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public LocalDateTime getLockedUntil() {
+        return lockedUntil;
+    }
+
+    public void setLockedUntil(LocalDateTime lockedUntil) {
+        this.lockedUntil = lockedUntil;
+    }
+
+    public String getLockedBy() {
+        return lockedBy;
+    }
+
+    public void setLockedBy(String lockedBy) {
+        this.lockedBy = lockedBy;
+    }
+}
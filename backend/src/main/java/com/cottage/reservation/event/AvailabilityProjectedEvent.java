@@ -0,0 +1,52 @@
+package com.cottage.reservation.event;
+
+import java.time.LocalDate;
+
+/**
+ * Published by the AvailabilityProjector once room_availability_day reflects a change: either a
+ * refresh of some nights of one room, or a full rebuild. Listeners that serve the read model key
+ * their versions and notifications on this event rather than on the reservation commit, which
+ * happens before the read model catches up.
+ */
+public class AvailabilityProjectedEvent {
+
+    private final Long roomId;
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+
+    public AvailabilityProjectedEvent(Long roomId, LocalDate startDate, LocalDate endDate) {
+        this.roomId = roomId;
+        this.startDate = startDate;
+        this.endDate = endDate;
+    }
+
+    /**
+     * The whole read model was re-derived; any room and night may have changed.
+     */
+    public static AvailabilityProjectedEvent rebuilt() {
+        return new AvailabilityProjectedEvent(null, null, null);
+    }
+
+    public boolean isRebuild() {
+        return roomId == null;
+    }
+
+    // Getters
+    public Long getRoomId() {
+        return roomId;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    @Override
+    public String toString() {
+        return isRebuild() ? "AvailabilityProjectedEvent{rebuild}"
+                : "AvailabilityProjectedEvent{room=" + roomId + " " + startDate + ".." + endDate + "}";
+    }
+}
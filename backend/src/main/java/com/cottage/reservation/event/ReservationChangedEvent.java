@@ -0,0 +1,114 @@
+package com.cottage.reservation.event;
+
+import com.cottage.reservation.entity.Reservation;
+
+import java.time.LocalDate;
+
+/**
+ * Published whenever a reservation is written, after the change has been applied to the entity.
+ * Carries the room and stay before and after the change, so listeners know which room-days to refresh
+ * without reloading anything.
+ */
+public class ReservationChangedEvent {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        CANCELLED,
+        COMPLETED,
+        EXPIRED
+    }
+
+    private final Type type;
+    private final Long reservationId;
+    private final Long actorUserId;
+    private final Long roomId;
+    private final LocalDate checkInDate;
+    private final LocalDate checkOutDate;
+    private final Long previousRoomId;
+    private final LocalDate previousCheckInDate;
+    private final LocalDate previousCheckOutDate;
+
+    private ReservationChangedEvent(Type type, Long reservationId, Long actorUserId, Long roomId,
+                                    LocalDate checkInDate, LocalDate checkOutDate,
+                                    Long previousRoomId, LocalDate previousCheckInDate, LocalDate previousCheckOutDate) {
+        this.type = type;
+        this.reservationId = reservationId;
+        this.actorUserId = actorUserId;
+        this.roomId = roomId;
+        this.checkInDate = checkInDate;
+        this.checkOutDate = checkOutDate;
+        this.previousRoomId = previousRoomId;
+        this.previousCheckInDate = previousCheckInDate;
+        this.previousCheckOutDate = previousCheckOutDate;
+    }
+
+    /**
+     * A change made by the application itself (e.g. a scheduled job) rather than by a user.
+     */
+    public static ReservationChangedEvent of(Type type, Reservation reservation) {
+        return of(type, reservation, null);
+    }
+
+    public static ReservationChangedEvent of(Type type, Reservation reservation, Long actorUserId) {
+        return new ReservationChangedEvent(type, reservation.getId(), actorUserId, reservation.getRoom().getId(),
+                reservation.getCheckInDate(), reservation.getCheckOutDate(), null, null, null);
+    }
+
+    public static ReservationChangedEvent updated(Reservation reservation, Long actorUserId, Long previousRoomId,
+                                                  LocalDate previousCheckInDate, LocalDate previousCheckOutDate) {
+        return new ReservationChangedEvent(Type.UPDATED, reservation.getId(), actorUserId, reservation.getRoom().getId(),
+                reservation.getCheckInDate(), reservation.getCheckOutDate(),
+                previousRoomId, previousCheckInDate, previousCheckOutDate);
+    }
+
+    /**
+     * True when the reservation occupied a room or dates before the change that it no longer occupies.
+     */
+    public boolean hasPreviousStay() {
+        return previousRoomId != null;
+    }
+
+    // Getters
+    public Type getType() {
+        return type;
+    }
+
+    public Long getReservationId() {
+        return reservationId;
+    }
+
+    public Long getActorUserId() {
+        return actorUserId;
+    }
+
+    public Long getRoomId() {
+        return roomId;
+    }
+
+    public LocalDate getCheckInDate() {
+        return checkInDate;
+    }
+
+    public LocalDate getCheckOutDate() {
+        return checkOutDate;
+    }
+
+    public Long getPreviousRoomId() {
+        return previousRoomId;
+    }
+
+    public LocalDate getPreviousCheckInDate() {
+        return previousCheckInDate;
+    }
+
+    public LocalDate getPreviousCheckOutDate() {
+        return previousCheckOutDate;
+    }
+
+    @Override
+    public String toString() {
+        return "ReservationChangedEvent{" + type + " reservation=" + reservationId + " room=" + roomId +
+                " " + checkInDate + ".." + checkOutDate + "}";
+    }
+}
@@ -0,0 +1,11 @@
+package com.cottage.reservation.exception;
+
+/**
+ * Thrown when a request breaks a booking rule, e.g. dates in the past or a closed room
+ */
+public class BusinessRuleException extends DomainException {
+
+    public BusinessRuleException(ErrorCode errorCode) {
+        super(errorCode);
+    }
+}
@@ -0,0 +1,19 @@
+package com.cottage.reservation.exception;
+
+/**
+ * Base of the expected business rule violations. These are outcomes, not bugs: they carry an
+ * error code instead of a stack trace, so rejecting a request costs no more than answering it.
+ */
+public abstract class DomainException extends RuntimeException {
+
+    private final ErrorCode errorCode;
+
+    protected DomainException(ErrorCode errorCode) {
+        super(errorCode.getMessage(), null, false, false);
+        this.errorCode = errorCode;
+    }
+
+    public ErrorCode getErrorCode() {
+        return errorCode;
+    }
+}
@@ -0,0 +1,51 @@
+package com.cottage.reservation.exception;
+
+import com.cottage.reservation.dto.ErrorResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Expected business outcomes, each with its HTTP status and a fixed message. The error body is
+ * built once per code and shared by every response.
+ */
+public enum ErrorCode {
+    USER_NOT_FOUND(HttpStatus.NOT_FOUND, "User not found"),
+    ROOM_NOT_FOUND(HttpStatus.NOT_FOUND, "Room not found"),
+    PROPERTY_NOT_FOUND(HttpStatus.NOT_FOUND, "Property not found"),
+    RESERVATION_NOT_FOUND(HttpStatus.NOT_FOUND, "Reservation not found"),
+    ROOM_NOT_AVAILABLE(HttpStatus.BAD_REQUEST, "Room is not available"),
+    ROOM_ALREADY_BOOKED(HttpStatus.CONFLICT, "Room is already booked for the selected dates"),
+    CHECK_IN_IN_PAST(HttpStatus.BAD_REQUEST, "Check-in date cannot be in the past"),
+    STAY_TOO_SHORT(HttpStatus.BAD_REQUEST, "Check-out date must be at least one day after check-in date"),
+    NOT_RESERVATION_OWNER_UPDATE(HttpStatus.FORBIDDEN, "You can only update your own reservations"),
+    NOT_RESERVATION_OWNER_CANCEL(HttpStatus.FORBIDDEN, "You can only cancel your own reservations"),
+    RESERVATION_NOT_UPDATABLE(HttpStatus.CONFLICT, "Cannot update completed or cancelled reservations"),
+    RESERVATION_NOT_CANCELLABLE(HttpStatus.CONFLICT, "Cannot cancel completed or already cancelled reservations"),
+    TOO_MANY_STREAMS(HttpStatus.TOO_MANY_REQUESTS, "Too many open availability streams from this client");
+
+    private final HttpStatus status;
+    private final String message;
+    private final ErrorResponse body;
+
+    ErrorCode(HttpStatus status, String message) {
+        this.status = status;
+        this.message = message;
+        this.body = new ErrorResponse(name(), status.getReasonPhrase(), message);
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public ErrorResponse getBody() {
+        return body;
+    }
+
+    public ResponseEntity<ErrorResponse> toResponseEntity() {
+        return ResponseEntity.status(status).body(body);
+    }
+}
@@ -0,0 +1,11 @@
+package com.cottage.reservation.exception;
+
+/**
+ * Thrown when a user acts on a reservation that belongs to someone else
+ */
+public class ForbiddenOperationException extends DomainException {
+
+    public ForbiddenOperationException(ErrorCode errorCode) {
+        super(errorCode);
+    }
+}
@@ -0,0 +1,11 @@
+package com.cottage.reservation.exception;
+
+/**
+ * Thrown when a referenced user, property, room or reservation does not exist
+ */
+public class NotFoundException extends DomainException {
+
+    public NotFoundException(ErrorCode errorCode) {
+        super(errorCode);
+    }
+}
@@ -0,0 +1,11 @@
+package com.cottage.reservation.exception;
+
+/**
+ * Thrown when the requested stay overlaps an active reservation of the room
+ */
+public class ReservationConflictException extends DomainException {
+
+    public ReservationConflictException(ErrorCode errorCode) {
+        super(errorCode);
+    }
+}
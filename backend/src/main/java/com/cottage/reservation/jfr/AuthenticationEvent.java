@@ -0,0 +1,24 @@
+package com.cottage.reservation.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JWT check and user lookup in AuthTokenFilter, for requests that carry a bearer token.
+ */
+@Name("com.cottage.reservation.Authentication")
+@Label("Authentication")
+@Category({"Cottage Reservation", "Security"})
+@Description("Bearer token verification and user lookup for one request")
+@Enabled(false)
+@StackTrace(false)
+public class AuthenticationEvent extends jdk.jfr.Event {
+
+    @Label("Result")
+    @Description("authenticated, invalid_token or error")
+    public String result;
+}
@@ -0,0 +1,30 @@
+package com.cottage.reservation.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One call to ReservationService.createReservation, up to the point it returns to the transaction proxy.
+ */
+@Name("com.cottage.reservation.Booking")
+@Label("Booking")
+@Category({"Cottage Reservation", "Bookings"})
+@Description("Reservation creation with its room, length of stay and outcome")
+@Enabled(false)
+@StackTrace(false)
+public class BookingEvent extends jdk.jfr.Event {
+
+    @Label("Room")
+    public long roomId;
+
+    @Label("Nights")
+    public int nights;
+
+    @Label("Outcome")
+    @Description("success, the lower-case error code of a rejected request, invalid or error")
+    public String outcome;
+}
@@ -0,0 +1,30 @@
+package com.cottage.reservation.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The overlapping-reservation query run before a booking is created or moved.
+ */
+@Name("com.cottage.reservation.ConflictCheck")
+@Label("Conflict Check")
+@Category({"Cottage Reservation", "Bookings"})
+@Description("Query for active reservations overlapping a requested stay")
+@Enabled(false)
+@StackTrace(false)
+public class ConflictCheckEvent extends jdk.jfr.Event {
+
+    @Label("Room")
+    public long roomId;
+
+    @Label("Nights")
+    public int nights;
+
+    @Label("Conflicts")
+    @Description("Overlapping reservations found, excluding the one being updated")
+    public int conflicts;
+}
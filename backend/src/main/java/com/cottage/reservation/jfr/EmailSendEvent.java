@@ -0,0 +1,28 @@
+package com.cottage.reservation.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One reservation email handed to the mail server.
+ */
+@Name("com.cottage.reservation.EmailSend")
+@Label("Email Send")
+@Category({"Cottage Reservation", "Email"})
+@Description("SMTP send of a reservation email")
+@Enabled(false)
+@StackTrace(false)
+public class EmailSendEvent extends jdk.jfr.Event {
+
+    @Label("Type")
+    @Description("confirmation, update or cancellation")
+    public String type;
+
+    @Label("Result")
+    @Description("sent or failed")
+    public String result;
+}
@@ -0,0 +1,115 @@
+package com.cottage.reservation.journal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Reads journal segments in sequence order. Safe to use while the journal is being written:
+ * a record that is only partly written fails its checksum and ends the scan of that segment.
+ */
+public class JournalReader {
+
+    private static final String SEGMENT_SUFFIX = ".journal";
+
+    private final Path directory;
+
+    public JournalReader(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Every recorded change of one reservation, oldest first.
+     */
+    public List<JournalRecord> history(long reservationId) {
+        List<JournalRecord> history = new ArrayList<>();
+        replay(record -> {
+            if (record.getReservationId() == reservationId) {
+                history.add(record);
+            }
+        });
+        return history;
+    }
+
+    public void replay(Consumer<JournalRecord> consumer) {
+        replayFrom(1, consumer);
+    }
+
+    /**
+     * Feeds every record with a sequence number of at least fromSequence to the consumer, in order.
+     */
+    public void replayFrom(long fromSequence, Consumer<JournalRecord> consumer) {
+        List<Path> segments = listSegments(directory);
+        for (int i = 0; i < segments.size(); i++) {
+            // Skip segments that end before the requested sequence
+            if (i + 1 < segments.size() && firstSequenceOf(segments.get(i + 1)) <= fromSequence) {
+                continue;
+            }
+            scan(segments.get(i), record -> {
+                if (record.getSequence() >= fromSequence) {
+                    consumer.accept(record);
+                }
+            });
+        }
+    }
+
+    public List<Path> segments() {
+        return listSegments(directory);
+    }
+
+    static List<Path> listSegments(Path directory) {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not list journal segments in " + directory, e);
+        }
+    }
+
+    static String segmentFileName(long firstSequence) {
+        return String.format("%020d%s", firstSequence, SEGMENT_SUFFIX);
+    }
+
+    static long firstSequenceOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    static long lastSequenceIn(Path segment) {
+        long[] last = {0};
+        scan(segment, record -> last[0] = record.getSequence());
+        return last[0];
+    }
+
+    private static void scan(Path segment, Consumer<JournalRecord> consumer) {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            long size = channel.size();
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            CRC32C crc = new CRC32C();
+            for (int offset = 0; offset + JournalRecord.SIZE <= size; offset += JournalRecord.SIZE) {
+                JournalRecord record = JournalRecord.decode(buffer, offset, crc);
+                if (record == null) {
+                    return;
+                }
+                consumer.accept(record);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read journal segment " + segment, e);
+        }
+    }
+}
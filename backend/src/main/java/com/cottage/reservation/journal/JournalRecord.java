@@ -0,0 +1,198 @@
+package com.cottage.reservation.journal;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.zip.CRC32C;
+
+/**
+ * One reservation state change in the journal, stored as a fixed 64-byte little-endian record:
+ * <pre>
+ *  0  short  magic (0x524A, "RJ")
+ *  2  byte   format version
+ *  3  byte   change type code
+ *  4  long   sequence number
+ * 12  long   timestamp (epoch millis)
+ * 20  long   reservation id
+ * 28  long   acting user id (0 for system changes)
+ * 36  int    room id
+ * 40  int    check-in (epoch day)
+ * 44  int    check-out (epoch day)
+ * 48  int    previous room id (0 when the stay did not move)
+ * 52  int    previous check-in (epoch day)
+ * 56  int    previous check-out (epoch day)
+ * 60  int    CRC32C of bytes 0-59
+ * </pre>
+ * A record whose magic or checksum does not match marks the end of the written part of a segment.
+ */
+public final class JournalRecord {
+
+    public static final int SIZE = 64;
+
+    static final short MAGIC = 0x524A;
+    static final byte VERSION = 1;
+    private static final int CHECKSUM_OFFSET = 60;
+
+    public enum Type {
+        CREATED(1),
+        UPDATED(2),
+        CANCELLED(3),
+        COMPLETED(4),
+        EXPIRED(5);
+
+        private final byte code;
+
+        Type(int code) {
+            this.code = (byte) code;
+        }
+
+        public byte getCode() {
+            return code;
+        }
+
+        static Type fromCode(byte code) {
+            for (Type type : values()) {
+                if (type.code == code) {
+                    return type;
+                }
+            }
+            return null;
+        }
+    }
+
+    private final Type type;
+    private final long sequence;
+    private final long timestampMillis;
+    private final long reservationId;
+    private final long actorUserId;
+    private final int roomId;
+    private final int checkInEpochDay;
+    private final int checkOutEpochDay;
+    private final int previousRoomId;
+    private final int previousCheckInEpochDay;
+    private final int previousCheckOutEpochDay;
+
+    JournalRecord(Type type, long sequence, long timestampMillis, long reservationId, long actorUserId,
+                  int roomId, int checkInEpochDay, int checkOutEpochDay,
+                  int previousRoomId, int previousCheckInEpochDay, int previousCheckOutEpochDay) {
+        this.type = type;
+        this.sequence = sequence;
+        this.timestampMillis = timestampMillis;
+        this.reservationId = reservationId;
+        this.actorUserId = actorUserId;
+        this.roomId = roomId;
+        this.checkInEpochDay = checkInEpochDay;
+        this.checkOutEpochDay = checkOutEpochDay;
+        this.previousRoomId = previousRoomId;
+        this.previousCheckInEpochDay = previousCheckInEpochDay;
+        this.previousCheckOutEpochDay = previousCheckOutEpochDay;
+    }
+
+    /**
+     * Encodes a record into buffer positions 0-63, checksum included. The buffer must be little-endian.
+     */
+    static void encode(ByteBuffer buffer, CRC32C crc, Type type, long sequence, long timestampMillis,
+                       long reservationId, long actorUserId, int roomId, int checkInEpochDay, int checkOutEpochDay,
+                       int previousRoomId, int previousCheckInEpochDay, int previousCheckOutEpochDay) {
+        buffer.putShort(0, MAGIC);
+        buffer.put(2, VERSION);
+        buffer.put(3, type.getCode());
+        buffer.putLong(4, sequence);
+        buffer.putLong(12, timestampMillis);
+        buffer.putLong(20, reservationId);
+        buffer.putLong(28, actorUserId);
+        buffer.putInt(36, roomId);
+        buffer.putInt(40, checkInEpochDay);
+        buffer.putInt(44, checkOutEpochDay);
+        buffer.putInt(48, previousRoomId);
+        buffer.putInt(52, previousCheckInEpochDay);
+        buffer.putInt(56, previousCheckOutEpochDay);
+        crc.reset();
+        crc.update(buffer.array(), buffer.arrayOffset(), CHECKSUM_OFFSET);
+        buffer.putInt(CHECKSUM_OFFSET, (int) crc.getValue());
+    }
+
+    /**
+     * Decodes the record at the given offset, or returns null if no valid record is stored there.
+     */
+    static JournalRecord decode(ByteBuffer buffer, int offset, CRC32C crc) {
+        if (buffer.getShort(offset) != MAGIC || buffer.get(offset + 2) != VERSION) {
+            return null;
+        }
+        crc.reset();
+        crc.update(buffer.slice(offset, CHECKSUM_OFFSET));
+        if ((int) crc.getValue() != buffer.getInt(offset + CHECKSUM_OFFSET)) {
+            return null;
+        }
+        Type type = Type.fromCode(buffer.get(offset + 3));
+        if (type == null) {
+            return null;
+        }
+        return new JournalRecord(type,
+                buffer.getLong(offset + 4),
+                buffer.getLong(offset + 12),
+                buffer.getLong(offset + 20),
+                buffer.getLong(offset + 28),
+                buffer.getInt(offset + 36),
+                buffer.getInt(offset + 40),
+                buffer.getInt(offset + 44),
+                buffer.getInt(offset + 48),
+                buffer.getInt(offset + 52),
+                buffer.getInt(offset + 56));
+    }
+
+    public boolean hasPreviousStay() {
+        return previousRoomId != 0;
+    }
+
+    // Getters
+    public Type getType() {
+        return type;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public Instant getTimestamp() {
+        return Instant.ofEpochMilli(timestampMillis);
+    }
+
+    public long getReservationId() {
+        return reservationId;
+    }
+
+    public Long getActorUserId() {
+        return actorUserId == 0 ? null : actorUserId;
+    }
+
+    public long getRoomId() {
+        return roomId;
+    }
+
+    public LocalDate getCheckInDate() {
+        return LocalDate.ofEpochDay(checkInEpochDay);
+    }
+
+    public LocalDate getCheckOutDate() {
+        return LocalDate.ofEpochDay(checkOutEpochDay);
+    }
+
+    public Long getPreviousRoomId() {
+        return hasPreviousStay() ? (long) previousRoomId : null;
+    }
+
+    public LocalDate getPreviousCheckInDate() {
+        return hasPreviousStay() ? LocalDate.ofEpochDay(previousCheckInEpochDay) : null;
+    }
+
+    public LocalDate getPreviousCheckOutDate() {
+        return hasPreviousStay() ? LocalDate.ofEpochDay(previousCheckOutEpochDay) : null;
+    }
+
+    @Override
+    public String toString() {
+        return "#" + sequence + " " + getTimestamp() + " " + type + " reservation=" + reservationId +
+                " actor=" + getActorUserId() + " room=" + roomId + " " + getCheckInDate() + ".." + getCheckOutDate();
+    }
+}
@@ -0,0 +1,238 @@
+package com.cottage.reservation.journal;
+
+import com.cottage.reservation.event.ReservationChangedEvent;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only audit journal of reservation state changes.
+ * <p>
+ * Records are written into a memory-mapped segment file, so an append is a 64-byte copy into the page
+ * cache with no system call. Dirty pages are forced to disk every fsync-interval, which bounds what a
+ * machine crash can lose; a process crash loses nothing because the pages belong to the OS. When a
+ * segment is full the journal rolls over to a new file named after its first sequence number.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.journal", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ReservationJournal implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReservationJournal.class);
+
+    private final Path directory;
+    private final int segmentSize;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ByteBuffer scratch = ByteBuffer.allocate(JournalRecord.SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    private final CRC32C crc = new CRC32C();
+
+    private FileChannel channel;
+    private volatile MappedByteBuffer segment;
+    private int position;
+    private long nextSequence = 1;
+    private volatile boolean dirty;
+
+    private final LongAdder appended = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder fsyncs = new LongAdder();
+    private final LongAdder rollovers = new LongAdder();
+
+    public ReservationJournal(@Value("${app.journal.directory:data/journal}") String directory,
+                              @Value("${app.journal.segment-size:67108864}") int segmentSize) {
+        this.directory = Paths.get(directory);
+        this.segmentSize = Math.max(JournalRecord.SIZE, segmentSize - segmentSize % JournalRecord.SIZE);
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        Files.createDirectories(directory);
+        List<Path> segments = JournalReader.listSegments(directory);
+        if (segments.isEmpty()) {
+            openSegment(1);
+        } else {
+            recover(segments.get(segments.size() - 1));
+        }
+        logger.info("Reservation journal open in {} (next sequence {})", directory.toAbsolutePath(), nextSequence);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationChanged(ReservationChangedEvent event) {
+        try {
+            append(event);
+        } catch (RuntimeException e) {
+            // The change is already committed; losing its audit record must not fail the request
+            failed.increment();
+            logger.error("Could not journal {}: {}", event, e.getMessage());
+        }
+    }
+
+    public long append(ReservationChangedEvent event) {
+        return append(JournalRecord.Type.valueOf(event.getType().name()), event.getReservationId(),
+                event.getActorUserId(), event.getRoomId(), event.getCheckInDate(), event.getCheckOutDate(),
+                event.getPreviousRoomId(), event.getPreviousCheckInDate(), event.getPreviousCheckOutDate());
+    }
+
+    /**
+     * Appends one record and returns its sequence number.
+     */
+    public long append(JournalRecord.Type type, long reservationId, Long actorUserId, long roomId,
+                       LocalDate checkInDate, LocalDate checkOutDate,
+                       Long previousRoomId, LocalDate previousCheckInDate, LocalDate previousCheckOutDate) {
+        long timestamp = System.currentTimeMillis();
+        lock.lock();
+        try {
+            if (position + JournalRecord.SIZE > segmentSize) {
+                rollOver();
+            }
+            long sequence = nextSequence;
+            JournalRecord.encode(scratch, crc, type, sequence, timestamp, reservationId,
+                    actorUserId == null ? 0 : actorUserId,
+                    (int) roomId,
+                    (int) checkInDate.toEpochDay(),
+                    (int) checkOutDate.toEpochDay(),
+                    previousRoomId == null ? 0 : previousRoomId.intValue(),
+                    previousCheckInDate == null ? 0 : (int) previousCheckInDate.toEpochDay(),
+                    previousCheckOutDate == null ? 0 : (int) previousCheckOutDate.toEpochDay());
+            segment.put(position, scratch.array(), 0, JournalRecord.SIZE);
+            position += JournalRecord.SIZE;
+            nextSequence = sequence + 1;
+            dirty = true;
+            appended.increment();
+            return sequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Forces appended records to disk. Runs every fsync-interval; the booking path never waits for it.
+     */
+    @Scheduled(fixedDelayString = "${app.journal.fsync-interval:1000}")
+    public void sync() {
+        if (!dirty) {
+            return;
+        }
+        dirty = false;
+        segment.force();
+        fsyncs.increment();
+    }
+
+    public JournalReader reader() {
+        return new JournalReader(directory);
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public long getNextSequence() {
+        lock.lock();
+        try {
+            return nextSequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("journal.records", appended, LongAdder::sum)
+                .tag("result", "appended")
+                .description("Reservation changes written to the audit journal")
+                .register(registry);
+        FunctionCounter.builder("journal.records", failed, LongAdder::sum)
+                .tag("result", "failed")
+                .description("Reservation changes written to the audit journal")
+                .register(registry);
+        FunctionCounter.builder("journal.fsyncs", fsyncs, LongAdder::sum)
+                .description("Journal segment flushes to disk")
+                .register(registry);
+        FunctionCounter.builder("journal.rollovers", rollovers, LongAdder::sum)
+                .description("Journal segments started because the previous one was full")
+                .register(registry);
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (segment != null) {
+                segment.force();
+            }
+            if (channel != null) {
+                channel.close();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void rollOver() {
+        try {
+            segment.force();
+            channel.close();
+            openSegment(nextSequence);
+            rollovers.increment();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not roll over journal segment", e);
+        }
+    }
+
+    private void openSegment(long firstSequence) throws IOException {
+        Path file = directory.resolve(JournalReader.segmentFileName(firstSequence));
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        mapped.order(ByteOrder.LITTLE_ENDIAN);
+        segment = mapped;
+        position = 0;
+        nextSequence = firstSequence;
+    }
+
+    // Reopens the newest segment and continues after its last intact record
+    private void recover(Path file) throws IOException {
+        long firstSequence = JournalReader.firstSequenceOf(file);
+        long existingSize = Files.size(file);
+        if (existingSize > segmentSize) {
+            // Written with a larger segment size; keep it as is and start a new one after it
+            long last = JournalReader.lastSequenceIn(file);
+            openSegment(last == 0 ? firstSequence : last + 1);
+            return;
+        }
+
+        openSegment(firstSequence);
+        CRC32C check = new CRC32C();
+        while (position + JournalRecord.SIZE <= segmentSize) {
+            JournalRecord record = JournalRecord.decode(segment, position, check);
+            if (record == null) {
+                break;
+            }
+            nextSequence = record.getSequence() + 1;
+            position += JournalRecord.SIZE;
+        }
+    }
+}
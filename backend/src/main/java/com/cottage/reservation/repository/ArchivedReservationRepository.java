@@ -0,0 +1,49 @@
+package com.cottage.reservation.repository;
+
+import com.cottage.reservation.dto.ReservationExportRow;
+import com.cottage.reservation.entity.ArchivedReservation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import jakarta.persistence.QueryHint;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
+@Repository
+public interface ArchivedReservationRepository extends JpaRepository<ArchivedReservation, Long> {
+    List<ArchivedReservation> findByUserIdOrderByCheckInDateDesc(Long userId);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.cottage.reservation.dto.ReservationExportRow(r.id, u.username, u.email, rm.id, rm.name, " +
+           "r.checkInDate, r.checkOutDate, r.numberOfGuests, r.status, r.notes, r.createdAt, r.updatedAt, true) " +
+           "FROM ArchivedReservation r JOIN r.user u JOIN r.room rm " +
+           "WHERE r.checkOutDate > :startDate AND r.checkInDate < :endDate ORDER BY r.id")
+    Stream<ReservationExportRow> streamForExport(@Param("startDate") LocalDate startDate,
+                                                 @Param("endDate") LocalDate endDate);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.cottage.reservation.dto.ReservationExportRow(r.id, u.username, u.email, rm.id, rm.name, " +
+           "r.checkInDate, r.checkOutDate, r.numberOfGuests, r.status, r.notes, r.createdAt, r.updatedAt, true) " +
+           "FROM ArchivedReservation r JOIN r.user u JOIN r.room rm " +
+           "WHERE u.id = :userId AND r.checkOutDate > :startDate AND r.checkInDate < :endDate ORDER BY r.id")
+    Stream<ReservationExportRow> streamForExportByUser(@Param("userId") Long userId,
+                                                       @Param("startDate") LocalDate startDate,
+                                                       @Param("endDate") LocalDate endDate);
+
+    // Copied inside the database so archived rows never pass through the persistence context
+    @Modifying
+    @Query(value = "INSERT INTO reservations_archive (id, check_in_date, check_out_date, number_of_guests, total_price, " +
+                   "reservation_status, notes, created_at, updated_at, user_id, room_id, archived_at) " +
+                   "SELECT id, check_in_date, check_out_date, number_of_guests, total_price, " +
+                   "reservation_status, notes, created_at, updated_at, user_id, room_id, :archivedAt " +
+                   "FROM reservations WHERE id IN (:ids)",
+           nativeQuery = true)
+    int copyFromReservations(@Param("ids") List<Long> ids, @Param("archivedAt") LocalDateTime archivedAt);
+}
@@ -0,0 +1,38 @@
+package com.cottage.reservation.repository;
+
+import com.cottage.reservation.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.id = :id AND r.expiresAt <= :now")
+    int deleteIfExpired(@Param("id") String id, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.expiresAt = :expiresAt " +
+           "WHERE r.id = :id AND r.ownerToken = :owner AND r.responseStatus IS NULL")
+    int renewClaim(@Param("id") String id, @Param("owner") String owner, @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.responseStatus = :status, r.contentType = :contentType, " +
+           "r.responseBody = :body, r.expiresAt = :expiresAt " +
+           "WHERE r.id = :id AND r.ownerToken = :owner AND r.responseStatus IS NULL")
+    int completeClaim(@Param("id") String id, @Param("owner") String owner, @Param("status") int status,
+                      @Param("contentType") String contentType, @Param("body") byte[] body,
+                      @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.id = :id AND r.ownerToken = :owner AND r.responseStatus IS NULL")
+    int releaseClaim(@Param("id") String id, @Param("owner") String owner);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
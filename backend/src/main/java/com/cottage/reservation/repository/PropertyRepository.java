@@ -0,0 +1,11 @@
+package com.cottage.reservation.repository;
+
+import com.cottage.reservation.entity.Property;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+
+@Repository
+public interface PropertyRepository extends JpaRepository<Property, Long> {
+    List<Property> findAllByOrderByIdAsc();
+}
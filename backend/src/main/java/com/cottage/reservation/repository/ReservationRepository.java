@@ -1,35 +1,133 @@
 package com.cottage.reservation.repository;
 
+import com.cottage.reservation.dto.ReservationExportRow;
 import com.cottage.reservation.entity.Reservation;
 import com.cottage.reservation.entity.Reservation.ReservationStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface ReservationRepository extends JpaRepository<Reservation, Long> {
     List<Reservation> findByUserId(Long userId);
+    // Reservation lists are serialized with their user and room; fetching them here avoids a query per row
+    @EntityGraph(attributePaths = {"user", "room"})
     List<Reservation> findByUserIdOrderByCheckInDateDesc(Long userId);
     List<Reservation> findByRoomId(Long roomId);
+
+    // Updates and cancellations of one reservation apply one after the other instead of overwriting each other
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Reservation r WHERE r.id = :id")
+    Optional<Reservation> findByIdForUpdate(@Param("id") Long id);
+
     List<Reservation> findByStatus(ReservationStatus status);
     
+    @EntityGraph(attributePaths = {"user", "room"})
     @Query("SELECT r FROM Reservation r WHERE r.status IN ('PENDING', 'CONFIRMED')")
     List<Reservation> findActiveReservations();
     
+    @Query("SELECT r FROM Reservation r WHERE r.status IN ('PENDING', 'CONFIRMED') AND r.id > :afterId ORDER BY r.id")
+    List<Reservation> findActiveReservationsAfter(@Param("afterId") Long afterId, Pageable pageable);
+    
+    @Query("SELECT r FROM Reservation r WHERE r.room.id = :roomId AND r.status IN ('PENDING', 'CONFIRMED')")
+    List<Reservation> findActiveReservationsByRoom(@Param("roomId") Long roomId);
+    
     @Query("SELECT r FROM Reservation r WHERE r.room.id = :roomId AND r.status IN ('PENDING', 'CONFIRMED') " +
            "AND NOT (r.checkOutDate <= :startDate OR r.checkInDate >= :endDate)")
     List<Reservation> findConflictingReservations(@Param("roomId") Long roomId, 
                                                  @Param("startDate") LocalDate startDate, 
                                                  @Param("endDate") LocalDate endDate);
     
+    @Query("SELECT r FROM Reservation r WHERE r.room.id IN :roomIds AND r.status IN ('PENDING', 'CONFIRMED') " +
+           "AND r.checkOutDate > :startDate AND r.checkInDate < :endDate")
+    List<Reservation> findActiveReservationsForRooms(@Param("roomIds") Collection<Long> roomIds,
+                                                     @Param("startDate") LocalDate startDate,
+                                                     @Param("endDate") LocalDate endDate);
+    
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.cottage.reservation.dto.ReservationExportRow(r.id, u.username, u.email, rm.id, rm.name, " +
+           "r.checkInDate, r.checkOutDate, r.numberOfGuests, r.status, r.notes, r.createdAt, r.updatedAt, false) " +
+           "FROM Reservation r JOIN r.user u JOIN r.room rm " +
+           "WHERE r.checkOutDate > :startDate AND r.checkInDate < :endDate ORDER BY r.id")
+    Stream<ReservationExportRow> streamForExport(@Param("startDate") LocalDate startDate,
+                                                 @Param("endDate") LocalDate endDate);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.cottage.reservation.dto.ReservationExportRow(r.id, u.username, u.email, rm.id, rm.name, " +
+           "r.checkInDate, r.checkOutDate, r.numberOfGuests, r.status, r.notes, r.createdAt, r.updatedAt, false) " +
+           "FROM Reservation r JOIN r.user u JOIN r.room rm " +
+           "WHERE u.id = :userId AND r.checkOutDate > :startDate AND r.checkInDate < :endDate ORDER BY r.id")
+    Stream<ReservationExportRow> streamForExportByUser(@Param("userId") Long userId,
+                                                       @Param("startDate") LocalDate startDate,
+                                                       @Param("endDate") LocalDate endDate);
+    
+    @Query("SELECT DISTINCT r.room.id FROM Reservation r WHERE r.room.property.id = :propertyId " +
+           "AND r.status IN ('PENDING', 'CONFIRMED') AND NOT (r.checkOutDate <= :startDate OR r.checkInDate >= :endDate)")
+    List<Long> findBookedRoomIds(@Param("propertyId") Long propertyId,
+                                 @Param("startDate") LocalDate startDate,
+                                 @Param("endDate") LocalDate endDate);
+    
+    @EntityGraph(attributePaths = {"user", "room"})
     @Query("SELECT r FROM Reservation r WHERE r.checkInDate >= :startDate AND r.checkOutDate <= :endDate")
     List<Reservation> findReservationsBetweenDates(@Param("startDate") LocalDate startDate, 
                                                    @Param("endDate") LocalDate endDate);
     
+    // The property's rooms come from the room cache, so this walks idx_reservations_room_check_in once per room
+    @EntityGraph(attributePaths = {"user", "room"})
+    @Query("SELECT r FROM Reservation r WHERE r.room.id IN :roomIds " +
+           "AND r.checkInDate >= :startDate AND r.checkOutDate <= :endDate")
+    List<Reservation> findReservationsBetweenDatesForRooms(@Param("roomIds") Collection<Long> roomIds,
+                                                           @Param("startDate") LocalDate startDate,
+                                                           @Param("endDate") LocalDate endDate);
+    
     @Query("SELECT r FROM Reservation r WHERE r.user.id = :userId AND r.status IN ('PENDING', 'CONFIRMED') " +
            "ORDER BY r.checkInDate ASC")
     List<Reservation> findUpcomingReservationsByUser(@Param("userId") Long userId);
+    
+    @Query("SELECT r.id FROM Reservation r WHERE r.status IN ('PENDING', 'CONFIRMED') AND r.checkOutDate < :today " +
+           "ORDER BY r.id")
+    List<Long> findIdsOfFinishedStays(@Param("today") LocalDate today, Pageable pageable);
+    
+    @Modifying
+    @Query("UPDATE Reservation r SET r.status = :completed, r.updatedAt = :now " +
+           "WHERE r.id IN :ids AND r.status IN ('PENDING', 'CONFIRMED') AND r.checkOutDate < :today")
+    int completeFinishedStays(@Param("ids") List<Long> ids,
+                              @Param("today") LocalDate today,
+                              @Param("now") LocalDateTime now,
+                              @Param("completed") ReservationStatus completed);
+    
+    @Query("SELECT r.id FROM Reservation r WHERE r.status = 'PENDING' AND r.createdAt < :cutoff ORDER BY r.id")
+    List<Long> findIdsOfExpiredPendingHolds(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+    
+    @Modifying
+    @Query("UPDATE Reservation r SET r.status = :cancelled, r.updatedAt = :now " +
+           "WHERE r.id IN :ids AND r.status = 'PENDING' AND r.createdAt < :cutoff")
+    int expirePendingHolds(@Param("ids") List<Long> ids,
+                           @Param("cutoff") LocalDateTime cutoff,
+                           @Param("now") LocalDateTime now,
+                           @Param("cancelled") ReservationStatus cancelled);
+    
+    @Query("SELECT r.id FROM Reservation r WHERE r.status IN ('COMPLETED', 'CANCELLED') AND r.checkOutDate < :cutoff " +
+           "ORDER BY r.id")
+    List<Long> findIdsOfArchivableReservations(@Param("cutoff") LocalDate cutoff, Pageable pageable);
+    
+    @Modifying
+    @Query("DELETE FROM Reservation r WHERE r.id IN :ids")
+    int deleteByIdIn(@Param("ids") List<Long> ids);
 }
@@ -0,0 +1,40 @@
+package com.cottage.reservation.repository;
+
+import com.cottage.reservation.entity.RoomAvailabilityDay;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface RoomAvailabilityDayRepository extends JpaRepository<RoomAvailabilityDay, RoomAvailabilityDay.Key> {
+
+    @Query("SELECT DISTINCT d.roomId FROM RoomAvailabilityDay d WHERE d.propertyId = :propertyId " +
+           "AND d.stayDate >= :startDate AND d.stayDate < :endDate")
+    List<Long> findBookedRoomIds(@Param("propertyId") Long propertyId,
+                                 @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT DISTINCT d.roomId FROM RoomAvailabilityDay d WHERE d.stayDate >= :startDate AND d.stayDate < :endDate")
+    List<Long> findBookedRoomIds(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT d FROM RoomAvailabilityDay d WHERE d.roomId = :roomId " +
+           "AND d.stayDate >= :startDate AND d.stayDate < :endDate ORDER BY d.stayDate")
+    List<RoomAvailabilityDay> findByRoomIdBetween(@Param("roomId") Long roomId,
+                                                  @Param("startDate") LocalDate startDate,
+                                                  @Param("endDate") LocalDate endDate);
+
+    List<RoomAvailabilityDay> findByRoomId(Long roomId);
+
+    @Modifying
+    @Query("DELETE FROM RoomAvailabilityDay d WHERE d.roomId = :roomId AND d.stayDate >= :startDate AND d.stayDate < :endDate")
+    int deleteByRoomIdBetween(@Param("roomId") Long roomId,
+                              @Param("startDate") LocalDate startDate,
+                              @Param("endDate") LocalDate endDate);
+
+    @Modifying
+    @Query("DELETE FROM RoomAvailabilityDay d")
+    int deleteAllDays();
+}
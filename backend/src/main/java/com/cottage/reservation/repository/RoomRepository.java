@@ -1,24 +1,39 @@
 package com.cottage.reservation.repository;
 
 import com.cottage.reservation.entity.Room;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface RoomRepository extends JpaRepository<Room, Long> {
-    List<Room> findByIsAvailableTrue();
+    // Served by uk_rooms_property_name (property_id, name)
+    List<Room> findByPropertyIdOrderByIdAsc(Long propertyId);
+
+    List<Room> findByPropertyIdAndIsAvailableTrue(Long propertyId);
+
+    @Query("SELECT r.property.id FROM Room r WHERE r.id = :id")
+    Optional<Long> findPropertyIdById(@Param("id") Long id);
     
-    @Query("SELECT r FROM Room r WHERE r.isAvailable = true AND r.id NOT IN " +
+    @Query("SELECT r FROM Room r WHERE r.property.id = :propertyId AND r.isAvailable = true AND r.id NOT IN " +
            "(SELECT res.room.id FROM Reservation res WHERE res.status IN ('PENDING', 'CONFIRMED') " +
            "AND NOT (res.checkOutDate <= :startDate OR res.checkInDate >= :endDate))")
-    List<Room> findAvailableRooms(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+    List<Room> findAvailableRooms(@Param("propertyId") Long propertyId,
+                                  @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
     
     @Query("SELECT r FROM Room r WHERE r.id = :roomId AND r.isAvailable = true AND r.id NOT IN " +
            "(SELECT res.room.id FROM Reservation res WHERE res.status IN ('PENDING', 'CONFIRMED') " +
            "AND NOT (res.checkOutDate <= :startDate OR res.checkInDate >= :endDate))")
     Room findAvailableRoomById(@Param("roomId") Long roomId, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    // Serializes bookings of one room: held from the conflict check until the new stay is committed
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Room r WHERE r.id = :id")
+    Optional<Room> findByIdForUpdate(@Param("id") Long id);
 }
@@ -0,0 +1,27 @@
+package com.cottage.reservation.repository;
+
+import com.cottage.reservation.entity.SchedulerLock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+
+@Repository
+public interface SchedulerLockRepository extends JpaRepository<SchedulerLock, String> {
+
+    @Modifying
+    @Query("UPDATE SchedulerLock l SET l.lockedUntil = :lockedUntil, l.lockedBy = :owner " +
+           "WHERE l.name = :name AND l.lockedUntil <= :now")
+    int acquire(@Param("name") String name,
+                @Param("owner") String owner,
+                @Param("now") LocalDateTime now,
+                @Param("lockedUntil") LocalDateTime lockedUntil);
+
+    @Modifying
+    @Query("UPDATE SchedulerLock l SET l.lockedUntil = :now WHERE l.name = :name AND l.lockedBy = :owner")
+    int release(@Param("name") String name,
+                @Param("owner") String owner,
+                @Param("now") LocalDateTime now);
+}
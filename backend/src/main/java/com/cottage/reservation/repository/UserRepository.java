@@ -3,6 +3,8 @@ package com.cottage.reservation.repository;
 import com.cottage.reservation.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -11,4 +13,6 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     Boolean existsByUsername(String username);
     Boolean existsByEmail(String email);
+    List<User> findByUsernameIn(Collection<String> usernames);
+    List<User> findByEmailIn(Collection<String> emails);
 }
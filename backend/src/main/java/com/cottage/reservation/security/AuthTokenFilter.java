@@ -1,5 +1,7 @@
 package com.cottage.reservation.security;
 
+import com.cottage.reservation.jfr.AuthenticationEvent;
+import com.cottage.reservation.trace.RequestTracer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -23,26 +25,45 @@ public class AuthTokenFilter extends OncePerRequestFilter {
     @Autowired
     private CustomUserDetailsService userDetailsService;
 
+    @Autowired
+    private RequestTracer requestTracer;
+
     private static final Logger logger = LoggerFactory.getLogger(AuthTokenFilter.class);
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
+        String jwt = parseJwt(request);
+        AuthenticationEvent event = new AuthenticationEvent();
+        event.begin();
+        String result = "invalid_token";
         try {
-            String jwt = parseJwt(request);
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUserNameFromJwtToken(jwt);
-
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            String username = null;
+            try (RequestTracer.Span phase = requestTracer.phase("auth.jwt")) {
+                if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
+                    username = jwtUtils.getUserNameFromJwtToken(jwt);
+                }
+            }
+            if (username != null) {
+                UserDetails userDetails;
+                try (RequestTracer.Span phase = requestTracer.phase("auth.loadUserByUsername")) {
+                    userDetails = userDetailsService.loadUserByUsername(username);
+                }
                 UsernamePasswordAuthenticationToken authentication = 
                         new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
                 SecurityContextHolder.getContext().setAuthentication(authentication);
+                result = "authenticated";
             }
         } catch (Exception e) {
+            result = "error";
             logger.error("Cannot set user authentication: {}", e.getMessage());
         }
+        if (jwt != null && event.shouldCommit()) {
+            event.result = result;
+            event.commit();
+        }
 
         filterChain.doFilter(request, response);
     }
@@ -3,23 +3,46 @@ package com.cottage.reservation.security;
 import com.cottage.reservation.entity.User;
 import com.cottage.reservation.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Set;
 
 @Service
 public class CustomUserDetailsService implements UserDetailsService {
     @Autowired
     UserRepository userRepository;
 
+    // Operators allowed to call the actuator's administrative endpoints
+    @Value("${app.security.admin-usernames:}")
+    private Set<String> adminUsernames;
+
+    private final TransactionTemplate primaryLookup;
+
+    public CustomUserDetailsService(PlatformTransactionManager transactionManager) {
+        // A read-write transaction is always routed to the primary database
+        this.primaryLookup = new TransactionTemplate(transactionManager);
+        this.primaryLookup.setPropagationBehavior(TransactionTemplate.PROPAGATION_REQUIRES_NEW);
+    }
+
     @Override
-    @Transactional
+    @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         User user = userRepository.findByUsername(username)
+                // A user who just signed up may not have reached the read replica yet
+                .or(() -> primaryLookup.execute(status -> userRepository.findByUsername(username)))
                 .orElseThrow(() -> new UsernameNotFoundException("User Not Found with username: " + username));
 
-        return UserPrincipal.create(user);
+        return UserPrincipal.create(user, adminUsernames.contains(user.getUsername())
+                ? List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))
+                : List.of());
     }
 }
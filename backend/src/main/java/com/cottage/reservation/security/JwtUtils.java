@@ -3,8 +3,11 @@ package com.cottage.reservation.security;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
@@ -22,6 +25,9 @@ public class JwtUtils {
     @Value("${jwt.expiration}")
     private int jwtExpirationMs;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     public String generateJwtToken(Authentication authentication) {
         UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
 
@@ -43,17 +49,29 @@ public class JwtUtils {
     }
 
     public boolean validateJwtToken(String authToken) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String result = "error";
         try {
             Jwts.parserBuilder().setSigningKey(key()).build().parse(authToken);
+            result = "valid";
             return true;
         } catch (MalformedJwtException e) {
+            result = "malformed";
             logger.error("Invalid JWT token: {}", e.getMessage());
         } catch (ExpiredJwtException e) {
+            result = "expired";
             logger.error("JWT token is expired: {}", e.getMessage());
         } catch (UnsupportedJwtException e) {
+            result = "unsupported";
             logger.error("JWT token is unsupported: {}", e.getMessage());
         } catch (IllegalArgumentException e) {
+            result = "empty";
             logger.error("JWT claims string is empty: {}", e.getMessage());
+        } finally {
+            sample.stop(Timer.builder("jwt.verify")
+                    .tag("result", result)
+                    .description("JWT signature and expiry checks on incoming requests")
+                    .register(meterRegistry));
         }
 
         return false;
@@ -6,26 +6,39 @@ import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 
 public class UserPrincipal implements UserDetails {
     private Long id;
     private String username;
     private String email;
     private String password;
+    private Collection<? extends GrantedAuthority> authorities;
 
     public UserPrincipal(Long id, String username, String email, String password) {
+        this(id, username, email, password, Collections.emptyList());
+    }
+
+    public UserPrincipal(Long id, String username, String email, String password,
+                         Collection<? extends GrantedAuthority> authorities) {
         this.id = id;
         this.username = username;
         this.email = email;
         this.password = password;
+        this.authorities = authorities;
     }
 
     public static UserPrincipal create(User user) {
+        return create(user, Collections.emptyList());
+    }
+
+    public static UserPrincipal create(User user, List<? extends GrantedAuthority> authorities) {
         return new UserPrincipal(
                 user.getId(),
                 user.getUsername(),
                 user.getEmail(),
-                user.getPassword()
+                user.getPassword(),
+                authorities
         );
     }
 
@@ -49,7 +62,7 @@ public class UserPrincipal implements UserDetails {
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        return Collections.emptyList();
+        return authorities;
     }
 
     @Override
@@ -0,0 +1,156 @@
+package com.cottage.reservation.service;
+
+import com.cottage.reservation.dto.AvailabilityConsistencyReport;
+import com.cottage.reservation.dto.RoomView;
+import com.cottage.reservation.entity.Reservation;
+import com.cottage.reservation.entity.RoomAvailabilityDay;
+import com.cottage.reservation.repository.ReservationRepository;
+import com.cottage.reservation.repository.RoomAvailabilityDayRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Compares the availability read model with the reservations table, room by room.
+ * The comparison runs on the projector thread, so events queued before it are already applied
+ * and any difference it reports is a real inconsistency rather than projection lag.
+ */
+@Service
+public class AvailabilityConsistencyChecker implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(AvailabilityConsistencyChecker.class);
+
+    private static final int MAX_SAMPLES = 20;
+
+    @Autowired
+    private AvailabilityProjector availabilityProjector;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private RoomAvailabilityDayRepository roomAvailabilityDayRepository;
+
+    @Autowired
+    private RoomCacheService roomCacheService;
+
+    @Value("${app.availability.auto-repair:false}")
+    private boolean autoRepair;
+
+    // Not read-only: the check has to see the primary, not a lagging replica
+    private final TransactionTemplate transactionTemplate;
+
+    private volatile AvailabilityConsistencyReport lastReport;
+
+    public AvailabilityConsistencyChecker(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public AvailabilityConsistencyReport check() {
+        AvailabilityConsistencyReport report = availabilityProjector.callSerialized(() -> transactionTemplate.execute(status -> compare()));
+        lastReport = report;
+        return report;
+    }
+
+    public AvailabilityConsistencyReport getLastReport() {
+        return lastReport;
+    }
+
+    @Scheduled(initialDelayString = "${app.availability.consistency-check-initial-delay:300000}",
+               fixedDelayString = "${app.availability.consistency-check-interval:3600000}")
+    public void runScheduled() {
+        AvailabilityConsistencyReport report = check();
+        if (report.isConsistent()) {
+            logger.debug("Availability read model is consistent ({} room-days)", report.getActualDays());
+            return;
+        }
+
+        logger.warn("Availability read model has {} discrepancies ({} missing, {} unexpected, {} mismatched): {}",
+                report.getDiscrepancies(), report.getMissingDays(), report.getUnexpectedDays(),
+                report.getMismatchedDays(), report.getSamples());
+        if (autoRepair) {
+            availabilityProjector.rebuild();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("availability.projection.discrepancies", this,
+                        checker -> checker.lastReport == null ? 0 : checker.lastReport.getDiscrepancies())
+                .description("Room-days that differed from the reservations table at the last consistency check")
+                .register(registry);
+    }
+
+    private AvailabilityConsistencyReport compare() {
+        TreeMap<Long, Long> roomIds = new TreeMap<>();
+        for (RoomView room : roomCacheService.getAllRooms()) {
+            roomIds.put(room.getId(), room.getPropertyId());
+        }
+
+        long expectedDays = 0;
+        long actualDays = 0;
+        long missing = 0;
+        long unexpected = 0;
+        long mismatched = 0;
+        List<String> samples = new ArrayList<>();
+
+        for (Map.Entry<Long, Long> room : roomIds.entrySet()) {
+            Long roomId = room.getKey();
+            Map<LocalDate, RoomAvailabilityDay> expected = new HashMap<>();
+            for (Reservation reservation : reservationRepository.findActiveReservationsByRoom(roomId)) {
+                RoomAvailabilityDay.DayStatus status = RoomAvailabilityDay.DayStatus.of(reservation.getStatus());
+                for (LocalDate night = reservation.getCheckInDate(); night.isBefore(reservation.getCheckOutDate()); night = night.plusDays(1)) {
+                    expected.putIfAbsent(night, new RoomAvailabilityDay(roomId, room.getValue(), night, status, reservation.getId()));
+                }
+            }
+
+            List<RoomAvailabilityDay> actual = roomAvailabilityDayRepository.findByRoomId(roomId);
+            expectedDays += expected.size();
+            actualDays += actual.size();
+
+            for (RoomAvailabilityDay day : actual) {
+                RoomAvailabilityDay wanted = expected.remove(day.getStayDate());
+                if (wanted == null) {
+                    unexpected++;
+                    addSample(samples, roomId, day.getStayDate(), "unexpected (reservation " + day.getReservationId() + ")");
+                } else if (wanted.getStatus() != day.getStatus() || !Objects.equals(wanted.getReservationId(), day.getReservationId())
+                        || !Objects.equals(wanted.getPropertyId(), day.getPropertyId())) {
+                    mismatched++;
+                    addSample(samples, roomId, day.getStayDate(), "expected " + wanted.getStatus() + "/" + wanted.getReservationId() +
+                            "/property " + wanted.getPropertyId() + " but found " + day.getStatus() + "/" + day.getReservationId() +
+                            "/property " + day.getPropertyId());
+                }
+            }
+            for (RoomAvailabilityDay wanted : expected.values()) {
+                missing++;
+                addSample(samples, roomId, wanted.getStayDate(), "missing (reservation " + wanted.getReservationId() + ")");
+            }
+        }
+
+        return new AvailabilityConsistencyReport(LocalDateTime.now(), roomIds.size(), expectedDays, actualDays,
+                missing, unexpected, mismatched, samples);
+    }
+
+    private static void addSample(List<String> samples, Long roomId, LocalDate night, String problem) {
+        if (samples.size() < MAX_SAMPLES) {
+            samples.add("room " + roomId + " " + night + ": " + problem);
+        }
+    }
+}
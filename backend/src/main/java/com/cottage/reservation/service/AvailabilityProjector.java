@@ -0,0 +1,253 @@
+package com.cottage.reservation.service;
+
+import com.cottage.reservation.entity.Reservation;
+import com.cottage.reservation.entity.RoomAvailabilityDay;
+import com.cottage.reservation.event.AvailabilityProjectedEvent;
+import com.cottage.reservation.event.ReservationChangedEvent;
+import com.cottage.reservation.repository.ReservationRepository;
+import com.cottage.reservation.repository.RoomAvailabilityDayRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Maintains the room_availability_day read model from reservation change events.
+ * <p>
+ * Events are applied after the reservation transaction commits, on a single worker thread so
+ * updates to the same nights are applied in order. An event is not applied as a delta: the
+ * affected nights of the room are re-derived from the reservations table, which makes applying
+ * an event idempotent and lets a late or repeated event repair whatever it touches. Every refresh
+ * and rebuild is announced with an {@link AvailabilityProjectedEvent} once it has committed.
+ */
+@Service
+public class AvailabilityProjector implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(AvailabilityProjector.class);
+
+    static final String REBUILD_LOCK_NAME = "availability-rebuild";
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private RoomAvailabilityDayRepository roomAvailabilityDayRepository;
+
+    @Autowired
+    private SchedulerLockService schedulerLockService;
+
+    @Autowired
+    private RoomCacheService roomCacheService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.availability.rebuild-on-startup:true}")
+    private boolean rebuildOnStartup;
+
+    @Value("${app.availability.rebuild-chunk-size:500}")
+    private int chunkSize;
+
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolExecutor worker;
+
+    private final LongAdder appliedEvents = new LongAdder();
+    private final LongAdder failedEvents = new LongAdder();
+    private final LongAdder rebuilds = new LongAdder();
+
+    public AvailabilityProjector(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.worker = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "availability-projector");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationChanged(ReservationChangedEvent event) {
+        worker.execute(() -> apply(event));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (!rebuildOnStartup) {
+            return;
+        }
+        worker.execute(() -> {
+            if (!schedulerLockService.tryLock(REBUILD_LOCK_NAME, Duration.ofMinutes(10))) {
+                logger.info("Availability read model is being rebuilt by another node");
+                return;
+            }
+            try {
+                doRebuild();
+            } catch (RuntimeException e) {
+                logger.error("Availability read model rebuild failed: {}", e.getMessage());
+            } finally {
+                schedulerLockService.unlock(REBUILD_LOCK_NAME);
+            }
+        });
+    }
+
+    /**
+     * Drops the read model and re-derives it from all active reservations.
+     * Runs in one transaction, so readers keep seeing the old rows until it commits.
+     * @return number of room-days written
+     */
+    public int rebuild() {
+        return callSerialized(this::doRebuild);
+    }
+
+    /**
+     * Runs a task on the projector thread, after every event that was queued before it.
+     */
+    public <T> T callSerialized(Callable<T> task) {
+        try {
+            return worker.submit(task).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for the availability projector", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    public int getQueuedEvents() {
+        return worker.getQueue().size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("availability.projection.events", appliedEvents, LongAdder::sum)
+                .tag("result", "applied")
+                .description("Reservation change events applied to the availability read model")
+                .register(registry);
+        FunctionCounter.builder("availability.projection.events", failedEvents, LongAdder::sum)
+                .tag("result", "failed")
+                .description("Reservation change events applied to the availability read model")
+                .register(registry);
+        FunctionCounter.builder("availability.projection.rebuilds", rebuilds, LongAdder::sum)
+                .description("Full rebuilds of the availability read model")
+                .register(registry);
+        Gauge.builder("availability.projection.queue", this, AvailabilityProjector::getQueuedEvents)
+                .description("Reservation change events waiting to be applied")
+                .register(registry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        worker.shutdown();
+    }
+
+    private void apply(ReservationChangedEvent event) {
+        try {
+            refresh(event.getRoomId(), event.getCheckInDate(), event.getCheckOutDate());
+            if (event.hasPreviousStay()) {
+                refresh(event.getPreviousRoomId(), event.getPreviousCheckInDate(), event.getPreviousCheckOutDate());
+            }
+            appliedEvents.increment();
+        } catch (RuntimeException e) {
+            failedEvents.increment();
+            logger.error("Could not apply {} to the availability read model: {}", event, e.getMessage());
+        }
+    }
+
+    private void refresh(Long roomId, LocalDate startDate, LocalDate endDate) {
+        try {
+            refreshOnce(roomId, startDate, endDate);
+        } catch (DataIntegrityViolationException e) {
+            // Another node refreshed the same nights at the same time; its rows are gone now, so retry once
+            refreshOnce(roomId, startDate, endDate);
+        }
+        eventPublisher.publishEvent(new AvailabilityProjectedEvent(roomId, startDate, endDate));
+    }
+
+    private void refreshOnce(Long roomId, LocalDate startDate, LocalDate endDate) {
+        transactionTemplate.executeWithoutResult(status -> {
+            roomAvailabilityDayRepository.deleteByRoomIdBetween(roomId, startDate, endDate);
+            Set<RoomAvailabilityDay.Key> written = new HashSet<>();
+            for (Reservation reservation : reservationRepository.findConflictingReservations(roomId, startDate, endDate)) {
+                persistNights(reservation, startDate, endDate, written);
+            }
+        });
+    }
+
+    private int doRebuild() {
+        long started = System.nanoTime();
+        Integer days = transactionTemplate.execute(status -> {
+            roomAvailabilityDayRepository.deleteAllDays();
+            Set<RoomAvailabilityDay.Key> written = new HashSet<>();
+            long afterId = 0;
+            while (true) {
+                List<Reservation> chunk = reservationRepository.findActiveReservationsAfter(afterId, PageRequest.ofSize(chunkSize));
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                for (Reservation reservation : chunk) {
+                    persistNights(reservation, reservation.getCheckInDate(), reservation.getCheckOutDate(), written);
+                }
+                afterId = chunk.get(chunk.size() - 1).getId();
+                entityManager.flush();
+                entityManager.clear();
+            }
+            return written.size();
+        });
+        rebuilds.increment();
+        eventPublisher.publishEvent(AvailabilityProjectedEvent.rebuilt());
+        logger.info("Rebuilt availability read model: {} room-days in {} ms",
+                days, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        return days == null ? 0 : days;
+    }
+
+    private void persistNights(Reservation reservation, LocalDate startDate, LocalDate endDate,
+                               Set<RoomAvailabilityDay.Key> written) {
+        Long roomId = reservation.getRoom().getId();
+        Long propertyId = roomCacheService.findPropertyIdOfRoom(roomId);
+        RoomAvailabilityDay.DayStatus status = RoomAvailabilityDay.DayStatus.of(reservation.getStatus());
+        LocalDate from = reservation.getCheckInDate().isAfter(startDate) ? reservation.getCheckInDate() : startDate;
+        LocalDate to = reservation.getCheckOutDate().isBefore(endDate) ? reservation.getCheckOutDate() : endDate;
+
+        for (LocalDate night = from; night.isBefore(to); night = night.plusDays(1)) {
+            if (!written.add(new RoomAvailabilityDay.Key(roomId, night))) {
+                logger.warn("Room {} is held by more than one active reservation on {}; keeping the first",
+                        roomId, night);
+                continue;
+            }
+            entityManager.persist(new RoomAvailabilityDay(roomId, propertyId, night, status, reservation.getId()));
+        }
+    }
+}
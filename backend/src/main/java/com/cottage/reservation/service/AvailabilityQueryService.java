@@ -0,0 +1,218 @@
+package com.cottage.reservation.service;
+
+import com.cottage.reservation.dto.RoomView;
+import com.cottage.reservation.entity.Reservation;
+import com.cottage.reservation.repository.ReservationRepository;
+import com.cottage.reservation.repository.RoomAvailabilityDayRepository;
+import com.cottage.reservation.util.CoalescingCache;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Availability and calendar reads behind a single-flight cache: identical concurrent queries share
+ * one database round trip, and results are reused for a short TTL.
+ * <p>
+ * Every property has its own caches, keyed on the date range and stamped with the property's
+ * version: a booking write makes only that property's cached ranges stale, and a property with many
+ * distinct queries fills and evicts only its own entries. Queries across all properties have a cache of
+ * their own, stamped with the global version. Booked rooms are read from the availability read model, so
+ * they are stamped with its availability versions, which move only once the projector has applied a
+ * change; calendars read the reservations table and use the commit versions.
+ */
+@Service
+public class AvailabilityQueryService implements MeterBinder {
+
+    @Autowired
+    private RoomAvailabilityDayRepository roomAvailabilityDayRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private ChangeVersionService changeVersionService;
+
+    @Autowired
+    private RoomCacheService roomCacheService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final Duration ttl;
+    private final int maxEntries;
+    private final Partition allProperties;
+    private final Map<Long, Partition> partitions = new ConcurrentHashMap<>();
+
+    public AvailabilityQueryService(PlatformTransactionManager transactionManager,
+                                    @Value("${app.availability.query-cache.ttl:2s}") Duration ttl,
+                                    @Value("${app.availability.query-cache.max-entries:1000}") int maxEntries) {
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.ttl = ttl;
+        // Per property, so the bound does not shrink as properties are added
+        this.maxEntries = maxEntries;
+        this.allProperties = new Partition(ttl, maxEntries);
+    }
+
+    /**
+     * Ids of the property's rooms with a held or booked night in [startDate, endDateExclusive).
+     */
+    public Set<Long> findBookedRoomIds(Long propertyId, LocalDate startDate, LocalDate endDateExclusive) {
+        // Version is read before the query: a change projected meanwhile only makes this entry stale sooner
+        long version = changeVersionService.getAvailabilityVersion(propertyId);
+        return partition(propertyId).bookedRooms.get(new DateRange(startDate, endDateExclusive), version,
+                () -> Set.copyOf(roomAvailabilityDayRepository.findBookedRoomIds(propertyId, startDate, endDateExclusive)));
+    }
+
+    /**
+     * Ids of rooms of any property with a held or booked night in [startDate, endDateExclusive).
+     */
+    public Set<Long> findBookedRoomIds(LocalDate startDate, LocalDate endDateExclusive) {
+        long version = changeVersionService.getAvailabilityVersion();
+        return allProperties.bookedRooms.get(new DateRange(startDate, endDateExclusive), version,
+                () -> Set.copyOf(roomAvailabilityDayRepository.findBookedRoomIds(startDate, endDateExclusive)));
+    }
+
+    /**
+     * Reservations of the property's rooms between the dates, already serialized as the JSON body of
+     * /api/reservations/calendar. Serialized inside the loading transaction, so lazy associations are
+     * read once and never shared as entities between requests.
+     */
+    public byte[] getCalendarJson(Long propertyId, LocalDate startDate, LocalDate endDate) {
+        long version = changeVersionService.getPropertyVersion(propertyId);
+        Partition partition = partition(propertyId);
+        List<Long> roomIds = roomCacheService.getRooms(propertyId).stream().map(RoomView::getId).toList();
+        return partition.calendars.get(new DateRange(startDate, endDate), version,
+                () -> serialize(() -> roomIds.isEmpty()
+                        ? List.of()
+                        : reservationRepository.findReservationsBetweenDatesForRooms(roomIds, startDate, endDate)));
+    }
+
+    /**
+     * Reservations of all properties between the dates, serialized like {@link #getCalendarJson(Long, LocalDate, LocalDate)}.
+     */
+    public byte[] getCalendarJson(LocalDate startDate, LocalDate endDate) {
+        long version = changeVersionService.getGlobalVersion();
+        return allProperties.calendars.get(new DateRange(startDate, endDate), version,
+                () -> serialize(() -> reservationRepository.findReservationsBetweenDates(startDate, endDate)));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        bindCache(registry, "availability", partition -> partition.bookedRooms);
+        bindCache(registry, "calendar", partition -> partition.calendars);
+        Gauge.builder("availability.query.cache.partitions", partitions, Map::size)
+                .description("Properties with their own query caches")
+                .register(registry);
+    }
+
+    private Partition partition(Long propertyId) {
+        Partition partition = partitions.get(propertyId);
+        if (partition != null) {
+            return partition;
+        }
+        // Only known properties get caches; throws PROPERTY_NOT_FOUND otherwise
+        roomCacheService.getRooms(propertyId);
+        return partitions.computeIfAbsent(propertyId, id -> new Partition(ttl, maxEntries));
+    }
+
+    private byte[] serialize(Supplier<List<Reservation>> reservations) {
+        return readOnlyTransactionTemplate.execute(status -> {
+            try {
+                return objectMapper.writeValueAsBytes(reservations.get());
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Could not serialize reservation calendar", e);
+            }
+        });
+    }
+
+    // Meters add up the caches of every property, so their names and tags stay the same as properties come and go
+    private void bindCache(MeterRegistry registry, String query, Function<Partition, CoalescingCache<?, ?>> cache) {
+        FunctionCounter.builder("availability.query.requests", this, service -> service.sum(cache, CoalescingCache::getHitCount))
+                .tags("query", query, "result", "cached")
+                .description("Queries answered from a completed result still within its TTL")
+                .register(registry);
+        FunctionCounter.builder("availability.query.requests", this, service -> service.sum(cache, CoalescingCache::getCoalescedCount))
+                .tags("query", query, "result", "coalesced")
+                .description("Queries that joined an identical query already in flight")
+                .register(registry);
+        FunctionCounter.builder("availability.query.requests", this, service -> service.sum(cache, CoalescingCache::getLoadCount))
+                .tags("query", query, "result", "loaded")
+                .description("Queries that went to the database")
+                .register(registry);
+        Gauge.builder("availability.query.coalescing.ratio", this, service -> service.coalescingRatio(cache))
+                .tag("query", query)
+                .description("Fraction of queries that did not run their own database query")
+                .register(registry);
+        Gauge.builder("availability.query.cache.size", this, service -> service.sum(cache, CoalescingCache::size))
+                .tag("query", query)
+                .register(registry);
+    }
+
+    private double sum(Function<Partition, CoalescingCache<?, ?>> cache, ToDoubleFunction<CoalescingCache<?, ?>> metric) {
+        double total = metric.applyAsDouble(cache.apply(allProperties));
+        for (Partition partition : partitions.values()) {
+            total += metric.applyAsDouble(cache.apply(partition));
+        }
+        return total;
+    }
+
+    private double coalescingRatio(Function<Partition, CoalescingCache<?, ?>> cache) {
+        double shared = sum(cache, CoalescingCache::getHitCount) + sum(cache, CoalescingCache::getCoalescedCount);
+        double total = shared + sum(cache, CoalescingCache::getLoadCount);
+        return total == 0 ? 0.0 : shared / total;
+    }
+
+    private static final class Partition {
+        private final CoalescingCache<DateRange, Set<Long>> bookedRooms;
+        private final CoalescingCache<DateRange, byte[]> calendars;
+
+        private Partition(Duration ttl, int maxEntries) {
+            this.bookedRooms = new CoalescingCache<>(ttl, maxEntries);
+            this.calendars = new CoalescingCache<>(ttl, maxEntries);
+        }
+    }
+
+    private static final class DateRange {
+        private final LocalDate start;
+        private final LocalDate end;
+
+        private DateRange(LocalDate start, LocalDate end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof DateRange)) return false;
+            DateRange range = (DateRange) o;
+            return Objects.equals(start, range.start) && Objects.equals(end, range.end);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(start, end);
+        }
+    }
+}
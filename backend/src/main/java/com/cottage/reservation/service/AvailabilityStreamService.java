@@ -0,0 +1,406 @@
+package com.cottage.reservation.service;
+
+import com.cottage.reservation.event.AvailabilityProjectedEvent;
+import com.cottage.reservation.exception.BusinessRuleException;
+import com.cottage.reservation.exception.ErrorCode;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fan-out hub behind /api/rooms/availability/stream.
+ * <p>
+ * Subscribers are async SSE responses, so an open stream holds a socket but no thread. Once the
+ * availability projector has applied a change, one notification per affected room and stay is
+ * formatted once and offered to every subscriber's bounded buffer, so a client that refetches on a
+ * notification already sees the change; when a buffer is full its oldest notification is dropped and
+ * the subscriber gets a {@code resync} event telling it to refetch availability, as every subscriber
+ * does after a rebuild of the read model. Buffers are drained by a small writer pool, one drain per
+ * subscriber at a time. A write still blocked after the write timeout drops its subscriber, and the
+ * pool gets a spare thread until that write returns, so stalled clients never hold back the others.
+ * Idle streams get a comment line every heartbeat interval, which keeps proxies from closing them and
+ * detects clients that went away. Each client, keyed like the rate limit, may hold only
+ * max-subscribers-per-client of the max-subscribers streams, so one client cannot lock out the rest.
+ */
+@Service
+public class AvailabilityStreamService implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(AvailabilityStreamService.class);
+
+    static final String CHANGE_EVENT = "availability";
+    static final String RESYNC_EVENT = "resync";
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final Map<String, Integer> subscribersPerClient = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final int maxSubscribersPerClient;
+    private final long heartbeatNanos;
+    private final long timeoutMillis;
+    private final long writeTimeoutNanos;
+    private final int writerThreads;
+    private final ThreadPoolExecutor writers;
+    private final ScheduledExecutorService heartbeats;
+    private int stalledWrites;
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder rejectedPerClient = new LongAdder();
+    private final LongAdder stalled = new LongAdder();
+
+    public AvailabilityStreamService(@Value("${app.availability.stream.buffer-size:64}") int bufferSize,
+                                     @Value("${app.availability.stream.max-subscribers:5000}") int maxSubscribers,
+                                     @Value("${app.availability.stream.max-subscribers-per-client:5}") int maxSubscribersPerClient,
+                                     @Value("${app.availability.stream.heartbeat-interval:15s}") Duration heartbeatInterval,
+                                     @Value("${app.availability.stream.timeout:30m}") Duration timeout,
+                                     @Value("${app.availability.stream.writer-threads:2}") int writerThreads,
+                                     @Value("${app.availability.stream.write-timeout:5s}") Duration writeTimeout) {
+        this.bufferSize = Math.max(1, bufferSize);
+        this.maxSubscribers = maxSubscribers;
+        this.maxSubscribersPerClient = Math.max(1, maxSubscribersPerClient);
+        this.heartbeatNanos = heartbeatInterval.toNanos();
+        this.timeoutMillis = timeout.toMillis();
+        this.writeTimeoutNanos = writeTimeout.toNanos();
+        this.writerThreads = Math.max(1, writerThreads);
+
+        AtomicInteger writerCount = new AtomicInteger();
+        this.writers = new ThreadPoolExecutor(this.writerThreads, this.writerThreads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "availability-stream-" + writerCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "availability-stream-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1, heartbeatInterval.toMillis());
+        this.heartbeats.scheduleAtFixedRate(this::sendHeartbeats, period, period, TimeUnit.MILLISECONDS);
+        long checkPeriod = Math.max(100, writeTimeout.toMillis() / 2);
+        this.heartbeats.scheduleAtFixedRate(this::dropStalledSubscribers, checkPeriod, checkPeriod, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Opens a stream of availability changes, optionally for a single room.
+     * Empty when the subscriber limit is reached.
+     *
+     * @throws BusinessRuleException TOO_MANY_STREAMS when the client already holds max-subscribers-per-client streams
+     */
+    public Optional<SseEmitter> subscribe(Long roomId, String clientKey) {
+        if (subscribers.size() >= maxSubscribers) {
+            rejected.increment();
+            return Optional.empty();
+        }
+        if (subscribersPerClient.merge(clientKey, 1, Integer::sum) > maxSubscribersPerClient) {
+            release(clientKey);
+            rejectedPerClient.increment();
+            throw new BusinessRuleException(ErrorCode.TOO_MANY_STREAMS);
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, roomId, clientKey);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+        subscribers.add(subscriber);
+        // Tells EventSource how soon to reconnect, and flushes the response headers
+        subscriber.offer(Message.HELLO);
+        return Optional.of(emitter);
+    }
+
+    @EventListener
+    public void onAvailabilityProjected(AvailabilityProjectedEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        if (event.isRebuild()) {
+            for (Subscriber subscriber : subscribers) {
+                subscriber.offer(Message.RESYNC);
+            }
+            return;
+        }
+        publish(event.getRoomId(), event.getStartDate(), event.getEndDate());
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("availability.stream.subscribers", subscribers, Set::size)
+                .description("Open availability change streams")
+                .register(registry);
+        FunctionCounter.builder("availability.stream.notifications", published, LongAdder::sum)
+                .tag("result", "published")
+                .description("Availability change notifications published, written to subscribers, or dropped from full buffers")
+                .register(registry);
+        FunctionCounter.builder("availability.stream.notifications", sent, LongAdder::sum)
+                .tag("result", "sent")
+                .description("Availability change notifications published, written to subscribers, or dropped from full buffers")
+                .register(registry);
+        FunctionCounter.builder("availability.stream.notifications", dropped, LongAdder::sum)
+                .tag("result", "dropped")
+                .description("Availability change notifications published, written to subscribers, or dropped from full buffers")
+                .register(registry);
+        FunctionCounter.builder("availability.stream.rejected", rejected, LongAdder::sum)
+                .tag("limit", "max-subscribers")
+                .description("Stream requests refused because max-subscribers, or the client's max-subscribers-per-client, was reached")
+                .register(registry);
+        FunctionCounter.builder("availability.stream.rejected", rejectedPerClient, LongAdder::sum)
+                .tag("limit", "max-subscribers-per-client")
+                .description("Stream requests refused because max-subscribers, or the client's max-subscribers-per-client, was reached")
+                .register(registry);
+        FunctionCounter.builder("availability.stream.stalled", stalled, LongAdder::sum)
+                .description("Streams closed because a write did not complete within the write timeout")
+                .register(registry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeats.shutdownNow();
+        writers.shutdownNow();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+        subscribers.clear();
+        subscribersPerClient.clear();
+    }
+
+    // Every removal goes through here, so a client's count drops exactly once per stream
+    private void remove(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            release(subscriber.clientKey);
+        }
+    }
+
+    private void release(String clientKey) {
+        subscribersPerClient.computeIfPresent(clientKey, (key, count) -> count > 1 ? count - 1 : null);
+    }
+
+    private void publish(Long roomId, LocalDate startDate, LocalDate endDate) {
+        if (roomId == null) {
+            return;
+        }
+        long id = sequence.incrementAndGet();
+        // Formatted once and shared by every subscriber
+        String data = "{\"roomId\":" + roomId + ",\"startDate\":\"" + startDate + "\",\"endDate\":\"" + endDate + "\"}";
+        Message message = new Message(Long.toString(id), data);
+        published.increment();
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.roomId == null || subscriber.roomId.equals(roomId)) {
+                subscriber.offer(message);
+            }
+        }
+    }
+
+    private void sendHeartbeats() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            if (now - subscriber.lastWriteNanos >= heartbeatNanos) {
+                subscriber.offer(Message.HEARTBEAT);
+            }
+        }
+    }
+
+    /**
+     * Drops every subscriber whose current write has been blocked for longer than the write timeout,
+     * and lends the writer pool a thread for each such write until it returns. The emitter is completed
+     * by the writer once its write fails or returns: send and complete share the emitter's lock.
+     */
+    private void dropStalledSubscribers() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.markStalled(now)) {
+                remove(subscriber);
+                stalled.increment();
+                logger.debug("Dropped availability stream blocked in a write for over {} ms",
+                        TimeUnit.NANOSECONDS.toMillis(writeTimeoutNanos));
+            }
+        }
+    }
+
+    private synchronized void resizeWriters(int delta) {
+        stalledWrites += delta;
+        int size = writerThreads + stalledWrites;
+        // Core may never exceed max, so grow max first and shrink it last
+        if (delta > 0) {
+            writers.setMaximumPoolSize(size);
+            writers.setCorePoolSize(size);
+        } else {
+            writers.setCorePoolSize(size);
+            writers.setMaximumPoolSize(size);
+        }
+    }
+
+    private static final class Message {
+        static final Message HELLO = new Message(null, null);
+        static final Message HEARTBEAT = new Message(null, null);
+        static final Message RESYNC = new Message(null, null);
+
+        private final String id;
+        private final String data;
+
+        private Message(String id, String data) {
+            this.id = id;
+            this.data = data;
+        }
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final Long roomId;
+        private final String clientKey;
+        private final ArrayDeque<Message> buffer = new ArrayDeque<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private boolean overflowed;
+        private volatile long lastWriteNanos = System.nanoTime();
+        // Guarded by this subscriber: start of the write in progress (0 between writes), and whether the
+        // writer pool was lent a thread for it
+        private long writeStartedNanos;
+        private boolean threadLent;
+        private volatile boolean stalled;
+
+        private Subscriber(SseEmitter emitter, Long roomId, String clientKey) {
+            this.emitter = emitter;
+            this.roomId = roomId;
+            this.clientKey = clientKey;
+        }
+
+        private void offer(Message message) {
+            synchronized (buffer) {
+                if (message == Message.HEARTBEAT && !buffer.isEmpty()) {
+                    return;
+                }
+                if (buffer.size() >= bufferSize) {
+                    buffer.pollFirst();
+                    overflowed = true;
+                    dropped.increment();
+                }
+                buffer.addLast(message);
+            }
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    writers.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    draining.set(false);
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                while (true) {
+                    Message message;
+                    boolean resync;
+                    synchronized (buffer) {
+                        message = buffer.pollFirst();
+                        resync = overflowed && message != null;
+                        overflowed = false;
+                    }
+                    if (message == null) {
+                        break;
+                    }
+                    if (resync && message != Message.RESYNC) {
+                        write(Message.RESYNC);
+                    }
+                    write(message);
+                    lastWriteNanos = System.nanoTime();
+                    if (stalled) {
+                        throw new IOException("Write took longer than the write timeout");
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client went away, was too slow, or the response already completed
+                remove(this);
+                emitter.completeWithError(e);
+                logger.debug("Closed availability stream: {}", e.getMessage());
+                return;
+            } finally {
+                draining.set(false);
+            }
+            boolean more;
+            synchronized (buffer) {
+                more = !buffer.isEmpty();
+            }
+            if (more && subscribers.contains(this)) {
+                scheduleDrain();
+            }
+        }
+
+        private synchronized boolean markStalled(long now) {
+            if (writeStartedNanos == 0 || now - writeStartedNanos < writeTimeoutNanos || stalled) {
+                return false;
+            }
+            stalled = true;
+            threadLent = true;
+            resizeWriters(1);
+            return true;
+        }
+
+        private void write(Message message) throws IOException {
+            if (stalled) {
+                throw new IOException("Write took longer than the write timeout");
+            }
+            synchronized (this) {
+                writeStartedNanos = System.nanoTime();
+            }
+            try {
+                if (message == Message.HELLO) {
+                    emitter.send(SseEmitter.event().reconnectTime(3000).comment("availability"));
+                } else if (message == Message.HEARTBEAT) {
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                } else if (message == Message.RESYNC) {
+                    emitter.send(SseEmitter.event().name(RESYNC_EVENT).data("{}"));
+                } else {
+                    emitter.send(SseEmitter.event().id(message.id).name(CHANGE_EVENT).data(message.data));
+                    sent.increment();
+                }
+            } finally {
+                synchronized (this) {
+                    writeStartedNanos = 0;
+                    if (threadLent) {
+                        // Hand back the thread lent while this write was blocked
+                        threadLent = false;
+                        resizeWriters(-1);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.cottage.reservation.service;
+
+import com.cottage.reservation.event.AvailabilityProjectedEvent;
+import com.cottage.reservation.event.ReservationChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory change counters for reservation data: one per room, one per property and one global,
+ * bumped after a reservation change commits. Read endpoints build their ETag from these counters, so a poll
+ * whose If-None-Match still matches is answered with 304 before any repository call.
+ * <p>
+ * Responses built from the room_availability_day read model use the availability versions instead,
+ * one per property and one global, bumped when the AvailabilityProjector has applied a change. The read
+ * model catches up after the commit, so a commit counter could move while it still shows the old nights.
+ * <p>
+ * A response must take its versions before it reads the database (or the read model): a change that
+ * lands in between then only costs one extra full response, never a stale body under a new ETag.
+ * ETags also carry a per-process epoch, so counters restarting at zero cannot collide, and the
+ * current max-age window, which bounds how long a node can keep answering 304 for a change made
+ * on another node or not yet visible on the read replica.
+ */
+@Service
+public class ChangeVersionService {
+
+    private final AtomicLong globalVersion = new AtomicLong();
+    private final Map<Long, AtomicLong> roomVersions = new ConcurrentHashMap<>();
+    private final Map<Long, AtomicLong> propertyVersions = new ConcurrentHashMap<>();
+    private final AtomicLong globalAvailabilityVersion = new AtomicLong();
+    private final Map<Long, AtomicLong> propertyAvailabilityVersions = new ConcurrentHashMap<>();
+    private final AtomicLong availabilityRebuilds = new AtomicLong();
+    private final String epoch = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+
+    private final long maxAgeMillis;
+    private final MeterRegistry meterRegistry;
+    private final RoomCacheService roomCacheService;
+
+    public ChangeVersionService(@Value("${app.http.etag.max-age:60s}") Duration maxAge, MeterRegistry meterRegistry,
+                                RoomCacheService roomCacheService) {
+        this.maxAgeMillis = Math.max(1, maxAge.toMillis());
+        this.meterRegistry = meterRegistry;
+        this.roomCacheService = roomCacheService;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationChanged(ReservationChangedEvent event) {
+        bumpRoom(event.getRoomId());
+        if (event.hasPreviousStay()) {
+            bumpRoom(event.getPreviousRoomId());
+        }
+        globalVersion.incrementAndGet();
+    }
+
+    @EventListener
+    public void onAvailabilityProjected(AvailabilityProjectedEvent event) {
+        if (event.isRebuild()) {
+            availabilityRebuilds.incrementAndGet();
+        } else {
+            Long propertyId = roomCacheService.findPropertyIdOfRoom(event.getRoomId());
+            if (propertyId != null) {
+                propertyAvailabilityVersions.computeIfAbsent(propertyId, id -> new AtomicLong()).incrementAndGet();
+            }
+        }
+        globalAvailabilityVersion.incrementAndGet();
+    }
+
+    public long getGlobalVersion() {
+        return globalVersion.get();
+    }
+
+    public long getRoomVersion(Long roomId) {
+        AtomicLong version = roomVersions.get(roomId);
+        return version == null ? 0 : version.get();
+    }
+
+    public long getPropertyVersion(Long propertyId) {
+        AtomicLong version = propertyVersions.get(propertyId);
+        return version == null ? 0 : version.get();
+    }
+
+    /**
+     * Version of the availability read model across all properties.
+     */
+    public long getAvailabilityVersion() {
+        return globalAvailabilityVersion.get();
+    }
+
+    /**
+     * Version of the property's nights in the availability read model; a rebuild moves every property on.
+     */
+    public long getAvailabilityVersion(Long propertyId) {
+        AtomicLong version = propertyAvailabilityVersions.get(propertyId);
+        return availabilityRebuilds.get() + (version == null ? 0 : version.get());
+    }
+
+    /**
+     * Builds a strong ETag for a resource from the versions it was built from.
+     */
+    public String etag(String resource, long... versions) {
+        StringBuilder etag = new StringBuilder(48).append('"').append(resource).append('-').append(epoch);
+        for (long version : versions) {
+            etag.append('.').append(version);
+        }
+        return etag.append('-').append(System.currentTimeMillis() / maxAgeMillis).append('"').toString();
+    }
+
+    /**
+     * Checks If-None-Match against the ETag; on a match the response is set to 304 with the ETag header.
+     */
+    public boolean checkNotModified(WebRequest request, String endpoint, String etag) {
+        boolean notModified = request.checkNotModified(etag);
+        Counter.builder("http.conditional.requests")
+                .tag("endpoint", endpoint)
+                .tag("result", notModified ? "not_modified" : "full")
+                .description("Conditional GET outcomes of versioned read endpoints")
+                .register(meterRegistry)
+                .increment();
+        return notModified;
+    }
+
+    private void bumpRoom(Long roomId) {
+        if (roomId != null) {
+            roomVersions.computeIfAbsent(roomId, id -> new AtomicLong()).incrementAndGet();
+            Long propertyId = roomCacheService.findPropertyIdOfRoom(roomId);
+            if (propertyId != null) {
+                propertyVersions.computeIfAbsent(propertyId, id -> new AtomicLong()).incrementAndGet();
+            }
+        }
+    }
+}
@@ -1,6 +1,11 @@
 package com.cottage.reservation.service;
 
+import com.cottage.reservation.dto.RoomView;
 import com.cottage.reservation.entity.Reservation;
+import com.cottage.reservation.jfr.EmailSendEvent;
+import com.cottage.reservation.trace.RequestTracer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
@@ -12,6 +17,15 @@ public class EmailService {
     @Autowired
     private JavaMailSender emailSender;
 
+    @Autowired
+    private RoomCacheService roomCacheService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private RequestTracer requestTracer;
+
     public void sendReservationConfirmation(Reservation reservation) {
         SimpleMailMessage message = new SimpleMailMessage();
         message.setFrom("noreply@reserveease.com");
@@ -35,7 +49,7 @@ public class EmailService {
                 "The ReserveEase Team",
                 reservation.getUser().getFirstName(),
                 reservation.getId(),
-                reservation.getRoom().getName(),
+                getRoomName(reservation),
                 reservation.getCheckInDate(),
                 reservation.getCheckOutDate(),
                 reservation.getNumberOfGuests(),
@@ -46,12 +60,7 @@ public class EmailService {
         
         message.setText(text);
         
-        try {
-            emailSender.send(message);
-        } catch (Exception e) {
-            // Log error but don't fail the reservation
-            System.err.println("Failed to send confirmation email: " + e.getMessage());
-        }
+        send("confirmation", message);
     }
 
     public void sendReservationUpdate(Reservation reservation) {
@@ -77,7 +86,7 @@ public class EmailService {
                 "The ReserveEase Team",
                 reservation.getUser().getFirstName(),
                 reservation.getId(),
-                reservation.getRoom().getName(),
+                getRoomName(reservation),
                 reservation.getCheckInDate(),
                 reservation.getCheckOutDate(),
                 reservation.getNumberOfGuests(),
@@ -88,11 +97,7 @@ public class EmailService {
         
         message.setText(text);
         
-        try {
-            emailSender.send(message);
-        } catch (Exception e) {
-            System.err.println("Failed to send update email: " + e.getMessage());
-        }
+        send("update", message);
     }
 
     public void sendReservationCancellation(Reservation reservation) {
@@ -114,17 +119,46 @@ public class EmailService {
                 "The ReserveEase Team",
                 reservation.getUser().getFirstName(),
                 reservation.getId(),
-                reservation.getRoom().getName(),
+                getRoomName(reservation),
                 reservation.getCheckInDate(),
                 reservation.getCheckOutDate()
         );
         
         message.setText(text);
         
-        try {
+        send("cancellation", message);
+    }
+
+    // Timed as email.send{type, result=sent|failed}
+    private void send(String type, SimpleMailMessage message) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        EmailSendEvent event = new EmailSendEvent();
+        event.begin();
+        String result = "sent";
+        try (RequestTracer.Span phase = requestTracer.phase("email." + type)) {
             emailSender.send(message);
         } catch (Exception e) {
-            System.err.println("Failed to send cancellation email: " + e.getMessage());
+            // Log error but don't fail the reservation
+            result = "failed";
+            System.err.println("Failed to send " + type + " email: " + e.getMessage());
+        } finally {
+            if (event.shouldCommit()) {
+                event.type = type;
+                event.result = result;
+                event.commit();
+            }
+            sample.stop(Timer.builder("email.send")
+                    .tag("type", type)
+                    .tag("result", result)
+                    .description("Reservation emails handed to the mail server, and the time it took")
+                    .register(meterRegistry));
         }
     }
+
+    private String getRoomName(Reservation reservation) {
+        // Reading the id does not initialize a lazy room proxy, so the name comes from the cache
+        return roomCacheService.findById(reservation.getRoom().getId())
+                .map(RoomView::getName)
+                .orElseGet(() -> reservation.getRoom().getName());
+    }
 }
@@ -0,0 +1,445 @@
+package com.cottage.reservation.service;
+
+import com.cottage.reservation.entity.IdempotencyRecord;
+import com.cottage.reservation.exception.DomainException;
+import com.cottage.reservation.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Makes a request safe to retry: the first response for a user's Idempotency-Key is stored and
+ * replayed for every later request with the same key until it expires.
+ * <p>
+ * A duplicate that arrives while the first request is still running waits for its response rather
+ * than executing again. Keys are scoped per user, and a key reused with a different request body
+ * is refused. Responses are kept in a bounded in-memory store; with app.idempotency.store=database
+ * they are also written to idempotency_keys, where a node claims a key by inserting its row before
+ * executing, so duplicates sent to different nodes are handled the same way. The claim carries an
+ * owner token and a lease that is renewed while the request runs; only the owner may store the
+ * response or release the key, so a claim taken over after its lease expired stays with the new
+ * owner. Server errors and
+ * exceptions are never stored, so such a request can be retried with the same key.
+ */
+@Service
+public class IdempotencyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyService.class);
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final Pattern VALID_KEY = Pattern.compile("[\\x21-\\x7E]{1,100}");
+    private static final long REMOTE_POLL_MILLIS = 100;
+    private static final int MAX_CLAIM_ATTEMPTS = 3;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    private final Duration ttl;
+    private final Duration waitTimeout;
+    private final Duration lease;
+    private final int maxEntries;
+    private final boolean databaseStore;
+
+    public IdempotencyService(PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                              @Value("${app.idempotency.ttl:24h}") Duration ttl,
+                              @Value("${app.idempotency.wait-timeout:30s}") Duration waitTimeout,
+                              @Value("${app.idempotency.lease:2m}") Duration lease,
+                              @Value("${app.idempotency.max-entries:10000}") int maxEntries,
+                              @Value("${app.idempotency.store:memory}") String store) {
+        // Claims and responses commit on their own, independent of the request's transaction
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.meterRegistry = meterRegistry;
+        this.ttl = ttl;
+        this.waitTimeout = waitTimeout;
+        this.lease = lease;
+        this.maxEntries = maxEntries;
+        this.databaseStore = "database".equalsIgnoreCase(store);
+
+        Gauge.builder("idempotency.store.size", entries, Map::size)
+                .description("Idempotency keys held in memory")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs the action once per user and key, returning its stored response to every duplicate.
+     * @param request what the key must keep referring to; a retry with a different request is refused
+     */
+    public ResponseEntity<?> execute(Long userId, String key, Object request, Supplier<ResponseEntity<?>> action) {
+        if (!VALID_KEY.matcher(key).matches()) {
+            count("invalid");
+            return ResponseEntity.badRequest().body(HEADER + " must be 1 to 100 printable ASCII characters");
+        }
+        String scopedKey = userId + ":" + key;
+        String requestHash = hash(request);
+
+        while (true) {
+            long now = System.nanoTime();
+            Entry mine = new Entry(requestHash);
+            Entry current = entries.compute(scopedKey, (k, existing) ->
+                    existing != null && !existing.isExpired(now) ? existing : mine);
+
+            if (current != mine) {
+                if (!current.requestHash.equals(requestHash)) {
+                    count("mismatch");
+                    return mismatch();
+                }
+                boolean inFlight = !current.result.isDone();
+                Optional<StoredResponse> response = await(current.result);
+                if (response == null) {
+                    // The first request failed without a response to store; this one runs instead
+                    continue;
+                }
+                if (response.isEmpty()) {
+                    count("in_progress");
+                    return stillInProgress();
+                }
+                count(inFlight ? "joined" : "replayed");
+                return response.get().toResponseEntity(true);
+            }
+
+            return executeOwned(scopedKey, mine, action);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.idempotency.purge-interval:3600000}")
+    public void purgeExpired() {
+        long now = System.nanoTime();
+        entries.values().removeIf(entry -> entry.isExpired(now));
+        if (databaseStore) {
+            Integer purged = transactionTemplate.execute(status ->
+                    idempotencyRecordRepository.deleteExpired(LocalDateTime.now()));
+            if (purged != null && purged > 0) {
+                logger.debug("Purged {} expired idempotency keys", purged);
+            }
+        }
+    }
+
+    /**
+     * Extends the lease of every claim this node still executes, so a slow request is not taken over
+     * and run a second time by another node.
+     */
+    @Scheduled(fixedDelayString = "${app.idempotency.lease-renewal-interval:20000}")
+    public void renewClaims() {
+        if (!databaseStore) {
+            return;
+        }
+        for (Map.Entry<String, Entry> claim : entries.entrySet()) {
+            String ownerToken = claim.getValue().ownerToken;
+            if (ownerToken == null) {
+                continue;
+            }
+            try {
+                Integer renewed = transactionTemplate.execute(status -> idempotencyRecordRepository.renewClaim(
+                        claim.getKey(), ownerToken, LocalDateTime.now().plus(lease)));
+                // A cleared token means the response was stored in the meantime
+                if ((renewed == null || renewed == 0) && claim.getValue().ownerToken != null) {
+                    logger.warn("Lost the claim on idempotency key {}; another node may run it again", claim.getKey());
+                }
+            } catch (RuntimeException e) {
+                logger.warn("Could not renew the claim on idempotency key {}: {}", claim.getKey(), e.getMessage());
+            }
+        }
+    }
+
+    private ResponseEntity<?> executeOwned(String scopedKey, Entry mine, Supplier<ResponseEntity<?>> action) {
+        if (databaseStore) {
+            IdempotencyRecord claimed;
+            String ownerToken = UUID.randomUUID().toString();
+            try {
+                claimed = claimOrAwaitRemote(scopedKey, mine.requestHash, ownerToken);
+            } catch (RuntimeException e) {
+                abandon(scopedKey, mine, e);
+                throw e;
+            }
+            if (claimed != null) {
+                if (!claimed.isCompleted() || !claimed.getRequestHash().equals(mine.requestHash)) {
+                    // Another node still runs it, or it was sent with a different body
+                    entries.remove(scopedKey, mine);
+                    mine.result.complete(Optional.empty());
+                    boolean mismatch = !claimed.getRequestHash().equals(mine.requestHash);
+                    count(mismatch ? "mismatch" : "in_progress");
+                    return mismatch ? mismatch() : stillInProgress();
+                }
+                StoredResponse remote = new StoredResponse(claimed.getResponseStatus(), claimed.getContentType(),
+                        claimed.getResponseBody());
+                mine.complete(remote, System.nanoTime() + ttl.toNanos());
+                count("replayed");
+                return remote.toResponseEntity(true);
+            }
+            mine.ownerToken = ownerToken;
+        }
+
+        StoredResponse stored;
+        try {
+            ResponseEntity<?> response;
+            try {
+                response = action.get();
+            } catch (DomainException e) {
+                // An expected rejection (e.g. a conflict) is answered, and replayed, like any response
+                response = e.getErrorCode().toResponseEntity();
+            }
+            stored = toStoredResponse(response);
+        } catch (RuntimeException | Error e) {
+            abandon(scopedKey, mine, e);
+            throw e;
+        }
+        count("executed");
+
+        if (stored.status >= 500) {
+            abandon(scopedKey, mine, null);
+            return stored.toResponseEntity(false);
+        }
+        if (databaseStore) {
+            String ownerToken = mine.ownerToken;
+            mine.ownerToken = null;
+            saveRemote(scopedKey, ownerToken, stored);
+        }
+        mine.complete(stored, System.nanoTime() + ttl.toNanos());
+        if (entries.size() > maxEntries) {
+            evict();
+        }
+        return stored.toResponseEntity(false);
+    }
+
+    /**
+     * Inserts the claim row under the owner token. Returns null once this node owns the key; otherwise
+     * the row another node wrote, once it holds a response, is for a different request, or the wait timed out.
+     */
+    private IdempotencyRecord claimOrAwaitRemote(String scopedKey, String requestHash, String ownerToken) {
+        long deadline = System.nanoTime() + waitTimeout.toNanos();
+        for (int attempt = 1; ; attempt++) {
+            LocalDateTime now = LocalDateTime.now();
+            try {
+                transactionTemplate.executeWithoutResult(status -> idempotencyRecordRepository.saveAndFlush(
+                        new IdempotencyRecord(scopedKey, requestHash, ownerToken, now, now.plus(lease))));
+                return null;
+            } catch (DataIntegrityViolationException e) {
+                // Claimed already, here or on another node
+            }
+
+            IdempotencyRecord record = transactionTemplate.execute(status ->
+                    idempotencyRecordRepository.findById(scopedKey).orElse(null));
+            if (record == null || !record.getExpiresAt().isAfter(now)) {
+                // Gone or expired (e.g. the claiming node died): take it over
+                if (record != null) {
+                    transactionTemplate.executeWithoutResult(status ->
+                            idempotencyRecordRepository.deleteIfExpired(scopedKey, now));
+                }
+                if (attempt < MAX_CLAIM_ATTEMPTS) {
+                    continue;
+                }
+                throw new IllegalStateException("Could not claim idempotency key " + scopedKey);
+            }
+            if (record.isCompleted() || !record.getRequestHash().equals(requestHash) || System.nanoTime() >= deadline) {
+                return record;
+            }
+            try {
+                Thread.sleep(REMOTE_POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return record;
+            }
+            attempt = 0;
+        }
+    }
+
+    private void saveRemote(String scopedKey, String ownerToken, StoredResponse stored) {
+        try {
+            Integer saved = transactionTemplate.execute(status -> idempotencyRecordRepository.completeClaim(
+                    scopedKey, ownerToken, stored.status, stored.contentType, stored.body, LocalDateTime.now().plus(ttl)));
+            if (saved == null || saved == 0) {
+                // The lease expired and the key was taken over; that row is the new owner's to complete
+                logger.warn("Lost the claim on idempotency key {} before its response was stored", scopedKey);
+            }
+        } catch (RuntimeException e) {
+            // The request itself succeeded; other nodes just cannot replay it
+            logger.warn("Could not store response for idempotency key {}: {}", scopedKey, e.getMessage());
+        }
+    }
+
+    private void abandon(String scopedKey, Entry mine, Throwable failure) {
+        String ownerToken = mine.ownerToken;
+        mine.ownerToken = null;
+        entries.remove(scopedKey, mine);
+        mine.result.complete(null);
+        if (ownerToken != null) {
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                        idempotencyRecordRepository.releaseClaim(scopedKey, ownerToken));
+            } catch (RuntimeException e) {
+                logger.warn("Could not release idempotency key {}: {}", scopedKey, e.getMessage());
+            }
+        }
+        if (failure != null) {
+            logger.debug("Request with idempotency key {} failed: {}", scopedKey, failure.getMessage());
+        }
+    }
+
+    /**
+     * Null when the original request failed, empty when it is still running after the wait timeout.
+     */
+    private Optional<StoredResponse> await(CompletableFuture<Optional<StoredResponse>> result) {
+        try {
+            return result.get(waitTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            return Optional.empty();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        } catch (ExecutionException e) {
+            return null;
+        }
+    }
+
+    private void evict() {
+        long now = System.nanoTime();
+        entries.values().removeIf(entry -> entry.isExpired(now));
+        int excess = entries.size() - maxEntries;
+        if (excess > 0) {
+            // Still full: drop the completed entries closest to expiry; in-flight ones are kept
+            entries.entrySet().stream()
+                    .filter(e -> e.getValue().result.isDone())
+                    .sorted(Comparator.comparingLong(e -> e.getValue().expiresAtNanos))
+                    .limit(excess)
+                    .map(Map.Entry::getKey)
+                    .toList()
+                    .forEach(entries::remove);
+        }
+    }
+
+    private StoredResponse toStoredResponse(ResponseEntity<?> response) {
+        Object body = response.getBody();
+        MediaType contentType = response.getHeaders().getContentType();
+        byte[] bytes;
+        if (body == null) {
+            bytes = new byte[0];
+        } else if (body instanceof byte[]) {
+            bytes = (byte[]) body;
+        } else if (body instanceof String) {
+            bytes = ((String) body).getBytes(StandardCharsets.UTF_8);
+            contentType = contentType != null ? contentType : new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8);
+        } else {
+            try {
+                bytes = objectMapper.writeValueAsBytes(body);
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Could not serialize response for replay", e);
+            }
+            contentType = contentType != null ? contentType : MediaType.APPLICATION_JSON;
+        }
+        return new StoredResponse(response.getStatusCode().value(),
+                contentType != null ? contentType.toString() : null, bytes);
+    }
+
+    private String hash(Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(objectMapper.writeValueAsBytes(request)));
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("Could not fingerprint request", e);
+        }
+    }
+
+    private static ResponseEntity<?> mismatch() {
+        return ResponseEntity.unprocessableEntity().body(HEADER + " was already used for a different request");
+    }
+
+    private static ResponseEntity<?> stillInProgress() {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body("A request with this " + HEADER + " is still being processed");
+    }
+
+    private void count(String result) {
+        Counter.builder("idempotency.requests")
+                .tag("result", result)
+                .description("Requests with an Idempotency-Key, by how they were answered")
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private static final class Entry {
+        private final String requestHash;
+        private final CompletableFuture<Optional<StoredResponse>> result = new CompletableFuture<>();
+        private volatile long expiresAtNanos;
+        // Set while this node holds the key's claim row in idempotency_keys
+        private volatile String ownerToken;
+
+        private Entry(String requestHash) {
+            this.requestHash = requestHash;
+        }
+
+        private void complete(StoredResponse response, long expiresAtNanos) {
+            this.expiresAtNanos = expiresAtNanos;
+            result.complete(Optional.of(response));
+        }
+
+        private boolean isExpired(long now) {
+            // An in-flight entry never expires here; its owner removes it if it fails
+            return result.isDone() && now - expiresAtNanos >= 0;
+        }
+    }
+
+    private static final class StoredResponse {
+        private final int status;
+        private final String contentType;
+        private final byte[] body;
+
+        private StoredResponse(int status, String contentType, byte[] body) {
+            this.status = status;
+            this.contentType = contentType;
+            this.body = body;
+        }
+
+        private ResponseEntity<byte[]> toResponseEntity(boolean replayed) {
+            ResponseEntity.BodyBuilder builder = ResponseEntity.status(status);
+            if (contentType != null) {
+                builder.contentType(MediaType.parseMediaType(contentType));
+            }
+            if (replayed) {
+                builder.header(REPLAYED_HEADER, "true");
+            }
+            return builder.body(body);
+        }
+    }
+}
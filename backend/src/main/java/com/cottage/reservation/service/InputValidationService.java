@@ -1,12 +1,10 @@
 package com.cottage.reservation.service;
 
 import com.cottage.reservation.util.InputSanitizer;
+import com.cottage.reservation.validation.ValidationPipeline;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import jakarta.validation.ConstraintViolation;
-import jakarta.validation.Validator;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.List;
 
 @Service
 public class InputValidationService {
@@ -15,7 +13,7 @@ public class InputValidationService {
     private InputSanitizer inputSanitizer;
     
     @Autowired
-    private Validator validator;
+    private ValidationPipeline validationPipeline;
     
     /**
      * Validates and sanitizes text input
@@ -43,18 +41,29 @@ public class InputValidationService {
     }
     
     /**
-     * Validates a bean using Jakarta validation annotations
+     * Sanitizes a @SafeText field of a request that passed {@link #validateBean}; the constraint
+     * already rejects the SQL and script patterns checked by {@link #validateAndSanitizeText}
+     * @param input The validated text
+     * @return Sanitized text
+     */
+    public String sanitizeValidatedText(String input) {
+        if (input == null) {
+            return null;
+        }
+        return inputSanitizer.sanitizeText(input);
+    }
+    
+    /**
+     * Validates a bean using Jakarta validation annotations; a no-op for a request
+     * that already passed @Valid in the controller
      * @param object The object to validate
      * @param <T> The type of object
      * @throws IllegalArgumentException if validation fails
      */
     public <T> void validateBean(T object) {
-        Set<ConstraintViolation<T>> violations = validator.validate(object);
-        if (!violations.isEmpty()) {
-            String errors = violations.stream()
-                .map(ConstraintViolation::getMessage)
-                .collect(Collectors.joining(", "));
-            throw new IllegalArgumentException("Validation failed: " + errors);
+        List<String> errors = validationPipeline.validate(object);
+        if (!errors.isEmpty()) {
+            throw new IllegalArgumentException("Validation failed: " + String.join(", ", errors));
         }
     }
     
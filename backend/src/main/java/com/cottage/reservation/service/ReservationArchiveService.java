@@ -0,0 +1,116 @@
+package com.cottage.reservation.service;
+
+import com.cottage.reservation.repository.ArchivedReservationRepository;
+import com.cottage.reservation.repository.ReservationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Keeps the reservations table small by moving old, finished reservations into reservations_archive.
+ * <p>
+ * Only COMPLETED and CANCELLED reservations that checked out more than retention-months ago are moved,
+ * so conflict and availability queries never need the archive. Each chunk is copied and deleted in
+ * one transaction, which means a row is always in exactly one of the two tables.
+ */
+@Service
+@ConditionalOnProperty(prefix = "app.reservations.archive", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ReservationArchiveService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReservationArchiveService.class);
+
+    static final String LOCK_NAME = "reservation-archive";
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private ArchivedReservationRepository archivedReservationRepository;
+
+    @Autowired
+    private SchedulerLockService schedulerLockService;
+
+    @Value("${app.reservations.archive.retention-months:12}")
+    private int retentionMonths;
+
+    @Value("${app.reservations.archive.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${app.reservations.archive.lock-lease:30m}")
+    private Duration lockLease;
+
+    private final TransactionTemplate transactionTemplate;
+    private final Counter archivedCounter;
+    private final Timer runTimer;
+
+    public ReservationArchiveService(PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.archivedCounter = Counter.builder("reservations.archive.moved")
+                .description("Reservations moved from the reservations table to the archive")
+                .register(meterRegistry);
+        this.runTimer = Timer.builder("reservations.archive.duration")
+                .description("Duration of archive job runs")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${app.reservations.archive.initial-delay:120000}",
+               fixedDelayString = "${app.reservations.archive.interval:3600000}")
+    public void runScheduled() {
+        if (!schedulerLockService.tryLock(LOCK_NAME, lockLease)) {
+            logger.debug("Reservation archive job is running on another node; skipping");
+            return;
+        }
+        try {
+            runTimer.record(() -> archiveCheckedOutBefore(LocalDate.now().minusMonths(retentionMonths)));
+        } finally {
+            schedulerLockService.unlock(LOCK_NAME);
+        }
+    }
+
+    /**
+     * Archives finished reservations with a check-out date before the cutoff.
+     * @return number of reservations moved
+     */
+    public int archiveCheckedOutBefore(LocalDate cutoff) {
+        int total = 0;
+        while (true) {
+            Integer moved = transactionTemplate.execute(status -> {
+                List<Long> ids = reservationRepository.findIdsOfArchivableReservations(cutoff, PageRequest.ofSize(chunkSize));
+                if (ids.isEmpty()) {
+                    return 0;
+                }
+                int copied = archivedReservationRepository.copyFromReservations(ids, LocalDateTime.now());
+                int deleted = reservationRepository.deleteByIdIn(ids);
+                if (copied != deleted) {
+                    throw new IllegalStateException("Archived " + copied + " reservations but removed " + deleted);
+                }
+                return deleted;
+            });
+            if (moved == null || moved == 0) {
+                break;
+            }
+            total += moved;
+            archivedCounter.increment(moved);
+        }
+
+        if (total > 0) {
+            logger.info("Archived {} reservations that checked out before {}", total, cutoff);
+        }
+        return total;
+    }
+}
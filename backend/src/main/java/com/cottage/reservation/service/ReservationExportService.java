@@ -0,0 +1,132 @@
+package com.cottage.reservation.service;
+
+import com.cottage.reservation.bulk.CsvWriter;
+import com.cottage.reservation.bulk.ICalendarWriter;
+import com.cottage.reservation.dto.ReservationExportRow;
+import com.cottage.reservation.entity.Reservation;
+import com.cottage.reservation.repository.ArchivedReservationRepository;
+import com.cottage.reservation.repository.ReservationRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Streams reservations (hot table first, then the archive) to CSV or iCalendar.
+ * Rows come from a database cursor and are written as they arrive; nothing is collected in memory.
+ * A userId limits the export to that user's reservations; null exports everyone's (command-line mode only).
+ */
+@Service
+public class ReservationExportService {
+
+    public static final String[] CSV_COLUMNS = {
+            "id", "username", "email", "room_id", "room", "check_in", "check_out", "guests",
+            "status", "notes", "created_at", "updated_at", "archived"
+    };
+
+    private static final LocalDate EARLIEST = LocalDate.of(1970, 1, 1);
+    private static final LocalDate LATEST = LocalDate.of(9999, 12, 31);
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private ArchivedReservationRepository archivedReservationRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public ReservationExportService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Writes every reservation whose stay overlaps [startDate, endDate); either bound may be null.
+     */
+    public void exportCsv(Long userId, LocalDate startDate, LocalDate endDate, Writer out) {
+        CsvWriter csv = new CsvWriter(out);
+        try {
+            csv.writeRecord((Object[]) CSV_COLUMNS);
+            forEachRow(userId, startDate, endDate, row -> {
+                try {
+                    csv.writeRecord(row.getId(), row.getUsername(), row.getEmail(), row.getRoomId(), row.getRoomName(),
+                            row.getCheckInDate(), row.getCheckOutDate(), row.getNumberOfGuests(), row.getStatus(),
+                            row.getNotes(), row.getCreatedAt(), row.getUpdatedAt(), row.isArchived());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            csv.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void exportICalendar(Long userId, LocalDate startDate, LocalDate endDate, Writer out) {
+        ICalendarWriter calendar = new ICalendarWriter(out);
+        try {
+            calendar.beginCalendar("-//ReserveEase//Reservation Export//EN", "Reservations");
+            forEachRow(userId, startDate, endDate, row -> {
+                try {
+                    writeEvent(calendar, row);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            calendar.endCalendar();
+            calendar.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void forEachRow(Long userId, LocalDate startDate, LocalDate endDate, Consumer<ReservationExportRow> consumer) {
+        LocalDate from = startDate == null ? EARLIEST : startDate;
+        LocalDate to = endDate == null ? LATEST : endDate;
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<ReservationExportRow> rows = userId == null
+                    ? reservationRepository.streamForExport(from, to)
+                    : reservationRepository.streamForExportByUser(userId, from, to)) {
+                rows.forEach(consumer);
+            }
+            try (Stream<ReservationExportRow> rows = userId == null
+                    ? archivedReservationRepository.streamForExport(from, to)
+                    : archivedReservationRepository.streamForExportByUser(userId, from, to)) {
+                rows.forEach(consumer);
+            }
+        });
+    }
+
+    private static void writeEvent(ICalendarWriter calendar, ReservationExportRow row) throws IOException {
+        Instant stamp = (row.getUpdatedAt() != null ? row.getUpdatedAt() : row.getCreatedAt() != null
+                ? row.getCreatedAt() : row.getCheckInDate().atStartOfDay())
+                .atZone(ZoneId.systemDefault()).toInstant();
+        calendar.beginEvent("reservation-" + row.getId() + "@reserveease", stamp);
+        calendar.dates(row.getCheckInDate(), row.getCheckOutDate());
+        calendar.text("SUMMARY", row.getRoomName() + " - " + row.getUsername());
+        calendar.text("LOCATION", row.getRoomName());
+        calendar.text("DESCRIPTION", row.getNotes());
+        calendar.property("STATUS", calendarStatus(row.getStatus()));
+        calendar.property("X-COTTAGE-ROOM-ID", String.valueOf(row.getRoomId()));
+        calendar.property("X-COTTAGE-GUESTS", String.valueOf(row.getNumberOfGuests()));
+        calendar.text("X-COTTAGE-USERNAME", row.getUsername());
+        calendar.property("X-COTTAGE-STATUS", row.getStatus().name());
+        calendar.endEvent();
+    }
+
+    private static String calendarStatus(Reservation.ReservationStatus status) {
+        if (status == Reservation.ReservationStatus.CANCELLED) {
+            return "CANCELLED";
+        }
+        return status == Reservation.ReservationStatus.PENDING ? "TENTATIVE" : "CONFIRMED";
+    }
+}
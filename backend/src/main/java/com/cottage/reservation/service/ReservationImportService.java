@@ -0,0 +1,373 @@
+package com.cottage.reservation.service;
+
+import com.cottage.reservation.bulk.ImportRow;
+import com.cottage.reservation.datasource.ReadYourWritesTracker;
+import com.cottage.reservation.dto.ImportReport;
+import com.cottage.reservation.dto.ReservationRequest;
+import com.cottage.reservation.dto.RoomView;
+import com.cottage.reservation.entity.Reservation;
+import com.cottage.reservation.entity.User;
+import com.cottage.reservation.event.ReservationChangedEvent;
+import com.cottage.reservation.repository.ReservationRepository;
+import com.cottage.reservation.repository.RoomRepository;
+import com.cottage.reservation.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Bulk reservation import.
+ * <p>
+ * Rows are read from a streaming parser and handled in chunks, each in one transaction:
+ * every row goes through the createReservation rules, then the chunk's rooms are locked like
+ * createReservation locks its room, conflicts are found with one query for the chunk and a sorted sweep
+ * per room (against existing reservations and earlier rows of the file), and the accepted rows are
+ * inserted with JDBC batching. Nothing but the current chunk is held in memory.
+ * Imported reservations do not trigger confirmation emails.
+ */
+@Service
+public class ReservationImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReservationImportService.class);
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoomCacheService roomCacheService;
+
+    @Autowired
+    private ReadYourWritesTracker readYourWritesTracker;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.bulk.import.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${app.bulk.import.max-errors:1000}")
+    private int maxErrors;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public ReservationImportService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // The conflict query runs after the room locks and after the chunk's user lookups; at READ_COMMITTED it sees
+        // everything committed before the locks were granted, not the snapshot of the chunk's first read
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+    }
+
+    /**
+     * Imports every row the parser yields.
+     * @param ownerId when set, all rows are booked for this user and rows naming someone else are rejected;
+     *                when null (command line), each row must name an existing user
+     * @param dryRun validate and check conflicts without writing anything
+     */
+    public ImportReport importReservations(Iterator<ImportRow> rows, String format, Long ownerId, boolean dryRun) {
+        long started = System.currentTimeMillis();
+        ImportReport report = new ImportReport(format, dryRun);
+        User owner = ownerId == null ? null : userRepository.findById(ownerId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        List<ImportRow> chunk = new ArrayList<>(chunkSize);
+        while (rows.hasNext()) {
+            chunk.add(rows.next());
+            report.rowRead();
+            if (chunk.size() == chunkSize) {
+                importChunk(chunk, owner, dryRun, report);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, owner, dryRun, report);
+        }
+
+        if (owner != null && report.getImported() > 0) {
+            readYourWritesTracker.recordWrite(ownerId);
+        }
+        report.setDurationMillis(System.currentTimeMillis() - started);
+        logger.info("Reservation import ({}{}): {} rows, {} imported, {} rejected in {} ms", format,
+                dryRun ? ", dry run" : "", report.getRowsRead(), report.getImported(), report.getRejected(),
+                report.getDurationMillis());
+        return report;
+    }
+
+    private void importChunk(List<ImportRow> rows, User owner, boolean dryRun, ImportReport report) {
+        List<Candidate> rejected = new ArrayList<>();
+        try {
+            Integer imported = transactionTemplate.execute(status -> {
+                List<Candidate> candidates = validate(rows, owner, rejected);
+                List<Candidate> accepted = findConflicts(candidates, rejected);
+                if (!dryRun) {
+                    insert(accepted, owner);
+                }
+                return accepted.size();
+            });
+            report.imported(imported == null ? 0 : imported);
+        } catch (RuntimeException e) {
+            logger.error("Import chunk starting at line {} failed: {}", rows.get(0).getLineNumber(), e.getMessage());
+            rejected.clear();
+            for (ImportRow row : rows) {
+                report.reject(row.getLineNumber(), "Not imported: " + e.getMessage(), maxErrors);
+            }
+            return;
+        }
+
+        rejected.sort(Comparator.comparingLong(candidate -> candidate.row.getLineNumber()));
+        for (Candidate candidate : rejected) {
+            report.reject(candidate.row.getLineNumber(), candidate.error, maxErrors);
+        }
+    }
+
+    private List<Candidate> validate(List<ImportRow> rows, User owner, List<Candidate> rejected) {
+        Map<String, User> usersByUsername = new HashMap<>();
+        Map<String, User> usersByEmail = new HashMap<>();
+        if (owner == null) {
+            loadUsers(rows, usersByUsername, usersByEmail);
+        }
+
+        List<Candidate> candidates = new ArrayList<>(rows.size());
+        for (ImportRow row : rows) {
+            Candidate candidate = new Candidate(row);
+            if (row.hasParseError()) {
+                rejected.add(candidate.reject(row.getParseError()));
+                continue;
+            }
+
+            User user = owner != null ? owner : resolveUser(row, usersByUsername, usersByEmail);
+            if (user == null) {
+                rejected.add(candidate.reject(row.getUsername() == null && row.getEmail() == null
+                        ? "Row does not name a user (username or email)" : "User not found"));
+                continue;
+            }
+            if (owner != null && !isOwner(row, owner)) {
+                rejected.add(candidate.reject("You can only import your own reservations"));
+                continue;
+            }
+
+            Long roomId = row.getRoomId() != null ? row.getRoomId() : findRoomIdByName(row.getRoomName());
+            if (roomId == null) {
+                rejected.add(candidate.reject("Room not found, or its name is used by more than one property"));
+                continue;
+            }
+
+            ReservationRequest request = new ReservationRequest(roomId, row.getCheckInDate(), row.getCheckOutDate(),
+                    row.getNumberOfGuests());
+            request.setNotes(row.getNotes());
+            try {
+                reservationService.validateNewReservation(request);
+            } catch (RuntimeException e) {
+                rejected.add(candidate.reject(e.getMessage()));
+                continue;
+            }
+
+            candidate.user = user;
+            candidate.request = request;
+            candidates.add(candidate);
+        }
+        return candidates;
+    }
+
+    /**
+     * Sorted sweep per room: existing bookings are merged into busy blocks, candidates are visited in
+     * check-in order, and a candidate is accepted only if it overlaps neither a busy block nor the
+     * candidate accepted before it. Earlier stays in the file win over later ones.
+     */
+    private List<Candidate> findConflicts(List<Candidate> candidates, List<Candidate> rejected) {
+        if (candidates.isEmpty()) {
+            return candidates;
+        }
+
+        Map<Long, List<Candidate>> byRoom = new HashMap<>();
+        LocalDate earliest = null;
+        LocalDate latest = null;
+        for (Candidate candidate : candidates) {
+            byRoom.computeIfAbsent(candidate.request.getRoomId(), id -> new ArrayList<>()).add(candidate);
+            LocalDate checkIn = candidate.request.getCheckInDate();
+            LocalDate checkOut = candidate.request.getCheckOutDate();
+            earliest = earliest == null || checkIn.isBefore(earliest) ? checkIn : earliest;
+            latest = latest == null || checkOut.isAfter(latest) ? checkOut : latest;
+        }
+
+        // Held until the chunk commits, so no booking of these rooms can slip in between the query and the insert.
+        // Ascending ids give every import the same lock order, and createReservation only locks a single room
+        for (Long roomId : new TreeSet<>(byRoom.keySet())) {
+            roomRepository.findByIdForUpdate(roomId);
+        }
+
+        Map<Long, List<Reservation>> existingByRoom = new HashMap<>();
+        for (Reservation existing : reservationRepository.findActiveReservationsForRooms(byRoom.keySet(), earliest, latest)) {
+            existingByRoom.computeIfAbsent(existing.getRoom().getId(), id -> new ArrayList<>()).add(existing);
+        }
+
+        List<Candidate> accepted = new ArrayList<>(candidates.size());
+        for (Map.Entry<Long, List<Candidate>> room : byRoom.entrySet()) {
+            List<Reservation> existing = existingByRoom.computeIfAbsent(room.getKey(), id -> new ArrayList<>());
+            existing.sort(Comparator.comparing(Reservation::getCheckInDate));
+            List<Candidate> roomCandidates = room.getValue();
+            roomCandidates.sort(Comparator.comparing((Candidate candidate) -> candidate.request.getCheckInDate())
+                    .thenComparingLong(candidate -> candidate.row.getLineNumber()));
+
+            int next = 0;
+            LocalDate busyStart = null;
+            LocalDate busyEnd = null;
+            Long busyReservationId = null;
+            Candidate lastAccepted = null;
+
+            for (Candidate candidate : roomCandidates) {
+                LocalDate checkIn = candidate.request.getCheckInDate();
+                LocalDate checkOut = candidate.request.getCheckOutDate();
+
+                // Advance the merged busy block until it could reach this stay
+                while ((busyEnd == null || !busyEnd.isAfter(checkIn)) && next < existing.size()) {
+                    Reservation reservation = existing.get(next++);
+                    if (busyEnd != null && reservation.getCheckInDate().isBefore(busyEnd)) {
+                        busyEnd = reservation.getCheckOutDate().isAfter(busyEnd) ? reservation.getCheckOutDate() : busyEnd;
+                    } else {
+                        busyStart = reservation.getCheckInDate();
+                        busyEnd = reservation.getCheckOutDate();
+                        busyReservationId = reservation.getId();
+                    }
+                }
+                boolean overlapsExisting = busyStart != null && busyStart.isBefore(checkOut) && busyEnd.isAfter(checkIn);
+
+                if (overlapsExisting) {
+                    rejected.add(candidate.reject("Room is already booked for the selected dates (reservation "
+                            + busyReservationId + ")"));
+                } else if (lastAccepted != null && lastAccepted.request.getCheckOutDate().isAfter(checkIn)) {
+                    rejected.add(candidate.reject("Room is already booked for the selected dates (line "
+                            + lastAccepted.row.getLineNumber() + ")"));
+                } else {
+                    accepted.add(candidate);
+                    lastAccepted = candidate;
+                }
+            }
+        }
+        return accepted;
+    }
+
+    private void insert(List<Candidate> accepted, User owner) {
+        List<Reservation> inserted = new ArrayList<>(accepted.size());
+        for (Candidate candidate : accepted) {
+            ReservationRequest request = candidate.request;
+            Reservation reservation = new Reservation(
+                    request.getCheckInDate(),
+                    request.getCheckOutDate(),
+                    request.getNumberOfGuests(),
+                    BigDecimal.ZERO,
+                    entityManager.getReference(User.class, candidate.user.getId()),
+                    roomRepository.getReferenceById(request.getRoomId()));
+            reservation.setNotes(request.getNotes());
+            reservation.setStatus(Reservation.ReservationStatus.PENDING);
+            entityManager.persist(reservation);
+            inserted.add(reservation);
+        }
+        entityManager.flush();
+
+        Long actorUserId = owner == null ? null : owner.getId();
+        for (Reservation reservation : inserted) {
+            eventPublisher.publishEvent(ReservationChangedEvent.of(ReservationChangedEvent.Type.CREATED, reservation, actorUserId));
+        }
+        entityManager.clear();
+    }
+
+    private void loadUsers(List<ImportRow> rows, Map<String, User> usersByUsername, Map<String, User> usersByEmail) {
+        Set<String> usernames = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        for (ImportRow row : rows) {
+            if (row.getUsername() != null) {
+                usernames.add(row.getUsername());
+            } else if (row.getEmail() != null) {
+                emails.add(row.getEmail().toLowerCase(Locale.ROOT));
+            }
+        }
+        if (!usernames.isEmpty()) {
+            for (User user : userRepository.findByUsernameIn(usernames)) {
+                usersByUsername.put(user.getUsername(), user);
+            }
+        }
+        if (!emails.isEmpty()) {
+            for (User user : userRepository.findByEmailIn(emails)) {
+                usersByEmail.put(user.getEmail().toLowerCase(Locale.ROOT), user);
+            }
+        }
+    }
+
+    private static User resolveUser(ImportRow row, Map<String, User> usersByUsername, Map<String, User> usersByEmail) {
+        if (row.getUsername() != null) {
+            return usersByUsername.get(row.getUsername());
+        }
+        return row.getEmail() == null ? null : usersByEmail.get(row.getEmail().toLowerCase(Locale.ROOT));
+    }
+
+    private static boolean isOwner(ImportRow row, User owner) {
+        return (row.getUsername() == null || row.getUsername().equals(owner.getUsername()))
+                && (row.getEmail() == null || row.getEmail().equalsIgnoreCase(owner.getEmail()));
+    }
+
+    // Room names are only unique within a property: a name used by several properties needs a room id instead
+    private Long findRoomIdByName(String roomName) {
+        if (roomName == null) {
+            return null;
+        }
+        Long match = null;
+        for (RoomView room : roomCacheService.getAllRooms()) {
+            if (room.getName().equalsIgnoreCase(roomName.trim())) {
+                if (match != null) {
+                    return null;
+                }
+                match = room.getId();
+            }
+        }
+        return match;
+    }
+
+    private static final class Candidate {
+        private final ImportRow row;
+        private User user;
+        private ReservationRequest request;
+        private String error;
+
+        private Candidate(ImportRow row) {
+            this.row = row;
+        }
+
+        private Candidate reject(String message) {
+            this.error = message;
+            return this;
+        }
+    }
+}
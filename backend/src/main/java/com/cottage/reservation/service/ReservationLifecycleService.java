@@ -0,0 +1,164 @@
+package com.cottage.reservation.service;
+
+import com.cottage.reservation.entity.Reservation;
+import com.cottage.reservation.entity.Reservation.ReservationStatus;
+import com.cottage.reservation.event.ReservationChangedEvent;
+import com.cottage.reservation.repository.ReservationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Moves reservations through the end of their lifecycle so they drop out of the active set:
+ * stays whose check-out date has passed become COMPLETED, and, if a TTL is configured,
+ * PENDING holds that were never confirmed are cancelled.
+ * <p>
+ * Work is done in bounded chunks, each in its own short transaction. A scheduler lock keeps
+ * concurrent nodes from running the job at the same time, and every update re-checks the status,
+ * so an overlapping run would still be harmless.
+ */
+@Service
+@ConditionalOnProperty(prefix = "app.reservations.lifecycle", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ReservationLifecycleService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReservationLifecycleService.class);
+
+    static final String LOCK_NAME = "reservation-lifecycle";
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private SchedulerLockService schedulerLockService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.reservations.lifecycle.chunk-size:500}")
+    private int chunkSize;
+
+    // Zero disables expiry: nothing in the application confirms reservations yet
+    @Value("${app.reservations.lifecycle.pending-ttl:0}")
+    private Duration pendingTtl;
+
+    @Value("${app.reservations.lifecycle.lock-lease:10m}")
+    private Duration lockLease;
+
+    private final TransactionTemplate transactionTemplate;
+    private final Counter completedCounter;
+    private final Counter expiredCounter;
+    private final Counter skippedRunsCounter;
+    private final Timer runTimer;
+
+    public ReservationLifecycleService(PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.completedCounter = Counter.builder("reservations.lifecycle.transitions")
+                .tag("transition", "completed")
+                .description("Reservations moved to a final status by the lifecycle job")
+                .register(meterRegistry);
+        this.expiredCounter = Counter.builder("reservations.lifecycle.transitions")
+                .tag("transition", "expired")
+                .description("Reservations moved to a final status by the lifecycle job")
+                .register(meterRegistry);
+        this.skippedRunsCounter = Counter.builder("reservations.lifecycle.skipped")
+                .description("Lifecycle runs skipped because another node held the lock")
+                .register(meterRegistry);
+        this.runTimer = Timer.builder("reservations.lifecycle.duration")
+                .description("Duration of lifecycle job runs")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${app.reservations.lifecycle.initial-delay:60000}",
+               fixedDelayString = "${app.reservations.lifecycle.interval:300000}")
+    public void runScheduled() {
+        if (!schedulerLockService.tryLock(LOCK_NAME, lockLease)) {
+            skippedRunsCounter.increment();
+            logger.debug("Reservation lifecycle job is running on another node; skipping");
+            return;
+        }
+        try {
+            runTimer.record(this::processAll);
+        } finally {
+            schedulerLockService.unlock(LOCK_NAME);
+        }
+    }
+
+    /**
+     * Runs both transitions until no eligible reservations remain.
+     * @return number of reservations whose status changed
+     */
+    public int processAll() {
+        int completed = completeFinishedStays(LocalDate.now());
+        int expired = pendingTtl.isZero() ? 0 : expirePendingHolds(LocalDateTime.now().minus(pendingTtl));
+
+        if (completed > 0 || expired > 0) {
+            logger.info("Reservation lifecycle: {} completed, {} expired pending holds", completed, expired);
+        }
+        return completed + expired;
+    }
+
+    public int completeFinishedStays(LocalDate today) {
+        int total = 0;
+        while (true) {
+            Integer updated = transactionTemplate.execute(status -> {
+                List<Long> ids = reservationRepository.findIdsOfFinishedStays(today, PageRequest.ofSize(chunkSize));
+                if (ids.isEmpty()) {
+                    return 0;
+                }
+                int count = reservationRepository.completeFinishedStays(ids, today, LocalDateTime.now(),
+                        ReservationStatus.COMPLETED);
+                publishChanges(ReservationChangedEvent.Type.COMPLETED, ids);
+                return count;
+            });
+            if (updated == null || updated == 0) {
+                return total;
+            }
+            total += updated;
+            completedCounter.increment(updated);
+        }
+    }
+
+    public int expirePendingHolds(LocalDateTime createdBefore) {
+        int total = 0;
+        while (true) {
+            Integer updated = transactionTemplate.execute(status -> {
+                List<Long> ids = reservationRepository.findIdsOfExpiredPendingHolds(createdBefore, PageRequest.ofSize(chunkSize));
+                if (ids.isEmpty()) {
+                    return 0;
+                }
+                int count = reservationRepository.expirePendingHolds(ids, createdBefore, LocalDateTime.now(),
+                        ReservationStatus.CANCELLED);
+                publishChanges(ReservationChangedEvent.Type.EXPIRED, ids);
+                return count;
+            });
+            if (updated == null || updated == 0) {
+                return total;
+            }
+            total += updated;
+            expiredCounter.increment(updated);
+        }
+    }
+
+    // Listeners re-read the reservations, so ids that a concurrent change made ineligible are harmless
+    private void publishChanges(ReservationChangedEvent.Type type, List<Long> ids) {
+        for (Reservation reservation : reservationRepository.findAllById(ids)) {
+            eventPublisher.publishEvent(ReservationChangedEvent.of(type, reservation));
+        }
+    }
+}
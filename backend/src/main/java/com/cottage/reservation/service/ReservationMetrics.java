@@ -0,0 +1,82 @@
+package com.cottage.reservation.service;
+
+import com.cottage.reservation.exception.DomainException;
+import com.cottage.reservation.exception.ErrorCode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Locale;
+import java.util.function.Supplier;
+
+/**
+ * Timers and counters for reservation create, update and cancel.
+ * <p>
+ * reservation.operations is tagged with the operation and its outcome: success, the lower-case
+ * {@link ErrorCode} of a rejected request (e.g. room_already_booked), invalid, or error. A call that
+ * returns inside a transaction is timed up to the end of that transaction, so commit time is
+ * included and a commit that fails is reported as rolled_back. reservation.conflicts counts the
+ * requests rejected because the room was already booked for the dates.
+ */
+@Component
+public class ReservationMetrics {
+
+    static final String CREATE = "create";
+    static final String UPDATE = "update";
+    static final String CANCEL = "cancel";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    public <T> T record(String operation, Supplier<T> call) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        T result;
+        try {
+            result = call.get();
+        } catch (RuntimeException e) {
+            if (e instanceof DomainException && ((DomainException) e).getErrorCode() == ErrorCode.ROOM_ALREADY_BOOKED) {
+                Counter.builder("reservation.conflicts")
+                        .tag("operation", operation)
+                        .description("Reservation requests rejected because the room was already booked")
+                        .register(meterRegistry)
+                        .increment();
+            }
+            sample.stop(timer(operation, outcome(e)));
+            throw e;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    sample.stop(timer(operation, status == STATUS_COMMITTED ? "success" : "rolled_back"));
+                }
+            });
+        } else {
+            sample.stop(timer(operation, "success"));
+        }
+        return result;
+    }
+
+    private Timer timer(String operation, String outcome) {
+        return Timer.builder("reservation.operations")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .description("Reservation create, update and cancel calls, up to the end of their transaction")
+                .register(meterRegistry);
+    }
+
+    static String outcome(RuntimeException e) {
+        if (e instanceof DomainException) {
+            return ((DomainException) e).getErrorCode().name().toLowerCase(Locale.ROOT);
+        }
+        if (e instanceof IllegalArgumentException) {
+            return "invalid";
+        }
+        return "error";
+    }
+}
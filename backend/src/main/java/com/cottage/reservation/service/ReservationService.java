@@ -1,20 +1,38 @@
 package com.cottage.reservation.service;
 
+import com.cottage.reservation.datasource.ReadYourWritesTracker;
 import com.cottage.reservation.dto.ReservationRequest;
+import com.cottage.reservation.dto.RoomView;
+import com.cottage.reservation.entity.ArchivedReservation;
 import com.cottage.reservation.entity.Reservation;
 import com.cottage.reservation.entity.Room;
 import com.cottage.reservation.entity.User;
+import com.cottage.reservation.event.ReservationChangedEvent;
+import com.cottage.reservation.exception.BusinessRuleException;
+import com.cottage.reservation.exception.ErrorCode;
+import com.cottage.reservation.exception.ForbiddenOperationException;
+import com.cottage.reservation.exception.NotFoundException;
+import com.cottage.reservation.exception.ReservationConflictException;
+import com.cottage.reservation.jfr.BookingEvent;
+import com.cottage.reservation.jfr.ConflictCheckEvent;
+import com.cottage.reservation.repository.ArchivedReservationRepository;
 import com.cottage.reservation.repository.ReservationRepository;
 import com.cottage.reservation.repository.RoomRepository;
 import com.cottage.reservation.repository.UserRepository;
 import com.cottage.reservation.service.InputValidationService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 
@@ -25,55 +43,78 @@ public class ReservationService {
     @Autowired
     private ReservationRepository reservationRepository;
 
+    @Autowired
+    private ArchivedReservationRepository archivedReservationRepository;
+
     @Autowired
     private RoomRepository roomRepository;
 
     @Autowired
     private UserRepository userRepository;
 
+    // Resolved on the first email, so a lazy EmailService (fast-startup profile) is not created at startup
+    @Lazy
     @Autowired
     private EmailService emailService;
     
     @Autowired
     private InputValidationService inputValidationService;
 
+    @Autowired
+    private RoomCacheService roomCacheService;
+
+    @Autowired
+    private ReadYourWritesTracker readYourWritesTracker;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ReservationMetrics reservationMetrics;
+
+    // The conflict check must see bookings committed while this transaction waited for the room lock. Under
+    // MySQL's default REPEATABLE READ a plain query reads the snapshot of the transaction's first read instead
+    @Transactional(isolation = Isolation.READ_COMMITTED)
     public Reservation createReservation(ReservationRequest request, Long userId) {
+        BookingEvent event = new BookingEvent();
+        event.begin();
+        String outcome = "error";
+        try {
+            Reservation reservation = reservationMetrics.record(ReservationMetrics.CREATE, () -> doCreateReservation(request, userId));
+            outcome = "success";
+            return reservation;
+        } catch (RuntimeException e) {
+            outcome = ReservationMetrics.outcome(e);
+            throw e;
+        } finally {
+            if (event.shouldCommit()) {
+                event.roomId = request.getRoomId() != null ? request.getRoomId() : 0;
+                event.nights = nights(request.getCheckInDate(), request.getCheckOutDate());
+                event.outcome = outcome;
+                event.commit();
+            }
+        }
+    }
+
+    private Reservation doCreateReservation(ReservationRequest request, Long userId) {
         // Validate input parameters
         inputValidationService.validateId(userId);
-        inputValidationService.validateBean(request);
-        
-        // Sanitize notes if present
-        if (request.getNotes() != null) {
-            request.setNotes(inputValidationService.validateAndSanitizeText(request.getNotes()));
-        }
+        RoomView roomView = validateNewReservation(request);
         
         // Validate user exists
         User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        // Validate room exists and is available
-        Room room = roomRepository.findById(request.getRoomId())
-                .orElseThrow(() -> new RuntimeException("Room not found"));
-
-        if (!room.getIsAvailable()) {
-            throw new RuntimeException("Room is not available");
-        }
-
-        // Validate dates
-        if (request.getCheckInDate().isBefore(LocalDate.now())) {
-            throw new RuntimeException("Check-in date cannot be in the past");
-        }
+                .orElseThrow(() -> new NotFoundException(ErrorCode.USER_NOT_FOUND));
 
-        if (request.getCheckOutDate().isBefore(request.getCheckInDate().plusDays(1))) {
-            throw new RuntimeException("Check-out date must be at least one day after check-in date");
-        }
+        // Locking the room row keeps a concurrent booking of the same room from passing the conflict check too
+        Room room = roomRepository.findByIdForUpdate(roomView.getId())
+                .orElseThrow(() -> new NotFoundException(ErrorCode.ROOM_NOT_FOUND));
 
         // Check for conflicting reservations
-        List<Reservation> conflicts = reservationRepository.findConflictingReservations(
-                request.getRoomId(), request.getCheckInDate(), request.getCheckOutDate());
+        List<Reservation> conflicts = findConflicts(
+                request.getRoomId(), request.getCheckInDate(), request.getCheckOutDate(), null);
         
         if (!conflicts.isEmpty()) {
-            throw new RuntimeException("Room is already booked for the selected dates");
+            throw new ReservationConflictException(ErrorCode.ROOM_ALREADY_BOOKED);
         }
 
         // Set total price to zero for free reservations
@@ -92,6 +133,8 @@ public class ReservationService {
         reservation.setStatus(Reservation.ReservationStatus.PENDING);
 
         Reservation savedReservation = reservationRepository.save(reservation);
+        readYourWritesTracker.recordWrite(userId);
+        eventPublisher.publishEvent(ReservationChangedEvent.of(ReservationChangedEvent.Type.CREATED, savedReservation, userId));
 
         // Send confirmation email
         emailService.sendReservationConfirmation(savedReservation);
@@ -99,58 +142,120 @@ public class ReservationService {
         return savedReservation;
     }
 
+    /**
+     * Booking rules that do not depend on other reservations: bean constraints, room exists and
+     * is available, and valid dates. Sanitizes the notes in place.
+     * Shared by createReservation and bulk import so both accept exactly the same requests.
+     * @return the validated room
+     */
+    // A rejected request must not mark the caller's transaction (e.g. an import chunk) rollback-only
+    @Transactional(propagation = Propagation.SUPPORTS, noRollbackFor = RuntimeException.class)
+    public RoomView validateNewReservation(ReservationRequest request) {
+        inputValidationService.validateBean(request);
+        
+        // Sanitize notes if present
+        if (request.getNotes() != null) {
+            request.setNotes(inputValidationService.sanitizeValidatedText(request.getNotes()));
+        }
+
+        // Validate room exists and is available
+        RoomView roomView = roomCacheService.findById(request.getRoomId())
+                .orElseThrow(() -> new NotFoundException(ErrorCode.ROOM_NOT_FOUND));
+
+        if (!roomView.getIsAvailable()) {
+            throw new BusinessRuleException(ErrorCode.ROOM_NOT_AVAILABLE);
+        }
+
+        // Validate dates
+        if (request.getCheckInDate().isBefore(LocalDate.now())) {
+            throw new BusinessRuleException(ErrorCode.CHECK_IN_IN_PAST);
+        }
+
+        if (request.getCheckOutDate().isBefore(request.getCheckInDate().plusDays(1))) {
+            throw new BusinessRuleException(ErrorCode.STAY_TOO_SHORT);
+        }
+
+        return roomView;
+    }
+
+    @Transactional(readOnly = true)
     public List<Reservation> getReservationsByUser(Long userId) {
-        return reservationRepository.findByUserIdOrderByCheckInDateDesc(userId);
+        // History spans the hot table and the archive of old finished stays
+        List<Reservation> reservations = new ArrayList<>(reservationRepository.findByUserIdOrderByCheckInDateDesc(userId));
+        List<ArchivedReservation> archived = archivedReservationRepository.findByUserIdOrderByCheckInDateDesc(userId);
+        if (archived.isEmpty()) {
+            return reservations;
+        }
+        for (ArchivedReservation archivedReservation : archived) {
+            reservations.add(archivedReservation.toReservation());
+        }
+        reservations.sort(Comparator.comparing(Reservation::getCheckInDate).reversed());
+        return reservations;
     }
 
+    @Transactional(readOnly = true)
     public List<Reservation> getAllActiveReservations() {
         return reservationRepository.findActiveReservations();
     }
 
+    @Transactional(readOnly = true)
     public Optional<Reservation> getReservationById(Long id) {
-        return reservationRepository.findById(id);
+        return reservationRepository.findById(id)
+                .or(() -> archivedReservationRepository.findById(id).map(ArchivedReservation::toReservation));
     }
 
+    // READ_COMMITTED for the same reason as createReservation
+    @Transactional(isolation = Isolation.READ_COMMITTED)
     public Reservation updateReservation(Long reservationId, ReservationRequest request, Long userId) {
-        Reservation reservation = reservationRepository.findById(reservationId)
-                .orElseThrow(() -> new RuntimeException("Reservation not found"));
+        return reservationMetrics.record(ReservationMetrics.UPDATE, () -> doUpdateReservation(reservationId, request, userId));
+    }
+
+    private Reservation doUpdateReservation(Long reservationId, ReservationRequest request, Long userId) {
+        // Locks are taken reservation first, then room, in every path
+        Reservation reservation = reservationRepository.findByIdForUpdate(reservationId)
+                .orElseThrow(() -> new NotFoundException(ErrorCode.RESERVATION_NOT_FOUND));
 
         // Check if user owns the reservation
         if (!reservation.getUser().getId().equals(userId)) {
-            throw new RuntimeException("You can only update your own reservations");
+            throw new ForbiddenOperationException(ErrorCode.NOT_RESERVATION_OWNER_UPDATE);
         }
 
         // Check if reservation can be updated (not completed or cancelled)
         if (reservation.getStatus() == Reservation.ReservationStatus.COMPLETED ||
             reservation.getStatus() == Reservation.ReservationStatus.CANCELLED) {
-            throw new RuntimeException("Cannot update completed or cancelled reservations");
+            throw new BusinessRuleException(ErrorCode.RESERVATION_NOT_UPDATABLE);
         }
 
         // Validate new dates
         if (request.getCheckInDate().isBefore(LocalDate.now())) {
-            throw new RuntimeException("Check-in date cannot be in the past");
+            throw new BusinessRuleException(ErrorCode.CHECK_IN_IN_PAST);
         }
 
         if (request.getCheckOutDate().isBefore(request.getCheckInDate().plusDays(1))) {
-            throw new RuntimeException("Check-out date must be at least one day after check-in date");
+            throw new BusinessRuleException(ErrorCode.STAY_TOO_SHORT);
         }
 
+        RoomView roomView = roomCacheService.findById(request.getRoomId())
+                .orElseThrow(() -> new NotFoundException(ErrorCode.ROOM_NOT_FOUND));
+        Room room = roomRepository.findByIdForUpdate(roomView.getId())
+                .orElseThrow(() -> new NotFoundException(ErrorCode.ROOM_NOT_FOUND));
+
         // Check for conflicts excluding current reservation
-        List<Reservation> conflicts = reservationRepository.findConflictingReservations(
-                request.getRoomId(), request.getCheckInDate(), request.getCheckOutDate());
-        conflicts.removeIf(r -> r.getId().equals(reservationId));
+        List<Reservation> conflicts = findConflicts(
+                request.getRoomId(), request.getCheckInDate(), request.getCheckOutDate(), reservationId);
         
         if (!conflicts.isEmpty()) {
-            throw new RuntimeException("Room is already booked for the selected dates");
+            throw new ReservationConflictException(ErrorCode.ROOM_ALREADY_BOOKED);
         }
 
         // Update reservation
-        Room room = roomRepository.findById(request.getRoomId())
-                .orElseThrow(() -> new RuntimeException("Room not found"));
-
         // Set total price to zero for free reservations
         BigDecimal totalPrice = BigDecimal.ZERO;
 
+        Long previousRoomId = reservation.getRoom().getId();
+        LocalDate previousCheckInDate = reservation.getCheckInDate();
+        LocalDate previousCheckOutDate = reservation.getCheckOutDate();
+
         reservation.setRoom(room);
         reservation.setCheckInDate(request.getCheckInDate());
         reservation.setCheckOutDate(request.getCheckOutDate());
@@ -159,6 +264,9 @@ public class ReservationService {
         reservation.setNotes(request.getNotes());
 
         Reservation updatedReservation = reservationRepository.save(reservation);
+        readYourWritesTracker.recordWrite(userId);
+        eventPublisher.publishEvent(ReservationChangedEvent.updated(updatedReservation, userId,
+                previousRoomId, previousCheckInDate, previousCheckOutDate));
 
         // Send update email
         emailService.sendReservationUpdate(updatedReservation);
@@ -167,27 +275,57 @@ public class ReservationService {
     }
 
     public void cancelReservation(Long reservationId, Long userId) {
-        Reservation reservation = reservationRepository.findById(reservationId)
-                .orElseThrow(() -> new RuntimeException("Reservation not found"));
+        reservationMetrics.record(ReservationMetrics.CANCEL, () -> doCancelReservation(reservationId, userId));
+    }
+
+    private Reservation doCancelReservation(Long reservationId, Long userId) {
+        Reservation reservation = reservationRepository.findByIdForUpdate(reservationId)
+                .orElseThrow(() -> new NotFoundException(ErrorCode.RESERVATION_NOT_FOUND));
 
         // Check if user owns the reservation
         if (!reservation.getUser().getId().equals(userId)) {
-            throw new RuntimeException("You can only cancel your own reservations");
+            throw new ForbiddenOperationException(ErrorCode.NOT_RESERVATION_OWNER_CANCEL);
         }
 
         // Check if reservation can be cancelled
         if (reservation.getStatus() == Reservation.ReservationStatus.COMPLETED ||
             reservation.getStatus() == Reservation.ReservationStatus.CANCELLED) {
-            throw new RuntimeException("Cannot cancel completed or already cancelled reservations");
+            throw new BusinessRuleException(ErrorCode.RESERVATION_NOT_CANCELLABLE);
         }
 
         reservation.setStatus(Reservation.ReservationStatus.CANCELLED);
         reservationRepository.save(reservation);
+        readYourWritesTracker.recordWrite(userId);
+        eventPublisher.publishEvent(ReservationChangedEvent.of(ReservationChangedEvent.Type.CANCELLED, reservation, userId));
 
         // Send cancellation email
         emailService.sendReservationCancellation(reservation);
+
+        return reservation;
+    }
+
+    private List<Reservation> findConflicts(Long roomId, LocalDate checkInDate, LocalDate checkOutDate,
+                                            Long excludedReservationId) {
+        ConflictCheckEvent event = new ConflictCheckEvent();
+        event.begin();
+        List<Reservation> conflicts = reservationRepository.findConflictingReservations(roomId, checkInDate, checkOutDate);
+        if (excludedReservationId != null) {
+            conflicts.removeIf(r -> r.getId().equals(excludedReservationId));
+        }
+        if (event.shouldCommit()) {
+            event.roomId = roomId != null ? roomId : 0;
+            event.nights = nights(checkInDate, checkOutDate);
+            event.conflicts = conflicts.size();
+            event.commit();
+        }
+        return conflicts;
+    }
+
+    private static int nights(LocalDate checkInDate, LocalDate checkOutDate) {
+        return checkInDate == null || checkOutDate == null ? 0 : (int) ChronoUnit.DAYS.between(checkInDate, checkOutDate);
     }
 
+    @Transactional(readOnly = true)
     public List<Reservation> getReservationsBetweenDates(LocalDate startDate, LocalDate endDate) {
         return reservationRepository.findReservationsBetweenDates(startDate, endDate);
     }
@@ -0,0 +1,55 @@
+package com.cottage.reservation.service;
+
+import com.cottage.reservation.entity.Property;
+import com.cottage.reservation.entity.Room;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA entity listener that drops cached room data whenever a Room or Property row is written:
+ * a room write drops only its property's snapshot, a property write the property listing.
+ * Invalidates immediately and again after commit, so a reload that ran before the
+ * commit cannot leave stale data behind.
+ */
+@Component
+public class RoomCacheInvalidationListener {
+
+    // Resolved lazily: this listener is created while the EntityManagerFactory that RoomCacheService depends on is being built
+    private final ObjectProvider<RoomCacheService> roomCacheService;
+
+    @Autowired
+    public RoomCacheInvalidationListener(ObjectProvider<RoomCacheService> roomCacheService) {
+        this.roomCacheService = roomCacheService;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onWrite(Object entity) {
+        RoomCacheService cache = roomCacheService.getObject();
+        Runnable invalidation;
+        if (entity instanceof Room room) {
+            invalidation = () -> cache.invalidateRoom(room);
+        } else if (entity instanceof Property property) {
+            invalidation = () -> cache.invalidateProperty(property);
+        } else {
+            return;
+        }
+        invalidation.run();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidation.run();
+                }
+            });
+        }
+    }
+}
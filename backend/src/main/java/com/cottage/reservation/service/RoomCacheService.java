@@ -0,0 +1,420 @@
+package com.cottage.reservation.service;
+
+import com.cottage.reservation.dto.PropertyView;
+import com.cottage.reservation.dto.RoomView;
+import com.cottage.reservation.entity.Property;
+import com.cottage.reservation.entity.Room;
+import com.cottage.reservation.exception.ErrorCode;
+import com.cottage.reservation.exception.NotFoundException;
+import com.cottage.reservation.repository.PropertyRepository;
+import com.cottage.reservation.repository.RoomRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Read-mostly cache of property and room reference data, partitioned by property.
+ * Every property has its own immutable room snapshot that is rebuilt on the first read after a write
+ * to one of its rooms, so writes, reloads and evictions of one property never touch another's rooms.
+ */
+@Service
+public class RoomCacheService implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(RoomCacheService.class);
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    // Property ids, "all", or empty to load every property on its first read
+    @Value("${app.properties.warm-on-startup:}")
+    private String[] warmOnStartup = new String[0];
+
+    private volatile Directory directory;
+    private final Map<Long, Partition> partitions = new ConcurrentHashMap<>();
+    // Rooms never move between properties, so entries only go stale when a room is deleted
+    private final Map<Long, Long> propertyIdsByRoomId = new ConcurrentHashMap<>();
+
+    // Bumped on every invalidation so a load that raced with a write is not installed
+    private final AtomicLong generation = new AtomicLong();
+    private final ReentrantLock directoryLock = new ReentrantLock();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder reloads = new LongAdder();
+
+    public List<PropertyView> getProperties() {
+        return currentDirectory().properties;
+    }
+
+    public Optional<PropertyView> findProperty(Long propertyId) {
+        if (propertyId == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(currentDirectory().propertiesById.get(propertyId));
+    }
+
+    /**
+     * Rooms of one property.
+     *
+     * @throws NotFoundException if the property does not exist
+     */
+    public List<RoomView> getRooms(Long propertyId) {
+        return partition(propertyId).snapshot().rooms;
+    }
+
+    public List<RoomView> getAvailableRooms(Long propertyId) {
+        return partition(propertyId).snapshot().availableRooms;
+    }
+
+    /**
+     * Rooms of every property, ordered by property.
+     */
+    public List<RoomView> getAllRooms() {
+        List<RoomView> rooms = new ArrayList<>();
+        for (PropertyView property : getProperties()) {
+            rooms.addAll(getRooms(property.getId()));
+        }
+        return rooms;
+    }
+
+    public List<RoomView> getAvailableRooms() {
+        List<RoomView> rooms = new ArrayList<>();
+        for (PropertyView property : getProperties()) {
+            rooms.addAll(getAvailableRooms(property.getId()));
+        }
+        return rooms;
+    }
+
+    public Optional<RoomView> findById(Long id) {
+        Long propertyId = findPropertyIdOfRoom(id);
+        if (propertyId == null) {
+            return Optional.empty();
+        }
+        Partition partition = existingPartition(propertyId);
+        return partition == null ? Optional.empty() : Optional.ofNullable(partition.snapshot().roomsById.get(id));
+    }
+
+    /**
+     * Property of a room, from loaded partitions or else one indexed lookup; null if the room does not exist.
+     */
+    public Long findPropertyIdOfRoom(Long roomId) {
+        if (roomId == null) {
+            return null;
+        }
+        Long propertyId = propertyIdsByRoomId.get(roomId);
+        if (propertyId == null) {
+            propertyId = roomRepository.findPropertyIdById(roomId).orElse(null);
+            if (propertyId != null) {
+                propertyIdsByRoomId.put(roomId, propertyId);
+            }
+        }
+        return propertyId;
+    }
+
+    /**
+     * Drops the snapshot of the room's property; the next read of that property reloads it.
+     */
+    public void invalidateRoom(Room room) {
+        long version = generation.incrementAndGet();
+        Long propertyId = room.getProperty() == null ? null : room.getProperty().getId();
+        if (propertyId == null) {
+            partitions.values().forEach(partition -> partition.invalidate(version));
+            return;
+        }
+        Partition partition = partitions.get(propertyId);
+        if (partition != null) {
+            partition.invalidate(version);
+        }
+        if (room.getId() != null) {
+            propertyIdsByRoomId.remove(room.getId());
+        }
+    }
+
+    /**
+     * Drops the property listing, and the rooms of the property in case it was deleted.
+     */
+    public void invalidateProperty(Property property) {
+        long version = generation.incrementAndGet();
+        directory = null;
+        if (property.getId() != null) {
+            Partition partition = partitions.get(property.getId());
+            if (partition != null) {
+                partition.invalidate(version);
+            }
+        }
+    }
+
+    /**
+     * Loads the rooms of a property unless they are already cached.
+     *
+     * @return the number of rooms of the property
+     */
+    public int warm(Long propertyId) {
+        return partition(propertyId).snapshot().rooms.size();
+    }
+
+    /**
+     * Removes a property's partition; its next read loads it again. Does not affect other properties.
+     *
+     * @return whether the partition was loaded
+     */
+    public boolean evict(Long propertyId) {
+        Partition partition = partitions.remove(propertyId);
+        return partition != null && partition.snapshot != null;
+    }
+
+    /**
+     * Changes on every invalidation of any property or room.
+     */
+    public long getVersion() {
+        return generation.get();
+    }
+
+    /**
+     * Changes whenever a room of the property is written; never repeats a value for different contents.
+     */
+    public long getVersion(Long propertyId) {
+        return partition(propertyId).version;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmOnStartup() {
+        List<Long> propertyIds = new ArrayList<>();
+        for (String value : warmOnStartup) {
+            if ("all".equalsIgnoreCase(value.trim())) {
+                getProperties().forEach(property -> propertyIds.add(property.getId()));
+            } else if (!value.isBlank()) {
+                propertyIds.add(Long.valueOf(value.trim()));
+            }
+        }
+        for (Long propertyId : propertyIds) {
+            // One property that fails to load must not keep the others cold
+            try {
+                int rooms = warm(propertyId);
+                logger.info("Warmed room cache of property {}: {} rooms", propertyId, rooms);
+            } catch (RuntimeException e) {
+                logger.warn("Could not warm room cache of property {}", propertyId, e);
+            }
+        }
+    }
+
+    /**
+     * Per-property partition statistics, in property order.
+     */
+    public List<Map<String, Object>> getPartitionStats() {
+        List<Map<String, Object>> stats = new ArrayList<>();
+        for (PropertyView property : getProperties()) {
+            Partition partition = partitions.get(property.getId());
+            Snapshot snapshot = partition == null ? null : partition.snapshot;
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("propertyId", property.getId());
+            entry.put("name", property.getName());
+            entry.put("loaded", snapshot != null);
+            entry.put("rooms", snapshot == null ? null : snapshot.rooms.size());
+            entry.put("hits", partition == null ? 0 : partition.hits.sum());
+            entry.put("misses", partition == null ? 0 : partition.misses.sum());
+            entry.put("reloads", partition == null ? 0 : partition.reloads.sum());
+            stats.add(entry);
+        }
+        return stats;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getReloadCount() {
+        return reloads.sum();
+    }
+
+    public double getHitRate() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0.0 : (double) hitCount / total;
+    }
+
+    public int getLoadedPartitionCount() {
+        return (int) partitions.values().stream().filter(partition -> partition.snapshot != null).count();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("rooms.cache.requests", hits, LongAdder::sum)
+                .tag("result", "hit")
+                .description("Room lookups served from the cached snapshot")
+                .register(registry);
+        FunctionCounter.builder("rooms.cache.requests", misses, LongAdder::sum)
+                .tag("result", "miss")
+                .description("Room lookups that had to load the snapshot from the database")
+                .register(registry);
+        FunctionCounter.builder("rooms.cache.reloads", reloads, LongAdder::sum)
+                .description("Number of times a property's room snapshot was loaded")
+                .register(registry);
+        Gauge.builder("rooms.cache.hit.ratio", this, RoomCacheService::getHitRate)
+                .description("Fraction of room lookups served from the cache")
+                .register(registry);
+        Gauge.builder("rooms.cache.partitions", this, RoomCacheService::getLoadedPartitionCount)
+                .description("Properties whose rooms are currently cached")
+                .register(registry);
+    }
+
+    private Partition partition(Long propertyId) {
+        Partition partition = existingPartition(propertyId);
+        if (partition == null) {
+            throw new NotFoundException(ErrorCode.PROPERTY_NOT_FOUND);
+        }
+        return partition;
+    }
+
+    // Only known properties get a partition, so arbitrary ids cannot grow the map
+    private Partition existingPartition(Long propertyId) {
+        Partition partition = partitions.get(propertyId);
+        if (partition != null || propertyId == null || !currentDirectory().propertiesById.containsKey(propertyId)) {
+            return partition;
+        }
+        return partitions.computeIfAbsent(propertyId, id -> new Partition(id, generation.get()));
+    }
+
+    private Directory currentDirectory() {
+        Directory current = directory;
+        if (current != null) {
+            return current;
+        }
+
+        directoryLock.lock();
+        try {
+            current = directory;
+            if (current != null) {
+                return current;
+            }
+
+            long loadGeneration = generation.get();
+            Directory loaded = new Directory(propertyRepository.findAllByOrderByIdAsc());
+            if (generation.get() == loadGeneration) {
+                directory = loaded;
+            } else {
+                logger.debug("Property listing invalidated while loading; serving it uncached");
+            }
+            return loaded;
+        } finally {
+            directoryLock.unlock();
+        }
+    }
+
+    private final class Partition {
+        private final Long propertyId;
+        private final ReentrantLock loadLock = new ReentrantLock();
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder reloads = new LongAdder();
+
+        private volatile Snapshot snapshot;
+        // Global generation at the last invalidation of this property
+        private volatile long version;
+
+        private Partition(Long propertyId, long version) {
+            this.propertyId = propertyId;
+            this.version = version;
+        }
+
+        private void invalidate(long newVersion) {
+            version = newVersion;
+            snapshot = null;
+        }
+
+        private Snapshot snapshot() {
+            Snapshot current = snapshot;
+            if (current != null) {
+                hits.increment();
+                RoomCacheService.this.hits.increment();
+                return current;
+            }
+
+            misses.increment();
+            RoomCacheService.this.misses.increment();
+            loadLock.lock();
+            try {
+                current = snapshot;
+                if (current != null) {
+                    return current;
+                }
+
+                long loadVersion = version;
+                Snapshot loaded = new Snapshot(roomRepository.findByPropertyIdOrderByIdAsc(propertyId));
+                reloads.increment();
+                RoomCacheService.this.reloads.increment();
+                loaded.roomsById.keySet().forEach(roomId -> propertyIdsByRoomId.put(roomId, propertyId));
+
+                if (version == loadVersion) {
+                    snapshot = loaded;
+                } else {
+                    logger.debug("Room snapshot of property {} invalidated while loading; serving it uncached", propertyId);
+                }
+                return loaded;
+            } finally {
+                loadLock.unlock();
+            }
+        }
+    }
+
+    private static final class Directory {
+        private final List<PropertyView> properties;
+        private final Map<Long, PropertyView> propertiesById;
+
+        private Directory(List<Property> entities) {
+            Map<Long, PropertyView> byId = new LinkedHashMap<>();
+            for (Property property : entities) {
+                byId.put(property.getId(), PropertyView.from(property));
+            }
+            this.propertiesById = Collections.unmodifiableMap(byId);
+            this.properties = List.copyOf(byId.values());
+        }
+    }
+
+    private static final class Snapshot {
+        private final List<RoomView> rooms;
+        private final List<RoomView> availableRooms;
+        private final Map<Long, RoomView> roomsById;
+
+        private Snapshot(List<Room> entities) {
+            Map<Long, RoomView> byId = new LinkedHashMap<>();
+            List<RoomView> available = new ArrayList<>();
+            for (Room room : entities) {
+                RoomView view = RoomView.from(room);
+                byId.put(view.getId(), view);
+                if (Boolean.TRUE.equals(view.getIsAvailable())) {
+                    available.add(view);
+                }
+            }
+            this.roomsById = Collections.unmodifiableMap(byId);
+            this.rooms = List.copyOf(byId.values());
+            this.availableRooms = List.copyOf(available);
+        }
+    }
+}
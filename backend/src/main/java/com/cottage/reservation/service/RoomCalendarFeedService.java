@@ -0,0 +1,198 @@
+package com.cottage.reservation.service;
+
+import com.cottage.reservation.bulk.ICalendarWriter;
+import com.cottage.reservation.dto.RoomView;
+import com.cottage.reservation.entity.Reservation;
+import com.cottage.reservation.repository.ReservationRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Pre-rendered public iCalendar feed per room.
+ * <p>
+ * A room's feed is rendered on the first request after the room's change version moved and is
+ * then served from memory. The ETag is a hash of the feed bytes, so a feed that is re-rendered
+ * without changes (after max-age, or on another node) keeps its ETag and pollers still get 304.
+ * Events carry no guest details: the feed only tells which nights are held or booked.
+ */
+@Service
+public class RoomCalendarFeedService implements MeterBinder {
+
+    private static final String PRODUCT_ID = "-//ReserveEase//Room Calendar//EN";
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private RoomCacheService roomCacheService;
+
+    @Autowired
+    private ChangeVersionService changeVersionService;
+
+    // Bounds staleness for writes made on other nodes, which do not reach this node's event listener
+    @Value("${app.calendar-feed.max-age:5m}")
+    private Duration maxAge;
+
+    // Not read-only, so the feed is never rendered from a lagging replica and then cached
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<Long, RoomFeed> feeds = new ConcurrentHashMap<>();
+
+    private final LongAdder cachedRequests = new LongAdder();
+    private final LongAdder renders = new LongAdder();
+
+    public RoomCalendarFeedService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Returns the current feed of a room, rendering it if needed; empty if the room does not exist.
+     */
+    public Optional<Feed> getFeed(Long roomId) {
+        Optional<RoomView> room = roomCacheService.findById(roomId);
+        if (room.isEmpty()) {
+            feeds.remove(roomId);
+            return Optional.empty();
+        }
+        RoomFeed roomFeed = feeds.computeIfAbsent(roomId, id -> new RoomFeed());
+
+        Feed current = roomFeed.feed;
+        if (isFresh(current, room.get())) {
+            cachedRequests.increment();
+            return Optional.of(current);
+        }
+
+        roomFeed.renderLock.lock();
+        try {
+            current = roomFeed.feed;
+            if (isFresh(current, room.get())) {
+                cachedRequests.increment();
+                return Optional.of(current);
+            }
+
+            // Taken before reading, so a change committed while rendering makes the feed stale at once
+            long version = changeVersionService.getRoomVersion(roomId);
+            Feed rendered = render(room.get(), version);
+            roomFeed.feed = rendered;
+            return Optional.of(rendered);
+        } finally {
+            roomFeed.renderLock.unlock();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("calendar.feed.requests", cachedRequests, LongAdder::sum)
+                .tag("result", "cached")
+                .description("Room calendar feed requests served from the pre-rendered feed")
+                .register(registry);
+        FunctionCounter.builder("calendar.feed.requests", renders, LongAdder::sum)
+                .tag("result", "rendered")
+                .description("Room calendar feed requests that rendered the feed")
+                .register(registry);
+    }
+
+    private boolean isFresh(Feed feed, RoomView room) {
+        // The room snapshot is replaced on every room write, so a renamed room gets a new feed
+        return feed != null && feed.room == room && feed.version == changeVersionService.getRoomVersion(room.getId())
+                && System.nanoTime() - feed.renderedAtNanos < maxAge.toNanos();
+    }
+
+    private Feed render(RoomView room, long version) {
+        List<Reservation> reservations = transactionTemplate.execute(status ->
+                reservationRepository.findActiveReservationsByRoom(room.getId()));
+        reservations.sort(Comparator.comparing(Reservation::getCheckInDate).thenComparing(Reservation::getId));
+
+        StringWriter out = new StringWriter(256 + reservations.size() * 256);
+        ICalendarWriter calendar = new ICalendarWriter(out);
+        try {
+            calendar.beginCalendar(PRODUCT_ID, room.getName());
+            for (Reservation reservation : reservations) {
+                boolean pending = reservation.getStatus() == Reservation.ReservationStatus.PENDING;
+                calendar.beginEvent("reservation-" + reservation.getId() + "@reserveease", stampOf(reservation));
+                calendar.dates(reservation.getCheckInDate(), reservation.getCheckOutDate());
+                calendar.text("SUMMARY", pending ? "Held" : "Booked");
+                calendar.text("LOCATION", room.getName());
+                calendar.property("STATUS", pending ? "TENTATIVE" : "CONFIRMED");
+                calendar.property("TRANSP", "OPAQUE");
+                calendar.endEvent();
+            }
+            calendar.endCalendar();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        renders.increment();
+
+        byte[] body = out.toString().getBytes(StandardCharsets.UTF_8);
+        return new Feed(body, etagOf(body), room, version, System.nanoTime());
+    }
+
+    // DTSTAMP comes from the row, not the clock, so rendering the same reservations gives the same bytes
+    private static Instant stampOf(Reservation reservation) {
+        return (reservation.getUpdatedAt() != null ? reservation.getUpdatedAt() : reservation.getCreatedAt() != null
+                ? reservation.getCreatedAt() : reservation.getCheckInDate().atStartOfDay())
+                .atZone(ZoneId.systemDefault()).toInstant();
+    }
+
+    private static String etagOf(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class RoomFeed {
+        private volatile Feed feed;
+        private final ReentrantLock renderLock = new ReentrantLock();
+    }
+
+    public static final class Feed {
+        private final byte[] body;
+        private final String etag;
+        private final RoomView room;
+        private final long version;
+        private final long renderedAtNanos;
+
+        private Feed(byte[] body, String etag, RoomView room, long version, long renderedAtNanos) {
+            this.body = body;
+            this.etag = etag;
+            this.room = room;
+            this.version = version;
+            this.renderedAtNanos = renderedAtNanos;
+        }
+
+        public byte[] getBody() {
+            return body;
+        }
+
+        public String getETag() {
+            return etag;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.cottage.reservation.service;
+
+import com.cottage.reservation.entity.SchedulerLock;
+import com.cottage.reservation.repository.SchedulerLockRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Cluster-wide mutual exclusion for scheduled jobs, backed by lease rows in scheduler_locks.
+ * A lock that is never released (e.g. the node died) expires when its lease runs out.
+ */
+@Service
+public class SchedulerLockService {
+
+    private final String owner = ManagementFactory.getRuntimeMXBean().getName();
+
+    @Autowired
+    private SchedulerLockRepository schedulerLockRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public SchedulerLockService(PlatformTransactionManager transactionManager) {
+        // Lock changes must commit on their own, independent of any surrounding work
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public boolean tryLock(String name, Duration lease) {
+        if (!schedulerLockRepository.existsById(name)) {
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                        schedulerLockRepository.saveAndFlush(new SchedulerLock(name, LocalDateTime.now().minusSeconds(1))));
+            } catch (DataIntegrityViolationException e) {
+                // Another node created the row first
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        Integer acquired = transactionTemplate.execute(status ->
+                schedulerLockRepository.acquire(name, owner, now, now.plus(lease)));
+        return acquired != null && acquired == 1;
+    }
+
+    public void unlock(String name) {
+        transactionTemplate.executeWithoutResult(status ->
+                schedulerLockRepository.release(name, owner, LocalDateTime.now()));
+    }
+}
@@ -29,13 +29,13 @@ public class UserService {
         inputValidationService.validateBean(signUpRequest);
         
         // Sanitize text fields
-        signUpRequest.setUsername(inputValidationService.validateAndSanitizeText(signUpRequest.getUsername()));
-        signUpRequest.setFirstName(inputValidationService.validateAndSanitizeText(signUpRequest.getFirstName()));
-        signUpRequest.setLastName(inputValidationService.validateAndSanitizeText(signUpRequest.getLastName()));
+        signUpRequest.setUsername(inputValidationService.sanitizeValidatedText(signUpRequest.getUsername()));
+        signUpRequest.setFirstName(inputValidationService.sanitizeValidatedText(signUpRequest.getFirstName()));
+        signUpRequest.setLastName(inputValidationService.sanitizeValidatedText(signUpRequest.getLastName()));
         signUpRequest.setEmail(inputValidationService.validateAndSanitizeEmail(signUpRequest.getEmail()));
         
         if (signUpRequest.getPhoneNumber() != null) {
-            signUpRequest.setPhoneNumber(inputValidationService.validateAndSanitizeText(signUpRequest.getPhoneNumber()));
+            signUpRequest.setPhoneNumber(inputValidationService.sanitizeValidatedText(signUpRequest.getPhoneNumber()));
         }
         
         if (userRepository.existsByUsername(signUpRequest.getUsername())) {
@@ -58,14 +58,17 @@ public class UserService {
         return userRepository.save(user);
     }
 
+    @Transactional(readOnly = true)
     public Optional<User> findByUsername(String username) {
         return userRepository.findByUsername(username);
     }
 
+    @Transactional(readOnly = true)
     public Optional<User> findByEmail(String email) {
         return userRepository.findByEmail(email);
     }
 
+    @Transactional(readOnly = true)
     public Optional<User> findById(Long id) {
         return userRepository.findById(id);
     }
@@ -74,10 +77,12 @@ public class UserService {
         return userRepository.save(user);
     }
 
+    @Transactional(readOnly = true)
     public boolean existsByUsername(String username) {
         return userRepository.existsByUsername(username);
     }
 
+    @Transactional(readOnly = true)
     public boolean existsByEmail(String email) {
         return userRepository.existsByEmail(email);
     }
@@ -0,0 +1,24 @@
+package com.cottage.reservation.trace;
+
+/**
+ * Thrown in app.query-stats.mode=fail when one request prepares the same SQL n-plus-one-threshold times.
+ */
+public class NPlusOneQueryException extends IllegalStateException {
+
+    private final String sql;
+    private final int executions;
+
+    public NPlusOneQueryException(String sql, int executions) {
+        super("Possible N+1: statement prepared " + executions + " times in one request: " + sql);
+        this.sql = sql;
+        this.executions = executions;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    public int getExecutions() {
+        return executions;
+    }
+}
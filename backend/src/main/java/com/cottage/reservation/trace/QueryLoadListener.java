@@ -0,0 +1,41 @@
+package com.cottage.reservation.trace;
+
+import org.hibernate.HibernateException;
+import org.hibernate.event.spi.InitializeCollectionEvent;
+import org.hibernate.event.spi.InitializeCollectionEventListener;
+import org.hibernate.event.spi.LoadEvent;
+import org.hibernate.event.spi.LoadEventListener;
+import org.hibernate.event.spi.PostLoadEvent;
+import org.hibernate.event.spi.PostLoadEventListener;
+
+/**
+ * Counts entity loads and lazy initializations for {@link QueryStatisticsCollector}. Appended after
+ * Hibernate's own listeners, so it only observes.
+ */
+public class QueryLoadListener implements PostLoadEventListener, LoadEventListener, InitializeCollectionEventListener {
+
+    @Override
+    public void onPostLoad(PostLoadEvent event) {
+        RequestQueryStatistics statistics = QueryStatisticsCollector.current();
+        if (statistics != null) {
+            statistics.entityLoaded();
+        }
+    }
+
+    @Override
+    public void onLoad(LoadEvent event, LoadType loadType) throws HibernateException {
+        // Hibernate loads with IMMEDIATE_LOAD only to initialize an uninitialized proxy
+        RequestQueryStatistics statistics = QueryStatisticsCollector.current();
+        if (statistics != null && loadType == IMMEDIATE_LOAD) {
+            statistics.lazyInitialized();
+        }
+    }
+
+    @Override
+    public void onInitializeCollection(InitializeCollectionEvent event) throws HibernateException {
+        RequestQueryStatistics statistics = QueryStatisticsCollector.current();
+        if (statistics != null) {
+            statistics.lazyInitialized();
+        }
+    }
+}
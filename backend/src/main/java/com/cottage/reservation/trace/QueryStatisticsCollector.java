@@ -0,0 +1,220 @@
+package com.cottage.reservation.trace;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-request Hibernate statistics and N+1 detection.
+ * <p>
+ * {@link QueryStatisticsFilter} binds a {@link RequestQueryStatistics} to the request thread. Hibernate
+ * reports into it through this statement inspector (every prepared statement), {@link QueryTimingListener}
+ * (statement execution time) and {@link QueryLoadListener} (entity loads, lazy initializations). A request
+ * that prepares the same SQL n-plus-one-threshold times or more is flagged as a likely N+1: the statement
+ * count of such a request grows with the size of an earlier result. Totals are kept per endpoint for
+ * /actuator/queries.
+ * <p>
+ * With app.query-stats.mode=fail the statement that reaches the threshold throws
+ * {@link NPlusOneQueryException} instead, failing the request; integration tests run in that mode, and
+ * assert on their own captures with QueryAssertions (test sources).
+ */
+@Component
+public class QueryStatisticsCollector implements StatementInspector, MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryStatisticsCollector.class);
+
+    private static final int RECENT_SIZE = 50;
+
+    static final ThreadLocal<RequestQueryStatistics> CURRENT = new ThreadLocal<>();
+
+    public enum Mode { RECORD, FAIL }
+
+    private final Mode mode;
+    private final int nPlusOneThreshold;
+    private final long slowThresholdNanos;
+
+    private final Map<String, EndpointStatistics> endpoints = new ConcurrentHashMap<>();
+    private final ArrayDeque<Map<String, Object>> recentNPlusOne = new ArrayDeque<>();
+    private final ArrayDeque<Map<String, Object>> recentSlow = new ArrayDeque<>();
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder flagged = new LongAdder();
+    private final LongAdder slowStatements = new LongAdder();
+
+    public QueryStatisticsCollector(@Value("${app.query-stats.mode:record}") String mode,
+                                    @Value("${app.query-stats.n-plus-one-threshold:5}") int nPlusOneThreshold,
+                                    @Value("${app.query-stats.slow-statement-threshold:100ms}") Duration slowThreshold) {
+        this.mode = Mode.valueOf(mode.trim().toUpperCase());
+        this.nPlusOneThreshold = Math.max(2, nPlusOneThreshold);
+        this.slowThresholdNanos = slowThreshold.toNanos();
+    }
+
+    static RequestQueryStatistics current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Starts collecting for the current thread.
+     * @return the new statistics, or null when the thread is already collecting (e.g. inside a test capture)
+     */
+    public RequestQueryStatistics begin() {
+        if (CURRENT.get() != null) {
+            return null;
+        }
+        RequestQueryStatistics statistics = new RequestQueryStatistics(slowThresholdNanos);
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    public void end(RequestQueryStatistics statistics, String endpoint) {
+        CURRENT.remove();
+        requests.increment();
+        boolean nPlusOne = statistics.getMostRepeatedCount() >= nPlusOneThreshold;
+        endpoints.computeIfAbsent(endpoint, key -> new EndpointStatistics()).add(statistics, nPlusOne);
+
+        if (nPlusOne) {
+            flagged.increment();
+            logger.warn("Possible N+1 in {}: {} statements, {} of them \"{}\"", endpoint,
+                    statistics.getStatements(), statistics.getMostRepeatedCount(), statistics.getMostRepeatedSql());
+            remember(recentNPlusOne, Map.of("endpoint", endpoint, "at", Instant.now(),
+                    "statements", statistics.getStatements(), "repeated", statistics.getMostRepeatedCount(),
+                    "sql", statistics.getMostRepeatedSql()));
+        }
+        for (RequestQueryStatistics.SlowStatement slow : statistics.getSlowStatements()) {
+            slowStatements.increment();
+            remember(recentSlow, Map.of("endpoint", endpoint, "at", Instant.now(),
+                    "durationMillis", slow.getDurationMillis(), "sql", String.valueOf(slow.getSql())));
+        }
+    }
+
+    @Override
+    public String inspect(String sql) {
+        RequestQueryStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            int executions = statistics.statementPrepared(sql);
+            if (mode == Mode.FAIL && executions == nPlusOneThreshold) {
+                throw new NPlusOneQueryException(sql, executions);
+            }
+        }
+        return sql;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public int getNPlusOneThreshold() {
+        return nPlusOneThreshold;
+    }
+
+    public Duration getSlowStatementThreshold() {
+        return Duration.ofNanos(slowThresholdNanos);
+    }
+
+    public Map<String, EndpointStatistics> getEndpoints() {
+        return new TreeMap<>(endpoints);
+    }
+
+    public List<Map<String, Object>> getRecentNPlusOne() {
+        synchronized (recentNPlusOne) {
+            return List.copyOf(recentNPlusOne);
+        }
+    }
+
+    public List<Map<String, Object>> getRecentSlowStatements() {
+        synchronized (recentSlow) {
+            return List.copyOf(recentSlow);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("query.stats.requests", requests, LongAdder::sum)
+                .description("API requests whose Hibernate statements were counted")
+                .register(registry);
+        FunctionCounter.builder("query.stats.n_plus_one", flagged, LongAdder::sum)
+                .description("API requests that repeated one SQL statement n-plus-one-threshold times or more")
+                .register(registry);
+        FunctionCounter.builder("query.stats.slow_statements", slowStatements, LongAdder::sum)
+                .description("Statements that ran longer than the slow-statement threshold")
+                .register(registry);
+    }
+
+    private static void remember(ArrayDeque<Map<String, Object>> recent, Map<String, Object> entry) {
+        synchronized (recent) {
+            if (recent.size() == RECENT_SIZE) {
+                recent.pollFirst();
+            }
+            recent.addLast(entry);
+        }
+    }
+
+    /**
+     * Totals for one endpoint (method and path pattern).
+     */
+    public static final class EndpointStatistics {
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder statements = new LongAdder();
+        private final LongAdder entityLoads = new LongAdder();
+        private final LongAdder lazyInitializations = new LongAdder();
+        private final LongAdder slowStatements = new LongAdder();
+        private final LongAdder nPlusOneRequests = new LongAdder();
+        private final AtomicInteger maxStatements = new AtomicInteger();
+
+        private void add(RequestQueryStatistics statistics, boolean nPlusOne) {
+            requests.increment();
+            statements.add(statistics.getStatements());
+            entityLoads.add(statistics.getEntityLoads());
+            lazyInitializations.add(statistics.getLazyInitializations());
+            slowStatements.add(statistics.getSlowStatements().size());
+            maxStatements.accumulateAndGet(statistics.getStatements(), Math::max);
+            if (nPlusOne) {
+                nPlusOneRequests.increment();
+            }
+        }
+
+        public long getRequests() {
+            return requests.sum();
+        }
+
+        public double getStatementsPerRequest() {
+            long count = requests.sum();
+            return count == 0 ? 0 : (double) statements.sum() / count;
+        }
+
+        public int getMaxStatements() {
+            return maxStatements.get();
+        }
+
+        public long getEntityLoads() {
+            return entityLoads.sum();
+        }
+
+        public long getLazyInitializations() {
+            return lazyInitializations.sum();
+        }
+
+        public long getSlowStatements() {
+            return slowStatements.sum();
+        }
+
+        public long getSuspectedNPlusOne() {
+            return nPlusOneRequests.sum();
+        }
+    }
+}
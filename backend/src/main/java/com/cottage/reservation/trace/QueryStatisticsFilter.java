@@ -0,0 +1,45 @@
+package com.cottage.reservation.trace;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Collects Hibernate statistics for each API request, security filters included, and files them
+ * under the handler's path pattern.
+ */
+public class QueryStatisticsFilter extends OncePerRequestFilter {
+
+    private final QueryStatisticsCollector collector;
+
+    public QueryStatisticsFilter(QueryStatisticsCollector collector) {
+        this.collector = collector;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestQueryStatistics statistics = collector.begin();
+        if (statistics == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            // Raw paths of unmapped requests would make the endpoint table unbounded
+            collector.end(statistics, request.getMethod() + " " + (pattern != null ? pattern : "UNMAPPED"));
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return true;
+    }
+}
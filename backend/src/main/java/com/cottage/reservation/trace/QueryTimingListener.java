@@ -0,0 +1,26 @@
+package com.cottage.reservation.trace;
+
+import org.hibernate.BaseSessionEventListener;
+
+/**
+ * Times statement execution for {@link QueryStatisticsCollector}. Hibernate creates one per session
+ * (hibernate.session.events.auto), so it finds the request through the collector's thread-local.
+ */
+public class QueryTimingListener extends BaseSessionEventListener {
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        RequestQueryStatistics statistics = QueryStatisticsCollector.current();
+        if (statistics != null) {
+            statistics.executeStarted();
+        }
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        RequestQueryStatistics statistics = QueryStatisticsCollector.current();
+        if (statistics != null) {
+            statistics.executeFinished();
+        }
+    }
+}
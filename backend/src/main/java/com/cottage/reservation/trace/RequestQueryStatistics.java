@@ -0,0 +1,114 @@
+package com.cottage.reservation.trace;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * What Hibernate did for one request: statements prepared, entities loaded, lazy proxies and
+ * collections initialized, and statements slower than the threshold. Counts each distinct SQL
+ * string, so a statement repeated once per row of an earlier result (N+1) stands out.
+ * Used only by the thread handling the request.
+ */
+public final class RequestQueryStatistics {
+
+    private static final int MAX_SLOW_STATEMENTS = 20;
+
+    private final long slowThresholdNanos;
+
+    private int statements;
+    private int entityLoads;
+    private int lazyInitializations;
+    private final Map<String, Integer> executionsBySql = new HashMap<>();
+    private String mostRepeatedSql;
+    private int mostRepeatedCount;
+    private final List<SlowStatement> slowStatements = new ArrayList<>();
+
+    private String lastSql;
+    private long executeStartNanos;
+
+    RequestQueryStatistics(long slowThresholdNanos) {
+        this.slowThresholdNanos = slowThresholdNanos;
+    }
+
+    /**
+     * @return how many times this SQL has been prepared in the request, including this one
+     */
+    int statementPrepared(String sql) {
+        statements++;
+        lastSql = sql;
+        int count = executionsBySql.merge(sql, 1, Integer::sum);
+        if (count > mostRepeatedCount) {
+            mostRepeatedCount = count;
+            mostRepeatedSql = sql;
+        }
+        return count;
+    }
+
+    void executeStarted() {
+        executeStartNanos = System.nanoTime();
+    }
+
+    void executeFinished() {
+        long elapsed = System.nanoTime() - executeStartNanos;
+        if (elapsed >= slowThresholdNanos && slowStatements.size() < MAX_SLOW_STATEMENTS) {
+            slowStatements.add(new SlowStatement(lastSql, elapsed / 1e6));
+        }
+    }
+
+    void entityLoaded() {
+        entityLoads++;
+    }
+
+    void lazyInitialized() {
+        lazyInitializations++;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public int getDistinctStatements() {
+        return executionsBySql.size();
+    }
+
+    public int getEntityLoads() {
+        return entityLoads;
+    }
+
+    public int getLazyInitializations() {
+        return lazyInitializations;
+    }
+
+    public String getMostRepeatedSql() {
+        return mostRepeatedSql;
+    }
+
+    public int getMostRepeatedCount() {
+        return mostRepeatedCount;
+    }
+
+    public List<SlowStatement> getSlowStatements() {
+        return Collections.unmodifiableList(slowStatements);
+    }
+
+    public static final class SlowStatement {
+        private final String sql;
+        private final double durationMillis;
+
+        SlowStatement(String sql, double durationMillis) {
+            this.sql = sql;
+            this.durationMillis = durationMillis;
+        }
+
+        public String getSql() {
+            return sql;
+        }
+
+        public double getDurationMillis() {
+            return durationMillis;
+        }
+    }
+}
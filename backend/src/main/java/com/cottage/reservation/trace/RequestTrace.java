@@ -0,0 +1,155 @@
+package com.cottage.reservation.trace;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Phase timings of one sampled request. Written only by the thread handling the request, and
+ * published to readers through the {@link RequestTracer} ring buffer once the request has finished.
+ */
+public final class RequestTrace implements RequestTracer.Span {
+
+    private final String method;
+    private final String path;
+    private final long startMillis;
+    private final long startNanos;
+    private long durationNanos;
+    private int status;
+
+    private final String[] names;
+    private final int[] depths;
+    private final long[] offsets;
+    private final long[] durations;
+    private int count;
+    private int dropped;
+
+    // Indexes of the phases still open, innermost last; -1 for a phase that did not fit
+    private final int[] open;
+    private int depth;
+
+    RequestTrace(String method, String path, int maxPhases) {
+        this.method = method;
+        this.path = path;
+        this.startMillis = System.currentTimeMillis();
+        this.startNanos = System.nanoTime();
+        this.names = new String[maxPhases];
+        this.depths = new int[maxPhases];
+        this.offsets = new long[maxPhases];
+        this.durations = new long[maxPhases];
+        this.open = new int[maxPhases];
+    }
+
+    RequestTracer.Span startPhase(String name) {
+        if (depth == open.length) {
+            dropped++;
+            return RequestTracer.NOOP;
+        }
+        int index = -1;
+        if (count < names.length) {
+            index = count++;
+            names[index] = name;
+            depths[index] = depth;
+            offsets[index] = System.nanoTime() - startNanos;
+        } else {
+            dropped++;
+        }
+        open[depth++] = index;
+        return this;
+    }
+
+    @Override
+    public void close() {
+        if (depth == 0) {
+            return;
+        }
+        int index = open[--depth];
+        if (index >= 0) {
+            durations[index] = System.nanoTime() - startNanos - offsets[index];
+        }
+    }
+
+    void finish(int status) {
+        this.status = status;
+        this.durationNanos = System.nanoTime() - startNanos;
+    }
+
+    long getDurationNanos() {
+        return durationNanos;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public Instant getStartedAt() {
+        return Instant.ofEpochMilli(startMillis);
+    }
+
+    public double getDurationMillis() {
+        return durationNanos / 1e6;
+    }
+
+    /**
+     * Time not covered by any top-level phase: controller, service and serialization work.
+     */
+    public double getUntracedMillis() {
+        long traced = 0;
+        for (int i = 0; i < count; i++) {
+            if (depths[i] == 0) {
+                traced += durations[i];
+            }
+        }
+        return (durationNanos - traced) / 1e6;
+    }
+
+    public int getDroppedPhases() {
+        return dropped;
+    }
+
+    public List<Phase> getPhases() {
+        List<Phase> phases = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            phases.add(new Phase(names[i], depths[i], offsets[i] / 1e6, durations[i] / 1e6));
+        }
+        return phases;
+    }
+
+    public static final class Phase {
+        private final String name;
+        private final int depth;
+        private final double offsetMillis;
+        private final double durationMillis;
+
+        private Phase(String name, int depth, double offsetMillis, double durationMillis) {
+            this.name = name;
+            this.depth = depth;
+            this.offsetMillis = offsetMillis;
+            this.durationMillis = durationMillis;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getDepth() {
+            return depth;
+        }
+
+        public double getOffsetMillis() {
+            return offsetMillis;
+        }
+
+        public double getDurationMillis() {
+            return durationMillis;
+        }
+    }
+}
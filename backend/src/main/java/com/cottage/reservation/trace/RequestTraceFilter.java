@@ -0,0 +1,42 @@
+package com.cottage.reservation.trace;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Wraps the whole request, security filters included, in a {@link RequestTrace}.
+ */
+public class RequestTraceFilter extends OncePerRequestFilter {
+
+    private final RequestTracer requestTracer;
+
+    public RequestTraceFilter(RequestTracer requestTracer) {
+        this.requestTracer = requestTracer;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestTrace trace = requestTracer.begin(request.getMethod(), request.getRequestURI());
+        if (trace == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            requestTracer.end(trace, response.getStatus());
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        // Streams and other async responses are traced up to the point the request thread is released
+        return true;
+    }
+}
@@ -0,0 +1,130 @@
+package com.cottage.reservation.trace;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process latency breakdown of API requests.
+ * <p>
+ * {@link RequestTraceFilter} starts a trace for a sample of requests and keeps it in a thread-local;
+ * instrumented code (JWT filter, repositories, email) wraps its work in {@link #phase(String)}, which
+ * costs a thread-local read when the request is not sampled. Finished traces go into a fixed ring
+ * buffer that overwrites the oldest entry with a single atomic increment, so recording never takes a
+ * lock; {@link #slowest(int)} scans the buffer on demand for /actuator/latency.
+ */
+@Component
+public class RequestTracer implements MeterBinder {
+
+    /**
+     * An open phase; closing it records its duration.
+     */
+    public interface Span extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    static final Span NOOP = () -> { };
+
+    private static final ThreadLocal<RequestTrace> CURRENT = new ThreadLocal<>();
+
+    private final double sampleRate;
+    private final int maxPhases;
+    private final AtomicReferenceArray<RequestTrace> buffer;
+    private final int mask;
+    private final AtomicLong next = new AtomicLong();
+
+    private final LongAdder skipped = new LongAdder();
+
+    public RequestTracer(@Value("${app.tracing.sample-rate:1.0}") double sampleRate,
+                         @Value("${app.tracing.buffer-size:1024}") int bufferSize,
+                         @Value("${app.tracing.max-phases:64}") int maxPhases) {
+        this.sampleRate = sampleRate;
+        this.maxPhases = Math.max(1, maxPhases);
+        // Rounded up to a power of two so the slot is a mask of the sequence
+        int capacity = Integer.highestOneBit(Math.max(2, bufferSize) * 2 - 1);
+        this.buffer = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Starts tracing the current request if it is sampled.
+     * @return the trace, or null when the request is not sampled
+     */
+    public RequestTrace begin(String method, String path) {
+        if (sampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            skipped.increment();
+            return null;
+        }
+        RequestTrace trace = new RequestTrace(method, path, maxPhases);
+        CURRENT.set(trace);
+        return trace;
+    }
+
+    public void end(RequestTrace trace, int status) {
+        CURRENT.remove();
+        trace.finish(status);
+        buffer.set((int) (next.getAndIncrement() & mask), trace);
+    }
+
+    /**
+     * Opens a phase of the current request; use with try-with-resources.
+     */
+    public Span phase(String name) {
+        RequestTrace trace = CURRENT.get();
+        return trace == null ? NOOP : trace.startPhase(name);
+    }
+
+    public boolean isTracing() {
+        return CURRENT.get() != null;
+    }
+
+    /**
+     * The slowest finished requests still in the buffer, slowest first.
+     */
+    public List<RequestTrace> slowest(int limit) {
+        List<RequestTrace> traces = new ArrayList<>(buffer.length());
+        for (int i = 0; i < buffer.length(); i++) {
+            RequestTrace trace = buffer.get(i);
+            if (trace != null) {
+                traces.add(trace);
+            }
+        }
+        traces.sort(Comparator.comparingLong(RequestTrace::getDurationNanos).reversed());
+        return traces.size() > limit ? List.copyOf(traces.subList(0, limit)) : traces;
+    }
+
+    public long getRecorded() {
+        return next.get();
+    }
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    public int getBufferSize() {
+        return buffer.length();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("tracing.requests", next, AtomicLong::get)
+                .tag("result", "recorded")
+                .description("API requests whose phase timings were recorded, or skipped by sampling")
+                .register(registry);
+        FunctionCounter.builder("tracing.requests", skipped, LongAdder::sum)
+                .tag("result", "skipped")
+                .description("API requests whose phase timings were recorded, or skipped by sampling")
+                .register(registry);
+    }
+}
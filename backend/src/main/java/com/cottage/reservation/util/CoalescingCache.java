@@ -0,0 +1,141 @@
+package com.cottage.reservation.util;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight read-through cache. Concurrent calls for the same key share one in-flight load
+ * instead of each running it, and the result is then served for a short TTL.
+ * <p>
+ * Every entry is stamped with the version the caller passed in. A caller that passes a newer
+ * version never sees an older entry, so bumping the version after a write invalidates all keys
+ * at once. The load runs on the thread of the call that started it; other callers block until it
+ * completes and get its result or its exception.
+ */
+public class CoalescingCache<K, V> {
+
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final long ttlNanos;
+    private final int maxEntries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+
+    public CoalescingCache(Duration ttl, int maxEntries) {
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = maxEntries;
+    }
+
+    public V get(K key, long version, Supplier<V> loader) {
+        Entry<V> entry = entries.get(key);
+        if (entry != null && entry.isUsable(version, ttlNanos)) {
+            return await(entry);
+        }
+
+        Entry<V> mine = new Entry<>(version);
+        Entry<V> current = entries.compute(key, (k, existing) ->
+                existing != null && existing.isUsable(version, ttlNanos) ? existing : mine);
+        if (current != mine) {
+            return await(current);
+        }
+
+        loads.increment();
+        try {
+            V value = loader.get();
+            mine.complete(value);
+            if (entries.size() > maxEntries) {
+                evict(key, mine);
+            }
+            return value;
+        } catch (RuntimeException | Error e) {
+            mine.result.completeExceptionally(e);
+            entries.remove(key, mine);
+            throw e;
+        }
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    public long getLoadCount() {
+        return loads.sum();
+    }
+
+    /**
+     * Fraction of calls that did not run their own load, i.e. were served from the cache or joined a load.
+     */
+    public double getCoalescingRatio() {
+        long shared = hits.sum() + coalesced.sum();
+        long total = shared + loads.sum();
+        return total == 0 ? 0.0 : (double) shared / total;
+    }
+
+    private V await(Entry<V> entry) {
+        if (entry.result.isDone()) {
+            hits.increment();
+        } else {
+            coalesced.increment();
+        }
+        try {
+            return entry.result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private void evict(K justLoaded, Entry<V> loaded) {
+        long now = System.nanoTime();
+        entries.values().removeIf(entry -> entry.result.isDone() && now - entry.completedAtNanos >= ttlNanos);
+        // Still full of live entries: keep the load shared but do not cache it
+        if (entries.size() > maxEntries) {
+            entries.remove(justLoaded, loaded);
+        }
+    }
+
+    private static final class Entry<V> {
+        private final long version;
+        private final CompletableFuture<V> result = new CompletableFuture<>();
+        private volatile long completedAtNanos;
+
+        private Entry(long version) {
+            this.version = version;
+        }
+
+        private void complete(V value) {
+            completedAtNanos = System.nanoTime();
+            result.complete(value);
+        }
+
+        private boolean isUsable(long requiredVersion, long ttlNanos) {
+            if (version < requiredVersion) {
+                return false;
+            }
+            return !result.isDone() || System.nanoTime() - completedAtNanos < ttlNanos;
+        }
+    }
+}
@@ -9,7 +9,7 @@ public class SafeTextValidator implements ConstraintValidator<SafeText, String>
     // Patterns to detect potential SQL injection and XSS attempts
     private static final Pattern[] DANGEROUS_PATTERNS = {
         Pattern.compile("(?i).*('|(\\-\\-)|(;)|(\\||\\|)|(\\*|\\*))", Pattern.CASE_INSENSITIVE),
-        Pattern.compile("(?i).*(union|select|insert|update|delete|drop|create|alter|exec|execute)", Pattern.CASE_INSENSITIVE),
+        Pattern.compile("(?i).*(union|select|insert|update|delete|drop|create|alter|exec|execute|xp_)", Pattern.CASE_INSENSITIVE),
         Pattern.compile("(?i).*(<script|</script|javascript:|vbscript:|onload=|onerror=)", Pattern.CASE_INSENSITIVE),
         Pattern.compile("(?i).*(<iframe|<object|<embed|<applet)", Pattern.CASE_INSENSITIVE)
     };
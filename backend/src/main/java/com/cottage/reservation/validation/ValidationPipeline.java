@@ -0,0 +1,310 @@
+package com.cottage.reservation.validation;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import jakarta.validation.metadata.BeanDescriptor;
+import jakarta.validation.metadata.ConstraintDescriptor;
+import jakarta.validation.metadata.PropertyDescriptor;
+import org.springframework.validation.Errors;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Validates request DTOs once per request instead of once per layer.
+ * <p>
+ * For each registered DTO class the constraint metadata is read from the Bean Validation
+ * provider at startup and compiled into a flat list of field checks. Common built-in constraints
+ * and the application's own constraints run directly; anything else is delegated to the provider
+ * for that property. A request is validated in one pass over its fields, and an instance that
+ * passed is remembered, so the @Valid check in the controller makes the service-layer check free.
+ * Unregistered classes are validated by the provider as before. Every check counts its calls
+ * and time, published as validation.constraint.checks.
+ */
+public class ValidationPipeline implements MeterBinder {
+
+    private final Validator validator;
+    private final Map<Class<?>, List<FieldCheck>> plans;
+
+    // Identity-based (the DTOs do not override equals) and weak, so requests are never kept alive
+    private final Set<Object> validated = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
+    private final LongAdder passes = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+
+    public ValidationPipeline(Validator validator, List<Class<?>> requestTypes) {
+        this.validator = validator;
+        this.plans = requestTypes.stream().collect(Collectors.toUnmodifiableMap(type -> type, this::compile));
+    }
+
+    /**
+     * Validates the request unless this instance already passed.
+     * @return violation messages, empty when valid
+     */
+    public List<String> validate(Object request) {
+        List<Violation> violations = check(request);
+        return violations.stream().map(violation -> violation.message).toList();
+    }
+
+    /**
+     * Same as {@link #validate(Object)}, reporting violations as field errors (used for @Valid).
+     */
+    public void validate(Object request, Errors errors) {
+        for (Violation violation : check(request)) {
+            if (violation.field != null) {
+                errors.rejectValue(violation.field, violation.constraint, violation.message);
+            } else {
+                errors.reject(violation.constraint, violation.message);
+            }
+        }
+    }
+
+    public boolean isValidated(Object request) {
+        return validated.contains(request);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("validation.requests", passes, LongAdder::sum)
+                .tag("result", "validated")
+                .description("Request validations, run or skipped because the instance had already passed")
+                .register(registry);
+        FunctionCounter.builder("validation.requests", skipped, LongAdder::sum)
+                .tag("result", "skipped")
+                .description("Request validations, run or skipped because the instance had already passed")
+                .register(registry);
+        for (Map.Entry<Class<?>, List<FieldCheck>> plan : plans.entrySet()) {
+            for (FieldCheck check : plan.getValue()) {
+                FunctionTimer.builder("validation.constraint.checks", check,
+                                c -> c.calls.sum(), c -> c.nanos.sum(), TimeUnit.NANOSECONDS)
+                        .tags("request", plan.getKey().getSimpleName(), "field", check.field,
+                                "constraint", check.constraint)
+                        .description("Time spent in each field constraint of a request DTO")
+                        .register(registry);
+            }
+        }
+    }
+
+    private List<Violation> check(Object request) {
+        if (request == null || validated.contains(request)) {
+            skipped.increment();
+            return List.of();
+        }
+        passes.increment();
+
+        List<Violation> violations;
+        List<FieldCheck> plan = plans.get(request.getClass());
+        if (plan == null) {
+            violations = new ArrayList<>();
+            for (ConstraintViolation<Object> violation : validator.validate(request)) {
+                violations.add(new Violation(violation.getPropertyPath().toString(),
+                        violation.getConstraintDescriptor().getAnnotation().annotationType().getSimpleName(),
+                        violation.getMessage()));
+            }
+        } else {
+            violations = runPlan(plan, request);
+        }
+
+        if (violations.isEmpty()) {
+            validated.add(request);
+        }
+        return violations;
+    }
+
+    private List<Violation> runPlan(List<FieldCheck> plan, Object request) {
+        List<Violation> violations = null;
+        Field currentField = null;
+        Object value = null;
+        for (FieldCheck check : plan) {
+            // Checks are grouped by field, so each field is read once
+            if (check.accessor != currentField) {
+                currentField = check.accessor;
+                try {
+                    value = currentField.get(request);
+                } catch (IllegalAccessException e) {
+                    throw new IllegalStateException("Cannot read " + check.field, e);
+                }
+            }
+            long start = System.nanoTime();
+            boolean valid = check.test(request, value);
+            check.nanos.add(System.nanoTime() - start);
+            check.calls.increment();
+            if (!valid) {
+                if (violations == null) {
+                    violations = new ArrayList<>();
+                }
+                violations.add(new Violation(check.field, check.constraint, check.message(request, value)));
+            }
+        }
+        return violations == null ? List.of() : violations;
+    }
+
+    private List<FieldCheck> compile(Class<?> type) {
+        BeanDescriptor bean = validator.getConstraintsForClass(type);
+        if (!bean.getConstraintDescriptors().isEmpty()) {
+            throw new IllegalStateException(type.getSimpleName() + " has class-level constraints, which the pipeline does not compile");
+        }
+        List<FieldCheck> checks = new ArrayList<>();
+        for (Field field : type.getDeclaredFields()) {
+            PropertyDescriptor property = bean.getConstraintsForProperty(field.getName());
+            if (property == null) {
+                continue;
+            }
+            if (property.isCascaded()) {
+                throw new IllegalStateException(type.getSimpleName() + "." + field.getName() + " is cascaded, which the pipeline does not compile");
+            }
+            field.setAccessible(true);
+            for (ConstraintDescriptor<?> descriptor : property.getConstraintDescriptors()) {
+                checks.add(new FieldCheck(field, descriptor, compile(field.getType(), descriptor)));
+            }
+        }
+        return List.copyOf(checks);
+    }
+
+    /**
+     * A direct predicate for the constraint, or null when it has to go through the provider.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate<Object> compile(Class<?> fieldType, ConstraintDescriptor<?> descriptor) {
+        Annotation annotation = descriptor.getAnnotation();
+        if (descriptor.getMessageTemplate().startsWith("{")) {
+            // The message needs interpolation; the provider does that
+            return null;
+        }
+        if (annotation instanceof NotNull) {
+            return value -> value != null;
+        }
+        if (annotation instanceof NotBlank) {
+            return value -> value != null && !value.toString().trim().isEmpty();
+        }
+        if (annotation instanceof Size) {
+            Size size = (Size) annotation;
+            return value -> {
+                if (value == null) {
+                    return true;
+                }
+                int length = value instanceof CharSequence ? ((CharSequence) value).length()
+                        : value instanceof Collection ? ((Collection<?>) value).size()
+                        : value instanceof Map ? ((Map<?, ?>) value).size()
+                        : java.lang.reflect.Array.getLength(value);
+                return length >= size.min() && length <= size.max();
+            };
+        }
+        // Numeric checks only for integral wrapper types, where longValue() is exact
+        boolean integral = fieldType == Long.class || fieldType == Integer.class
+                || fieldType == Short.class || fieldType == Byte.class;
+        if (annotation instanceof Min && integral) {
+            long min = ((Min) annotation).value();
+            return value -> value == null || ((Number) value).longValue() >= min;
+        }
+        if (annotation instanceof Max && integral) {
+            long max = ((Max) annotation).value();
+            return value -> value == null || ((Number) value).longValue() <= max;
+        }
+        if (annotation instanceof Positive && integral) {
+            return value -> value == null || ((Number) value).longValue() > 0;
+        }
+        if (annotation instanceof Pattern) {
+            Pattern pattern = (Pattern) annotation;
+            int flags = 0;
+            for (Pattern.Flag flag : pattern.flags()) {
+                flags |= flag.getValue();
+            }
+            java.util.regex.Pattern regex = java.util.regex.Pattern.compile(pattern.regexp(), flags);
+            return value -> value == null || regex.matcher(value.toString()).matches();
+        }
+        List<? extends Class<? extends ConstraintValidator<?, ?>>> validatorClasses =
+                (List) descriptor.getConstraintValidatorClasses();
+        if (validatorClasses.size() == 1) {
+            try {
+                ConstraintValidator constraintValidator = validatorClasses.get(0).getDeclaredConstructor().newInstance();
+                constraintValidator.initialize(annotation);
+                // The application's validators do not use the context
+                return value -> constraintValidator.isValid(value, null);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Cannot create " + validatorClasses.get(0).getName(), e);
+            }
+        }
+        return null;
+    }
+
+    private final class FieldCheck {
+        private final Field accessor;
+        private final String field;
+        private final String constraint;
+        private final Class<? extends Annotation> annotationType;
+        private final String message;
+        private final Predicate<Object> predicate;
+
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+
+        private FieldCheck(Field accessor, ConstraintDescriptor<?> descriptor, Predicate<Object> predicate) {
+            this.accessor = accessor;
+            this.field = accessor.getName();
+            this.annotationType = descriptor.getAnnotation().annotationType();
+            this.constraint = annotationType.getSimpleName();
+            this.message = descriptor.getMessageTemplate();
+            this.predicate = predicate;
+        }
+
+        private boolean test(Object request, Object value) {
+            if (predicate != null) {
+                return predicate.test(value);
+            }
+            return providerViolation(request) == null;
+        }
+
+        private String message(Object request, Object value) {
+            if (predicate != null) {
+                return message;
+            }
+            ConstraintViolation<Object> violation = providerViolation(request);
+            return violation != null ? violation.getMessage() : message;
+        }
+
+        private ConstraintViolation<Object> providerViolation(Object request) {
+            for (ConstraintViolation<Object> violation : validator.validateProperty(request, field)) {
+                if (violation.getConstraintDescriptor().getAnnotation().annotationType() == annotationType) {
+                    return violation;
+                }
+            }
+            return null;
+        }
+    }
+
+    private static final class Violation {
+        private final String field;
+        private final String constraint;
+        private final String message;
+
+        private Violation(String field, String constraint, String message) {
+            this.field = field;
+            this.constraint = constraint;
+            this.message = message;
+        }
+    }
+}
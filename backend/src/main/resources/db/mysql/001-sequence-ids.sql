@@ -0,0 +1,12 @@
+-- Switches id generation from AUTO_INCREMENT to Hibernate pooled sequences.
+-- MySQL has no sequences, so Hibernate keeps the next value in a one-row table per entity.
+-- Run once before deploying a build with sequence-based ids (ddl-auto is "validate" in production).
+
+CREATE TABLE reservations_seq (next_val BIGINT);
+INSERT INTO reservations_seq SELECT COALESCE(MAX(id), 0) + 51 FROM reservations;
+
+CREATE TABLE rooms_seq (next_val BIGINT);
+INSERT INTO rooms_seq SELECT COALESCE(MAX(id), 0) + 51 FROM rooms;
+
+CREATE TABLE users_seq (next_val BIGINT);
+INSERT INTO users_seq SELECT COALESCE(MAX(id), 0) + 51 FROM users;
@@ -0,0 +1,10 @@
+-- Lease table for scheduled jobs that must run on a single node, plus the index the
+-- reservation lifecycle job uses to find finished stays.
+
+CREATE TABLE scheduler_locks (
+    name VARCHAR(64) NOT NULL PRIMARY KEY,
+    locked_until DATETIME(6) NOT NULL,
+    locked_by VARCHAR(255)
+);
+
+CREATE INDEX idx_reservations_status_check_out ON reservations (reservation_status, check_out_date);
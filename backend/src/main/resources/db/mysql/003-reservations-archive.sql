@@ -0,0 +1,20 @@
+-- Cold store for finished reservations that the archive job moves out of the reservations table.
+-- Same columns as reservations plus archived_at; ids are copied, so there is no sequence.
+-- No foreign keys, so archived history never blocks deleting a user or a room.
+
+CREATE TABLE reservations_archive (
+    id BIGINT NOT NULL PRIMARY KEY,
+    check_in_date DATE,
+    check_out_date DATE,
+    number_of_guests INT,
+    total_price DECIMAL(38, 2),
+    reservation_status ENUM('PENDING', 'CONFIRMED', 'CANCELLED', 'COMPLETED'),
+    notes VARCHAR(500),
+    created_at DATETIME(6),
+    updated_at DATETIME(6),
+    archived_at DATETIME(6),
+    user_id BIGINT NOT NULL,
+    room_id BIGINT NOT NULL
+);
+
+CREATE INDEX idx_reservations_archive_user ON reservations_archive (user_id, check_in_date);
@@ -0,0 +1,12 @@
+-- Availability read model: one row per occupied night per room, derived from reservations.
+-- The application rebuilds it on startup, so no backfill is needed here.
+
+CREATE TABLE room_availability_day (
+    room_id BIGINT NOT NULL,
+    stay_date DATE NOT NULL,
+    day_status ENUM('HELD', 'BOOKED') NOT NULL,
+    reservation_id BIGINT NOT NULL,
+    PRIMARY KEY (room_id, stay_date)
+);
+
+CREATE INDEX idx_room_availability_day_date ON room_availability_day (stay_date, room_id);
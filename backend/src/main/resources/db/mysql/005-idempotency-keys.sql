@@ -0,0 +1,15 @@
+-- Responses to POST /api/reservations requests sent with an Idempotency-Key, shared between nodes
+-- when app.idempotency.store=database. id is "<user id>:<key>"; a row without response_status is
+-- an in-flight claim that expires at expires_at.
+
+CREATE TABLE idempotency_keys (
+    id VARCHAR(128) NOT NULL PRIMARY KEY,
+    request_hash VARCHAR(64) NOT NULL,
+    response_status INT,
+    content_type VARCHAR(100),
+    response_body LONGBLOB,
+    created_at DATETIME(6) NOT NULL,
+    expires_at DATETIME(6) NOT NULL
+);
+
+CREATE INDEX idx_idempotency_keys_expires_at ON idempotency_keys (expires_at);
@@ -0,0 +1,51 @@
+-- Multi-property model: every room belongs to a property. Existing rooms are moved to one property
+-- (id 1) that stands for the original cottage; room names become unique per property.
+-- Run once before deploying a build with properties (ddl-auto is "validate" in production).
+
+CREATE TABLE properties (
+    id BIGINT NOT NULL PRIMARY KEY,
+    name VARCHAR(255),
+    description VARCHAR(255),
+    address VARCHAR(255),
+    created_at DATETIME(6),
+    updated_at DATETIME(6),
+    CONSTRAINT uk_properties_name UNIQUE (name)
+);
+
+CREATE TABLE properties_seq (next_val BIGINT);
+INSERT INTO properties_seq VALUES (51);
+
+INSERT INTO properties (id, name, description, address, created_at, updated_at)
+VALUES (1, 'ReserveEase Cottage', 'Three-bedroom lakeside cottage with full kitchen, living room, and outdoor deck.',
+        NULL, NOW(6), NOW(6));
+
+ALTER TABLE rooms ADD COLUMN property_id BIGINT;
+UPDATE rooms SET property_id = 1;
+ALTER TABLE rooms MODIFY property_id BIGINT NOT NULL;
+ALTER TABLE rooms ADD CONSTRAINT fk_rooms_property FOREIGN KEY (property_id) REFERENCES properties (id);
+
+-- The unique key on rooms.name was created by Hibernate under a generated name
+SET @room_name_key = (
+    SELECT s.index_name FROM information_schema.statistics s
+    WHERE s.table_schema = DATABASE() AND s.table_name = 'rooms' AND s.column_name = 'name'
+      AND s.non_unique = 0 AND s.seq_in_index = 1
+    LIMIT 1);
+SET @drop_room_name_key = IF(@room_name_key IS NULL, 'DO 0', CONCAT('ALTER TABLE rooms DROP INDEX `', @room_name_key, '`'));
+PREPARE statement FROM @drop_room_name_key;
+EXECUTE statement;
+DEALLOCATE PREPARE statement;
+
+-- Also the index of property-scoped room queries
+ALTER TABLE rooms ADD CONSTRAINT uk_rooms_property_name UNIQUE (property_id, name);
+
+ALTER TABLE rooms MODIFY room_type ENUM('PRIVATE_ROOM', 'SUITE', 'DORMITORY', 'ENTIRE_PROPERTY',
+    'BEDROOM_1', 'BEDROOM_2', 'BEDROOM_3', 'ENTIRE_COTTAGE');
+
+-- Availability read model: denormalized property id for property-scoped date range queries
+ALTER TABLE room_availability_day ADD COLUMN property_id BIGINT;
+UPDATE room_availability_day d JOIN rooms r ON r.id = d.room_id SET d.property_id = r.property_id;
+ALTER TABLE room_availability_day MODIFY property_id BIGINT NOT NULL;
+CREATE INDEX idx_room_availability_day_property ON room_availability_day (property_id, stay_date, room_id);
+
+-- Per-property calendars read a room's reservations by check-in date
+CREATE INDEX idx_reservations_room_check_in ON reservations (room_id, check_in_date);
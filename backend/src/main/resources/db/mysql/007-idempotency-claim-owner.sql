@@ -0,0 +1,4 @@
+-- Idempotency claims record which request owns them: only the owner may renew the claim's lease,
+-- store the response or release the key. Claims left by an older build have no owner and simply expire.
+
+ALTER TABLE idempotency_keys ADD COLUMN owner_token VARCHAR(36);
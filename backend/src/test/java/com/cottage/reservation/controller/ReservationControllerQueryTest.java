@@ -0,0 +1,101 @@
+package com.cottage.reservation.controller;
+
+import com.cottage.reservation.entity.Reservation;
+import com.cottage.reservation.entity.Room;
+import com.cottage.reservation.entity.User;
+import com.cottage.reservation.repository.ReservationRepository;
+import com.cottage.reservation.repository.RoomRepository;
+import com.cottage.reservation.repository.UserRepository;
+import com.cottage.reservation.security.UserPrincipal;
+import com.cottage.reservation.trace.QueryAssertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Reservation lists must load their users and rooms with the list, not one query per row.
+ * app.query-stats.mode=fail also fails any request that repeats a statement n-plus-one-threshold times.
+ */
+@SpringBootTest(properties = {
+        "app.query-stats.mode=fail",
+        "app.journal.directory=target/test-journal",
+        "app.reservations.lifecycle.enabled=false",
+        "app.reservations.archive.enabled=false",
+        "management.health.mail.enabled=false"
+})
+@AutoConfigureMockMvc
+class ReservationControllerQueryTest {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @MockBean
+    private JavaMailSender mailSender;
+
+    @Test
+    void myReservationsDoNotQueryPerReservation() {
+        User guest = newUser();
+        UserPrincipal principal = UserPrincipal.create(guest);
+        QueryAssertions.Work list = () -> mockMvc.perform(get("/api/reservations").with(user(principal)))
+                .andExpect(status().isOk());
+
+        QueryAssertions.assertStatementsIndependentOfResultSize(list, () -> addReservations(guest, 10));
+        QueryAssertions.assertNoNPlusOne(QueryAssertions.capture(list), 2);
+    }
+
+    @Test
+    void activeReservationsDoNotQueryPerUserOrRoom() {
+        UserPrincipal principal = UserPrincipal.create(newUser());
+        QueryAssertions.Work list = () -> mockMvc.perform(get("/api/reservations/all").with(user(principal)))
+                .andExpect(status().isOk());
+
+        QueryAssertions.assertStatementsIndependentOfResultSize(list, () -> {
+            for (int i = 0; i < 10; i++) {
+                addReservations(newUser(), 1);
+            }
+        });
+        QueryAssertions.assertNoNPlusOne(QueryAssertions.capture(list), 2);
+    }
+
+    private User newUser() {
+        int n = SEQUENCE.incrementAndGet();
+        return userRepository.save(new User("guest" + n, "guest" + n + "@example.com", "password", "Guest", "Tester"));
+    }
+
+    // Spread over every room and far enough ahead not to overlap other tests' stays
+    private void addReservations(User user, int count) {
+        List<Room> rooms = roomRepository.findAll();
+        for (int i = 0; i < count; i++) {
+            int n = SEQUENCE.incrementAndGet();
+            LocalDate checkIn = LocalDate.now().plusDays(400L + 3L * n);
+            Reservation reservation = new Reservation(checkIn, checkIn.plusDays(2), 1, BigDecimal.ZERO,
+                    user, rooms.get(n % rooms.size()));
+            reservation.setStatus(Reservation.ReservationStatus.CONFIRMED);
+            reservationRepository.save(reservation);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.cottage.reservation.controller;
+
+import com.cottage.reservation.dto.ReservationRequest;
+import com.cottage.reservation.entity.Property;
+import com.cottage.reservation.entity.Room;
+import com.cottage.reservation.entity.User;
+import com.cottage.reservation.repository.PropertyRepository;
+import com.cottage.reservation.repository.RoomRepository;
+import com.cottage.reservation.repository.UserRepository;
+import com.cottage.reservation.service.ReservationService;
+import com.cottage.reservation.service.RoomCacheService;
+import com.cottage.reservation.trace.QueryAssertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Room listings load a property's rooms in a fixed number of statements, however many rooms or
+ * bookings it has. app.query-stats.mode=fail also fails any request that repeats a statement
+ * n-plus-one-threshold times.
+ */
+@SpringBootTest(properties = {
+        "app.query-stats.mode=fail",
+        "app.journal.directory=target/test-journal",
+        "app.reservations.lifecycle.enabled=false",
+        "app.reservations.archive.enabled=false",
+        "management.health.mail.enabled=false"
+})
+@AutoConfigureMockMvc
+class RoomControllerQueryTest {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private RoomCacheService roomCacheService;
+
+    @MockBean
+    private JavaMailSender mailSender;
+
+    @Test
+    void roomListingDoesNotQueryPerRoom() {
+        Long propertyId = propertyRepository.findAll().get(0).getId();
+        // Evicted first so every capture includes loading the property's rooms
+        QueryAssertions.Work list = () -> {
+            roomCacheService.evict(propertyId);
+            mockMvc.perform(get("/api/rooms").param("propertyId", propertyId.toString()))
+                    .andExpect(status().isOk());
+        };
+
+        QueryAssertions.assertStatementsIndependentOfResultSize(list, () -> addRooms(propertyId, 5));
+        QueryAssertions.assertNoNPlusOne(QueryAssertions.capture(list), 2);
+    }
+
+    @Test
+    void availabilitySearchDoesNotQueryPerBooking() {
+        Long propertyId = propertyRepository.findAll().get(0).getId();
+        LocalDate start = LocalDate.now().plusDays(30);
+        LocalDate end = start.plusDays(14);
+        QueryAssertions.Work search = () -> mockMvc.perform(get("/api/rooms/available")
+                        .param("propertyId", propertyId.toString())
+                        .param("startDate", start.toString())
+                        .param("endDate", end.toString()))
+                .andExpect(status().isOk());
+
+        QueryAssertions.assertStatementsIndependentOfResultSize(search, () -> bookRooms(propertyId, start));
+        QueryAssertions.assertNoNPlusOne(QueryAssertions.capture(search), 2);
+    }
+
+    private void addRooms(Long propertyId, int count) {
+        Property property = propertyRepository.findById(propertyId).orElseThrow();
+        for (int i = 0; i < count; i++) {
+            Room room = new Room("Test room " + SEQUENCE.incrementAndGet(), "Added by a test", BigDecimal.ZERO, 2,
+                    Room.RoomType.BEDROOM_1);
+            room.setProperty(property);
+            roomRepository.save(room);
+        }
+    }
+
+    // Through the service, so the availability read model and its versions follow the bookings
+    private void bookRooms(Long propertyId, LocalDate start) {
+        int n = SEQUENCE.incrementAndGet();
+        User guest = userRepository.save(new User("roomguest" + n, "roomguest" + n + "@example.com", "password",
+                "Guest", "Tester"));
+        List<Room> rooms = roomRepository.findByPropertyIdAndIsAvailableTrue(propertyId);
+        for (int i = 0; i < rooms.size(); i++) {
+            LocalDate checkIn = start.plusDays(i % 7);
+            reservationService.createReservation(
+                    new ReservationRequest(rooms.get(i).getId(), checkIn, checkIn.plusDays(2), 1), guest.getId());
+        }
+    }
+}
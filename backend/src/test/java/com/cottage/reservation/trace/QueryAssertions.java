@@ -0,0 +1,75 @@
+package com.cottage.reservation.trace;
+
+/**
+ * Query-count assertions for integration tests, e.g. against MockMvc:
+ * <pre>
+ * RequestQueryStatistics statistics = QueryAssertions.capture(() -&gt; mockMvc.perform(get("/api/reservations")));
+ * QueryAssertions.assertNoNPlusOne(statistics, 3);
+ * QueryAssertions.assertStatementsAtMost(statistics, 4);
+ * </pre>
+ * A capture spans everything the work does on the calling thread, including the request filters.
+ * Failures are {@link AssertionError}s, so any test framework reports them.
+ */
+public final class QueryAssertions {
+
+    private QueryAssertions() {
+    }
+
+    public interface Work {
+        void run() throws Exception;
+    }
+
+    public static RequestQueryStatistics capture(Work work) {
+        if (QueryStatisticsCollector.CURRENT.get() != null) {
+            throw new IllegalStateException("Query statistics are already being captured on this thread");
+        }
+        RequestQueryStatistics statistics = new RequestQueryStatistics(Long.MAX_VALUE);
+        QueryStatisticsCollector.CURRENT.set(statistics);
+        try {
+            work.run();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        } finally {
+            QueryStatisticsCollector.CURRENT.remove();
+        }
+        return statistics;
+    }
+
+    /**
+     * Fails when any single statement was prepared {@code maxRepeats} times or more.
+     */
+    public static void assertNoNPlusOne(RequestQueryStatistics statistics, int maxRepeats) {
+        if (statistics.getMostRepeatedCount() >= maxRepeats) {
+            throw new AssertionError("Possible N+1: statement prepared " + statistics.getMostRepeatedCount()
+                    + " times: " + statistics.getMostRepeatedSql());
+        }
+    }
+
+    public static void assertStatementsAtMost(RequestQueryStatistics statistics, int maxStatements) {
+        if (statistics.getStatements() > maxStatements) {
+            throw new AssertionError("Expected at most " + maxStatements + " statements but "
+                    + statistics.getStatements() + " were prepared");
+        }
+    }
+
+    /**
+     * Runs the work before and after {@code addRows} and fails when the statement count grew with the data.
+     */
+    public static void assertStatementsIndependentOfResultSize(Work work, Work addRows) {
+        RequestQueryStatistics before = capture(work);
+        try {
+            addRows.run();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        RequestQueryStatistics after = capture(work);
+        if (after.getStatements() > before.getStatements()) {
+            throw new AssertionError("Statement count grew from " + before.getStatements() + " to "
+                    + after.getStatements() + " with more rows; most repeated: " + after.getMostRepeatedSql());
+        }
+    }
+}
@@ -93,7 +93,7 @@ const CreateReservation = () => {
       setSuccess('Reservation created successfully! Redirecting to your reservations...');
       setTimeout(() => navigate('/my-reservations'), 2000);
     } catch (err) {
-      setError(err.response?.data || 'Failed to create reservation. Please try again.');
+      setError(err.response?.data?.message || err.response?.data || 'Failed to create reservation. Please try again.');
     }
     
     setSubmitting(false);
@@ -36,7 +36,7 @@ const MyReservations = () => {
       fetchMyReservations();
       setTimeout(() => setSuccess(''), 3000);
     } catch (err) {
-      setError(err.response?.data || 'Failed to cancel reservation');
+      setError(err.response?.data?.message || err.response?.data || 'Failed to cancel reservation');
       setTimeout(() => setError(''), 3000);
     }
   };
@@ -63,7 +63,7 @@ const MyReservations = () => {
       fetchMyReservations();
       setTimeout(() => setSuccess(''), 3000);
     } catch (err) {
-      setError(err.response?.data || 'Failed to update reservation');
+      setError(err.response?.data?.message || err.response?.data || 'Failed to update reservation');
     }
   };
 
@@ -23,11 +23,12 @@ resource "aws_launch_template" "backend" {
   }
 
   user_data = base64encode(templatefile("${path.module}/user_data/backend_setup.sh", {
-    db_host     = aws_db_instance.main.endpoint
-    db_name     = aws_db_instance.main.db_name
-    db_username = var.db_username
-    db_password = var.db_password
-    app_name    = var.app_name
+    db_host         = aws_db_instance.main.endpoint
+    db_replica_host = aws_db_instance.replica.address
+    db_name         = aws_db_instance.main.db_name
+    db_username     = var.db_username
+    db_password     = var.db_password
+    app_name        = var.app_name
   }))
 
   tag_specifications {
@@ -20,6 +20,12 @@ output "database_endpoint" {
   sensitive   = true
 }
 
+output "database_replica_endpoint" {
+  description = "RDS read replica endpoint"
+  value       = aws_db_instance.replica.endpoint
+  sensitive   = true
+}
+
 output "database_name" {
   description = "Database name"
   value       = aws_db_instance.main.db_name
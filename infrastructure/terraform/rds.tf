@@ -56,6 +56,39 @@ resource "aws_db_instance" "main" {
   }
 }
 
+# RDS Read Replica (serves read-only transactions)
+resource "aws_db_instance" "replica" {
+  identifier          = "${var.app_name}-db-replica"
+  replicate_source_db = aws_db_instance.main.identifier
+
+  instance_class = "db.t3.micro"
+
+  # Storage
+  max_allocated_storage = 100
+  storage_type          = "gp2"
+  storage_encrypted     = true
+
+  # Network & Security
+  vpc_security_group_ids = [aws_security_group.db.id]
+  publicly_accessible    = false
+
+  # Replicas are rebuilt from the primary, not backed up
+  backup_retention_period = 0
+  skip_final_snapshot     = true
+
+  # Monitoring
+  monitoring_interval = 60
+  monitoring_role_arn = aws_iam_role.rds_monitoring.arn
+
+  # Performance Insights
+  performance_insights_enabled = true
+
+  tags = {
+    Name        = "${var.app_name}-database-replica"
+    Environment = var.environment
+  }
+}
+
 # IAM Role for RDS Monitoring
 resource "aws_iam_role" "rds_monitoring" {
   name = "${var.app_name}-rds-monitoring-role"
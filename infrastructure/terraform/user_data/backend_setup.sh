@@ -18,12 +18,18 @@ chown reserveease:reserveease /opt/reserveease
 mkdir -p /var/log/reserveease
 chown reserveease:reserveease /var/log/reserveease
 
+# Reservation audit journal
+mkdir -p /var/lib/reserveease/journal
+chown -R reserveease:reserveease /var/lib/reserveease
+
 # Download and install application (placeholder - you'll need to build and upload your JAR)
 cd /opt/reserveease
 
 # Create environment file
 cat > /opt/reserveease/.env << EOL
 DB_HOST=${db_host}
+DB_REPLICA_HOST=${db_replica_host}
+DB_REPLICA_ENABLED=true
 DB_NAME=${db_name}
 DB_USERNAME=${db_username}
 DB_PASSWORD=${db_password}
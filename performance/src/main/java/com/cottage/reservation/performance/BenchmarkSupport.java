@@ -0,0 +1,67 @@
+package com.cottage.reservation.performance;
+
+import com.cottage.reservation.CottageReservationApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.h2.tools.Server;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+
+/**
+ * Shared helpers for the benchmark entry points.
+ */
+public final class BenchmarkSupport {
+
+    private BenchmarkSupport() {
+    }
+
+    /**
+     * Starts the application on a random port with SQL logging turned off.
+     * Extra arguments are passed through as Spring properties (--name=value).
+     */
+    public static ConfigurableApplicationContext startApplication(String... args) {
+        return new SpringApplicationBuilder(CottageReservationApplication.class)
+                .properties("spring.config.additional-location=classpath:benchmark.properties")
+                .run(args);
+    }
+
+    /**
+     * Starts an H2 TCP server on a free port, so the application talks to its database over a socket.
+     */
+    public static Server startH2Server() {
+        try {
+            return Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not start H2 server", e);
+        }
+    }
+
+    public static String h2ServerUrl(Server server, String databaseName) {
+        return "jdbc:h2:tcp://localhost:" + server.getPort() + "/mem:" + databaseName + ";DB_CLOSE_DELAY=-1";
+    }
+
+    public static String[] withArgument(String[] args, String argument) {
+        String[] result = Arrays.copyOf(args, args.length + 1);
+        result[args.length] = argument;
+        return result;
+    }
+
+    /**
+     * Reads an integer option given as --name=value, falling back to the default.
+     */
+    public static int intOption(String[] args, String name, int defaultValue) {
+        String value = option(args, name);
+        return value == null ? defaultValue : Integer.parseInt(value.replace("_", ""));
+    }
+
+    public static String option(String[] args, String name) {
+        String prefix = "--" + name + "=";
+        for (String arg : args) {
+            if (arg.startsWith(prefix)) {
+                return arg.substring(prefix.length());
+            }
+        }
+        return null;
+    }
+}
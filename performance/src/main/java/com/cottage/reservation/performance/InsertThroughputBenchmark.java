@@ -0,0 +1,118 @@
+package com.cottage.reservation.performance;
+
+import com.cottage.reservation.entity.Reservation;
+import com.cottage.reservation.entity.Room;
+import com.cottage.reservation.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.h2.tools.Server;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Measures how many reservations per second can be inserted through JPA.
+ * By default the database is an H2 server reached over loopback TCP, so every statement pays a
+ * network round trip as it would against RDS; pass --in-memory to use the embedded database.
+ * <p>
+ * Usage: mvn -q exec:java -Dexec.mainClass=com.cottage.reservation.performance.InsertThroughputBenchmark
+ *        -Dexec.args="--rows=100000 --chunk=1000"
+ */
+public class InsertThroughputBenchmark {
+
+    public static void main(String[] args) {
+        int rows = BenchmarkSupport.intOption(args, "rows", 100_000);
+        int chunk = BenchmarkSupport.intOption(args, "chunk", 1_000);
+        int warmupRows = BenchmarkSupport.intOption(args, "warmup", 10_000);
+
+        boolean inMemory = Arrays.asList(args).contains("--in-memory");
+        Server server = inMemory ? null : BenchmarkSupport.startH2Server();
+        String[] applicationArgs = inMemory ? args
+                : BenchmarkSupport.withArgument(args, "--spring.datasource.url=" + BenchmarkSupport.h2ServerUrl(server, "insertbench"));
+
+        try (ConfigurableApplicationContext context = BenchmarkSupport.startApplication(applicationArgs)) {
+            EntityManagerFactory entityManagerFactory = context.getBean(EntityManagerFactory.class);
+            TransactionTemplate transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+            Environment environment = context.getEnvironment();
+
+            Long userId = transactionTemplate.execute(status -> {
+                EntityManager entityManager = EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);
+                User user = new User("bench_user", "bench@example.com", "not-a-real-hash", "Bench", "User");
+                entityManager.persist(user);
+                return user.getId();
+            });
+            List<Long> roomIds = transactionTemplate.execute(status ->
+                    EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory)
+                            .createQuery("SELECT r.id FROM Room r ORDER BY r.id", Long.class)
+                            .getResultList());
+
+            Inserter inserter = new Inserter(entityManagerFactory, transactionTemplate, userId, roomIds);
+
+            inserter.insert(warmupRows, chunk);
+
+            long start = System.nanoTime();
+            inserter.insert(rows, chunk);
+            long elapsedNanos = System.nanoTime() - start;
+
+            double seconds = elapsedNanos / 1_000_000_000.0;
+            System.out.printf("database=%s jdbc.batch_size=%s order_inserts=%s%n",
+                    environment.getProperty("spring.datasource.url"),
+                    environment.getProperty("spring.jpa.properties.hibernate.jdbc.batch_size", "(unset)"),
+                    environment.getProperty("spring.jpa.properties.hibernate.order_inserts", "(unset)"));
+            System.out.printf("Inserted %,d reservations in %,d-row transactions: %.2f s, %,.0f rows/s%n",
+                    rows, chunk, seconds, rows / seconds);
+        } finally {
+            if (server != null) {
+                server.stop();
+            }
+        }
+    }
+
+    private static final class Inserter {
+        private final EntityManagerFactory entityManagerFactory;
+        private final TransactionTemplate transactionTemplate;
+        private final Long userId;
+        private final List<Long> roomIds;
+        private int sequence;
+
+        private Inserter(EntityManagerFactory entityManagerFactory, TransactionTemplate transactionTemplate,
+                         Long userId, List<Long> roomIds) {
+            this.entityManagerFactory = entityManagerFactory;
+            this.transactionTemplate = transactionTemplate;
+            this.userId = userId;
+            this.roomIds = roomIds;
+        }
+
+        private void insert(int rows, int chunk) {
+            for (int done = 0; done < rows; done += chunk) {
+                int size = Math.min(chunk, rows - done);
+                transactionTemplate.executeWithoutResult(status -> {
+                    EntityManager entityManager = EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);
+                    User user = entityManager.getReference(User.class, userId);
+                    for (int i = 0; i < size; i++) {
+                        entityManager.persist(nextReservation(entityManager, user));
+                    }
+                    entityManager.flush();
+                    entityManager.clear();
+                });
+            }
+        }
+
+        private Reservation nextReservation(EntityManager entityManager, User user) {
+            int n = sequence++;
+            Room room = entityManager.getReference(Room.class, roomIds.get(n % roomIds.size()));
+            // Back-to-back two-night stays per room, so the data set is conflict free
+            LocalDate checkIn = LocalDate.of(2030, 1, 1).plusDays(2L * (n / roomIds.size()));
+            Reservation reservation = new Reservation(checkIn, checkIn.plusDays(2), 2, BigDecimal.ZERO, user, room);
+            reservation.setStatus(Reservation.ReservationStatus.CONFIRMED);
+            return reservation;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.cottage.reservation.performance;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Summarizes the application events in a flight recording (see backend jfr/cottage.jfc) into latency
+ * percentiles per phase: bookings by outcome, conflict checks by whether they found an overlap,
+ * authentication by result and emails by type and result.
+ * <p>
+ * Usage: mvn -q exec:java -Dexec.mainClass=com.cottage.reservation.performance.JfrSummary
+ *        -Dexec.args="data/jfr/cottage.jfr"
+ */
+public class JfrSummary {
+
+    private static final String PREFIX = "com.cottage.reservation.";
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: JfrSummary <recording.jfr> [more recordings...]");
+            System.exit(2);
+        }
+
+        Map<String, List<Long>> phases = new TreeMap<>();
+        Instant first = null;
+        Instant last = null;
+        for (String arg : args) {
+            Path file = Paths.get(arg);
+            try (RecordingFile recording = new RecordingFile(file)) {
+                while (recording.hasMoreEvents()) {
+                    RecordedEvent event = recording.readEvent();
+                    String type = event.getEventType().getName();
+                    if (!type.startsWith(PREFIX)) {
+                        continue;
+                    }
+                    phases.computeIfAbsent(phase(type.substring(PREFIX.length()), event), key -> new ArrayList<>())
+                            .add(event.getDuration().toNanos());
+                    first = first == null || event.getStartTime().isBefore(first) ? event.getStartTime() : first;
+                    last = last == null || event.getEndTime().isAfter(last) ? event.getEndTime() : last;
+                }
+            }
+        }
+
+        if (phases.isEmpty()) {
+            System.out.println("No application events found; was the recording started with jfr/cottage.jfc?");
+            return;
+        }
+        System.out.printf("%s to %s%n", first, last);
+        System.out.println("| Phase | Count | p50 ms | p90 ms | p99 ms | max ms | total ms |");
+        System.out.println("|---|---|---|---|---|---|---|");
+        for (Map.Entry<String, List<Long>> entry : phases.entrySet()) {
+            long[] sorted = entry.getValue().stream().mapToLong(Long::longValue).toArray();
+            Arrays.sort(sorted);
+            System.out.printf("| %s | %,d | %.2f | %.2f | %.2f | %.2f | %.1f |%n", entry.getKey(), sorted.length,
+                    percentile(sorted, 50), percentile(sorted, 90), percentile(sorted, 99),
+                    sorted[sorted.length - 1] / 1_000_000.0, Arrays.stream(sorted).sum() / 1_000_000.0);
+        }
+    }
+
+    private static String phase(String name, RecordedEvent event) {
+        switch (name) {
+            case "Booking":
+                return "Booking (" + event.getString("outcome") + ")";
+            case "ConflictCheck":
+                return "ConflictCheck (" + (event.getInt("conflicts") > 0 ? "conflict" : "free") + ")";
+            case "Authentication":
+                return "Authentication (" + event.getString("result") + ")";
+            case "EmailSend":
+                return "EmailSend (" + event.getString("type") + ", " + event.getString("result") + ")";
+            default:
+                return name;
+        }
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1_000_000.0;
+    }
+}
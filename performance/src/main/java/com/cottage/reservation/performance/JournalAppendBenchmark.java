@@ -0,0 +1,87 @@
+package com.cottage.reservation.performance;
+
+import com.cottage.reservation.journal.JournalReader;
+import com.cottage.reservation.journal.JournalRecord;
+import com.cottage.reservation.journal.ReservationJournal;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Measures the cost of one audit journal append as seen by the booking path, with a background
+ * thread forcing the segment to disk every second as the application does.
+ * Uses a small segment size by default so rollovers are part of the measurement.
+ * <p>
+ * Usage: mvn -q exec:java -Dexec.mainClass=com.cottage.reservation.performance.JournalAppendBenchmark
+ *        -Dexec.args="--records=2000000 --segment-size=16777216"
+ */
+public class JournalAppendBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int records = BenchmarkSupport.intOption(args, "records", 2_000_000);
+        int warmup = BenchmarkSupport.intOption(args, "warmup", 500_000);
+        int rounds = BenchmarkSupport.intOption(args, "rounds", 5);
+        int segmentSize = BenchmarkSupport.intOption(args, "segment-size", 16 * 1024 * 1024);
+
+        Path directory = Files.createTempDirectory("journal-bench");
+        ReservationJournal journal = new ReservationJournal(directory.toString(), segmentSize);
+        journal.open();
+
+        Thread syncer = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                try {
+                    Thread.sleep(1000);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                journal.sync();
+            }
+        }, "journal-sync");
+        syncer.setDaemon(true);
+        syncer.start();
+
+        try {
+            append(journal, warmup);
+            for (int round = 1; round <= rounds; round++) {
+                long start = System.nanoTime();
+                append(journal, records);
+                long elapsed = System.nanoTime() - start;
+                System.out.printf("round %d: %,d appends, %.1f ns/append%n", round, records, (double) elapsed / records);
+            }
+            journal.sync();
+
+            JournalReader reader = journal.reader();
+            long start = System.nanoTime();
+            int history = reader.history(42).size();
+            long elapsed = System.nanoTime() - start;
+            System.out.printf("history(42): %,d records found by scanning %,d records in %d segments, %.1f ms%n",
+                    history, journal.getNextSequence() - 1, reader.segments().size(), elapsed / 1_000_000.0);
+        } finally {
+            syncer.interrupt();
+            journal.close();
+            deleteRecursively(directory);
+        }
+    }
+
+    private static void append(ReservationJournal journal, int count) {
+        LocalDate checkIn = LocalDate.of(2026, 12, 1);
+        LocalDate checkOut = checkIn.plusDays(2);
+        for (int i = 0; i < count; i++) {
+            long reservationId = i % 10_000;
+            journal.append(JournalRecord.Type.UPDATED, reservationId, 7L, 1 + i % 4, checkIn, checkOut,
+                    2L, checkIn.minusDays(1), checkOut.minusDays(1));
+        }
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+}
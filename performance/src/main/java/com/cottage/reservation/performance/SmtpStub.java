@@ -0,0 +1,110 @@
+package com.cottage.reservation.performance;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Minimal SMTP server that accepts every message and answers the end of DATA after a delay.
+ */
+public final class SmtpStub implements AutoCloseable {
+    private final ServerSocket serverSocket;
+    private final ExecutorService connections = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "smtp-stub");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final int delayMillis;
+    private final LongAdder delivered = new LongAdder();
+
+    public SmtpStub(int delayMillis) throws IOException {
+        this.delayMillis = delayMillis;
+        this.serverSocket = new ServerSocket(0);
+        connections.execute(this::acceptLoop);
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public long getDelivered() {
+        return delivered.sum();
+    }
+
+    /**
+     * Adds the Spring properties that point the application's mail sender at this stub.
+     */
+    public String[] withMailArguments(String[] args) {
+        String[] result = BenchmarkSupport.withArgument(args, "--spring.mail.host=localhost");
+        result = BenchmarkSupport.withArgument(result, "--spring.mail.port=" + getPort());
+        result = BenchmarkSupport.withArgument(result, "--spring.mail.properties.mail.smtp.auth=false");
+        return BenchmarkSupport.withArgument(result, "--spring.mail.properties.mail.smtp.starttls.enable=false");
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                connections.execute(() -> converse(socket));
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void converse(Socket socket) {
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+             OutputStream out = socket.getOutputStream()) {
+            reply(out, "220 localhost ESMTP stub");
+            String line;
+            boolean data = false;
+            while ((line = in.readLine()) != null) {
+                if (data) {
+                    if (line.equals(".")) {
+                        data = false;
+                        Thread.sleep(delayMillis);
+                        delivered.increment();
+                        reply(out, "250 OK");
+                    }
+                    continue;
+                }
+                String command = line.length() >= 4 ? line.substring(0, 4).toUpperCase() : line.toUpperCase();
+                switch (command) {
+                    case "EHLO", "HELO" -> reply(out, "250 localhost");
+                    case "DATA" -> {
+                        data = true;
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                    }
+                    case "QUIT" -> {
+                        reply(out, "221 Bye");
+                        return;
+                    }
+                    default -> reply(out, "250 OK");
+                }
+            }
+        } catch (IOException e) {
+            // Client went away
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void reply(OutputStream out, String line) throws IOException {
+        out.write((line + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        connections.shutdownNow();
+    }
+}
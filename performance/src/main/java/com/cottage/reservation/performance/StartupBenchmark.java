@@ -0,0 +1,181 @@
+package com.cottage.reservation.performance;
+
+import org.h2.tools.Server;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Time from launching a JVM to its first successful GET /api/rooms, for the default fat jar and the
+ * startup-optimized build (mvn -Pfast-startup package in backend/).
+ * <p>
+ * Every launch is a fresh process against one H2 server database whose schema and rooms already exist,
+ * like an instance joining a running cluster. Modes, each adding to the previous one:
+ * <ul>
+ *   <li>jar: the Spring Boot fat jar with the default configuration (schema validated, rooms checked,
+ *       availability read model rebuilt)</li>
+ *   <li>profile: the thin jar from target/fast-startup with the fast-startup profile</li>
+ *   <li>aot: plus the AOT-processed bean definitions (-Dspring.aot.enabled=true)</li>
+ *   <li>cds: plus the class-data-sharing archive recorded by the build</li>
+ * </ul>
+ * Run it on the JDK that built the archive:
+ * <pre>
+ * mvn -q compile exec:java -Dexec.mainClass=com.cottage.reservation.performance.StartupBenchmark
+ *     -Dexec.args="--runs=5 --modes=jar,profile,aot,cds"
+ * </pre>
+ */
+public class StartupBenchmark {
+
+    private static final Pattern STARTED = Pattern.compile("Started \\w+ in ([0-9.]+) seconds");
+
+    public static void main(String[] args) throws Exception {
+        int runs = BenchmarkSupport.intOption(args, "runs", 5);
+        String modes = BenchmarkSupport.option(args, "modes");
+        Path target = Paths.get(orDefault(BenchmarkSupport.option(args, "backend-target"), "../backend/target")).toAbsolutePath().normalize();
+        Path logs = Paths.get(orDefault(BenchmarkSupport.option(args, "logs"), "target/startup-benchmark")).toAbsolutePath();
+        Files.createDirectories(logs);
+
+        Server server = BenchmarkSupport.startH2Server();
+        try {
+            String url = BenchmarkSupport.h2ServerUrl(server, "startup");
+            // Schema and rooms exist before any measured launch
+            ConfigurableApplicationContext setup = BenchmarkSupport.startApplication("--spring.datasource.url=" + url,
+                    "--spring.jpa.hibernate.ddl-auto=create", "--app.journal.enabled=false",
+                    "--app.availability.rebuild-on-startup=false", "--server.port=0");
+            setup.close();
+
+            Map<String, List<String>> launchers = launchers(target);
+            List<String> selected = modes == null ? new ArrayList<>(launchers.keySet()) : Arrays.asList(modes.split(","));
+            Map<String, List<double[]>> results = new LinkedHashMap<>();
+            for (int run = 0; run < runs; run++) {
+                // Modes take turns, so a slow patch of the machine does not land on one of them
+                for (String mode : selected) {
+                    List<String> launcher = launchers.get(mode.trim());
+                    if (launcher == null) {
+                        throw new IllegalArgumentException("Unknown mode " + mode + "; expected one of " + launchers.keySet());
+                    }
+                    double[] timing = launch(mode.trim(), run, launcher, url, target, logs);
+                    System.out.printf("%s run %d: first 200 after %.2f s (Spring reported %.2f s)%n", mode, run + 1, timing[0], timing[1]);
+                    results.computeIfAbsent(mode.trim(), key -> new ArrayList<>()).add(timing);
+                }
+            }
+
+            System.out.printf("%nJava %s, %d runs per mode%n", System.getProperty("java.version"), runs);
+            System.out.println("| Mode | Median to first 200 s | Min s | Max s | Median \"Started in\" s |");
+            System.out.println("|---|---|---|---|---|");
+            for (Map.Entry<String, List<double[]>> entry : results.entrySet()) {
+                double[] firstResponse = entry.getValue().stream().mapToDouble(timing -> timing[0]).sorted().toArray();
+                double[] started = entry.getValue().stream().mapToDouble(timing -> timing[1]).sorted().toArray();
+                System.out.printf("| %s | %.2f | %.2f | %.2f | %.2f |%n", entry.getKey(), median(firstResponse),
+                        firstResponse[0], firstResponse[firstResponse.length - 1], median(started));
+            }
+        } finally {
+            server.stop();
+        }
+    }
+
+    private static Map<String, List<String>> launchers(Path target) throws IOException {
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        Path fatJar;
+        try (var jars = Files.list(target)) {
+            fatJar = jars.filter(path -> path.getFileName().toString().matches("cottage-reservation-[^-]+(-SNAPSHOT)?\\.jar"))
+                    .findFirst().orElseThrow(() -> new IllegalStateException("No application jar in " + target + "; run mvn package"));
+        }
+        Path fastStartup = target.resolve("fast-startup");
+        String thinJar;
+        try (var jars = Files.list(fastStartup)) {
+            thinJar = jars.map(path -> path.getFileName().toString()).filter(name -> name.endsWith("-startup.jar"))
+                    .findFirst().orElseThrow(() -> new IllegalStateException("No startup jar in " + fastStartup));
+        } catch (IOException e) {
+            throw new IllegalStateException(fastStartup + " is missing; run mvn -Pfast-startup package in backend/", e);
+        }
+
+        Map<String, List<String>> launchers = new LinkedHashMap<>();
+        launchers.put("jar", List.of(java, "-jar", fatJar.toString(), "--spring.jpa.hibernate.ddl-auto=validate"));
+        launchers.put("profile", List.of(java, "-jar", thinJar, "--spring.profiles.active=fast-startup"));
+        launchers.put("aot", List.of(java, "-Dspring.aot.enabled=true", "-jar", thinJar, "--spring.profiles.active=fast-startup"));
+        // -Xshare:on fails the launch instead of quietly running without an archive that does not match
+        launchers.put("cds", List.of(java, "-XX:SharedArchiveFile=app.jsa", "-Xshare:on", "-Dspring.aot.enabled=true",
+                "-jar", thinJar, "--spring.profiles.active=fast-startup"));
+        return launchers;
+    }
+
+    /**
+     * @return seconds from process start to the first 200 from /api/rooms, and the startup time Spring logged
+     */
+    private static double[] launch(String mode, int run, List<String> launcher, String url, Path target, Path logs)
+            throws IOException, InterruptedException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        List<String> command = new ArrayList<>(launcher);
+        command.add("--spring.datasource.url=" + url);
+        command.add("--server.port=" + port);
+        command.add("--app.journal.directory=" + logs.resolve("journal-" + mode + "-" + run));
+        command.add("--app.journal.segment-size=1048576");
+        command.add("--logging.level.com.cottage.reservation=INFO");
+        Path log = logs.resolve(mode + "-" + (run + 1) + ".log");
+
+        HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        HttpRequest rooms = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/rooms"))
+                .timeout(Duration.ofSeconds(30)).build();
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command).directory(target.resolve("fast-startup").toFile())
+                .redirectErrorStream(true).redirectOutput(log.toFile()).start();
+        try {
+            long deadline = start + TimeUnit.MINUTES.toNanos(3);
+            while (true) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException(mode + " exited with " + process.exitValue() + "; see " + log);
+                }
+                try {
+                    if (http.send(rooms, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        break;
+                    }
+                } catch (IOException e) {
+                    // Not listening yet, or the connection was dropped while Tomcat was starting
+                }
+                if (System.nanoTime() > deadline) {
+                    throw new IllegalStateException(mode + " did not answer within 3 minutes; see " + log);
+                }
+                Thread.sleep(20);
+            }
+            double firstResponse = (System.nanoTime() - start) / 1e9;
+            Matcher started = STARTED.matcher(Files.readString(log));
+            return new double[] {firstResponse, started.find() ? Double.parseDouble(started.group(1)) : Double.NaN};
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private static double median(double[] sorted) {
+        int middle = sorted.length / 2;
+        return sorted.length % 2 == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2;
+    }
+
+    private static String orDefault(String value, String defaultValue) {
+        return value == null ? defaultValue : value;
+    }
+}
@@ -0,0 +1,242 @@
+package com.cottage.reservation.performance;
+
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Open-model load against the HTTP API while the SMTP server is slow, to compare tail latency of
+ * platform-thread and virtual-thread request handling.
+ * <p>
+ * A local SMTP stub delays every message by --smtp-delay ms. Bookings (POST /api/reservations,
+ * which sends a confirmation mail) and availability reads (GET /api/rooms/available) are fired on
+ * a fixed schedule regardless of how fast responses come back, and latency is measured from the
+ * scheduled send time, so queueing inside the server is not hidden.
+ * <p>
+ * Run once per mode; virtual threads need the benchmark JVM to be Java 21:
+ * <pre>
+ * mvn -q exec:java -Dexec.mainClass=com.cottage.reservation.performance.ThreadModeLatencyBenchmark
+ *     -Dexec.args="--booking-rate=20 --read-rate=200 --seconds=30 --app.threads.virtual.enabled=true"
+ * </pre>
+ */
+public class ThreadModeLatencyBenchmark {
+
+    private static final Pattern TOKEN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+
+    public static void main(String[] args) throws Exception {
+        int bookingRate = BenchmarkSupport.intOption(args, "booking-rate", 20);
+        int readRate = BenchmarkSupport.intOption(args, "read-rate", 200);
+        int seconds = BenchmarkSupport.intOption(args, "seconds", 30);
+        int warmupSeconds = BenchmarkSupport.intOption(args, "warmup-seconds", 10);
+        int smtpDelayMillis = BenchmarkSupport.intOption(args, "smtp-delay", 500);
+        int users = BenchmarkSupport.intOption(args, "users", 20);
+
+        try (SmtpStub smtp = new SmtpStub(smtpDelayMillis)) {
+            String[] applicationArgs = smtp.withMailArguments(args);
+            applicationArgs = BenchmarkSupport.withArgument(applicationArgs, "--app.journal.enabled=false");
+
+            try (ConfigurableApplicationContext context = BenchmarkSupport.startApplication(applicationArgs)) {
+                int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+                boolean virtual = context.getEnvironment().getProperty("app.threads.virtual.enabled", Boolean.class, false);
+                LoadClient client = new LoadClient("http://localhost:" + port);
+                List<String> tokens = client.signUpUsers(users);
+
+                System.out.printf("mode=%s java=%s tomcat.threads.max=%s hikari.maximum-pool-size=%s smtp-delay=%dms%n",
+                        virtual ? "virtual" : "platform", System.getProperty("java.version"),
+                        context.getEnvironment().getProperty("server.tomcat.threads.max", "200"),
+                        context.getEnvironment().getProperty("spring.datasource.hikari.maximum-pool-size", "10"),
+                        smtpDelayMillis);
+
+                client.run(tokens, bookingRate, readRate, warmupSeconds, false);
+                Results results = client.run(tokens, bookingRate, readRate, seconds, true);
+                results.print(bookingRate, readRate, seconds);
+                System.out.printf("mails delivered: %,d%n", smtp.getDelivered());
+            }
+        }
+    }
+
+    private static final class LoadClient {
+        private final String baseUrl;
+        private final HttpClient http;
+        private final AtomicInteger clientAddress = new AtomicInteger();
+
+        private LoadClient(String baseUrl) {
+            this.baseUrl = baseUrl;
+            this.http = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .executor(Executors.newCachedThreadPool())
+                    .build();
+        }
+
+        private List<String> signUpUsers(int count) throws IOException, InterruptedException {
+            List<String> tokens = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                String username = "load_user_" + i;
+                send(post("/api/auth/signup", null, "{\"username\":\"" + username + "\",\"email\":\"" + username
+                        + "@example.com\",\"password\":\"Passw0rd!\",\"firstName\":\"Load\",\"lastName\":\"User\"}"));
+                HttpResponse<String> signIn = send(post("/api/auth/signin", null,
+                        "{\"username\":\"" + username + "\",\"password\":\"Passw0rd!\"}"));
+                Matcher matcher = TOKEN.matcher(signIn.body());
+                if (!matcher.find()) {
+                    throw new IllegalStateException("Sign-in failed: " + signIn.statusCode() + " " + signIn.body());
+                }
+                tokens.add(matcher.group(1));
+            }
+            return tokens;
+        }
+
+        private Results run(List<String> tokens, int bookingRate, int readRate, int seconds, boolean record)
+                throws InterruptedException {
+            Results results = new Results(bookingRate * seconds, readRate * seconds);
+            List<CompletableFuture<?>> inFlight = new ArrayList<>();
+            long start = System.nanoTime();
+            long end = start + TimeUnit.SECONDS.toNanos(seconds);
+            long bookingInterval = TimeUnit.SECONDS.toNanos(1) / Math.max(1, bookingRate);
+            long readInterval = TimeUnit.SECONDS.toNanos(1) / Math.max(1, readRate);
+            long nextBooking = start;
+            long nextRead = start;
+
+            while (true) {
+                long next = Math.min(bookingRate > 0 ? nextBooking : Long.MAX_VALUE, readRate > 0 ? nextRead : Long.MAX_VALUE);
+                if (next >= end) {
+                    break;
+                }
+                long wait = next - System.nanoTime();
+                if (wait > 0) {
+                    TimeUnit.NANOSECONDS.sleep(wait);
+                }
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                if (next == nextBooking) {
+                    LocalDate checkIn = LocalDate.of(2030, 1, 1).plusDays(random.nextInt(3650));
+                    String body = "{\"roomId\":" + (1 + random.nextInt(4)) + ",\"checkInDate\":\"" + checkIn
+                            + "\",\"checkOutDate\":\"" + checkIn.plusDays(2) + "\",\"numberOfGuests\":2}";
+                    HttpRequest request = post("/api/reservations", tokens.get(random.nextInt(tokens.size())), body);
+                    inFlight.add(fire(request, next, record ? results.bookings : null, results));
+                    nextBooking += bookingInterval;
+                } else {
+                    LocalDate from = LocalDate.of(2030, 1, 1).plusDays(random.nextInt(365));
+                    HttpRequest request = get("/api/rooms/available?startDate=" + from + "&endDate=" + from.plusDays(3));
+                    inFlight.add(fire(request, next, record ? results.reads : null, results));
+                    nextRead += readInterval;
+                }
+            }
+            CompletableFuture.allOf(inFlight.toArray(new CompletableFuture<?>[0])).join();
+            return results;
+        }
+
+        private CompletableFuture<?> fire(HttpRequest request, long scheduledAt, Latencies latencies, Results results) {
+            return http.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .handle((response, error) -> {
+                        if (latencies != null) {
+                            latencies.add(System.nanoTime() - scheduledAt);
+                            if (error != null || response.statusCode() >= 500) {
+                                results.errors.increment();
+                            } else if (response.statusCode() == 429) {
+                                results.throttled.increment();
+                            }
+                        }
+                        return null;
+                    });
+        }
+
+        private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+            return http.send(request, HttpResponse.BodyHandlers.ofString());
+        }
+
+        private HttpRequest get(String path) {
+            return builder(path, null).GET().build();
+        }
+
+        private HttpRequest post(String path, String token, String json) {
+            return builder(path, token)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(json))
+                    .build();
+        }
+
+        private HttpRequest.Builder builder(String path, String token) {
+            // The per-client rate limiter keys on X-Forwarded-For; spread the load over many simulated clients
+            int address = clientAddress.incrementAndGet();
+            HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .timeout(Duration.ofSeconds(60))
+                    .header("X-Forwarded-For", "10." + ((address >> 16) & 255) + "." + ((address >> 8) & 255) + "." + (address & 255));
+            if (token != null) {
+                builder.header("Authorization", "Bearer " + token);
+            }
+            return builder;
+        }
+    }
+
+    private static final class Results {
+        private final Latencies bookings;
+        private final Latencies reads;
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder throttled = new LongAdder();
+
+        private Results(int bookings, int reads) {
+            this.bookings = new Latencies(bookings + 16);
+            this.reads = new Latencies(reads + 16);
+        }
+
+        private void print(int bookingRate, int readRate, int seconds) {
+            System.out.printf("%d s at %d bookings/s + %d reads/s, errors=%d throttled=%d%n",
+                    seconds, bookingRate, readRate, errors.sum(), throttled.sum());
+            System.out.println("| Request | Count | p50 ms | p90 ms | p99 ms | p99.9 ms | max ms |");
+            System.out.println("|---|---|---|---|---|---|---|");
+            bookings.printRow("POST /api/reservations");
+            reads.printRow("GET /api/rooms/available");
+        }
+    }
+
+    private static final class Latencies {
+        private final long[] nanos;
+        private final AtomicInteger count = new AtomicInteger();
+
+        private Latencies(int capacity) {
+            this.nanos = new long[capacity];
+        }
+
+        private void add(long latencyNanos) {
+            int index = count.getAndIncrement();
+            if (index < nanos.length) {
+                nanos[index] = latencyNanos;
+            }
+        }
+
+        private void printRow(String name) {
+            int size = Math.min(count.get(), nanos.length);
+            long[] sorted = Arrays.copyOf(nanos, size);
+            Arrays.sort(sorted);
+            System.out.printf("| %s | %,d | %.1f | %.1f | %.1f | %.1f | %.1f |%n", name, size,
+                    percentile(sorted, 50), percentile(sorted, 90), percentile(sorted, 99), percentile(sorted, 99.9),
+                    size == 0 ? 0.0 : sorted[size - 1] / 1_000_000.0);
+        }
+
+        private static double percentile(long[] sorted, double percentile) {
+            if (sorted.length == 0) {
+                return 0.0;
+            }
+            int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1_000_000.0;
+        }
+    }
+}
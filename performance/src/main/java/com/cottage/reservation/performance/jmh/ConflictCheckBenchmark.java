@@ -0,0 +1,147 @@
+package com.cottage.reservation.performance.jmh;
+
+import com.cottage.reservation.entity.Reservation;
+import com.cottage.reservation.entity.Room;
+import com.cottage.reservation.entity.User;
+import com.cottage.reservation.performance.BenchmarkSupport;
+import com.cottage.reservation.repository.ReservationRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The booking conflict check, in memory (Reservation.overlaps over a room's stays) and as the
+ * ReservationRepository.findConflictingReservations query against the embedded H2 database, for a
+ * requested stay that is free and one that overlaps an existing reservation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConflictCheckBenchmark {
+
+    private static final LocalDate FIRST_CHECK_IN = LocalDate.of(2030, 1, 1);
+
+    /**
+     * Back-to-back two-night stays starting at FIRST_CHECK_IN.
+     */
+    @State(Scope.Benchmark)
+    public static class Stays {
+        @Param({"100", "1000"})
+        public int reservations;
+
+        Reservation[] stays;
+        LocalDate freeCheckIn;
+        LocalDate busyCheckIn;
+
+        @Setup
+        public void setUp() {
+            stays = new Reservation[reservations];
+            for (int i = 0; i < reservations; i++) {
+                stays[i] = Fixtures.reservation(i + 1, FIRST_CHECK_IN.plusDays(2L * i), 2);
+            }
+            freeCheckIn = FIRST_CHECK_IN.plusDays(2L * reservations + 7);
+            busyCheckIn = FIRST_CHECK_IN.plusDays(reservations);
+        }
+    }
+
+    /**
+     * The same stays persisted for one room of a running application.
+     */
+    @State(Scope.Benchmark)
+    public static class Database {
+        @Param({"100", "1000"})
+        public int reservations;
+
+        ConfigurableApplicationContext context;
+        ReservationRepository repository;
+        Long roomId;
+        LocalDate freeCheckIn;
+        LocalDate busyCheckIn;
+
+        @Setup(Level.Trial)
+        public void start() {
+            // JMH runs a subclass's @Setup before its superclass's, so the stays are built here too
+            Stays stays = new Stays();
+            stays.reservations = reservations;
+            stays.setUp();
+            freeCheckIn = stays.freeCheckIn;
+            busyCheckIn = stays.busyCheckIn;
+
+            context = BenchmarkSupport.startApplication();
+            repository = context.getBean(ReservationRepository.class);
+            EntityManagerFactory entityManagerFactory = context.getBean(EntityManagerFactory.class);
+            new TransactionTemplate(context.getBean(PlatformTransactionManager.class)).executeWithoutResult(status -> {
+                EntityManager entityManager = EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);
+                User user = new User("bench_user", "bench@example.com", "not-a-real-hash", "Bench", "User");
+                entityManager.persist(user);
+                Room room = entityManager.createQuery("SELECT r FROM Room r ORDER BY r.id", Room.class)
+                        .setMaxResults(1).getSingleResult();
+                roomId = room.getId();
+                for (Reservation stay : stays.stays) {
+                    Reservation reservation = new Reservation(stay.getCheckInDate(), stay.getCheckOutDate(), 2,
+                            BigDecimal.ZERO, user, room);
+                    reservation.setStatus(Reservation.ReservationStatus.CONFIRMED);
+                    entityManager.persist(reservation);
+                }
+            });
+        }
+
+        @TearDown(Level.Trial)
+        public void stop() {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public int overlapsFree(Stays state) {
+        return countOverlaps(state.stays, state.freeCheckIn, state.freeCheckIn.plusDays(3));
+    }
+
+    @Benchmark
+    public int overlapsBusy(Stays state) {
+        return countOverlaps(state.stays, state.busyCheckIn, state.busyCheckIn.plusDays(3));
+    }
+
+    @Benchmark
+    public List<Reservation> queryFree(Database state) {
+        return state.repository.findConflictingReservations(state.roomId, state.freeCheckIn, state.freeCheckIn.plusDays(3));
+    }
+
+    @Benchmark
+    public List<Reservation> queryBusy(Database state) {
+        return state.repository.findConflictingReservations(state.roomId, state.busyCheckIn, state.busyCheckIn.plusDays(3));
+    }
+
+    private static int countOverlaps(Reservation[] stays, LocalDate checkIn, LocalDate checkOut) {
+        int conflicts = 0;
+        for (Reservation stay : stays) {
+            if (stay.isActive() && stay.overlaps(checkIn, checkOut)) {
+                conflicts++;
+            }
+        }
+        return conflicts;
+    }
+}
@@ -0,0 +1,93 @@
+package com.cottage.reservation.performance.jmh;
+
+import com.cottage.reservation.dto.RoomView;
+import com.cottage.reservation.entity.Reservation;
+import com.cottage.reservation.entity.Room;
+import com.cottage.reservation.service.EmailService;
+import com.cottage.reservation.service.RoomCacheService;
+import com.cottage.reservation.trace.RequestTracer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * EmailService up to the hand-off to SMTP: room name lookup, body formatting, the email.send timer
+ * and the (disabled) JFR event. The mail sender only keeps the message.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EmailRenderingBenchmark {
+
+    private final CapturingMailSender mailSender = new CapturingMailSender();
+    private EmailService emailService;
+    private Reservation reservation;
+
+    @Setup
+    public void setUp() {
+        Fixtures.quietLogging();
+        reservation = Fixtures.reservation(42L, LocalDate.of(2030, 6, 12), 3);
+        reservation.setNotes(Fixtures.NOTES);
+
+        RoomView room = new RoomView(1L, 1L, "Bedroom 1", "Queen bed, garden view", BigDecimal.ZERO, 2,
+                Room.RoomType.BEDROOM_1, true, LocalDateTime.now(), LocalDateTime.now());
+        emailService = new EmailService();
+        Fixtures.setField(emailService, "emailSender", mailSender);
+        Fixtures.setField(emailService, "roomCacheService", new SingleRoomCache(room));
+        Fixtures.setField(emailService, "meterRegistry", new SimpleMeterRegistry());
+        Fixtures.setField(emailService, "requestTracer", new RequestTracer(1.0, 16, 16));
+    }
+
+    @Benchmark
+    public SimpleMailMessage confirmation() {
+        emailService.sendReservationConfirmation(reservation);
+        return mailSender.last;
+    }
+
+    @Benchmark
+    public SimpleMailMessage cancellation() {
+        emailService.sendReservationCancellation(reservation);
+        return mailSender.last;
+    }
+
+    private static final class CapturingMailSender extends JavaMailSenderImpl {
+        private SimpleMailMessage last;
+
+        @Override
+        public void send(SimpleMailMessage... simpleMessages) {
+            last = simpleMessages[simpleMessages.length - 1];
+        }
+    }
+
+    private static final class SingleRoomCache extends RoomCacheService {
+        private final Optional<RoomView> room;
+
+        private SingleRoomCache(RoomView room) {
+            this.room = Optional.of(room);
+        }
+
+        @Override
+        public Optional<RoomView> findById(Long id) {
+            return room;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.cottage.reservation.performance.jmh;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.cottage.reservation.entity.Reservation;
+import com.cottage.reservation.entity.Room;
+import com.cottage.reservation.entity.User;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Inputs and wiring shared by the microbenchmarks, which build the beans under test by hand
+ * instead of starting the application.
+ */
+final class Fixtures {
+
+    static final String NAME = "Alice Johnson";
+
+    static final String NOTES = "Arriving late in the evening, probably around 22:00 after a long drive from the "
+            + "city. We are travelling with two children (6 and 9) and would appreciate an extra blanket and a "
+            + "cot if one is available. One of us has a nut allergy, so please leave out the welcome snacks. "
+            + "We plan to go hiking on Saturday and may ask for a packed lunch the evening before.";
+
+    static final String ATTACK = "<script>alert(document.cookie)</script>' OR 1=1; DROP TABLE users --";
+
+    private Fixtures() {
+    }
+
+    static String text(String kind) {
+        switch (kind) {
+            case "name":
+                return NAME;
+            case "notes":
+                return NOTES;
+            case "attack":
+                return ATTACK;
+            default:
+                throw new IllegalArgumentException("Unknown input " + kind);
+        }
+    }
+
+    /**
+     * Sets a private (typically @Autowired or @Value) field.
+     */
+    static void setField(Object target, String name, Object value) {
+        Field field = ReflectionUtils.findField(target.getClass(), name);
+        if (field == null) {
+            throw new IllegalArgumentException(target.getClass().getName() + " has no field " + name);
+        }
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, target, value);
+    }
+
+    /**
+     * Logback prints everything at DEBUG until Spring Boot configures it, which these benchmarks never do.
+     */
+    static void quietLogging() {
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+    }
+
+    static void silence(Class<?> type) {
+        ((Logger) LoggerFactory.getLogger(type)).setLevel(Level.OFF);
+    }
+
+    static Reservation reservation(long id, LocalDate checkIn, int nights) {
+        User user = new User("alice", "alice@example.com", "not-a-real-hash", "Alice", "Johnson");
+        user.setId(1L);
+        Room room = new Room("Bedroom 1", "Queen bed, garden view", BigDecimal.ZERO, 2, Room.RoomType.BEDROOM_1);
+        room.setId(1L);
+        Reservation reservation = new Reservation(checkIn, checkIn.plusDays(nights), 2, BigDecimal.ZERO, user, room);
+        reservation.setId(id);
+        reservation.setStatus(Reservation.ReservationStatus.CONFIRMED);
+        return reservation;
+    }
+}
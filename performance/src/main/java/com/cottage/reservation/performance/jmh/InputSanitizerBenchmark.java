@@ -0,0 +1,54 @@
+package com.cottage.reservation.performance.jmh;
+
+import com.cottage.reservation.util.InputSanitizer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * InputSanitizer on a short name, 400 characters of reservation notes and an injection attempt.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InputSanitizerBenchmark {
+
+    @Param({"name", "notes", "attack"})
+    public String input;
+
+    private final InputSanitizer sanitizer = new InputSanitizer();
+    private String text;
+
+    @Setup
+    public void setUp() {
+        text = Fixtures.text(input);
+    }
+
+    @Benchmark
+    public String sanitizeText() {
+        return sanitizer.sanitizeText(text);
+    }
+
+    @Benchmark
+    public boolean isSqlSafe() {
+        return sanitizer.isSqlSafe(text);
+    }
+
+    @Benchmark
+    public boolean isXssSafe() {
+        return sanitizer.isXssSafe(text);
+    }
+}
@@ -0,0 +1,77 @@
+package com.cottage.reservation.performance.jmh;
+
+import com.cottage.reservation.security.JwtUtils;
+import com.cottage.reservation.security.UserPrincipal;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token work done by AuthTokenFilter on every authenticated request (validate, then read the
+ * subject), the rejection path for a malformed token, and issuing a token at sign-in.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+    private JwtUtils jwtUtils;
+    private UsernamePasswordAuthenticationToken authentication;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        Fixtures.quietLogging();
+        // Malformed tokens are logged at ERROR; the benchmark measures the check, not the console
+        Fixtures.silence(JwtUtils.class);
+
+        jwtUtils = new JwtUtils();
+        Fixtures.setField(jwtUtils, "jwtSecret", Base64.getEncoder().encodeToString(new byte[64]));
+        Fixtures.setField(jwtUtils, "jwtExpirationMs", 86400);
+        Fixtures.setField(jwtUtils, "meterRegistry", new SimpleMeterRegistry());
+
+        UserPrincipal principal = new UserPrincipal(1L, "alice", "alice@example.com", "not-a-real-hash");
+        authentication = new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+        token = jwtUtils.generateJwtToken(authentication);
+    }
+
+    @Benchmark
+    public boolean validate() {
+        return jwtUtils.validateJwtToken(token);
+    }
+
+    @Benchmark
+    public String userName() {
+        return jwtUtils.getUserNameFromJwtToken(token);
+    }
+
+    @Benchmark
+    public String authenticateRequest() {
+        return jwtUtils.validateJwtToken(token) ? jwtUtils.getUserNameFromJwtToken(token) : null;
+    }
+
+    @Benchmark
+    public boolean rejectMalformed() {
+        return jwtUtils.validateJwtToken("not-a-jwt");
+    }
+
+    @Benchmark
+    public String generate() {
+        return jwtUtils.generateJwtToken(authentication);
+    }
+}
@@ -0,0 +1,66 @@
+package com.cottage.reservation.performance.jmh;
+
+import com.cottage.reservation.dto.ReservationRequest;
+import com.cottage.reservation.validation.PasswordValidator;
+import com.cottage.reservation.validation.SafeText;
+import com.cottage.reservation.validation.SafeTextValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The application's own constraint validators, called directly: @SafeText as configured on
+ * ReservationRequest.notes, and @ValidPassword on an accepted and a rejected password.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidatorBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class SafeTextInput {
+        @Param({"name", "notes", "attack"})
+        public String input;
+
+        private final SafeTextValidator validator = new SafeTextValidator();
+        private String text;
+
+        @Setup
+        public void setUp() throws NoSuchFieldException {
+            validator.initialize(ReservationRequest.class.getDeclaredField("notes").getAnnotation(SafeText.class));
+            text = Fixtures.text(input);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Passwords {
+        private final PasswordValidator validator = new PasswordValidator();
+    }
+
+    @Benchmark
+    public boolean safeText(SafeTextInput state) {
+        return state.validator.isValid(state.text, null);
+    }
+
+    @Benchmark
+    public boolean passwordAccepted(Passwords state) {
+        return state.validator.isValid("Summer@Cottage2024", null);
+    }
+
+    @Benchmark
+    public boolean passwordRejected(Passwords state) {
+        return state.validator.isValid("summercottage2024", null);
+    }
+}
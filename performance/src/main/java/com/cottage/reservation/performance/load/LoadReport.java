@@ -0,0 +1,208 @@
+package com.cottage.reservation.performance.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histograms (microseconds, measured from the scheduled send time), outcomes and completions
+ * per second of one measured run.
+ * <p>
+ * {@link #write(Path, Map)} leaves a directory that a later run can be compared against: summary.md
+ * and summary.json, one HdrHistogram percentile distribution (.hgrm) per operation, and
+ * timeline.csv with completions and errors per second.
+ */
+final class LoadReport {
+
+    private static final long HIGHEST_MICROS = TimeUnit.MINUTES.toMicros(5);
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final Map<Workload.Operation, OperationStats> operations = new EnumMap<>(Workload.Operation.class);
+    private final AtomicLongArray completedPerSecond;
+    private final AtomicLongArray errorsPerSecond;
+    private final int seconds;
+    private long startNanos;
+
+    LoadReport(int seconds) {
+        this.seconds = seconds;
+        // Requests still in flight at the end land in a few extra seconds
+        this.completedPerSecond = new AtomicLongArray(seconds + 120);
+        this.errorsPerSecond = new AtomicLongArray(seconds + 120);
+        for (Workload.Operation operation : Workload.Operation.values()) {
+            operations.put(operation, new OperationStats());
+        }
+    }
+
+    void start(long startNanos) {
+        this.startNanos = startNanos;
+    }
+
+    void skipped(Workload.Operation operation) {
+        operations.get(operation).outcome("skipped");
+    }
+
+    void record(Workload.Operation operation, long scheduledNanos, String outcome) {
+        long now = System.nanoTime();
+        OperationStats stats = operations.get(operation);
+        stats.latencies.recordValue(Math.min(HIGHEST_MICROS, Math.max(0, (now - scheduledNanos) / 1_000)));
+        stats.outcome(outcome);
+        int second = (int) Math.min(completedPerSecond.length() - 1, (now - startNanos) / 1_000_000_000L);
+        completedPerSecond.incrementAndGet(second);
+        if (isError(outcome)) {
+            errorsPerSecond.incrementAndGet(second);
+        }
+    }
+
+    /**
+     * Outcomes that mean the system failed the request, as opposed to a business answer such as a
+     * booking conflict.
+     */
+    static boolean isError(String outcome) {
+        return outcome.equals("server_error") || outcome.equals("io_error") || outcome.equals("timeout");
+    }
+
+    void print(PrintStream out, Map<String, Object> settings) {
+        settings.forEach((name, value) -> out.printf("%s=%s ", name, value));
+        out.println();
+        out.println("| Operation | Count | Throughput /s | p50 ms | p90 ms | p99 ms | p99.9 ms | max ms | Outcomes |");
+        out.println("|---|---|---|---|---|---|---|---|---|");
+        long total = 0;
+        for (Map.Entry<Workload.Operation, OperationStats> entry : operations.entrySet()) {
+            Histogram histogram = entry.getValue().latencies;
+            long count = histogram.getTotalCount();
+            if (count == 0 && entry.getValue().outcomes.isEmpty()) {
+                continue;
+            }
+            total += count;
+            out.printf("| %s | %,d | %.1f | %.1f | %.1f | %.1f | %.1f | %.1f | %s |%n", entry.getKey().getLabel(), count,
+                    (double) count / seconds, millis(histogram, 50), millis(histogram, 90), millis(histogram, 99),
+                    millis(histogram, 99.9), histogram.getMaxValue() / 1000.0, entry.getValue().outcomeSummary());
+        }
+        long errors = 0;
+        for (int i = 0; i < errorsPerSecond.length(); i++) {
+            errors += errorsPerSecond.get(i);
+        }
+        out.printf("Total: %,d requests, %.1f/s, %,d errors%n", total, (double) total / seconds, errors);
+    }
+
+    /**
+     * Prints p50, p99 and throughput next to those of an earlier run's summary.json.
+     */
+    void compare(PrintStream out, Path baseline) throws IOException {
+        JsonNode previous = new ObjectMapper().readTree(baseline.toFile()).path("operations");
+        out.println("| Operation | p50 ms (was) | p99 ms (was) | Throughput /s (was) | Errors (was) |");
+        out.println("|---|---|---|---|---|");
+        for (Map.Entry<Workload.Operation, OperationStats> entry : operations.entrySet()) {
+            Histogram histogram = entry.getValue().latencies;
+            JsonNode before = previous.path(entry.getKey().name());
+            if (histogram.getTotalCount() == 0 && before.isMissingNode()) {
+                continue;
+            }
+            out.printf("| %s | %.1f (%.1f) | %.1f (%.1f) | %.1f (%.1f) | %,d (%,d) |%n", entry.getKey().getLabel(),
+                    millis(histogram, 50), before.path("p50Millis").asDouble(),
+                    millis(histogram, 99), before.path("p99Millis").asDouble(),
+                    (double) histogram.getTotalCount() / seconds, before.path("throughputPerSecond").asDouble(),
+                    entry.getValue().errors(), before.path("errors").asLong());
+        }
+    }
+
+    void write(Path directory, Map<String, Object> settings) throws IOException {
+        Files.createDirectories(directory);
+        try (PrintStream out = new PrintStream(directory.resolve("summary.md").toFile(), "UTF-8")) {
+            print(out, settings);
+        }
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("settings", settings);
+        Map<String, Object> perOperation = new LinkedHashMap<>();
+        for (Map.Entry<Workload.Operation, OperationStats> entry : operations.entrySet()) {
+            Histogram histogram = entry.getValue().latencies;
+            if (histogram.getTotalCount() == 0) {
+                continue;
+            }
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("count", histogram.getTotalCount());
+            stats.put("throughputPerSecond", (double) histogram.getTotalCount() / seconds);
+            stats.put("meanMillis", histogram.getMean() / 1000.0);
+            for (double percentile : PERCENTILES) {
+                stats.put("p" + String.valueOf(percentile).replace(".0", "").replace(".", "") + "Millis",
+                        millis(histogram, percentile));
+            }
+            stats.put("maxMillis", histogram.getMaxValue() / 1000.0);
+            stats.put("errors", entry.getValue().errors());
+            stats.put("outcomes", entry.getValue().outcomeCounts());
+            perOperation.put(entry.getKey().name(), stats);
+
+            try (PrintStream out = new PrintStream(directory.resolve(entry.getKey().name().toLowerCase() + ".hgrm").toFile(), "UTF-8")) {
+                histogram.outputPercentileDistribution(out, 1000.0);
+            }
+        }
+        summary.put("operations", perOperation);
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(directory.resolve("summary.json").toFile(), summary);
+
+        StringWriter timeline = new StringWriter();
+        timeline.append("second,completed,errors\n");
+        int last = completedPerSecond.length() - 1;
+        while (last > seconds && completedPerSecond.get(last) == 0) {
+            last--;
+        }
+        for (int i = 0; i <= last; i++) {
+            timeline.append(String.valueOf(i)).append(',').append(String.valueOf(completedPerSecond.get(i)))
+                    .append(',').append(String.valueOf(errorsPerSecond.get(i))).append('\n');
+        }
+        Files.writeString(directory.resolve("timeline.csv"), timeline.toString());
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getTotalCount() == 0 ? 0.0 : histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    private static final class OperationStats {
+        private final Histogram latencies = new ConcurrentHistogram(HIGHEST_MICROS, 3);
+        private final Map<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+
+        private void outcome(String outcome) {
+            outcomes.computeIfAbsent(outcome, key -> new LongAdder()).increment();
+        }
+
+        private long errors() {
+            return outcomes.entrySet().stream()
+                    .filter(entry -> isError(entry.getKey()))
+                    .mapToLong(entry -> entry.getValue().sum())
+                    .sum();
+        }
+
+        private Map<String, Long> outcomeCounts() {
+            Map<String, Long> counts = new TreeMap<>();
+            outcomes.forEach((outcome, count) -> counts.put(outcome, count.sum()));
+            return counts;
+        }
+
+        private String outcomeSummary() {
+            StringBuilder summary = new StringBuilder();
+            outcomeCounts().forEach((outcome, count) -> {
+                if (summary.length() > 0) {
+                    summary.append(", ");
+                }
+                summary.append(outcome).append(' ').append(String.format("%,d", count));
+            });
+            return summary.toString();
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.cottage.reservation.performance.load;
+
+import com.cottage.reservation.performance.BenchmarkSupport;
+import com.cottage.reservation.performance.SmtpStub;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Production-like load against the HTTP API of an in-process application on H2.
+ * <p>
+ * Seeds a synthetic dataset (see {@link SyntheticDataset}), signs in a pool of sessions, then sends a
+ * weighted mix of sign-ups, sign-ins, availability searches, bookings, updates and cancellations
+ * (see {@link Workload}). Arrivals are an open model: a Poisson process at --rate requests per second
+ * that does not wait for responses, with latency measured from each request's scheduled time so
+ * queueing in the server is not hidden. Mail goes to a local SMTP stub.
+ * <p>
+ * Results are printed and written to --report (see {@link LoadReport}); pass --compare with the
+ * summary.json of an earlier run to print the two side by side.
+ * <pre>
+ * mvn -q compile exec:java -Dexec.mainClass=com.cottage.reservation.performance.load.LoadTest
+ *     -Dexec.args="--rate=50 --seconds=60 --users=2000 --reservations=50000"
+ * </pre>
+ */
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        int rate = BenchmarkSupport.intOption(args, "rate", 50);
+        int seconds = BenchmarkSupport.intOption(args, "seconds", 60);
+        int warmupSeconds = BenchmarkSupport.intOption(args, "warmup-seconds", 15);
+        int users = BenchmarkSupport.intOption(args, "users", 2_000);
+        int reservations = BenchmarkSupport.intOption(args, "reservations", 50_000);
+        int sessions = BenchmarkSupport.intOption(args, "sessions", 200);
+        int smtpDelayMillis = BenchmarkSupport.intOption(args, "smtp-delay", 20);
+        long seed = BenchmarkSupport.intOption(args, "seed", 42);
+        String mix = option(args, "mix", Workload.DEFAULT_MIX);
+        double hotShare = Double.parseDouble(option(args, "hot-share", "0.3"));
+        String label = option(args, "label", LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")));
+        Path reportDirectory = Paths.get(option(args, "report", "target/load-test/" + label));
+        String compare = BenchmarkSupport.option(args, "compare");
+
+        try (SmtpStub smtp = new SmtpStub(smtpDelayMillis)) {
+            String[] applicationArgs = BenchmarkSupport.withArgument(smtp.withMailArguments(args), "--app.journal.enabled=false");
+            try (ConfigurableApplicationContext context = BenchmarkSupport.startApplication(applicationArgs)) {
+                int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+
+                long seedStart = System.nanoTime();
+                SyntheticDataset dataset = SyntheticDataset.seed(context, users, reservations, seed);
+                System.out.printf("Seeded %,d users and %,d reservations over %d rooms in %.1f s%n", users,
+                        dataset.getReservations(), dataset.getRoomIds().size(), (System.nanoTime() - seedStart) / 1e9);
+
+                Workload workload = new Workload("http://localhost:" + port, mix, dataset.getUsernames(),
+                        dataset.getRoomIds(), hotShare, sessions);
+                workload.signIn();
+
+                run(workload, rate, warmupSeconds, null);
+                LoadReport report = new LoadReport(seconds);
+                run(workload, rate, seconds, report);
+
+                Map<String, Object> settings = new LinkedHashMap<>();
+                settings.put("label", label);
+                settings.put("java", System.getProperty("java.version"));
+                settings.put("rate", rate);
+                settings.put("seconds", seconds);
+                settings.put("mix", mix);
+                settings.put("hotShare", hotShare);
+                settings.put("users", users);
+                settings.put("reservations", dataset.getReservations());
+                settings.put("sessions", sessions);
+                settings.put("smtpDelayMillis", smtpDelayMillis);
+                settings.put("database", context.getEnvironment().getProperty("spring.datasource.url"));
+                report.print(System.out, settings);
+                report.write(reportDirectory, settings);
+                System.out.println("Report written to " + reportDirectory.toAbsolutePath());
+                if (compare != null) {
+                    report.compare(System.out, Paths.get(compare));
+                }
+            }
+        }
+    }
+
+    /**
+     * Sends requests at exponentially distributed intervals for the given time, then waits for the
+     * ones still in flight. Nothing is recorded when report is null (warm-up).
+     */
+    private static void run(Workload workload, int rate, int seconds, LoadReport report) throws InterruptedException {
+        List<CompletableFuture<?>> inFlight = new ArrayList<>();
+        long start = System.nanoTime();
+        long end = start + TimeUnit.SECONDS.toNanos(seconds);
+        double meanIntervalNanos = TimeUnit.SECONDS.toNanos(1) / (double) Math.max(1, rate);
+        if (report != null) {
+            report.start(start);
+        }
+        long next = start;
+        while (next < end) {
+            long wait = next - System.nanoTime();
+            if (wait > 0) {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            }
+            inFlight.add(workload.fire(workload.next(), next, report));
+            next += (long) (-Math.log(1.0 - ThreadLocalRandom.current().nextDouble()) * meanIntervalNanos);
+        }
+        CompletableFuture.allOf(inFlight.toArray(new CompletableFuture<?>[0])).join();
+    }
+
+    private static String option(String[] args, String name, String defaultValue) {
+        String value = BenchmarkSupport.option(args, name);
+        return value == null ? defaultValue : value;
+    }
+}
@@ -0,0 +1,154 @@
+package com.cottage.reservation.performance.load;
+
+import com.cottage.reservation.entity.Reservation;
+import com.cottage.reservation.entity.Room;
+import com.cottage.reservation.entity.User;
+import com.cottage.reservation.service.AvailabilityProjector;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Seeds a started application with users and a reservation history, so that queries and caches see a
+ * production-sized database instead of an empty one.
+ * <p>
+ * Every room gets back-to-back past stays (mostly completed, some cancelled) reaching back as far as
+ * the requested count needs, and confirmed upcoming stays on roughly half of the nights of the next
+ * year, leaving gaps for the load to book into. A fixed seed makes two runs start from the same data.
+ */
+final class SyntheticDataset {
+
+    static final String PASSWORD = "Load@Test2024";
+
+    private static final int CHUNK = 1_000;
+    private static final int UPCOMING_DAYS = 365;
+
+    private final List<String> usernames;
+    private final List<Long> roomIds;
+    private final int reservations;
+
+    private SyntheticDataset(List<String> usernames, List<Long> roomIds, int reservations) {
+        this.usernames = usernames;
+        this.roomIds = roomIds;
+        this.reservations = reservations;
+    }
+
+    static SyntheticDataset seed(ConfigurableApplicationContext context, int users, int reservations, long seed) {
+        EntityManagerFactory entityManagerFactory = context.getBean(EntityManagerFactory.class);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        // One BCrypt hash for everyone; hashing per user would dominate the seeding time
+        String passwordHash = context.getBean(PasswordEncoder.class).encode(PASSWORD);
+        Random random = new Random(seed);
+
+        List<String> usernames = new ArrayList<>(users);
+        List<Long> userIds = new ArrayList<>(users);
+        for (int done = 0; done < users; done += CHUNK) {
+            int from = done;
+            int to = Math.min(users, done + CHUNK);
+            transactionTemplate.executeWithoutResult(status -> {
+                EntityManager entityManager = EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);
+                List<User> batch = new ArrayList<>(to - from);
+                for (int i = from; i < to; i++) {
+                    String username = "synthetic_" + i;
+                    User user = new User(username, username + "@example.com", passwordHash, "Synthetic", "Guest");
+                    entityManager.persist(user);
+                    batch.add(user);
+                    usernames.add(username);
+                }
+                entityManager.flush();
+                batch.forEach(user -> userIds.add(user.getId()));
+                entityManager.clear();
+            });
+        }
+
+        List<Long> roomIds = transactionTemplate.execute(status ->
+                EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory)
+                        .createQuery("SELECT r.id FROM Room r ORDER BY r.id", Long.class)
+                        .getResultList());
+
+        List<Stay> stays = plan(roomIds, reservations, random);
+        for (int done = 0; done < stays.size(); done += CHUNK) {
+            List<Stay> chunk = stays.subList(done, Math.min(stays.size(), done + CHUNK));
+            transactionTemplate.executeWithoutResult(status -> {
+                EntityManager entityManager = EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);
+                for (Stay stay : chunk) {
+                    User user = entityManager.getReference(User.class, userIds.get(random.nextInt(userIds.size())));
+                    Room room = entityManager.getReference(Room.class, stay.roomId);
+                    Reservation reservation = new Reservation(stay.checkIn, stay.checkIn.plusDays(stay.nights),
+                            1 + random.nextInt(2), BigDecimal.ZERO, user, room);
+                    reservation.setStatus(stay.status);
+                    entityManager.persist(reservation);
+                }
+                entityManager.flush();
+                entityManager.clear();
+            });
+        }
+
+        // The availability read model was built at startup, before these rows existed
+        context.getBean(AvailabilityProjector.class).rebuild();
+        return new SyntheticDataset(usernames, roomIds, stays.size());
+    }
+
+    private static List<Stay> plan(List<Long> roomIds, int reservations, Random random) {
+        List<Stay> stays = new ArrayList<>(reservations);
+        LocalDate today = LocalDate.now();
+        // Upcoming: a stay of 1-4 nights, then a gap of the same expected length
+        for (Long roomId : roomIds) {
+            LocalDate checkIn = today.plusDays(1 + random.nextInt(4));
+            while (stays.size() < reservations && checkIn.isBefore(today.plusDays(UPCOMING_DAYS))) {
+                int nights = 1 + random.nextInt(4);
+                stays.add(new Stay(roomId, checkIn, nights, Reservation.ReservationStatus.CONFIRMED));
+                checkIn = checkIn.plusDays(nights + 1 + random.nextInt(4));
+            }
+        }
+        // History: back to back into the past, one room after another in turn
+        LocalDate[] earliest = new LocalDate[roomIds.size()];
+        Arrays.fill(earliest, today);
+        for (int i = 0; stays.size() < reservations; i++) {
+            int room = i % roomIds.size();
+            int nights = 1 + random.nextInt(4);
+            earliest[room] = earliest[room].minusDays(nights);
+            Reservation.ReservationStatus status = random.nextInt(10) == 0
+                    ? Reservation.ReservationStatus.CANCELLED : Reservation.ReservationStatus.COMPLETED;
+            stays.add(new Stay(roomIds.get(room), earliest[room], nights, status));
+        }
+        return stays;
+    }
+
+    List<String> getUsernames() {
+        return usernames;
+    }
+
+    List<Long> getRoomIds() {
+        return roomIds;
+    }
+
+    int getReservations() {
+        return reservations;
+    }
+
+    private static final class Stay {
+        private final Long roomId;
+        private final LocalDate checkIn;
+        private final int nights;
+        private final Reservation.ReservationStatus status;
+
+        private Stay(Long roomId, LocalDate checkIn, int nights, Reservation.ReservationStatus status) {
+            this.roomId = roomId;
+            this.checkIn = checkIn;
+            this.nights = nights;
+            this.status = status;
+        }
+    }
+}
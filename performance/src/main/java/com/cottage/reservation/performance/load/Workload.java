@@ -0,0 +1,315 @@
+package com.cottage.reservation.performance.load;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.BiConsumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The request mix and the client state it needs: signed-in sessions, and reservations made during
+ * the run that updates and cancellations can act on.
+ * <p>
+ * Bookings pick the hot room for --hot-share of requests, with check-in in the next two weeks, so
+ * they contend with each other the way a popular room does on a holiday weekend. The rest spread
+ * over every room and the next year.
+ */
+final class Workload {
+
+    enum Operation {
+        SIGNUP("POST /api/auth/signup"),
+        LOGIN("POST /api/auth/signin"),
+        SEARCH("GET /api/rooms/available"),
+        BOOK("POST /api/reservations"),
+        UPDATE("PUT /api/reservations/{id}"),
+        CANCEL("DELETE /api/reservations/{id}");
+
+        private final String label;
+
+        Operation(String label) {
+            this.label = label;
+        }
+
+        String getLabel() {
+            return label;
+        }
+    }
+
+    static final String DEFAULT_MIX = "search:55,book:15,login:10,update:8,cancel:7,signup:5";
+
+    private static final Pattern TOKEN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+
+    private final String baseUrl;
+    private final HttpClient http;
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+    private final List<String> usernames;
+    private final List<Long> roomIds;
+    private final Long hotRoomId;
+    private final double hotShare;
+    private final String runId;
+
+    private final AtomicReferenceArray<Session> sessions;
+    private final ConcurrentLinkedQueue<Booking> bookings = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger signups = new AtomicInteger();
+
+    Workload(String baseUrl, String mix, List<String> usernames, List<Long> roomIds, double hotShare, int sessions) {
+        this.baseUrl = baseUrl;
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newCachedThreadPool())
+                .build();
+        Map<Operation, Integer> weights = parseMix(mix);
+        this.operations = weights.keySet().toArray(new Operation[0]);
+        this.cumulativeWeights = new int[operations.length];
+        int sum = 0;
+        for (int i = 0; i < operations.length; i++) {
+            sum += weights.get(operations[i]);
+            cumulativeWeights[i] = sum;
+        }
+        this.usernames = usernames;
+        this.roomIds = roomIds;
+        this.hotRoomId = roomIds.get(0);
+        this.hotShare = hotShare;
+        this.runId = Long.toString(System.currentTimeMillis() % 1_000_000_000L, 36);
+        this.sessions = new AtomicReferenceArray<>(Math.max(1, sessions));
+    }
+
+    static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String part : mix.split(",")) {
+            String[] nameAndWeight = part.trim().split(":");
+            int weight = Integer.parseInt(nameAndWeight[1].trim());
+            if (weight > 0) {
+                weights.put(Operation.valueOf(nameAndWeight[0].trim().toUpperCase()), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("Empty mix: " + mix);
+        }
+        return weights;
+    }
+
+    /**
+     * Signs in the session pool before the clock starts.
+     */
+    void signIn() {
+        List<CompletableFuture<?>> pending = new ArrayList<>();
+        for (int i = 0; i < sessions.length(); i++) {
+            int slot = i;
+            Session session = new Session(usernames.get(i % usernames.size()), slot);
+            pending.add(http.sendAsync(signInRequest(session), HttpResponse.BodyHandlers.ofString())
+                    .thenAccept(response -> {
+                        Matcher matcher = TOKEN.matcher(response.body());
+                        if (!matcher.find()) {
+                            throw new IllegalStateException("Sign-in failed: " + response.statusCode() + " " + response.body());
+                        }
+                        session.token = matcher.group(1);
+                        sessions.set(slot, session);
+                    }));
+        }
+        CompletableFuture.allOf(pending.toArray(new CompletableFuture<?>[0])).join();
+    }
+
+    Operation next() {
+        int draw = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (draw < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    /**
+     * Sends one request of the given kind; the future completes once the outcome has been recorded.
+     */
+    CompletableFuture<?> fire(Operation operation, long scheduledNanos, LoadReport report) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Session session = sessions.get(random.nextInt(sessions.length()));
+        switch (operation) {
+            case SIGNUP: {
+                String username = "load_" + runId + "_" + signups.incrementAndGet();
+                return send(operation, scheduledNanos, report, post("/api/auth/signup", null, session.address,
+                        "{\"username\":\"" + username + "\",\"email\":\"" + username + "@example.com\",\"password\":\""
+                                + SyntheticDataset.PASSWORD + "\",\"firstName\":\"Load\",\"lastName\":\"Guest\"}"), null);
+            }
+            case LOGIN: {
+                Session fresh = new Session(usernames.get(random.nextInt(usernames.size())), session.slot);
+                return send(operation, scheduledNanos, report, signInRequest(fresh), (outcome, response) -> {
+                    Matcher matcher = outcome.equals("ok") ? TOKEN.matcher(response.body()) : null;
+                    if (matcher != null && matcher.find()) {
+                        fresh.token = matcher.group(1);
+                        sessions.set(fresh.slot, fresh);
+                    }
+                });
+            }
+            case SEARCH: {
+                LocalDate from = LocalDate.now().plusDays(1 + random.nextInt(365));
+                return send(operation, scheduledNanos, report, builder("/api/rooms/available?startDate=" + from
+                        + "&endDate=" + from.plusDays(1 + random.nextInt(7)), null, session.address).GET().build(), null);
+            }
+            case BOOK: {
+                boolean hot = random.nextDouble() < hotShare;
+                Long roomId = hot ? hotRoomId : roomIds.get(random.nextInt(roomIds.size()));
+                LocalDate checkIn = LocalDate.now().plusDays(1 + random.nextInt(hot ? 14 : 365));
+                int nights = 1 + random.nextInt(4);
+                return send(operation, scheduledNanos, report, post("/api/reservations", session.token, session.address,
+                        reservationJson(roomId, checkIn, nights)), (outcome, response) -> {
+                    Matcher matcher = outcome.equals("ok") ? ID.matcher(response.body()) : null;
+                    if (matcher != null && matcher.find()) {
+                        bookings.add(new Booking(session, Long.parseLong(matcher.group(1)), roomId, checkIn, nights));
+                    }
+                });
+            }
+            case UPDATE: {
+                Booking booking = bookings.poll();
+                if (booking == null) {
+                    if (report != null) {
+                        report.skipped(operation);
+                    }
+                    return CompletableFuture.completedFuture(null);
+                }
+                // Shift the stay by up to a week either way, keeping it in the future
+                LocalDate checkIn = booking.checkIn.plusDays(random.nextInt(15) - 7);
+                LocalDate earliest = LocalDate.now().plusDays(1);
+                LocalDate moved = checkIn.isBefore(earliest) ? earliest : checkIn;
+                HttpRequest request = builder("/api/reservations/" + booking.id, booking.session.token, booking.session.address)
+                        .header("Content-Type", "application/json")
+                        .PUT(HttpRequest.BodyPublishers.ofString(reservationJson(booking.roomId, moved, booking.nights)))
+                        .build();
+                // A rejected move leaves the booking where it was, still available to later updates
+                return send(operation, scheduledNanos, report, request, (outcome, response) -> bookings.add(outcome.equals("ok")
+                        ? new Booking(booking.session, booking.id, booking.roomId, moved, booking.nights) : booking));
+            }
+            case CANCEL: {
+                Booking booking = bookings.poll();
+                if (booking == null) {
+                    if (report != null) {
+                        report.skipped(operation);
+                    }
+                    return CompletableFuture.completedFuture(null);
+                }
+                return send(operation, scheduledNanos, report, builder("/api/reservations/" + booking.id,
+                        booking.session.token, booking.session.address).DELETE().build(), null);
+            }
+            default:
+                throw new IllegalStateException("Unknown operation " + operation);
+        }
+    }
+
+    private CompletableFuture<?> send(Operation operation, long scheduledNanos, LoadReport report, HttpRequest request,
+                                      BiConsumer<String, HttpResponse<String>> onComplete) {
+        return http.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .handle((response, error) -> {
+                    String outcome = outcome(response, error);
+                    if (report != null) {
+                        report.record(operation, scheduledNanos, outcome);
+                    }
+                    if (onComplete != null) {
+                        onComplete.accept(outcome, response);
+                    }
+                    return null;
+                });
+    }
+
+    static String outcome(HttpResponse<?> response, Throwable error) {
+        if (error != null) {
+            Throwable cause = error.getCause() != null ? error.getCause() : error;
+            return cause instanceof HttpTimeoutException ? "timeout" : "io_error";
+        }
+        int status = response.statusCode();
+        if (status >= 200 && status < 300) {
+            return "ok";
+        }
+        switch (status) {
+            case 400:
+                return "bad_request";
+            case 401:
+            case 403:
+                return "unauthorized";
+            case 404:
+                return "not_found";
+            case 409:
+                return "conflict";
+            case 429:
+                return "throttled";
+            default:
+                return status >= 500 ? "server_error" : "http_" + status;
+        }
+    }
+
+    private HttpRequest signInRequest(Session session) {
+        return post("/api/auth/signin", null, session.address,
+                "{\"username\":\"" + session.username + "\",\"password\":\"" + SyntheticDataset.PASSWORD + "\"}");
+    }
+
+    private static String reservationJson(Long roomId, LocalDate checkIn, int nights) {
+        return "{\"roomId\":" + roomId + ",\"checkInDate\":\"" + checkIn + "\",\"checkOutDate\":\""
+                + checkIn.plusDays(nights) + "\",\"numberOfGuests\":2}";
+    }
+
+    private HttpRequest post(String path, String token, String address, String json) {
+        return builder(path, token, address)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private HttpRequest.Builder builder(String path, String token, String address) {
+        // The per-client rate limiter keys on X-Forwarded-For; every session is its own client
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(60))
+                .header("X-Forwarded-For", address);
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private static final class Session {
+        private final String username;
+        private final int slot;
+        private final String address;
+        private volatile String token;
+
+        private Session(String username, int slot) {
+            this.username = username;
+            this.slot = slot;
+            this.address = "10." + ((slot >> 16) & 255) + "." + ((slot >> 8) & 255) + "." + (slot & 255);
+        }
+    }
+
+    private static final class Booking {
+        private final Session session;
+        private final long id;
+        private final Long roomId;
+        private final LocalDate checkIn;
+        private final int nights;
+
+        private Booking(Session session, long id, Long roomId, LocalDate checkIn, int nights) {
+            this.session = session;
+            this.id = id;
+            this.roomId = roomId;
+            this.checkIn = checkIn;
+            this.nights = nights;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.cottage.reservation.performance.stress;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The correctness oracle for a stress run, evaluated on the final database state through plain JDBC,
+ * so any booking engine that writes the reservations table can be checked with it:
+ * <ul>
+ *   <li>no two active (pending or confirmed) reservations of a room overlap;</li>
+ *   <li>every acknowledged reservation exists, and no reservation exists that was not acknowledged;</li>
+ *   <li>every acknowledged cancellation is still cancelled, and nothing else is (no lost or phantom
+ *       status transitions);</li>
+ *   <li>every reservation's stay is one it was acknowledged at (no lost or torn updates).</li>
+ * </ul>
+ */
+public final class BookingInvariants {
+
+    private static final String ACTIVE = "('PENDING', 'CONFIRMED')";
+
+    private BookingInvariants() {
+    }
+
+    /**
+     * @param firstReservationId reservations with a lower id existed before the run and are only
+     *                           checked for overlaps
+     * @return one line per violation; empty when the run was correct
+     */
+    public static List<String> check(Connection connection, OperationLog log, long firstReservationId) throws SQLException {
+        List<String> violations = new ArrayList<>();
+        try (Statement statement = connection.createStatement()) {
+            try (ResultSet overlaps = statement.executeQuery(
+                    "SELECT a.id, b.id, a.room_id, a.check_in_date, a.check_out_date, b.check_in_date, b.check_out_date "
+                            + "FROM reservations a JOIN reservations b ON a.room_id = b.room_id AND a.id < b.id "
+                            + "WHERE a.reservation_status IN " + ACTIVE + " AND b.reservation_status IN " + ACTIVE + " "
+                            + "AND a.check_in_date < b.check_out_date AND b.check_in_date < a.check_out_date")) {
+                while (overlaps.next()) {
+                    violations.add(String.format("double booking: room %d has #%d %s..%s and #%d %s..%s",
+                            overlaps.getLong(3), overlaps.getLong(1), overlaps.getDate(4), overlaps.getDate(5),
+                            overlaps.getLong(2), overlaps.getDate(6), overlaps.getDate(7)));
+                }
+            }
+
+            Map<Long, Row> rows = new HashMap<>();
+            try (ResultSet result = statement.executeQuery(
+                    "SELECT id, room_id, check_in_date, check_out_date, reservation_status FROM reservations WHERE id >= "
+                            + firstReservationId)) {
+                while (result.next()) {
+                    rows.put(result.getLong(1), new Row(new OperationLog.Stay(result.getLong(2),
+                            result.getDate(3).toLocalDate(), result.getDate(4).toLocalDate()), result.getString(5)));
+                }
+            }
+
+            Set<Long> acknowledged = new HashSet<>(log.getCreated());
+            for (Long id : acknowledged) {
+                Row row = rows.get(id);
+                if (row == null) {
+                    violations.add("lost reservation: #" + id + " was acknowledged but is not in the database");
+                    continue;
+                }
+                boolean cancelled = row.status.equals("CANCELLED");
+                if (log.isCancelled(id) && !cancelled) {
+                    violations.add("lost cancellation: #" + id + " was acknowledged as cancelled but is " + row.status);
+                } else if (!log.isCancelled(id) && cancelled) {
+                    violations.add("unacknowledged cancellation: #" + id + " is cancelled but no cancel succeeded");
+                }
+                List<OperationLog.Stay> versions = log.getVersions(id);
+                if (!versions.contains(row.stay)) {
+                    violations.add("lost update: #" + id + " is at " + row.stay + ", acknowledged stays were " + versions);
+                }
+            }
+            for (Long id : rows.keySet()) {
+                if (!acknowledged.contains(id)) {
+                    violations.add("phantom reservation: #" + id + " is in the database but was never acknowledged");
+                }
+            }
+        }
+        return violations;
+    }
+
+    private static final class Row {
+        private final OperationLog.Stay stay;
+        private final String status;
+
+        private Row(OperationLog.Stay stay, String status) {
+            this.stay = stay;
+            this.status = status;
+        }
+    }
+}
@@ -0,0 +1,343 @@
+package com.cottage.reservation.performance.stress;
+
+import com.cottage.reservation.bulk.ImportRow;
+import com.cottage.reservation.dto.ImportReport;
+import com.cottage.reservation.dto.ReservationRequest;
+import com.cottage.reservation.entity.Reservation;
+import com.cottage.reservation.entity.User;
+import com.cottage.reservation.exception.DomainException;
+import com.cottage.reservation.exception.ReservationConflictException;
+import com.cottage.reservation.performance.BenchmarkSupport;
+import com.cottage.reservation.performance.SmtpStub;
+import com.cottage.reservation.repository.RoomRepository;
+import com.cottage.reservation.repository.UserRepository;
+import com.cottage.reservation.service.AvailabilityProjector;
+import com.cottage.reservation.service.ReservationImportService;
+import com.cottage.reservation.service.ReservationService;
+import org.h2.tools.Server;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrency stress test of the booking engine: two application instances share one database (an H2
+ * server, or the one given with --spring.datasource.url), and worker threads on both fire overlapping createReservation, updateReservation,
+ * cancelReservation and small bulk imports at a few hot rooms within a short window of dates. Afterwards the
+ * database is checked against what the services acknowledged (see {@link BookingInvariants}).
+ * <p>
+ * Prints throughput and outcomes per operation, then the violations; exits with status 1 if there
+ * are any, so it can gate a change to the booking path.
+ * <pre>
+ * mvn -q compile exec:java -Dexec.mainClass=com.cottage.reservation.performance.stress.BookingStressTest
+ *     -Dexec.args="--operations=5000 --threads=8 --rooms=2 --window-days=30"
+ * </pre>
+ * Against MySQL, also pass the driver and dialect (see the README); the schema is created and dropped by the run.
+ */
+public class BookingStressTest {
+
+    private enum Operation { CREATE, IMPORT, UPDATE, CANCEL }
+
+    public static void main(String[] args) throws Exception {
+        int operations = BenchmarkSupport.intOption(args, "operations", 5_000);
+        int threads = BenchmarkSupport.intOption(args, "threads", 8);
+        int rooms = BenchmarkSupport.intOption(args, "rooms", 2);
+        int windowDays = BenchmarkSupport.intOption(args, "window-days", 30);
+        int users = BenchmarkSupport.intOption(args, "users", 50);
+
+        boolean failed = false;
+        Server server = BenchmarkSupport.option(args, "spring.datasource.url") == null ? BenchmarkSupport.startH2Server() : null;
+        try (SmtpStub smtp = new SmtpStub(0)) {
+            String[] applicationArgs = smtp.withMailArguments(args);
+            if (server != null) {
+                // Lock waits can be long when every worker targets the same rooms
+                applicationArgs = BenchmarkSupport.withArgument(applicationArgs, "--spring.datasource.url="
+                        + BenchmarkSupport.h2ServerUrl(server, "stress") + ";LOCK_TIMEOUT=10000");
+            }
+            applicationArgs = BenchmarkSupport.withArgument(applicationArgs, "--app.journal.enabled=false");
+            ConfigurableApplicationContext first = BenchmarkSupport.startApplication(applicationArgs);
+            // The first instance created the schema and rooms; the second must not drop or reseed them
+            ConfigurableApplicationContext second = BenchmarkSupport.startApplication(
+                    BenchmarkSupport.withArgument(applicationArgs, "--spring.jpa.hibernate.ddl-auto=none"));
+            try {
+                List<Long> userIds = new ArrayList<>();
+                UserRepository userRepository = first.getBean(UserRepository.class);
+                for (int i = 0; i < users; i++) {
+                    userIds.add(userRepository.save(new User("stress_" + i, "stress_" + i + "@example.com",
+                            "not-a-real-hash", "Stress", "Guest")).getId());
+                }
+                List<Long> roomIds = first.getBean(RoomRepository.class).findAll().stream()
+                        .map(room -> room.getId()).sorted().limit(rooms).toList();
+                DataSource dataSource = first.getBean(DataSource.class);
+                long firstReservationId = maxReservationId(dataSource) + 1;
+
+                OperationLog log = new OperationLog();
+                Stats stats = new Stats();
+                Worker worker = new Worker(log, stats, userIds, roomIds, windowDays, new AtomicInteger(operations));
+                Instance[] instances = {new Instance(first), new Instance(second)};
+
+                CountDownLatch done = new CountDownLatch(threads * instances.length);
+                long start = System.nanoTime();
+                for (int i = 0; i < threads * instances.length; i++) {
+                    Instance instance = instances[i % instances.length];
+                    Thread thread = new Thread(() -> {
+                        try {
+                            worker.run(instance);
+                        } finally {
+                            done.countDown();
+                        }
+                    }, "stress-" + i);
+                    thread.start();
+                }
+                done.await();
+                double seconds = (System.nanoTime() - start) / 1e9;
+                // Projections run after commit; let both instances finish before checking or dropping the schema
+                awaitProjections(first, second);
+
+                stats.print(operations, threads, instances.length, roomIds.size(), windowDays, seconds);
+                List<String> violations;
+                try (Connection connection = dataSource.getConnection()) {
+                    violations = BookingInvariants.check(connection, log, firstReservationId);
+                }
+                System.out.printf("Checked %,d acknowledged reservations: %d violations%n", log.getCreated().size(), violations.size());
+                violations.stream().limit(50).forEach(violation -> System.out.println("  " + violation));
+                if (!violations.isEmpty()) {
+                    System.out.println("FAILED");
+                    failed = true;
+                }
+            } finally {
+                second.close();
+                first.close();
+            }
+        } finally {
+            if (server != null) {
+                server.stop();
+            }
+        }
+        if (failed) {
+            System.exit(1);
+        }
+    }
+
+    private static void awaitProjections(ConfigurableApplicationContext... contexts) throws InterruptedException {
+        long deadline = System.nanoTime() + 60_000_000_000L;
+        for (ConfigurableApplicationContext context : contexts) {
+            AvailabilityProjector projector = context.getBean(AvailabilityProjector.class);
+            while (projector.getQueuedEvents() > 0 && System.nanoTime() < deadline) {
+                Thread.sleep(50);
+            }
+        }
+    }
+
+    private static long maxReservationId(DataSource dataSource) throws Exception {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM reservations")) {
+            result.next();
+            return result.getLong(1);
+        }
+    }
+
+    private static final class Instance {
+        private final ReservationService reservationService;
+        private final ReservationImportService importService;
+        private final DataSource dataSource;
+
+        private Instance(ConfigurableApplicationContext context) {
+            this.reservationService = context.getBean(ReservationService.class);
+            this.importService = context.getBean(ReservationImportService.class);
+            this.dataSource = context.getBean(DataSource.class);
+        }
+    }
+
+    private static final class Worker {
+        private final AtomicLong importRows = new AtomicLong();
+        private final OperationLog log;
+        private final Stats stats;
+        private final List<Long> userIds;
+        private final List<Long> roomIds;
+        private final int windowDays;
+        private final AtomicInteger remaining;
+
+        private Worker(OperationLog log, Stats stats, List<Long> userIds, List<Long> roomIds, int windowDays,
+                       AtomicInteger remaining) {
+            this.log = log;
+            this.stats = stats;
+            this.userIds = userIds;
+            this.roomIds = roomIds;
+            this.windowDays = windowDays;
+            this.remaining = remaining;
+        }
+
+        private void run(Instance instance) {
+            ReservationService service = instance.reservationService;
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            while (remaining.getAndDecrement() > 0) {
+                List<Long> created = log.getCreated();
+                int draw = random.nextInt(5);
+                // Mostly new bookings; updates and cancellations need something to act on
+                Operation operation = draw == 0 ? Operation.IMPORT
+                        : draw < 3 || created.isEmpty() ? Operation.CREATE
+                        : draw == 3 ? Operation.UPDATE : Operation.CANCEL;
+                long started = System.nanoTime();
+                String outcome;
+                try {
+                    outcome = "ok";
+                    switch (operation) {
+                        case CREATE: {
+                            long userId = userIds.get(random.nextInt(userIds.size()));
+                            ReservationRequest request = randomRequest(random);
+                            Reservation reservation = service.createReservation(request, userId);
+                            log.created(reservation.getId(), userId, stay(request));
+                            break;
+                        }
+                        case IMPORT: {
+                            outcome = importRows(instance, random);
+                            break;
+                        }
+                        case UPDATE: {
+                            long id = pick(created, random);
+                            ReservationRequest request = randomRequest(random);
+                            service.updateReservation(id, request, log.getOwner(id));
+                            log.updated(id, stay(request));
+                            break;
+                        }
+                        default: {
+                            long id = pick(created, random);
+                            service.cancelReservation(id, log.getOwner(id));
+                            log.cancelled(id);
+                            break;
+                        }
+                    }
+                } catch (ReservationConflictException e) {
+                    outcome = "conflict";
+                } catch (DomainException e) {
+                    outcome = "rejected";
+                } catch (RuntimeException e) {
+                    outcome = "error " + e.getClass().getSimpleName();
+                }
+                stats.record(operation, outcome, System.nanoTime() - started);
+            }
+        }
+
+        /**
+         * Imports one to three random stays for one user, which may collide with each other as well as with
+         * concurrent bookings, and logs the rows the report did not reject as acknowledged reservations.
+         */
+        private String importRows(Instance instance, ThreadLocalRandom random) {
+            long userId = userIds.get(random.nextInt(userIds.size()));
+            List<ImportRow> rows = new ArrayList<>();
+            int count = 1 + random.nextInt(3);
+            for (int line = 2; line < count + 2; line++) {
+                ReservationRequest request = randomRequest(random);
+                ImportRow row = new ImportRow(line);
+                row.setRoomId(request.getRoomId());
+                row.setCheckInDate(request.getCheckInDate());
+                row.setCheckOutDate(request.getCheckOutDate());
+                row.setNumberOfGuests(request.getNumberOfGuests());
+                // Marks the row so the reservation it became can be found afterwards
+                row.setNotes("stress-import-" + importRows.incrementAndGet());
+                rows.add(row);
+            }
+
+            ImportReport report = instance.importService.importReservations(rows.iterator(), "stress", userId, false);
+            Set<Long> rejectedLines = new HashSet<>();
+            report.getErrors().forEach(error -> rejectedLines.add(error.getLine()));
+            for (ImportRow row : rows) {
+                if (!rejectedLines.contains(row.getLineNumber())) {
+                    log.created(findByNotes(instance.dataSource, row.getNotes()), userId,
+                            new OperationLog.Stay(row.getRoomId(), row.getCheckInDate(), row.getCheckOutDate()));
+                }
+            }
+            return report.getImported() == rows.size() ? "ok" : report.getImported() == 0 ? "conflict" : "partial";
+        }
+
+        private static long findByNotes(DataSource dataSource, String notes) {
+            try (Connection connection = dataSource.getConnection();
+                 PreparedStatement statement = connection.prepareStatement("SELECT id FROM reservations WHERE notes = ?")) {
+                statement.setString(1, notes);
+                try (ResultSet result = statement.executeQuery()) {
+                    if (!result.next()) {
+                        throw new IllegalStateException("Imported reservation '" + notes + "' not found");
+                    }
+                    return result.getLong(1);
+                }
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        /**
+         * A random acknowledged reservation, preferring ones not yet cancelled so that most updates and
+         * cancellations race with live bookings; cancelled ones are still picked now and then.
+         */
+        private long pick(List<Long> created, ThreadLocalRandom random) {
+            long id = created.get(random.nextInt(created.size()));
+            for (int attempt = 0; attempt < 3 && log.isCancelled(id); attempt++) {
+                id = created.get(random.nextInt(created.size()));
+            }
+            return id;
+        }
+
+        private ReservationRequest randomRequest(ThreadLocalRandom random) {
+            LocalDate checkIn = LocalDate.now().plusDays(1 + random.nextInt(windowDays));
+            ReservationRequest request = new ReservationRequest(roomIds.get(random.nextInt(roomIds.size())),
+                    checkIn, checkIn.plusDays(1 + random.nextInt(4)), 1);
+            return request;
+        }
+
+        private static OperationLog.Stay stay(ReservationRequest request) {
+            return new OperationLog.Stay(request.getRoomId(), request.getCheckInDate(), request.getCheckOutDate());
+        }
+    }
+
+    private static final class Stats {
+        private final Map<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+        private final Map<Operation, LongAdder> nanos = new ConcurrentHashMap<>();
+        private final Map<Operation, LongAdder> counts = new ConcurrentHashMap<>();
+
+        private void record(Operation operation, String outcome, long elapsedNanos) {
+            outcomes.computeIfAbsent(operation + " " + outcome, key -> new LongAdder()).increment();
+            nanos.computeIfAbsent(operation, key -> new LongAdder()).add(elapsedNanos);
+            counts.computeIfAbsent(operation, key -> new LongAdder()).increment();
+        }
+
+        private void print(int operations, int threads, int instances, int rooms, int windowDays, double seconds) {
+            System.out.printf("%,d operations from %d threads on each of %d instances, %d rooms over %d days: "
+                    + "%.1f s, %,.0f operations/s%n", operations, threads, instances, rooms, windowDays, seconds, operations / seconds);
+            System.out.println("| Operation | Count | Mean ms | Outcomes |");
+            System.out.println("|---|---|---|---|");
+            for (Operation operation : Operation.values()) {
+                long count = counts.getOrDefault(operation, new LongAdder()).sum();
+                if (count == 0) {
+                    continue;
+                }
+                Map<String, Long> byOutcome = new TreeMap<>();
+                outcomes.forEach((key, value) -> {
+                    if (key.startsWith(operation + " ")) {
+                        byOutcome.put(key.substring(operation.name().length() + 1), value.sum());
+                    }
+                });
+                System.out.printf("| %s | %,d | %.1f | %s |%n", operation.name().toLowerCase(), count,
+                        nanos.get(operation).sum() / 1e6 / count, byOutcome.toString().replaceAll("[{}]", "").replace("=", " "));
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.cottage.reservation.performance.stress;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * What the booking engine acknowledged during a stress run: reservations it created, the stays it
+ * reported updating each one to, and the cancellations it reported. {@link BookingInvariants}
+ * checks the database against it.
+ */
+public final class OperationLog {
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final List<Long> created = new CopyOnWriteArrayList<>();
+
+    public void created(long reservationId, long userId, Stay stay) {
+        Entry entry = new Entry(userId);
+        entry.versions.add(stay);
+        entries.put(reservationId, entry);
+        created.add(reservationId);
+    }
+
+    public void updated(long reservationId, Stay stay) {
+        Entry entry = entries.get(reservationId);
+        synchronized (entry) {
+            entry.versions.add(stay);
+        }
+    }
+
+    public void cancelled(long reservationId) {
+        entries.get(reservationId).cancelled = true;
+    }
+
+    /**
+     * The reservations created so far, in acknowledgement order.
+     */
+    public List<Long> getCreated() {
+        return created;
+    }
+
+    public long getOwner(long reservationId) {
+        return entries.get(reservationId).userId;
+    }
+
+    public boolean isCancelled(long reservationId) {
+        return entries.get(reservationId).cancelled;
+    }
+
+    /**
+     * Every stay the reservation was acknowledged at, starting with the one it was created with.
+     */
+    public List<Stay> getVersions(long reservationId) {
+        Entry entry = entries.get(reservationId);
+        synchronized (entry) {
+            return new ArrayList<>(entry.versions);
+        }
+    }
+
+    public static final class Stay {
+        private final long roomId;
+        private final LocalDate checkIn;
+        private final LocalDate checkOut;
+
+        public Stay(long roomId, LocalDate checkIn, LocalDate checkOut) {
+            this.roomId = roomId;
+            this.checkIn = checkIn;
+            this.checkOut = checkOut;
+        }
+
+        public long getRoomId() {
+            return roomId;
+        }
+
+        public LocalDate getCheckIn() {
+            return checkIn;
+        }
+
+        public LocalDate getCheckOut() {
+            return checkOut;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Stay)) {
+                return false;
+            }
+            Stay stay = (Stay) other;
+            return roomId == stay.roomId && checkIn.equals(stay.checkIn) && checkOut.equals(stay.checkOut);
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(roomId) * 31 + checkIn.hashCode() * 17 + checkOut.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return "room " + roomId + " " + checkIn + ".." + checkOut;
+        }
+    }
+
+    private static final class Entry {
+        private final long userId;
+        private final List<Stay> versions = new ArrayList<>();
+        private volatile boolean cancelled;
+
+        private Entry(long userId) {
+            this.userId = userId;
+        }
+    }
+}